@@ -18,6 +18,7 @@ val mainClass = "cinnamon.Cinnamon"
 val lwjglVersion = "3.4.2"
 val jomlVersion = "1.10.9"
 val gsonVersion = "2.14.0"
+val jmhVersion = "1.37"
 
 val lwjglModules = arrayOf(
     "lwjgl",
@@ -70,6 +71,17 @@ repositories {
     maven("https://jitpack.io")
 }
 
+//benchmarks and headless checks, never packaged
+sourceSets {
+    create("benchmark") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+configurations["benchmarkImplementation"].extendsFrom(configurations.implementation.get())
+configurations["benchmarkRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     //lwjgl
     val lwjglNatives = "natives-$os"
@@ -86,6 +98,10 @@ dependencies {
     //extra libraries
     api("org.joml:joml:$jomlVersion")
     api("com.google.code.gson:gson:$gsonVersion")
+
+    //benchmarks
+    "benchmarkImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "benchmarkAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
 }
 
 tasks.withType<JavaExec> {
@@ -96,6 +112,26 @@ tasks.withType<JavaExec> {
     )
 }
 
+tasks.register<JavaExec>("jmh") {
+    description = "Runs the JMH benchmarks, JMH arguments go in -Pjmh=\"...\""
+    group = "benchmark"
+    classpath = sourceSets["benchmark"].runtimeClasspath
+    this.mainClass.set("org.openjdk.jmh.Main")
+
+    val jmhArgs = providers.gradleProperty("jmh")
+    argumentProviders.add(CommandLineArgumentProvider { jmhArgs.orNull?.split(" ") ?: emptyList() })
+}
+
+tasks.register<JavaExec>("harness") {
+    description = "Runs a headless harness from the benchmark source set, picked with -Pharness=<class> and -PharnessArgs=\"...\""
+    group = "benchmark"
+    classpath = sourceSets["benchmark"].runtimeClasspath
+    this.mainClass.set(providers.gradleProperty("harness").map { "cinnamon.benchmark.$it" })
+
+    val harnessArgs = providers.gradleProperty("harnessArgs")
+    argumentProviders.add(CommandLineArgumentProvider { harnessArgs.orNull?.split(" ") ?: emptyList() })
+}
+
 tasks.register<Jar>("sourcesJar") {
     description = "Generates a JAR containing the sources of this project"
     archiveClassifier.set("sources")
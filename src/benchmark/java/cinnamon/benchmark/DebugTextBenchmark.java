@@ -0,0 +1,122 @@
+package cinnamon.benchmark;
+
+import cinnamon.model.GeometryHelper;
+import cinnamon.render.MatrixStack;
+import cinnamon.render.batch.VertexConsumer;
+import cinnamon.text.Style;
+import cinnamon.text.Text;
+import cinnamon.utils.Resource;
+import cinnamon.utils.TextUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One frame of the open {@link cinnamon.gui.DebugScreen} tabs, a block of 46 colored lines with shadow, laid out and emitted into the main batch
+ * the text is rebuilt every frame like the screen does, with the counters and camera lines changing and the rest staying the same
+ * cached: the font layout caches are kept between frames, uncached: they are cleared before every frame, so the whole block is laid out again
+ * build alone only formats and parses the text, which is paid on every frame either way
+ * headless, the glyph atlas has no textures, and the batches are discarded instead of rendered
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DebugTextBenchmark {
+
+    private static final Style STYLE = Style.EMPTY.shadow(true).guiSkin(new Resource("data/gui_skins/debug.json"));
+
+    private static final String BLOCK = """
+            [&bjava&r]
+            java version &e17.0.12&r
+            mem &e%d&r%% &e%d MB&r/&e4096 MB&r
+            allocated &e38&r%% &e1562 MB&r
+
+            [&bproperties&r]
+            date &e12:45:%02d 2026-10-18&r
+            OS &eLinux&r
+            Mesa Intel(R) UHD Graphics 620 (KBL GT2)
+            LWJGL &e3.4.2+6&r
+            OpenGL &e4.6 (Core Profile) Mesa 24.0.5&r
+
+            [&bwindow&r]
+            &e1920&r x &e1080&r gui scale &e3.0&r fullscreen &eoff&r
+            vsync &eoff&r FPS limit &eunlimited&r @ &e60&rhz
+            ticks &e%d&r frames &e%d&r
+            uniform calls &e%d&r block updates &e%d&r
+            glyph atlas &e1&r sheets (&e256&r KB)
+
+            [&beffects&r]
+            post process &enone&r
+            3D anaglyph &eoff&r XR &eoff&r
+
+            [&bcamera&r]
+            x &c%.3f&r y &a%.3f&r z &b%.3f&r
+            pitch &e%.3f&r yaw &e%.3f&r roll &e0.000&r
+            forwards x &c%.3f&r y &a-0.120&r z &b%.3f&r
+            up x &c0.000&r y &a1.000&r z &b0.000&r
+            facing &enorth&r
+
+            [&bworld&r]
+            entities &e128&r terrain &e52340&r particles &e%d&r
+            lights &e50&r shadow casters &e1492&r
+            chunks &e441&r loaded &e441&r queued &e0&r
+            sky &eday&r time &e%d&r
+
+            [&bplayer&r]
+            health &e20.0&r/&e20.0&r
+            x &c%.3f&r y &a%.3f&r z &b%.3f&r
+            motion x &c%.3f&r y &a0.000&r z &b%.3f&r
+            on ground &etrue&r sprinting &efalse&r
+            selected &e3&r item &eflashlight&r
+
+            [&btarget&r]
+            terrain &ebox&r at &e12&r, &e0&r, &e-7&r
+            distance &e4.215&r face &eup&r""";
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private final MatrixStack matrices = new MatrixStack();
+    private int frame;
+
+    @Setup
+    public void setup() {
+        //load the skin and its fonts with the first pages
+        frame();
+    }
+
+    @TearDown(Level.Invocation)
+    public void discard() {
+        VertexConsumer.discardBatches();
+    }
+
+    @Benchmark
+    public int frame() {
+        if (!cached)
+            STYLE.getGuiSkin().getFont().clearLayouts();
+
+        //same as DebugScreen.renderContent
+        Text text = build();
+        float w = TextUtils.getWidth(text);
+        float h = TextUtils.getHeight(text);
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, 54, 24, 62 + w, 32 + h, 0x88000000);
+        text.render(VertexConsumer.MAIN, matrices, 58, 28);
+        return (int) w;
+    }
+
+    @Benchmark
+    public Text build() {
+        frame++;
+        float t = frame / 60f;
+        return TextUtils.parseColorFormatting(Text.of(BLOCK.formatted(
+                40 + frame % 7, 1600 + frame % 100, frame % 60,
+                frame / 3, frame, 180 + frame % 13, frame % 5,
+                Math.sin(t) * 20, 4f, Math.cos(t) * 20, -12.5f, t * 30 % 360, Math.sin(t), Math.cos(t),
+                900 + frame % 50, 6000 + frame / 3,
+                Math.sin(t) * 20, 2.4f, Math.cos(t) * 20, Math.cos(t) * 0.1, -Math.sin(t) * 0.1
+        ))).withStyle(STYLE);
+    }
+}
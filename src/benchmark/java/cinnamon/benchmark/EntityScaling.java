@@ -0,0 +1,100 @@
+package cinnamon.benchmark;
+
+import cinnamon.math.collision.Collider;
+import cinnamon.registry.EntityRegistry;
+import cinnamon.registry.TerrainRegistry;
+import cinnamon.world.entity.Entity;
+import cinnamon.world.entity.PhysEntity;
+import cinnamon.world.terrain.Terrain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Tick time of a world full of physics entities at a constant density, from 100 up to 20k of them
+ * each count runs with the entity grid, then with the linear scan the world did before it, up to a cap since that one is quadratic
+ * arguments: [ticks] [linear cap] [counts...]
+ */
+public class EntityScaling {
+
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int linearCap = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int[] counts = {100, 500, 1000, 2000, 5000, 10000, 20000};
+        if (args.length > 2) {
+            counts = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++)
+                counts[i - 2] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%8s %14s %14s%n", "entities", "grid ms/tick", "linear ms/tick");
+        for (int count : counts) {
+            double grid = run(new HeadlessWorld(), count, ticks);
+            double linear = count <= linearCap ? run(new LinearWorld(), count, ticks) : Double.NaN;
+            System.out.printf("%8d %14.3f %14s%n", count, grid, Double.isNaN(linear) ? "-" : String.format("%.3f", linear));
+        }
+    }
+
+    private static double run(HeadlessWorld world, int count, int ticks) {
+        Random random = new Random(7);
+
+        //about one entity per 4 square units, on a flat floor
+        int half = (int) Math.ceil(Math.sqrt(count * 4f) * 0.5f);
+        for (int x = -half; x < half; x++) {
+            for (int z = -half; z < half; z++) {
+                Terrain terrain = new Terrain(null, TerrainRegistry.BOX);
+                terrain.setPos(x, -1, z);
+                world.addTerrain(terrain);
+            }
+        }
+
+        List<Body> bodies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Body body = new Body(new UUID(random.nextLong(), random.nextLong()));
+            body.setPos(random.nextFloat() * half * 2f - half, random.nextFloat() * 2f, random.nextFloat() * half * 2f - half);
+            world.addEntity(body);
+            bodies.add(body);
+        }
+        world.flush();
+
+        //the first half only warms up
+        long start = 0;
+        for (int i = 0; i < ticks * 2; i++) {
+            if (i == ticks)
+                start = System.nanoTime();
+
+            //keep them bumping into each other
+            for (int j = 0; j < 4; j++)
+                bodies.get(random.nextInt(count)).setMotion(random.nextFloat() * 0.4f - 0.2f, 0f, random.nextFloat() * 0.4f - 0.2f);
+            world.tick();
+        }
+
+        return (System.nanoTime() - start) / 1e6 / ticks;
+    }
+
+    //scans every entity, as the world did before the grid
+    private static class LinearWorld extends HeadlessWorld {
+        @Override
+        public void getEntities(Collider<?> region, Consumer<Entity> consumer) {
+            for (Entity entity : entities.values()) {
+                if (region.intersects(entity.getAABB()))
+                    consumer.accept(entity);
+            }
+        }
+    }
+
+    private static class Body extends PhysEntity {
+
+        public Body(UUID uuid) {
+            super(uuid, null);
+        }
+
+        @Override
+        public EntityRegistry getType() {
+            return EntityRegistry.DUMMY;
+        }
+    }
+}
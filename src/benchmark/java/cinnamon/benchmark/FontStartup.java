@@ -0,0 +1,263 @@
+package cinnamon.benchmark;
+
+import cinnamon.render.Font;
+import cinnamon.render.GlyphAtlas;
+import cinnamon.render.GlyphCache;
+import cinnamon.utils.IOUtils;
+import cinnamon.utils.Resource;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTTPackContext;
+import org.lwjgl.stb.STBTTPackedchar;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static cinnamon.render.Font.*;
+import static org.lwjgl.stb.STBTruetype.*;
+import static org.lwjgl.system.MemoryUtil.*;
+
+/**
+ * Startup time and glyph texture memory of the fonts of the default gui skin, sharp and without oversampling, {@code size} pixels tall
+ * the textures need gl, so this runs the same stb packing as {@link Font} and the same row placement as {@link GlyphAtlas}, leaving the uploads out
+ * before: every covered unicode page is packed when the font loads, each into its own power of two texture
+ * after: only the missing glyph page is packed when the font loads, trimmed and placed in the shared atlas,
+ * then the basic latin page is loaded on the first text, either packed and written to the {@link GlyphCache} or read back from it
+ * the glyph cache is cleared before every cold run, and is written under the working directory, like the game does
+ * arguments: [runs] [size]
+ */
+public class FontStartup {
+
+    private static final Resource[] FONTS = {new Resource("fonts/minakaka.ttf"), new Resource("fonts/mayonnaise.ttf")};
+    private static final int OVERSAMPLE = 1;
+    private static float height;
+
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        height = args.length > 1 ? Float.parseFloat(args[1]) : 8f;
+
+        //the first half only warms up
+        long before = 0, after = 0, afterCached = 0, latin = 0, latinCached = 0;
+        long beforeBytes = 0, afterBytes = 0, latinBytes = 0;
+        int beforePages = 0, sheets = 0;
+
+        for (int run = 0; run < runs * 2; run++) {
+            boolean measured = run >= runs;
+
+            //before
+            long t0 = System.nanoTime();
+            long bytes = 0;
+            int pages = 0;
+            for (Resource res : FONTS) {
+                FontFile font = new FontFile(res);
+                bytes += font.pack(MISSING_GLYPH_CODEPOINT, EXTRA_GLYPH_SLOTS);
+                for (int pageStart = 0; pageStart <= UNICODE_MAX_CODEPOINT; pageStart += UNICODE_PAGE_SIZE) {
+                    if (font.hasGlyphs(pageStart)) {
+                        bytes += font.pack(pageStart, UNICODE_PAGE_SIZE);
+                        pages++;
+                    }
+                }
+                font.free();
+            }
+            long t1 = System.nanoTime();
+
+            //after, with an empty and with a filled glyph cache
+            GlyphCache.clear();
+            Atlas cold = new Atlas();
+            long[] times = new long[4];
+            load(cold, times, 0);
+            long coldBytes = cold.bytes();
+            load(cold, times, 2);
+
+            Atlas cached = new Atlas();
+            long[] cachedTimes = new long[4];
+            load(cached, cachedTimes, 0);
+            load(cached, cachedTimes, 2);
+
+            if (measured) {
+                before += t1 - t0;
+                after += times[1] - times[0];
+                latin += times[3] - times[2];
+                afterCached += cachedTimes[1] - cachedTimes[0];
+                latinCached += cachedTimes[3] - cachedTimes[2];
+                beforeBytes = bytes;
+                beforePages = pages;
+                afterBytes = coldBytes;
+                latinBytes = cold.bytes();
+                sheets = cold.sheets.size();
+            }
+        }
+
+        System.out.printf("%d fonts at %.0fpx, %d covered unicode pages, %d runs%n", FONTS.length, height, beforePages, runs);
+        System.out.printf("before:              startup %8.3f ms, %7d KB in %d textures%n", before / 1e6 / runs, beforeBytes / 1024, beforePages + FONTS.length);
+        System.out.printf("after, cold cache:   startup %8.3f ms, first latin text %8.3f ms, %7d KB of atlas, %d KB in %d sheets with the latin page%n", after / 1e6 / runs, latin / 1e6 / runs, afterBytes / 1024, latinBytes / 1024, sheets);
+        System.out.printf("after, cached pages: startup %8.3f ms, first latin text %8.3f ms%n", afterCached / 1e6 / runs, latinCached / 1e6 / runs);
+    }
+
+    //step 0 loads the fonts with their missing glyph page, step 2 loads the basic latin page on the first text
+    private static void load(Atlas atlas, long[] times, int step) {
+        times[step] = System.nanoTime();
+        for (Resource res : FONTS) {
+            FontFile font = new FontFile(res);
+            if (step == 0)
+                font.load(atlas, MISSING_GLYPH_CODEPOINT, EXTRA_GLYPH_SLOTS);
+            else if (font.hasGlyphs(0))
+                font.load(atlas, 0, UNICODE_PAGE_SIZE);
+            font.free();
+        }
+        times[step + 1] = System.nanoTime();
+    }
+
+    private static class FontFile {
+        private final ByteBuffer ttf;
+        private final STBTTFontinfo info = STBTTFontinfo.malloc();
+        private final String cacheKey;
+
+        private FontFile(Resource res) {
+            ByteBuffer buffer = IOUtils.getResourceBuffer(res);
+            this.ttf = memAlloc(buffer.capacity()).put(buffer).flip();
+            stbtt_InitFont(info, ttf);
+
+            CRC32 crc = new CRC32();
+            crc.update(ttf.duplicate());
+            this.cacheKey = GlyphCache.getKey(crc.getValue(), height, OVERSAMPLE, false);
+        }
+
+        private boolean hasGlyphs(int pageStart) {
+            for (int codepoint = pageStart; codepoint < pageStart + UNICODE_PAGE_SIZE; codepoint++) {
+                if (stbtt_FindGlyphIndex(info, codepoint) != 0)
+                    return true;
+            }
+            return false;
+        }
+
+        //same as Font.loadGlyphPage
+        private void load(Atlas atlas, int startCodepoint, int numChars) {
+            GlyphCache.Page page = GlyphCache.read(cacheKey, startCodepoint, numChars);
+            if (page == null) {
+                STBTTPackedchar.Buffer charData = STBTTPackedchar.malloc(numChars);
+                page = packPage(startCodepoint, charData, true);
+                GlyphCache.write(cacheKey, startCodepoint, page);
+            }
+
+            atlas.add(page.width(), page.height());
+            memFree(page.bitmap());
+            page.charData().free();
+        }
+
+        //the old per page texture, returns its size in bytes
+        private long pack(int startCodepoint, int numChars) {
+            STBTTPackedchar.Buffer charData = STBTTPackedchar.malloc(numChars);
+            GlyphCache.Page page = packPage(startCodepoint, charData, false);
+            memFree(page.bitmap());
+            charData.free();
+            return (long) page.width() * page.height();
+        }
+
+        //same as Font.packGlyphPage, the old code did not trim the bitmap
+        private GlyphCache.Page packPage(int startCodepoint, STBTTPackedchar.Buffer charData, boolean trim) {
+            for (int texSize = MIN_SIZE; texSize <= MAX_SIZE; texSize *= 2) {
+                try (STBTTPackContext spc = STBTTPackContext.malloc()) {
+                    ByteBuffer bitmap = memAlloc(texSize * texSize);
+                    stbtt_PackBegin(spc, bitmap, texSize, texSize, 0, 1, NULL);
+                    stbtt_PackSetOversampling(spc, OVERSAMPLE, OVERSAMPLE);
+
+                    if (!stbtt_PackFontRange(spc, ttf, 0, height, startCodepoint, charData)) {
+                        stbtt_PackEnd(spc);
+                        memFree(bitmap);
+                        continue;
+                    }
+
+                    stbtt_PackEnd(spc);
+
+                    int w = texSize, h = texSize;
+                    if (trim) {
+                        w = 1; h = 1;
+                        for (STBTTPackedchar c : charData) {
+                            w = Math.max(w, c.x1() & 0xFFFF);
+                            h = Math.max(h, c.y1() & 0xFFFF);
+                        }
+
+                        ByteBuffer trimmed = memAlloc(w * h);
+                        for (int y = 0; y < h; y++)
+                            memCopy(memAddress(bitmap) + (long) y * texSize, memAddress(trimmed) + (long) y * w, w);
+                        memFree(bitmap);
+                        bitmap = trimmed;
+                    }
+
+                    for (int i = 0; i < w * h; i++) {
+                        int alpha = bitmap.get(i) & 0xFF;
+                        bitmap.put(i, (byte) (alpha > 0 ? 255 : 0));
+                    }
+
+                    return new GlyphCache.Page(w, h, bitmap, charData);
+                }
+            }
+
+            throw new IllegalStateException("Failed to pack glyph page U+%04X".formatted(startCodepoint));
+        }
+
+        private void free() {
+            info.free();
+            memFree(ttf);
+        }
+    }
+
+    //same rows as GlyphAtlas, without the textures
+    private static class Atlas {
+        private final List<Sheet> sheets = new ArrayList<>();
+
+        private void add(int width, int height) {
+            int w = width + 1, h = height + 1;
+            for (Sheet sheet : sheets) {
+                if (sheet.allocate(w, h))
+                    return;
+            }
+
+            int size = GlyphAtlas.SHEET_SIZE;
+            while (size < w || size < h)
+                size *= 2;
+
+            Sheet sheet = new Sheet(size);
+            sheets.add(sheet);
+            sheet.allocate(w, h);
+        }
+
+        private long bytes() {
+            long bytes = 0;
+            for (Sheet sheet : sheets)
+                bytes += (long) sheet.size * sheet.size;
+            return bytes;
+        }
+    }
+
+    private static class Sheet {
+        private final int size;
+        private final List<int[]> rows = new ArrayList<>();
+        private int nextY;
+
+        private Sheet(int size) {
+            this.size = size;
+        }
+
+        private boolean allocate(int w, int h) {
+            if (w > size)
+                return false;
+
+            for (int[] row : rows) {
+                if (h <= row[1] && h * 2 >= row[1] && row[2] + w <= size) {
+                    row[2] += w;
+                    return true;
+                }
+            }
+
+            if (nextY + h > size)
+                return false;
+
+            rows.add(new int[]{nextY, h, w});
+            nextY += h;
+            return true;
+        }
+    }
+}
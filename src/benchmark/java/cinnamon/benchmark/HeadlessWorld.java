@@ -0,0 +1,22 @@
+package cinnamon.benchmark;
+
+import cinnamon.world.world.World;
+
+/**
+ * A world with nothing to load or render, for the harnesses
+ */
+class HeadlessWorld extends World {
+
+    @Override
+    public void init() {}
+
+    @Override
+    public void close() {}
+
+    /**
+     * Applies the queued entity and terrain additions, without ticking anything
+     */
+    public void flush() {
+        runScheduledTicks();
+    }
+}
@@ -0,0 +1,285 @@
+package cinnamon.benchmark;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.networking.Frame;
+import cinnamon.networking.interest.InterestConfig;
+import cinnamon.networking.interest.InterestListener;
+import cinnamon.networking.interest.InterestManager;
+import cinnamon.networking.packet.AddEntity;
+import cinnamon.networking.packet.Packet;
+import cinnamon.networking.packet.RemoveEntity;
+import cinnamon.networking.packet.SendTerrain;
+import cinnamon.networking.packet.UnloadTerrain;
+import cinnamon.networking.snapshot.BitReader;
+import cinnamon.networking.snapshot.Snapshot;
+import cinnamon.networking.snapshot.SnapshotClient;
+import cinnamon.networking.snapshot.SnapshotConfig;
+import cinnamon.networking.snapshot.SnapshotServer;
+import cinnamon.registry.EntityRegistry;
+import cinnamon.registry.TerrainRegistry;
+import cinnamon.world.entity.Entity;
+import cinnamon.world.terrain.Terrain;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Headless clients walking randomly through a world of moving entities and terrain, each with its own area of interest
+ * every client decodes and acks its snapshots, and the tracked entities are checked against the radius every tick
+ * reports the bandwidth per kind of packet, against sending every entity to every client, and the server time spent
+ * arguments: [clients] [ticks] [update budget]
+ */
+public class InterestLoad {
+
+    private static final int TICK_RATE = 20;
+    private static final int ENTITIES = 2000, TERRAIN = 20000;
+    private static final float AREA = 1024f;
+
+    private static final String[] KINDS = {"enter", "leave", "terrain", "unload", "snapshot"};
+    private static final long[] bytes = new long[KINDS.length], packets = new long[KINDS.length];
+    private static final ByteBuffer SCRATCH = ByteBuffer.allocate(1 << 22);
+
+    public static void main(String[] args) {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        InterestConfig d = InterestConfig.DEFAULT;
+        int budget = args.length > 2 ? Integer.parseInt(args[2]) : d.updatesPerTick();
+        InterestConfig config = new InterestConfig(d.entityRadius(), d.terrainRadius(), d.margin(), d.cellSize(), budget, d.cellsPerTick(), d.refreshInterval());
+
+        Random random = new Random(7);
+        HeadlessWorld world = new HeadlessWorld();
+
+        //the npcs first, then one viewer per client
+        List<Entity> entities = new ArrayList<>();
+        List<Vector3f> velocities = new ArrayList<>();
+        for (int i = 0; i < ENTITIES + clientCount; i++) {
+            Entity entity = new Dummy(new UUID(random.nextLong(), random.nextLong()));
+            entity.setPos(random.nextFloat() * AREA - AREA / 2f, 0f, random.nextFloat() * AREA - AREA / 2f);
+            world.addEntity(entity);
+            entities.add(entity);
+            velocities.add(new Vector3f());
+        }
+
+        for (int i = 0; i < TERRAIN; i++) {
+            Terrain terrain = new Terrain(null, TerrainRegistry.BOX);
+            terrain.setPos((float) Math.floor(random.nextFloat() * AREA - AREA / 2f), 0f, (float) Math.floor(random.nextFloat() * AREA - AREA / 2f));
+            world.addTerrain(terrain);
+        }
+        world.flush();
+
+        //what each client was told it tracks
+        Map<Integer, Set<UUID>> tracked = new HashMap<>();
+        InterestManager interest = new InterestManager(world, config, new InterestListener() {
+            @Override
+            public void entityEntered(int client, Entity entity) {
+                count(0, new AddEntity().entity(entity));
+                if (!tracked.get(client).add(entity.getUUID()))
+                    fail("entity entered twice");
+            }
+
+            @Override
+            public void entityLeft(int client, UUID uuid) {
+                count(1, new RemoveEntity().uuid(uuid));
+                if (!tracked.get(client).remove(uuid))
+                    fail("untracked entity left");
+            }
+
+            @Override
+            public void terrainEntered(int client, AABB cell, List<Terrain> terrain) {
+                count(2, new SendTerrain().terrain(terrain));
+            }
+
+            @Override
+            public void terrainLeft(int client, AABB cell) {
+                count(3, new UnloadTerrain().region(cell));
+            }
+        });
+
+        SnapshotServer snapshots = new SnapshotServer();
+        SnapshotClient[] clients = new SnapshotClient[clientCount];
+        int[] acks = new int[clientCount];
+        for (int c = 0; c < clientCount; c++) {
+            interest.addClient(c, entities.get(ENTITIES + c));
+            clients[c] = new SnapshotClient();
+            tracked.put(c, new HashSet<>());
+            acks[c] = -1;
+        }
+
+        //without interest, every client gets the delta of every entity
+        SnapshotServer everything = new SnapshotServer();
+        long everythingBytes = 0;
+
+        long interestTime = 0, selectTime = 0, trackedSum = 0, stale = 0, updated = 0;
+        int maxTracked = 0;
+
+        for (int tick = 0; tick < ticks; tick++) {
+            walk(entities, velocities, random);
+
+            long start = System.nanoTime();
+            interest.tick();
+            long ticked = System.nanoTime();
+            interestTime += ticked - start;
+
+            Snapshot snapshot = snapshots.capture(entities);
+            for (int c = 0; c < clientCount; c++) {
+                //acked one tick late
+                if (acks[c] >= 0)
+                    snapshots.acknowledge(c, acks[c]);
+
+                Snapshot selected = interest.select(c, snapshot, snapshots);
+                Snapshot decoded = decode(clients[c], snapshots.createPacket(c, selected));
+                acks[c] = selected.tick;
+
+                //the client got exactly what was selected, and tracks exactly what it was told
+                if (decoded == null || decoded.size() != selected.size())
+                    fail("snapshot was not decoded");
+                for (int i = 0; i < selected.size(); i++) {
+                    if (decoded.getID(i) != selected.getID(i) || !decoded.sameTransform(i, selected, i))
+                        fail("decoded snapshot does not match");
+                }
+                if (selected.size() != tracked.get(c).size())
+                    fail("snapshot has " + selected.size() + " entities, but " + tracked.get(c).size() + " are tracked");
+
+                //entities over the budget keep their last sent transform
+                for (int i = 0; i < selected.size(); i++) {
+                    if (selected.sameTransform(i, snapshot, snapshot.indexOf(selected.getID(i))))
+                        updated++;
+                    else
+                        stale++;
+                }
+                trackedSum += selected.size();
+                maxTracked = Math.max(maxTracked, selected.size());
+            }
+            selectTime += System.nanoTime() - ticked;
+
+            checkRadius(entities, tracked, config, clientCount, tick);
+
+            Snapshot all = everything.capture(entities);
+            for (int c = 0; c < clientCount; c++) {
+                if (tick > 0)
+                    everything.acknowledge(c, all.tick - 1);
+                everythingBytes += frameSize(everything.createPacket(c, all));
+            }
+        }
+
+        double seconds = ticks / (double) TICK_RATE;
+        long total = 0;
+        for (long b : bytes)
+            total += b;
+
+        System.out.printf("%d clients, %d entities, %d terrain, %d ticks, update budget %d%n", clientCount, entities.size(), TERRAIN, ticks, budget);
+        System.out.printf("tracked entities per client: avg %.1f, max %d, %.1f%% left stale by the budget%n", trackedSum / (double) (clientCount * ticks), maxTracked, 100.0 * stale / Math.max(stale + updated, 1));
+        for (int i = 0; i < KINDS.length; i++)
+            System.out.printf("  %-8s %8d packets %10.1f KB/s%n", KINDS[i], packets[i], bytes[i] / 1024.0 / seconds);
+        System.out.printf("with interest: %.1f KB/s, %.2f KB/s per client%n", total / 1024.0 / seconds, total / 1024.0 / seconds / clientCount);
+        System.out.printf("every entity to every client: %.1f KB/s, %.2f KB/s per client%n", everythingBytes / 1024.0 / seconds, everythingBytes / 1024.0 / seconds / clientCount);
+        System.out.printf("server time per tick: interest %.2f ms, select and encode %.2f ms%n", interestTime / 1e6 / ticks, selectTime / 1e6 / ticks);
+    }
+
+    private static void walk(List<Entity> entities, List<Vector3f> velocities, Random random) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            Vector3f velocity = velocities.get(i);
+
+            //the players move faster than the npcs
+            float speed = i < ENTITIES ? 0.15f : 0.5f;
+            velocity.add((random.nextFloat() - 0.5f) * 0.1f, 0f, (random.nextFloat() - 0.5f) * 0.1f);
+            if (velocity.length() > speed)
+                velocity.normalize(speed);
+
+            //bounce off the area borders
+            Vector3f pos = entity.getTransform().getPos();
+            float x = pos.x + velocity.x, z = pos.z + velocity.z;
+            if (Math.abs(x) > AREA / 2f) {
+                velocity.x = -velocity.x;
+                x = pos.x;
+            }
+            if (Math.abs(z) > AREA / 2f) {
+                velocity.z = -velocity.z;
+                z = pos.z;
+            }
+
+            entity.moveTo(x, 0f, z);
+            entity.rotateTo(new Quaternionf().rotateY((float) Math.atan2(velocity.x, velocity.z)));
+        }
+    }
+
+    private static void checkRadius(List<Entity> entities, Map<Integer, Set<UUID>> tracked, InterestConfig config, int clientCount, int tick) {
+        //new entities are only searched for every few ticks
+        boolean searched = tick >= config.refreshInterval();
+        float leave = config.entityRadius() + config.margin();
+
+        for (int c = 0; c < clientCount; c++) {
+            Entity viewer = entities.get(ENTITIES + c);
+            Vector3f pos = viewer.getTransform().getPos();
+            Set<UUID> set = tracked.get(c);
+
+            for (Entity entity : entities) {
+                if (entity == viewer)
+                    continue;
+
+                //a few units of slack for what moved since the last search
+                float distance = entity.getTransform().getPos().distance(pos);
+                boolean isTracked = set.contains(entity.getUUID());
+                if (searched && distance <= config.entityRadius() - 3f && !isTracked)
+                    fail("an entity within the radius is not tracked");
+                if (distance > leave && isTracked)
+                    fail("an entity past the leave radius is still tracked");
+            }
+        }
+    }
+
+    private static Snapshot decode(SnapshotClient client, Packet packet) {
+        //same as EntitySnapshot does with the received data
+        packet.write(SCRATCH.clear());
+        count(4, SCRATCH.position());
+        ByteBuffer data = SCRATCH.flip();
+
+        int tick = data.getInt();
+        int baseline = data.getInt();
+        SnapshotConfig config = new SnapshotConfig(data.get(), data.getFloat(), data.get());
+        return client.receive(tick, baseline, config, new BitReader(data));
+    }
+
+    private static int frameSize(Packet packet) {
+        packet.write(SCRATCH.clear());
+        //length prefix and packet id
+        return Frame.HEADER_SIZE + 1 + SCRATCH.position();
+    }
+
+    private static void count(int kind, Packet packet) {
+        packets[kind]++;
+        bytes[kind] += frameSize(packet);
+    }
+
+    private static void count(int kind, int written) {
+        packets[kind]++;
+        bytes[kind] += Frame.HEADER_SIZE + 1 + written;
+    }
+
+    private static void fail(String message) {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+
+    private static class Dummy extends Entity {
+
+        public Dummy(UUID uuid) {
+            super(uuid, null);
+        }
+
+        @Override
+        public EntityRegistry getType() {
+            return EntityRegistry.DUMMY;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package cinnamon.benchmark;
+
+import cinnamon.render.Camera;
+import cinnamon.render.LightClusters;
+import cinnamon.world.light.PointLight;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU binning of point lights into the {@link LightClusters} froxel grid, as done once per frame before the upload
+ * the lights are spread around the camera, most of them in front of it, with a few behind or past the far plane
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LightClustersBenchmark {
+
+    @Param({"1000", "10000"})
+    public int lights;
+
+    private final LightClusters clusters = new LightClusters();
+    private final Camera camera = new Camera();
+    private final List<PointLight> lightList = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        camera.updateProjMatrix(1920, 1080, 90f);
+        camera.useOrtho(false);
+        camera.setPos(0f, 4f, 0f);
+
+        Random random = new Random(13);
+        for (int i = 0; i < lights; i++) {
+            PointLight light = new PointLight();
+            light.pos(random.nextFloat() * 400f - 200f, random.nextFloat() * 20f, random.nextFloat() * -400f + 40f);
+            light.falloff(1f + random.nextFloat() * 8f);
+            lightList.add(light);
+        }
+    }
+
+    @Benchmark
+    public int bin() {
+        clusters.begin(camera.getViewMatrix(), camera.getProjectionMatrix());
+        for (PointLight light : lightList)
+            clusters.add(light);
+        clusters.build();
+        return clusters.getIndexCount();
+    }
+}
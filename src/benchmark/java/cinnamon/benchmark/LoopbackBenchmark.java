@@ -0,0 +1,138 @@
+package cinnamon.benchmark;
+
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.NetworkListener;
+import cinnamon.networking.packet.Packet;
+import cinnamon.networking.packet.RemoveEntity;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulated clients sending packets to a local server, which echoes them back over the same connection
+ * every client keeps a window of packets in flight, and reports the packets per second and the round trip latency
+ * arguments: [clients] [window] [seconds] [port]
+ */
+public class LoopbackBenchmark {
+
+    //latencies are counted in 10 us buckets, the last one takes everything over a second
+    private static final long BUCKET_NANOS = 10_000L;
+    private static final int BUCKETS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int window = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 39726;
+
+        NetServer server = new NetServer(new NetworkListener() {
+            @Override
+            public void received(Connection connection, Packet packet) {
+                connection.send(packet);
+            }
+        });
+        server.bind(port);
+
+        AtomicLong received = new AtomicLong();
+        Client[] clients = new Client[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            clients[i] = new Client(window, received);
+            clients[i].client.connect("localhost", port, 5000);
+        }
+
+        //let every connection settle before measuring
+        Thread.sleep(300);
+
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        for (Client client : clients)
+            client.start(deadline);
+
+        Thread.sleep(seconds * 1000L + 500);
+        long roundTrips = received.get();
+
+        //merge the latencies of every client
+        long[] histogram = new long[BUCKETS];
+        for (Client client : clients) {
+            synchronized (client) {
+                for (int i = 0; i < BUCKETS; i++)
+                    histogram[i] += client.histogram[i];
+            }
+        }
+
+        System.out.printf("%d clients, window %d, %d s%n", clientCount, window, seconds);
+        System.out.printf("%.0f round trips/s, %.0f packets/s through the server%n", roundTrips / (double) seconds, 2 * roundTrips / (double) seconds);
+        if (roundTrips > 0)
+            System.out.printf("latency p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms%n", percentile(histogram, 0.5), percentile(histogram, 0.99), percentile(histogram, 0.999));
+
+        for (Client client : clients)
+            client.client.close();
+        server.close();
+        System.exit(0);
+    }
+
+    private static double percentile(long[] histogram, double fraction) {
+        long total = 0;
+        for (long count : histogram)
+            total += count;
+
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target)
+                return (i + 1) * BUCKET_NANOS / 1e6;
+        }
+        return BUCKETS * BUCKET_NANOS / 1e6;
+    }
+
+    private static class Client implements NetworkListener {
+
+        private static final Packet PACKET = new RemoveEntity().uuid(new UUID(0L, 0L));
+
+        private final NetClient client;
+        private final AtomicLong received;
+
+        //the echoes come back in order, so the send times are a ring of the packets in flight
+        private final long[] sent;
+        private int head, tail;
+
+        private final long[] histogram = new long[BUCKETS];
+        private volatile long deadline;
+
+        private Client(int window, AtomicLong received) throws Exception {
+            this.client = new NetClient(this);
+            this.received = received;
+            this.sent = new long[window];
+        }
+
+        private void start(long deadline) {
+            this.deadline = deadline;
+            synchronized (this) {
+                for (int i = 0; i < sent.length; i++)
+                    send(System.nanoTime());
+            }
+        }
+
+        private void send(long now) {
+            sent[tail] = now;
+            tail = (tail + 1) % sent.length;
+            client.send(PACKET);
+        }
+
+        @Override
+        public void received(Connection connection, Packet packet) {
+            long now = System.nanoTime();
+            synchronized (this) {
+                histogram[(int) Math.min((now - sent[head]) / BUCKET_NANOS, BUCKETS - 1)]++;
+                head = (head + 1) % sent.length;
+                received.incrementAndGet();
+
+                if (now < deadline)
+                    send(now);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package cinnamon.benchmark;
+
+import cinnamon.render.MatrixStack;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Push, transform and pop throughput of the {@link MatrixStack}, nested like a model hierarchy
+ * run with {@code -prof gc} to see the allocations per operation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatrixStackBenchmark {
+
+    //how many poses are pushed before popping them all back
+    @Param({"2", "8"})
+    public int depth;
+
+    private final MatrixStack matrices = new MatrixStack();
+    private final Vector3f vec = new Vector3f();
+    private float angle;
+
+    @Benchmark
+    public float pushTransformPop() {
+        angle = (angle + 1f) % 360f;
+        float sum = 0f;
+
+        for (int i = 0; i < depth; i++) {
+            matrices.pushMatrix();
+            matrices.translate(1f, 2f, 3f);
+            matrices.rotateY(angle);
+            matrices.scale(1.01f);
+
+            //the renderers read the pose after each push
+            matrices.peek().pos().transformPosition(vec.set(1f, 1f, 1f));
+            sum += vec.x;
+        }
+
+        for (int i = 0; i < depth; i++)
+            matrices.popMatrix();
+
+        return sum;
+    }
+}
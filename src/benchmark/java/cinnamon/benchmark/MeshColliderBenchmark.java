@@ -0,0 +1,108 @@
+package cinnamon.benchmark;
+
+import cinnamon.math.collision.Hit;
+import cinnamon.math.collision.Ray;
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.math.collision.shape.MeshCollider;
+import cinnamon.math.collision.shape.Triangle;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ray and sweep queries against a bumpy height field mesh, through the BVH and through a scan of every triangle
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeshColliderBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int triangles;
+
+    private MeshCollider mesh;
+    private float size;
+
+    private final Random random = new Random(42);
+    private final Ray ray = new Ray(0f, 0f, 0f, 0f, -1f, 0f, 20f);
+    private final AABB box = new AABB();
+    private final Vector3f velocity = new Vector3f(), inverse = new Vector3f();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        //two triangles per grid quad
+        int side = Math.max((int) Math.sqrt(triangles / 2f), 1);
+        size = side;
+
+        Vector3f[] vertices = new Vector3f[side * side * 6];
+        int v = 0;
+        for (int x = 0; x < side; x++) {
+            for (int z = 0; z < side; z++) {
+                Vector3f a = point(x, z), b = point(x + 1, z), c = point(x, z + 1), d = point(x + 1, z + 1);
+                vertices[v++] = a; vertices[v++] = c; vertices[v++] = b;
+                vertices[v++] = b; vertices[v++] = c; vertices[v++] = d;
+            }
+        }
+
+        mesh = new MeshCollider(vertices);
+    }
+
+    private static Vector3f point(int x, int z) {
+        return new Vector3f(x, (float) (Math.sin(x * 0.3f) * Math.cos(z * 0.2f) * 2f), z);
+    }
+
+    private void nextRay() {
+        //straight down onto a random point of the surface
+        ray.setOrigin(random.nextFloat() * size, 10f, random.nextFloat() * size);
+    }
+
+    private void nextSweep() {
+        //a player sized box falling and sliding onto the surface
+        float x = random.nextFloat() * size, z = random.nextFloat() * size;
+        box.set(x, 3f, z, x + 0.6f, 4.8f, z + 0.6f);
+        velocity.set(random.nextFloat() - 0.5f, -6f, random.nextFloat() - 0.5f);
+        velocity.negate(inverse);
+    }
+
+    @Benchmark
+    public Hit rayCast() {
+        nextRay();
+        return mesh.rayCast(ray);
+    }
+
+    @Benchmark
+    public Hit sweep() {
+        nextSweep();
+        return box.sweep(mesh, velocity);
+    }
+
+    @Benchmark
+    public Hit rayCastScan() {
+        nextRay();
+        Hit closest = null;
+        for (Triangle triangle : mesh.getTriangles()) {
+            Hit hit = triangle.rayCast(ray);
+            if (hit != null && (closest == null || hit.tNear() < closest.tNear()))
+                closest = hit;
+        }
+        return closest;
+    }
+
+    @Benchmark
+    public Hit sweepScan() {
+        nextSweep();
+        Hit closest = null;
+        //same as the mesh does, the triangles move towards the box
+        for (Triangle triangle : mesh.getTriangles()) {
+            Hit hit = triangle.sweep(box, inverse);
+            if (hit != null && (closest == null || hit.tNear() < closest.tNear()))
+                closest = hit;
+        }
+        return closest;
+    }
+}
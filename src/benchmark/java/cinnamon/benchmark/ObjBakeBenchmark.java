@@ -0,0 +1,133 @@
+package cinnamon.benchmark;
+
+import cinnamon.model.Vertex;
+import cinnamon.model.VertexHelper;
+import cinnamon.model.obj.Face;
+import cinnamon.model.obj.Group;
+import cinnamon.model.obj.Mesh;
+import cinnamon.parsers.ObjLoader;
+import cinnamon.registry.TerrainModelRegistry;
+import cinnamon.render.model.ObjRenderer;
+import cinnamon.utils.Pair;
+import cinnamon.utils.Resource;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baking the groups of an OBJ mesh into indexed vertex data, the cpu side of creating an {@link ObjRenderer}
+ * vertexHelper: the old serial bake, a {@link Vertex} per corner through the {@link VertexHelper} list helpers
+ * objRenderer: {@link ObjRenderer#bake}, from primitive arrays, with the groups baked in parallel on the common pool
+ * the meshes are the bundled teapot and a generated heightmap of 8 groups, 1M triangles in total, without normals or uvs
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class ObjBakeBenchmark {
+
+    //quads per side of each generated group
+    private static final int GROUPS = 8, SIZE = 250;
+
+    @Param({"teapot", "heightmap"})
+    public String model;
+
+    private Mesh mesh;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        mesh = model.equals("teapot") ? ObjLoader.load(TerrainModelRegistry.TEAPOT.resource) : ObjLoader.parse(generate()).toMesh(new Resource("heightmap.obj"));
+    }
+
+    @Benchmark
+    public int vertexHelper() {
+        int indices = 0;
+        for (Group group : mesh.getGroups())
+            indices += bakeOld(group);
+        return indices;
+    }
+
+    @Benchmark
+    public int objRenderer() {
+        int indices = 0;
+        for (ObjRenderer.BakedGroup group : ObjRenderer.bake(mesh))
+            indices += group.indices().length;
+        return indices;
+    }
+
+    //same as the old ObjRenderer.bakeModel, without the upload
+    private int bakeOld(Group group) {
+        List<Vector3f> vertices = mesh.getVertices();
+        List<Vector2f> uvs = mesh.getUVs();
+        List<Vector3f> normals = mesh.getNormals();
+
+        List<Vertex> sortedVertices = new ArrayList<>();
+        for (Face face : group.getFaces()) {
+            List<Integer> v = face.getVertices();
+            List<Integer> vt = face.getUVs();
+            List<Integer> vn = face.getNormals();
+
+            List<Vertex> data = new ArrayList<>();
+            for (int i = 0; i < v.size(); i++) {
+                Vector3f a = vertices.get(v.get(i));
+                Vector2f b = !vt.isEmpty() ? uvs.get(vt.get(i)) : Vertex.DEFAULT_UV;
+                Vector3f c = !vn.isEmpty() ? normals.get(vn.get(i)) : Vertex.DEFAULT_NORMAL;
+                data.add(new Vertex().pos(a).uv(b).normal(c));
+            }
+
+            sortedVertices.addAll(VertexHelper.triangulate(data));
+        }
+
+        if (sortedVertices.isEmpty())
+            return 0;
+
+        float angleThreshold = 45f;
+        if (normals.isEmpty()) {
+            VertexHelper.calculateFlatNormals(sortedVertices);
+            VertexHelper.smoothNormals(sortedVertices, angleThreshold);
+        }
+
+        if (uvs.isEmpty())
+            VertexHelper.calculateUVs(group.getBounds().getMin(), group.getBounds().getMax(), sortedVertices);
+
+        VertexHelper.calculateTangents(sortedVertices, angleThreshold);
+
+        Pair<int[], List<Vertex>> indices = VertexHelper.stripIndices(sortedVertices);
+        return indices.first().length;
+    }
+
+    //rolling hills split in groups side by side, as quads
+    private static byte[] generate() {
+        StringBuilder obj = new StringBuilder();
+        int row = SIZE + 1, offset = 1;
+
+        for (int g = 0; g < GROUPS; g++) {
+            for (int x = 0; x <= SIZE; x++) {
+                for (int z = 0; z <= SIZE; z++) {
+                    int gx = g * SIZE + x;
+                    float y = (float) (Math.sin(gx * 0.05) * Math.cos(z * 0.07) * 4);
+                    obj.append("v ").append(gx).append(' ').append(y).append(' ').append(z).append('\n');
+                }
+            }
+
+            obj.append("g part_").append(g).append('\n');
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    int a = offset + x * row + z, b = a + 1, c = a + row, d = c + 1;
+                    obj.append("f ").append(a).append(' ').append(b).append(' ').append(d).append(' ').append(c).append('\n');
+                }
+            }
+
+            offset += row * row;
+        }
+
+        return obj.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
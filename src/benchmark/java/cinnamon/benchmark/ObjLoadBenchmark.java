@@ -0,0 +1,104 @@
+package cinnamon.benchmark;
+
+import cinnamon.parsers.ObjCache;
+import cinnamon.parsers.ObjData;
+import cinnamon.parsers.ObjLoader;
+import cinnamon.registry.TerrainModelRegistry;
+import cinnamon.utils.IOUtils;
+import cinnamon.utils.Resource;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cold parse against the binary mesh cache, for the OBJ models of the {@link TerrainModelRegistry}
+ * and for a generated heightmap of {@code size * size} quads, saved as an external file
+ * reports the parse and cache read alone, then a full {@link ObjLoader#load} with and without the cache, which also builds the mesh
+ * the cache is written under the working directory, like the game does
+ * arguments: [runs] [size]
+ */
+public class ObjLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+
+        List<Resource> models = new ArrayList<>();
+        for (TerrainModelRegistry model : TerrainModelRegistry.values()) {
+            if (model.resource.getPath().endsWith(".obj"))
+                models.add(model.resource);
+        }
+
+        Path generated = Files.createTempFile("heightmap", ".obj");
+        generate(generated, size);
+        models.add(new Resource("", generated.toString()));
+
+        System.out.printf("%-45s %9s %10s %10s %10s %10s%n", "model", "KB", "parse ms", "cache ms", "load ms", "cached ms");
+        for (Resource res : models) {
+            byte[] bytes;
+            try (InputStream stream = IOUtils.getResource(res)) {
+                bytes = stream.readAllBytes();
+            }
+            ObjCache.write(res, ObjLoader.parse(bytes));
+
+            //the first half only warms up
+            long parse = 0, cache = 0, load = 0, cached = 0;
+            for (int run = 0; run < runs * 2; run++) {
+                long t0 = System.nanoTime();
+                ObjData parsed = ObjLoader.parse(bytes);
+                long t1 = System.nanoTime();
+                ObjData read = ObjCache.read(res);
+                long t2 = System.nanoTime();
+
+                ObjCache.enabled = false;
+                ObjLoader.load(res);
+                long t3 = System.nanoTime();
+                ObjCache.enabled = true;
+                ObjLoader.load(res);
+                long t4 = System.nanoTime();
+
+                if (read == null || read.getVertexCount() != parsed.getVertexCount() || read.getFaceCount() != parsed.getFaceCount()) {
+                    System.out.println("FAILED: the cache of " + res + " does not match the parsed model");
+                    System.exit(1);
+                }
+
+                if (run >= runs) {
+                    parse += t1 - t0;
+                    cache += t2 - t1;
+                    load += t3 - t2;
+                    cached += t4 - t3;
+                }
+            }
+
+            String name = res.getNamespace().isEmpty() ? "generated " + size + "x" + size + " heightmap" : res.getPath();
+            System.out.printf("%-45s %9.1f %10.3f %10.3f %10.3f %10.3f%n", name, bytes.length / 1024.0, parse / 1e6 / runs, cache / 1e6 / runs, load / 1e6 / runs, cached / 1e6 / runs);
+        }
+
+        Files.delete(generated);
+    }
+
+    //rolling hills, with uvs and normals on every vertex, two triangles per quad
+    private static void generate(Path path, int size) throws Exception {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("# generated heightmap\no heightmap\n");
+            for (int x = 0; x <= size; x++) {
+                for (int z = 0; z <= size; z++) {
+                    float y = (float) (Math.sin(x * 0.05) * Math.cos(z * 0.07) * 4);
+                    writer.write(String.format("v %.6f %.6f %.6f\nvt %.6f %.6f\nvn 0.000000 1.000000 0.000000\n", (float) x, y, (float) z, x / (float) size, z / (float) size));
+                }
+            }
+
+            int row = size + 1;
+            for (int x = 0; x < size; x++) {
+                for (int z = 0; z < size; z++) {
+                    int a = x * row + z + 1, b = a + 1, c = a + row, d = c + 1;
+                    writer.write(String.format("f %d/%d/%d %d/%d/%d %d/%d/%d\nf %d/%d/%d %d/%d/%d %d/%d/%d\n", a, a, a, b, b, b, d, d, d, a, a, a, d, d, d, c, c, c));
+                }
+            }
+        }
+    }
+}
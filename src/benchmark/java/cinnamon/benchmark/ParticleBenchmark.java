@@ -0,0 +1,132 @@
+package cinnamon.benchmark;
+
+import cinnamon.model.GeometryHelper;
+import cinnamon.model.Vertex;
+import cinnamon.render.Camera;
+import cinnamon.render.MatrixStack;
+import cinnamon.world.particle.DustParticle;
+import cinnamon.world.particle.Particle;
+import cinnamon.world.particle.SpriteParticlePool;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static cinnamon.world.particle.Particle.PARTICLE_SCALING;
+
+/**
+ * CPU side of the sprite particles, ticking and packing the same particles through a {@link SpriteParticlePool}
+ * and as heap objects, the way the world ticked and rendered them before the pools, minus the batch upload
+ * dead particles are respawned after each tick, so the count stays the same
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParticleBenchmark {
+
+    private static final int FRAMES = 4;
+    private static final int RENDER_DISTANCE = 4098;
+
+    @Param({"100000"})
+    public int count;
+
+    private final Random random = new Random(7);
+    private final Camera camera = new Camera();
+    private final MatrixStack matrices = new MatrixStack();
+
+    private SpriteParticlePool pool;
+    private final List<Particle> particles = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        camera.updateProjMatrix(1280, 720, 90f);
+        camera.useOrtho(false);
+        camera.setPos(0f, 8f, 24f);
+        camera.updateFrustum();
+
+        pool = new SpriteParticlePool(null, false, count);
+        for (int i = 0; i < count; i++) {
+            spawnPooled();
+            spawnObject();
+        }
+    }
+
+    @Benchmark
+    public int poolTick() {
+        pool.tick();
+        int spawned = count - pool.size();
+        for (int i = 0; i < spawned; i++)
+            spawnPooled();
+        return pool.size();
+    }
+
+    @Benchmark
+    public int objectTick() {
+        for (Iterator<Particle> iterator = particles.iterator(); iterator.hasNext(); ) {
+            Particle p = iterator.next();
+            if (p.isRemoved())
+                iterator.remove();
+            else
+                p.tick();
+        }
+        int spawned = count - particles.size();
+        for (int i = 0; i < spawned; i++)
+            spawnObject();
+        return particles.size();
+    }
+
+    @Benchmark
+    public int poolPack() {
+        return pool.pack(camera, matrices, 0.5f, FRAMES, false);
+    }
+
+    @Benchmark
+    public int objectPack() {
+        Vector3f camPos = camera.getPos();
+        int packed = 0;
+
+        for (Particle p : particles) {
+            //Particle.shouldRender
+            if (camPos.distanceSquared(p.getTransform().getPos()) > RENDER_DISTANCE || !camera.isInsideFrustum(p.getAABB()))
+                continue;
+
+            //Particle.render and SpriteParticle.renderParticle
+            DustParticle dust = (DustParticle) p;
+            matrices.pushMatrix();
+            matrices.translate(p.getPos(0.5f));
+            camera.billboard(matrices);
+            matrices.pushMatrix();
+
+            float s = PARTICLE_SCALING * dust.getScale();
+            matrices.scale(-s, -s, s);
+            int frame = Math.round(org.joml.Math.lerp(0, FRAMES - 1, org.joml.Math.clamp(0f, 1f, (float) dust.getAge() / dust.getLifetime())));
+            Vertex[] vertices = GeometryHelper.quad(matrices, -8, -8, 16, 16, frame, 0f, 1, 1, FRAMES, 1);
+            for (Vertex vertex : vertices)
+                vertex.color(dust.getColor());
+
+            matrices.popMatrix();
+            matrices.popMatrix();
+            packed++;
+        }
+
+        return packed;
+    }
+
+    //a box around the camera, part of it behind or too far to be seen
+    private void spawnPooled() {
+        pool.add(random.nextFloat() * 96f - 48f, random.nextFloat() * 16f, random.nextFloat() * 96f - 48f, 0f, 0.01f, 0f, 20 + random.nextInt(80), 0, 0xFFFFFFFF, 1f);
+    }
+
+    private void spawnObject() {
+        DustParticle particle = new DustParticle(20 + random.nextInt(80), 0xFFFFFFFF);
+        particle.setPos(random.nextFloat() * 96f - 48f, random.nextFloat() * 16f, random.nextFloat() * 96f - 48f);
+        particles.add(particle);
+    }
+}
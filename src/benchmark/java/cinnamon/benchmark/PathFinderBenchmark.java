@@ -0,0 +1,106 @@
+package cinnamon.benchmark;
+
+import cinnamon.world.ai.AStar;
+import cinnamon.world.ai.HierarchicalPathFinder;
+import cinnamon.world.ai.PathFinder;
+import cinnamon.world.ai.VoxelGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walking paths over a 256x256x256 {@link VoxelGrid}, a floor with pillars and a few hills, searched by the generic {@link AStar}
+ * with boxed cell indices, by the {@link PathFinder} and by the {@link HierarchicalPathFinder}
+ * every search runs on the same grid and goes from one corner towards the opposite one, {@code distance} cells along each axis
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class PathFinderBenchmark {
+
+    private static final int SIZE = 256;
+    private static final float SQRT2 = (float) Math.sqrt(2);
+
+    @Param({"32", "128", "250"})
+    public int distance;
+
+    private final PathFinder finder = new PathFinder();
+    private VoxelGrid grid;
+    private HierarchicalPathFinder hierarchical;
+    private int start, goal;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        grid = new VoxelGrid(0, 0, 0, SIZE, SIZE, SIZE, 2, false);
+        Random random = new Random(5);
+
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                grid.setSolid(x, 0, z, true);
+
+                //pillars too tall to climb
+                if (random.nextInt(5) == 0) {
+                    grid.setSolid(x, 1, z, true);
+                    grid.setSolid(x, 2, z, true);
+                }
+            }
+        }
+
+        //stepped hills
+        for (int i = 0; i < 24; i++) {
+            int cx = random.nextInt(SIZE), cz = random.nextInt(SIZE), radius = 4 + random.nextInt(12);
+            for (int x = Math.max(cx - radius, 0); x < Math.min(cx + radius, SIZE); x++) {
+                for (int z = Math.max(cz - radius, 0); z < Math.min(cz + radius, SIZE); z++) {
+                    int height = radius - Math.max(Math.abs(x - cx), Math.abs(z - cz));
+                    for (int y = 1; y <= height; y++)
+                        grid.setSolid(x, y, z, true);
+                }
+            }
+        }
+
+        start = clearColumn(2, 2);
+        goal = clearColumn(2 + distance, 2 + distance);
+
+        hierarchical = new HierarchicalPathFinder(grid, 16).build();
+        if (finder.findPath(grid, start, goal).length == 0)
+            throw new IllegalStateException("No path between the corners");
+    }
+
+    @Benchmark
+    public int aStar() {
+        return AStar.findPath(start, goal, this::neighbors, grid::heuristic, this::stepCost).size();
+    }
+
+    @Benchmark
+    public int pathFinder() {
+        return finder.findPath(grid, start, goal).length;
+    }
+
+    @Benchmark
+    public int hierarchical() {
+        return hierarchical.findPath(start, goal).length;
+    }
+
+    private Iterable<Integer> neighbors(Integer node) {
+        List<Integer> list = new ArrayList<>(4);
+        grid.forEachNeighbor(node, (nb, cost) -> list.add(nb));
+        return list;
+    }
+
+    private Float stepCost(Integer from, Integer to) {
+        return grid.getY(from) == grid.getY(to) ? 1f : SQRT2;
+    }
+
+    //empties the column down to the floor, returning the cell standing on it
+    private int clearColumn(int x, int z) {
+        for (int y = 1; y < SIZE; y++)
+            grid.setSolid(x, y, z, false);
+        return grid.index(x, 1, z);
+    }
+}
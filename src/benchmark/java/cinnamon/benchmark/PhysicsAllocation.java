@@ -0,0 +1,115 @@
+package cinnamon.benchmark;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.registry.EntityRegistry;
+import cinnamon.registry.TerrainRegistry;
+import cinnamon.world.entity.Entity;
+import cinnamon.world.entity.PhysEntity;
+import cinnamon.world.terrain.Terrain;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Bytes allocated per world tick with physics entities sliding over a bumpy floor, ticked serially on this thread
+ * then the bytes per query of the list returning world queries, next to the reused list and consumer ones the physics use
+ * arguments: [bodies] [ticks]
+ */
+public class PhysicsAllocation {
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int bodyCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        Random random = new Random(7);
+        HeadlessWorld world = new HeadlessWorld();
+
+        int size = (int) Math.ceil(Math.sqrt(bodyCount)) + 8;
+        for (int x = -size; x < size; x++) {
+            for (int z = -size; z < size; z++) {
+                int height = random.nextInt(8) == 0 ? random.nextInt(3) : 0;
+                for (int y = -1; y < height; y++) {
+                    Terrain terrain = new Terrain(null, TerrainRegistry.BOX);
+                    terrain.setPos(x, y, z);
+                    world.addTerrain(terrain);
+                }
+            }
+        }
+
+        List<Body> bodies = new ArrayList<>(bodyCount);
+        for (int i = 0; i < bodyCount; i++) {
+            Body body = new Body(new UUID(random.nextLong(), random.nextLong()));
+            body.setPos(random.nextFloat() * size * 1.6f - size * 0.8f, 2f + random.nextFloat() * 8f, random.nextFloat() * size * 1.6f - size * 0.8f);
+            world.addEntity(body);
+            bodies.add(body);
+        }
+        world.flush();
+
+        //keep them moving, so every tick has collisions to resolve
+        for (int i = 0; i < ticks; i++)
+            tick(world, bodies, random);
+
+        long b0 = THREADS.getCurrentThreadAllocatedBytes(), t0 = System.nanoTime();
+        for (int i = 0; i < ticks; i++)
+            tick(world, bodies, random);
+        long t1 = System.nanoTime(), b1 = THREADS.getCurrentThreadAllocatedBytes();
+        System.out.printf("%d bodies, %d ticks: %.0f bytes/tick, %.3f ms/tick%n", bodyCount, ticks, (b1 - b0) / (double) ticks, (t1 - t0) / 1e6 / ticks);
+
+        //the same collision sized queries, once per body
+        AABB region = new AABB();
+        List<Terrain> terrains = new ArrayList<>();
+        List<Entity> entities = new ArrayList<>();
+        int[] found = new int[1];
+        for (int pass = 0; pass < 2; pass++) {
+            long a0 = THREADS.getCurrentThreadAllocatedBytes();
+            for (Body body : bodies) {
+                region.set(body.getAABB()).inflate(1f);
+                found[0] += world.getTerrains(region).size() + world.getEntities(region).size();
+            }
+            long a1 = THREADS.getCurrentThreadAllocatedBytes();
+            for (Body body : bodies) {
+                region.set(body.getAABB()).inflate(1f);
+                found[0] += world.getTerrains(region, terrains).size() + world.getEntities(region, entities).size();
+                terrains.clear();
+                entities.clear();
+            }
+            long a2 = THREADS.getCurrentThreadAllocatedBytes();
+            for (Body body : bodies) {
+                region.set(body.getAABB()).inflate(1f);
+                world.getTerrains(region, t -> found[0]++);
+                world.getEntities(region, e -> found[0]++);
+            }
+            long a3 = THREADS.getCurrentThreadAllocatedBytes();
+
+            //the first pass only warms up
+            if (pass > 0) {
+                System.out.printf("terrain + entity query, bytes/query: new list %.0f, reused list %.0f, consumer %.0f (%d found)%n",
+                        (a1 - a0) / (2.0 * bodyCount), (a2 - a1) / (2.0 * bodyCount), (a3 - a2) / (2.0 * bodyCount), found[0]);
+            }
+        }
+    }
+
+    private static void tick(HeadlessWorld world, List<Body> bodies, Random random) {
+        //a random shove now and then
+        Body body = bodies.get(random.nextInt(bodies.size()));
+        body.setMotion(random.nextFloat() * 0.6f - 0.3f, random.nextFloat() * 0.3f, random.nextFloat() * 0.6f - 0.3f);
+        world.tick();
+    }
+
+    private static class Body extends PhysEntity {
+
+        public Body(UUID uuid) {
+            super(uuid, null);
+        }
+
+        @Override
+        public EntityRegistry getType() {
+            return EntityRegistry.DUMMY;
+        }
+    }
+}
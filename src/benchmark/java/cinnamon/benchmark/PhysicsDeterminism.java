@@ -0,0 +1,246 @@
+package cinnamon.benchmark;
+
+import cinnamon.math.Maths;
+import cinnamon.math.collision.Hit;
+import cinnamon.registry.EntityRegistry;
+import cinnamon.registry.TerrainRegistry;
+import cinnamon.world.WorldRules;
+import cinnamon.world.entity.PhysEntity;
+import cinnamon.world.entity.living.LivingEntity;
+import cinnamon.world.entity.projectile.Candy;
+import cinnamon.world.entity.projectile.Projectile;
+import cinnamon.world.entity.vehicle.ShoppingCart;
+import cinnamon.world.terrain.Terrain;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the same headless world with the parallel physics rule off and on, and checks that every entity ends every tick in the same state
+ * besides the plain bodies, shopping carts push each other and candies are fired at targets, so the effects on other entities are covered
+ * the parallel run is repeated in pools of growing parallelism, up to the core count, and the tick rate of each is reported
+ * arguments: [bodies] [ticks] [seed] [max parallelism]
+ */
+public class PhysicsDeterminism {
+
+    public static void main(String[] args) throws Exception {
+        int bodies = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 7L;
+        int maxParallelism = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        //warm up both paths, so the first timed run is not the one paying for the jit
+        run(false, bodies, ticks, seed);
+        run(true, bodies, ticks, seed);
+
+        Run serial = run(false, bodies, ticks, seed);
+        System.out.printf("%d bodies, %d ticks, %d cores%n", bodies, ticks, Runtime.getRuntime().availableProcessors());
+        System.out.printf("  serial:          %6.1f ticks/s%n", serial.ticksPerSecond());
+
+        //the parallel stream of the compute phase runs in the pool it is called from
+        for (int parallelism = 1; ; parallelism = Math.min(parallelism * 2, maxParallelism)) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            Run parallel = pool.submit(() -> run(true, bodies, ticks, seed)).get();
+            pool.shutdown();
+
+            System.out.printf("  parallel, %2d:    %6.1f ticks/s (%.2fx)%n", parallelism, parallel.ticksPerSecond(), parallel.ticksPerSecond() / serial.ticksPerSecond());
+
+            for (int i = 0; i < ticks; i++) {
+                if (serial.states[i] != parallel.states[i]) {
+                    System.out.printf("FAILED: the worlds diverged at tick %d with a parallelism of %d%n", i, parallelism);
+                    System.exit(1);
+                }
+            }
+
+            if (parallelism >= maxParallelism)
+                break;
+        }
+
+        System.out.println("OK: every tick matched");
+    }
+
+    private static Run run(boolean parallel, int bodyCount, int ticks, long seed) {
+        Random random = new Random(seed);
+        HeadlessWorld world = new HeadlessWorld();
+        world.getRules().set(WorldRules.Rule.PARALLEL_PHYSICS, parallel);
+
+        //a bumpy floor, so the bodies slide, climb and stop
+        int size = (int) Math.ceil(Math.sqrt(bodyCount)) + 8;
+        for (int x = -size; x < size; x++) {
+            for (int z = -size; z < size; z++) {
+                int height = random.nextInt(8) == 0 ? random.nextInt(3) : 0;
+                for (int y = -1; y < height; y++) {
+                    Terrain terrain = new Terrain(null, TerrainRegistry.BOX);
+                    terrain.setPos(x, y, z);
+                    world.addTerrain(terrain);
+                }
+            }
+        }
+
+        List<Body> bodies = new ArrayList<>(bodyCount);
+        for (int i = 0; i < bodyCount; i++) {
+            Body body = new Body(new UUID(random.nextLong(), random.nextLong()));
+            body.setPos(random.nextFloat() * size * 1.6f - size * 0.8f, 2f + random.nextFloat() * 8f, random.nextFloat() * size * 1.6f - size * 0.8f);
+            body.setMotion(random.nextFloat() * 0.6f - 0.3f, random.nextFloat() * 0.2f, random.nextFloat() * 0.6f - 0.3f);
+            world.addEntity(body);
+            bodies.add(body);
+        }
+
+        //pairs of carts, the ridden one rolls into the empty one and pushes it
+        List<PhysEntity> others = new ArrayList<>();
+        for (int i = 0; i < bodyCount / 40; i++) {
+            float x = random.nextFloat() * size - size * 0.5f, z = random.nextFloat() * size - size * 0.5f;
+            ShoppingCart ridden = new ShoppingCart(new UUID(random.nextLong(), random.nextLong()));
+            ridden.setPos(x, 1f, z);
+            ridden.setMotion(0.2f, 0f, random.nextFloat() * 0.1f - 0.05f);
+            ShoppingCart empty = new ShoppingCart(new UUID(random.nextLong(), random.nextLong()));
+            empty.setPos(x + 2f, 1f, z);
+
+            Body rider = new Body(new UUID(random.nextLong(), random.nextLong()));
+            ridden.addRider(rider);
+            world.addEntity(ridden);
+            world.addEntity(empty);
+            world.addEntity(rider);
+            others.add(ridden);
+            others.add(empty);
+            bodies.add(rider);
+        }
+
+        //targets for the candies
+        List<Target> targets = new ArrayList<>();
+        for (int i = 0; i < bodyCount / 20; i++) {
+            Target target = new Target(new UUID(random.nextLong(), random.nextLong()));
+            target.setPos(random.nextFloat() * size - size * 0.5f, 0f, random.nextFloat() * size - size * 0.5f);
+            world.addEntity(target);
+            targets.add(target);
+            others.add(target);
+        }
+
+        long[] states = new long[ticks];
+        long nanos = 0;
+        for (int i = 0; i < ticks; i++) {
+            //a volley of candies, aimed at the targets
+            if (i % 40 == 0) {
+                for (Target target : targets) {
+                    Candy candy = new Candy(new UUID(random.nextLong(), random.nextLong()), null);
+                    Vector3f pos = new Vector3f(target.getTransform().getPos()).add(random.nextFloat() * 8f - 4f, 3f, random.nextFloat() * 8f - 4f);
+                    candy.setPos(pos);
+                    candy.setMotion(new Vector3f(target.getTransform().getPos()).sub(pos).normalize(Candy.SPEED * 0.5f));
+                    world.addEntity(candy);
+                    others.add(candy);
+                }
+                world.flush();
+
+                //the crit is rolled when added, so it would differ between the runs
+                for (PhysEntity e : others) {
+                    if (e instanceof Projectile p)
+                        p.setCrit(false);
+                }
+            }
+
+            long t0 = System.nanoTime();
+            world.tick();
+            nanos += System.nanoTime() - t0;
+            states[i] = hash(bodies) * 31 + hashOthers(others);
+        }
+
+        for (Body body : bodies) {
+            if (body.finished != ticks)
+                throw new IllegalStateException("A body finished " + body.finished + " of " + ticks + " ticks");
+        }
+
+        return new Run(states, ticks / (nanos / 1e9));
+    }
+
+    private static long hash(List<Body> bodies) {
+        long hash = 1;
+        for (Body body : bodies) {
+            Vector3f pos = body.getTransform().getPos();
+            Quaternionf rot = body.getTransform().getRot();
+            Vector3f motion = body.getMotion();
+            hash = mix(hash, pos.x, pos.y, pos.z, rot.x, rot.y, rot.z, rot.w, motion.x, motion.y, motion.z);
+            hash = hash * 31 + body.contacts;
+        }
+        return hash;
+    }
+
+    private static long hashOthers(List<PhysEntity> entities) {
+        long hash = 1;
+        for (PhysEntity e : entities) {
+            Vector3f pos = e.getTransform().getPos();
+            Vector3f motion = e.getMotion();
+            hash = mix(hash, pos.x, pos.y, pos.z, motion.x, motion.y, motion.z);
+            hash = hash * 31 + (e.isRemoved() ? 1 : 0);
+            if (e instanceof LivingEntity living)
+                hash = hash * 31 + living.getHealth();
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, float... values) {
+        for (float value : values)
+            hash = hash * 31 + Float.floatToIntBits(value);
+        return hash;
+    }
+
+    private static class Body extends PhysEntity {
+
+        private int finished, contacts;
+
+        public Body(UUID uuid) {
+            super(uuid, null);
+        }
+
+        @Override
+        public void postPhysicsTick() {
+            super.postPhysicsTick();
+            finished++;
+
+            //reads the motion left by the physics, like the projectiles do
+            Vector3f dir = new Vector3f(getMotion());
+            if (dir.lengthSquared() > 0f)
+                rotateTo(Maths.dirToQuat(dir.normalize()));
+        }
+
+        @Override
+        protected void collideEntity(PhysEntity entity, Hit result, Vector3f toMove) {
+            super.collideEntity(entity, result, toMove);
+            contacts++;
+        }
+
+        @Override
+        public EntityRegistry getType() {
+            return EntityRegistry.DUMMY;
+        }
+    }
+
+    private static class Target extends LivingEntity {
+
+        private int lastHealth = 1000000;
+
+        public Target(UUID uuid) {
+            super(uuid, null, 1.5f, 1000000, 1);
+        }
+
+        @Override
+        public void tick() {
+            //hops when hit, before its physics, so a hit landing mid tick would show up in the motion
+            if (getHealth() < lastHealth)
+                setMotion(getMotion().x, 0.3f, getMotion().z);
+            lastHealth = getHealth();
+            super.tick();
+        }
+
+        @Override
+        public EntityRegistry getType() {
+            return EntityRegistry.DUMMY;
+        }
+    }
+
+    private record Run(long[] states, double ticksPerSecond) {}
+}
@@ -0,0 +1,145 @@
+package cinnamon.benchmark;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.registry.MaterialRegistry;
+import cinnamon.render.Camera;
+import cinnamon.render.WorldRenderer;
+import cinnamon.render.texture.CubeMap;
+import cinnamon.world.light.PointLight;
+import cinnamon.world.terrain.Terrain;
+import cinnamon.world.world.CollisionWorld;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Terrain draw submissions per frame for the point light shadows of the {@link CollisionWorld} level, with 50 point lights
+ * counted headless by running the same culling as the shadow passes, once per cube map face of every light
+ * before: every terrain in the face frustum, for every light, on every frame
+ * after: only the terrain in the light volume, and only when the cached static shadow of the light is invalid,
+ * which happens on the first frame and whenever a terrain inside the light volume changes, here one floor tile per frame
+ * arguments: [lights] [frames] [seed]
+ */
+public class ShadowCasterCount {
+
+    private static final AABB EVERYWHERE = new AABB(-1e6f, -1e6f, -1e6f, 1e6f, 1e6f, 1e6f);
+
+    private static final Camera camera = new Camera();
+    private static final Matrix4f faceMatrix = new Matrix4f();
+    private static final Quaternionf faceRotation = new Quaternionf();
+
+    public static void main(String[] args) {
+        int lightCount = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Random random = new Random(args.length > 2 ? Long.parseLong(args[2]) : 42L);
+
+        MaterialRegistry.loadAllMaterials();
+        ShadowWorld world = new ShadowWorld();
+        CollisionWorld.buildLevel(world);
+        world.flush();
+
+        List<Terrain> floor = new ArrayList<>();
+        world.getTerrains(new AABB(-32f, 0f, -32f, 33f, 1f, 33f), terrain -> {
+            if (terrain.getAABB().minY() == 0f && terrain.getAABB().maxY() == 1f)
+                floor.add(terrain);
+        });
+
+        List<PointLight> lights = new ArrayList<>(lightCount);
+        for (int i = 0; i < lightCount; i++) {
+            PointLight light = new PointLight();
+            light.pos(random.nextFloat() * 64f - 32f, 1.5f + random.nextFloat() * 6f, random.nextFloat() * 64f - 32f);
+            light.falloff(2f + random.nextFloat() * 4f);
+            lights.add(light);
+        }
+
+        //the first frame fills the cache, and is also the first warm up
+        long before = 0, after = 0, beforeNanos = 0, afterNanos = 0, redrawn = 0;
+        long firstAfter = 0;
+        AABB changed = null;
+
+        for (int frame = -frames; frame <= frames; frame++) {
+            long t0 = System.nanoTime();
+            long b = 0;
+            for (PointLight light : lights)
+                b += countFaces(light, world, false);
+            long t1 = System.nanoTime();
+
+            long a = 0, r = 0;
+            for (PointLight light : lights) {
+                boolean invalid = frame == -frames || (changed != null && light.getAABB().intersects(changed));
+                if (invalid) {
+                    a += countFaces(light, world, true);
+                    r++;
+                }
+            }
+            long t2 = System.nanoTime();
+
+            if (frame == -frames) {
+                firstAfter = a;
+            } else if (frame > 0) {
+                before += b; after += a; redrawn += r;
+                beforeNanos += t1 - t0; afterNanos += t2 - t1;
+            }
+
+            //a floor tile goes up or down, invalidating the lights around its old and new place
+            Terrain tile = floor.get(random.nextInt(floor.size()));
+            changed = new AABB(tile.getAABB());
+            Vector3f pos = tile.getTransform().getPos();
+            tile.setPos(pos.x, pos.y == 0f ? 0.5f : 0f, pos.z);
+            world.flush();
+            changed.merge(tile.getAABB());
+        }
+
+        int[] terrainCount = {0};
+        world.getTerrains(EVERYWHERE, terrain -> terrainCount[0]++);
+        System.out.printf("%d terrain, %d point lights, %d frames%n", terrainCount[0], lightCount, frames);
+        System.out.printf("before: %8.1f terrain draws/frame, culling %.3f ms/frame%n", before / (double) frames, beforeNanos / 1e6 / frames);
+        System.out.printf("after:  %8.1f terrain draws/frame, culling %.3f ms/frame, %.2f of %d lights redrawn/frame%n", after / (double) frames, afterNanos / 1e6 / frames, redrawn / (double) frames, lightCount);
+        System.out.printf("after, first frame with an empty cache: %d terrain draws%n", firstAfter);
+    }
+
+    //same face cameras as LightRenderer.renderCubeMapFaces
+    private static long countFaces(PointLight light, ShadowWorld world, boolean lightRange) {
+        light.calculateLightSpaceMatrix();
+        Vector3f pos = light.getTransform().getPos();
+        float range = light.getFalloffEnd();
+        int renderDistance = WorldRenderer.renderDistance * WorldRenderer.renderDistance;
+        long[] count = {0};
+
+        for (CubeMap.Face face : CubeMap.Face.values()) {
+            Vector3f dir = face.direction, up = face.up;
+            faceMatrix.setLookAt(pos.x, pos.y, pos.z, pos.x + dir.x, pos.y + dir.y, pos.z + dir.z, up.x, up.y, up.z);
+            light.getLightSpaceMatrix().mul(faceMatrix, faceMatrix);
+            camera.setPos(pos.x, pos.y, pos.z);
+            camera.setRot(faceRotation.identity().lookAlong(dir, up));
+            camera.updateFrustum(faceMatrix);
+
+            //Terrain.shouldRender, with the shadow volume test only after the change
+            Consumer<Terrain> consumer = terrain -> {
+                AABB aabb = terrain.getAABB();
+                if (pos.distanceSquared(terrain.getTransform().getPos()) <= renderDistance && camera.isInsideFrustum(aabb)
+                        && (!lightRange || (terrain.castsShadows() && aabb.distanceToPoint(pos.x, pos.y, pos.z) <= range)))
+                    count[0]++;
+            };
+
+            //before, every chunk was walked with the face frustum, after, only the light bounds are queried
+            if (lightRange)
+                world.getTerrains(light.getAABB(), consumer);
+            else
+                world.queryFrustum(camera, consumer);
+        }
+
+        return count[0];
+    }
+
+    private static class ShadowWorld extends HeadlessWorld {
+        public void queryFrustum(Camera camera, Consumer<Terrain> consumer) {
+            terrainManager.queryCustom(camera::isInsideFrustum, consumer);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package cinnamon.benchmark;
+
+import cinnamon.networking.ClientConnection;
+import cinnamon.networking.Connection;
+import cinnamon.networking.Frame;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.NetworkListener;
+import cinnamon.networking.ServerConnection;
+import cinnamon.networking.packet.EntitySync;
+import cinnamon.networking.packet.Packet;
+import cinnamon.networking.serializer.QuaternionfSerializer;
+import cinnamon.networking.serializer.UUIDSerializer;
+import cinnamon.networking.serializer.Vector3fSerializer;
+import cinnamon.networking.snapshot.Snapshot;
+import cinnamon.networking.snapshot.SnapshotClient;
+import cinnamon.networking.snapshot.SnapshotConfig;
+import cinnamon.networking.snapshot.SnapshotServer;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Replicates moving entities from a local server to a client over the loopback transport, with real acks
+ * reports the bandwidth of the delta snapshots, next to full snapshots and to one {@link EntitySync} per entity
+ * arguments: [entities] [moving fraction] [ticks] [tick millis] [port]
+ */
+public class SnapshotBandwidth {
+
+    private static final int TICK_RATE = 20;
+    private static final ByteBuffer SCRATCH = ByteBuffer.allocate(1 << 20);
+
+    public static void main(String[] args) throws Exception {
+        int entityCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        float movingFraction = args.length > 1 ? Float.parseFloat(args[1]) : 1f;
+        int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int tickMillis = args.length > 3 ? Integer.parseInt(args[3]) : 1000 / TICK_RATE;
+        int port = args.length > 4 ? Integer.parseInt(args[4]) : 39727;
+
+        //both sides are handled on this thread, like the client does with the internal server
+        Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        NetServer server = new NetServer(new NetworkListener() {
+            @Override
+            public void received(Connection connection, Packet packet) {
+                tasks.add(() -> packet.serverReceived(null, connection));
+            }
+        });
+        server.bind(port);
+
+        NetClient[] client = new NetClient[1];
+        client[0] = new NetClient(new NetworkListener() {
+            @Override
+            public void received(Connection connection, Packet packet) {
+                tasks.add(() -> packet.clientReceived(client[0], connection));
+            }
+        });
+        client[0].connect("localhost", port, 5000);
+
+        ServerConnection.snapshots = new SnapshotServer();
+        ClientConnection.snapshots = new SnapshotClient();
+
+        //never acknowledged, so every snapshot is a full one
+        SnapshotServer full = new SnapshotServer();
+
+        Random random = new Random(42);
+        Entity[] entities = new Entity[entityCount];
+        for (int i = 0; i < entityCount; i++)
+            entities[i] = new Entity(random, random.nextFloat() < movingFraction);
+
+        //wait for the server side of the connection
+        while (server.getConnections().isEmpty())
+            Thread.sleep(10);
+        Connection connection = server.getConnections().iterator().next();
+
+        long deltaBytes = 0, fullBytes = 0, syncBytes = 0;
+        int syncSize = frameSize(entities[0].sync());
+        long next = System.nanoTime();
+
+        for (int tick = 0; tick < ticks; tick++) {
+            runTasks(tasks);
+
+            ServerConnection.snapshots.begin(entityCount);
+            full.begin(entityCount);
+            for (Entity entity : entities) {
+                entity.tick();
+                ServerConnection.snapshots.add(entity.uuid, entity.pos, entity.rot);
+                full.add(entity.uuid, entity.pos, entity.rot);
+            }
+
+            Packet delta = ServerConnection.snapshots.createPacket(connection.getID(), ServerConnection.snapshots.end());
+            deltaBytes += frameSize(delta);
+            fullBytes += frameSize(full.createPacket(-1, full.end()));
+            syncBytes += (long) syncSize * entityCount;
+            connection.send(delta);
+
+            next += tickMillis * 1_000_000L;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0)
+                Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+        }
+
+        //let the last snapshot arrive
+        Thread.sleep(200);
+        runTasks(tasks);
+
+        double seconds = ticks / (double) TICK_RATE;
+        System.out.printf("%d entities, %.0f%% moving, %d ticks at %d Hz%n", entityCount, movingFraction * 100f, ticks, TICK_RATE);
+        System.out.printf("one EntitySync per entity: %.1f KB/s%n", syncBytes / 1024.0 / seconds);
+        System.out.printf("full snapshots: %.1f KB/s%n", fullBytes / 1024.0 / seconds);
+        System.out.printf("delta snapshots: %.1f KB/s, %.1f B per tick%n", deltaBytes / 1024.0 / seconds, deltaBytes / (double) ticks);
+
+        //what the client rebuilt, against the real transforms
+        Snapshot last = ClientConnection.snapshots.getSnapshot(ticks);
+        if (last == null || last.size() != entityCount) {
+            System.out.println("FAILED: the client did not rebuild the last snapshot");
+            System.exit(1);
+        }
+
+        Map<UUID, Entity> byUUID = new HashMap<>();
+        for (Entity entity : entities)
+            byUUID.put(entity.uuid, entity);
+
+        SnapshotConfig config = ServerConnection.snapshots.getConfig();
+        Vector3f pos = new Vector3f();
+        Quaternionf rot = new Quaternionf();
+        float posError = 0f, rotError = 0f;
+        for (int i = 0; i < last.size(); i++) {
+            Entity entity = byUUID.get(last.getUUID(i));
+            posError = Math.max(posError, last.getPosition(i, config, pos).distance(entity.pos));
+            float dot = Math.min(Math.abs(last.getRotation(i, config, rot).dot(entity.rot)), 1f);
+            rotError = Math.max(rotError, (float) Math.toDegrees(2.0 * Math.acos(dot)));
+        }
+        System.out.printf("max error on the client: position %.4f, rotation %.3f degrees%n", posError, rotError);
+
+        client[0].close();
+        server.close();
+        System.exit(0);
+    }
+
+    private static void runTasks(Queue<Runnable> tasks) {
+        Runnable task;
+        while ((task = tasks.poll()) != null)
+            task.run();
+    }
+
+    private static int frameSize(Packet packet) {
+        packet.write(SCRATCH.clear());
+        //length prefix and packet id
+        return Frame.HEADER_SIZE + 1 + SCRATCH.position();
+    }
+
+    private static class Entity {
+
+        private final UUID uuid;
+        private final Vector3f pos, motion;
+        private final Quaternionf rot;
+        private final boolean moving;
+
+        private Entity(Random random, boolean moving) {
+            this.uuid = new UUID(random.nextLong(), random.nextLong());
+            this.pos = new Vector3f(random.nextFloat() * 512f - 256f, random.nextFloat() * 16f, random.nextFloat() * 512f - 256f);
+            this.motion = new Vector3f(random.nextFloat() - 0.5f, 0f, random.nextFloat() - 0.5f).mul(0.25f);
+            this.rot = new Quaternionf().rotateY(random.nextFloat() * 6.28f);
+            this.moving = moving;
+        }
+
+        private void tick() {
+            if (!moving)
+                return;
+            pos.add(motion);
+            rot.rotateY(0.05f);
+        }
+
+        private EntitySync sync() {
+            //same fields as EntitySync.entity(), without a world entity
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            UUIDSerializer.write(buffer, uuid);
+            Vector3fSerializer.write(buffer, pos);
+            QuaternionfSerializer.write(buffer, rot);
+            return new EntitySync(buffer.flip());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package cinnamon.benchmark;
+
+import cinnamon.sound.SoundStream;
+import cinnamon.utils.IOUtils;
+import cinnamon.utils.Resource;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBVorbisInfo;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import static org.lwjgl.stb.STBVorbis.*;
+
+/**
+ * Decodes an ogg file whole, like {@code Sound} does, then through a {@link SoundStream} polled as fast as it decodes
+ * reports the decode time and the resident direct memory of both, and the main thread time per streamed chunk
+ * the streamed samples, the analysis window and a seek are checked against the whole decode
+ * no AL calls are made, so it runs headless
+ * arguments: [sound] [runs]
+ */
+public class SoundStreamBenchmark {
+
+    private static final int WINDOW = 1024, SEEK_SAMPLES = 64;
+
+    public static void main(String[] args) throws Exception {
+        Resource resource = new Resource(args.length > 0 ? args[0] : "sounds/song.ogg");
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        //the first run only warms up
+        for (int run = 0; run <= runs; run++) {
+            settle();
+            long m0 = directMemory(), t0 = System.nanoTime();
+            Decoded whole = decode(resource);
+            long t1 = System.nanoTime(), m1 = directMemory();
+            double seconds = whole.pcm.capacity() / (double) whole.channels / whole.sampleRate;
+
+            settle();
+            long s0 = System.nanoTime(), sm0 = directMemory();
+            SoundStream stream = SoundStream.open(resource);
+
+            //the main thread only polls, reads the window and recycles, like the streaming source does
+            long first = -1, frames = 0, pollNanos = 0;
+            int polls = 0;
+            boolean windowMatches = true;
+            float[] window = new float[WINDOW];
+            while (!stream.isFinished()) {
+                long p0 = System.nanoTime();
+                SoundStream.Chunk chunk = stream.poll();
+                if (chunk == null) {
+                    Thread.yield();
+                    continue;
+                }
+                if (first < 0)
+                    first = p0 - s0;
+
+                //the window ends with the chunk just polled
+                boolean inWindow = stream.readWindow(chunk.getPosition() + chunk.getFrames() - WINDOW, window);
+                long p1 = System.nanoTime();
+
+                //checked outside of the timed part
+                if (inWindow) {
+                    long start = chunk.getStart() + chunk.getFrames() - WINDOW;
+                    for (int i = 0; i < WINDOW && windowMatches; i++)
+                        windowMatches = window[i] == whole.pcm.get((int) ((start + i) * whole.channels)) / (float) Short.MAX_VALUE;
+                }
+                frames += chunk.getFrames();
+
+                long p2 = System.nanoTime();
+                stream.recycle(chunk);
+                pollNanos += p1 - p0 + System.nanoTime() - p2;
+                polls++;
+            }
+            long s1 = System.nanoTime();
+            settle();
+            long sm1 = directMemory();
+
+            //seek to the middle, the next chunk starts there
+            long target = stream.frames / 2;
+            stream.seek(target);
+            SoundStream.Chunk chunk;
+            while ((chunk = stream.poll()) == null)
+                Thread.sleep(1);
+            boolean seekMatches = chunk.getStart() == target;
+            for (int i = 0; i < SEEK_SAMPLES && seekMatches; i++)
+                seekMatches = chunk.getPcm().get(i) == whole.pcm.get((int) (target * whole.channels) + i);
+            stream.recycle(chunk);
+            stream.close();
+
+            if (frames * whole.channels != whole.pcm.capacity() || !windowMatches || !seekMatches) {
+                System.out.printf("FAILED: %d of %d frames streamed, window matches: %s, seek matches: %s%n", frames, whole.pcm.capacity() / whole.channels, windowMatches, seekMatches);
+                System.exit(1);
+            }
+
+            if (run > 0) {
+                System.out.printf("%s: %.1f s, %d channels, %d Hz, %.2f MB encoded%n", resource, seconds, whole.channels, whole.sampleRate, IOUtils.getResourceBuffer(resource).remaining() / 1048576.0);
+                System.out.printf("  whole decode:  %4.0f ms (%.0fx realtime), %.2f MB resident%n", (t1 - t0) / 1e6, seconds / ((t1 - t0) / 1e9), (m1 - m0) / 1048576.0);
+                System.out.printf("  stream decode: %4.0f ms (%.0fx realtime), first chunk after %.2f ms, %.2f MB resident%n", (s1 - s0) / 1e6, seconds / ((s1 - s0) / 1e9), first / 1e6, (sm1 - sm0) / 1048576.0);
+                System.out.printf("  main thread per chunk: %.1f us%n", pollNanos / 1e3 / polls);
+            }
+        }
+    }
+
+    //same as Sound.decodeSound
+    private static Decoded decode(Resource resource) {
+        try (STBVorbisInfo info = STBVorbisInfo.malloc()) {
+            IntBuffer error = BufferUtils.createIntBuffer(1);
+            ByteBuffer file = IOUtils.getResourceBuffer(resource);
+            long decoder = stb_vorbis_open_memory(file, error, null);
+            if (decoder == 0L)
+                throw new RuntimeException("Failed to open Ogg Vorbis file, error: " + error.get(0));
+
+            stb_vorbis_get_info(decoder, info);
+            int channels = info.channels();
+            ShortBuffer pcm = BufferUtils.createShortBuffer(stb_vorbis_stream_length_in_samples(decoder) * channels);
+            stb_vorbis_get_samples_short_interleaved(decoder, channels, pcm);
+            stb_vorbis_close(decoder);
+
+            return new Decoded(channels, info.sample_rate(), pcm);
+        }
+    }
+
+    //direct buffers are only freed once collected
+    private static void settle() throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+    }
+
+    private static long directMemory() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct"))
+                return pool.getMemoryUsed();
+        }
+        return -1L;
+    }
+
+    private record Decoded(int channels, int sampleRate, ShortBuffer pcm) {}
+}
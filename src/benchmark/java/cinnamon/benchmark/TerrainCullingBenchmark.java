@@ -0,0 +1,98 @@
+package cinnamon.benchmark;
+
+import cinnamon.registry.TerrainRegistry;
+import cinnamon.render.Camera;
+import cinnamon.world.terrain.Terrain;
+import cinnamon.world.worldgen.TerrainManager;
+import cinnamon.world.worldgen.TerrainStorage;
+import cinnamon.world.worldgen.TerrainVisibility;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frustum culling of 1M terrain, a 1000x1000 field of boxes with a few height steps, seen from its center
+ * every invocation culls one of 8 views, each looking a different way
+ * customQuery: the old path, a fresh {@link TerrainManager#queryCustom} list then a frustum test per terrain, like shouldRender did
+ * frustumQuery: {@link TerrainManager#queryFrustum}, walking the nodes with the plane masks inherited from their parents
+ * visibility: {@link TerrainVisibility#getVisible}, with every view already cached, as for the later passes of a frame or a still camera
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class TerrainCullingBenchmark {
+
+    private static final int SIDE = 1000, VIEWS = 8;
+
+    @Param({"OCTREE", "CHUNKED"})
+    public TerrainStorage storage;
+
+    private final Camera[] cameras = new Camera[VIEWS];
+    private final List<Terrain> result = new ArrayList<>();
+    private TerrainManager manager;
+    private TerrainVisibility visibility;
+    private int view;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(20);
+        manager = storage.create();
+        for (int i = 0; i < SIDE * SIDE; i++) {
+            Terrain t = new Terrain(null, TerrainRegistry.BOX);
+            t.setPos(i % SIDE, random.nextInt(4), i / SIDE);
+            manager.insert(t);
+        }
+
+        visibility = new TerrainVisibility(manager);
+        for (int i = 0; i < VIEWS; i++) {
+            Camera camera = new Camera();
+            camera.updateProjMatrix(1920, 1080, 90f);
+            camera.useOrtho(false);
+            camera.setPos(SIDE / 2f, 12f, SIDE / 2f);
+            camera.setRot(-10f, i * 360f / VIEWS, 0f);
+            camera.updateFrustum();
+            cameras[i] = camera;
+
+            //every path must find the same terrain
+            int visible = customQuery(camera);
+            if (visible != manager.queryFrustum(camera.getFrustum(), result).size() || visible != visibility.getVisible(camera.getFrustum()).size())
+                throw new IllegalStateException("Culling mismatch on view " + i);
+        }
+    }
+
+    @Benchmark
+    public int customQuery() {
+        return customQuery(nextView());
+    }
+
+    @Benchmark
+    public int frustumQuery() {
+        return manager.queryFrustum(nextView().getFrustum(), result).size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int visibility() {
+        return visibility.getVisible(nextView().getFrustum()).size();
+    }
+
+    private Camera nextView() {
+        view = (view + 1) % VIEWS;
+        return cameras[view];
+    }
+
+    private int customQuery(Camera camera) {
+        int visible = 0;
+        for (Terrain t : manager.queryCustom(camera::isInsideFrustum)) {
+            if (camera.isInsideFrustum(t.getAABB()))
+                visible++;
+        }
+        return visible;
+    }
+}
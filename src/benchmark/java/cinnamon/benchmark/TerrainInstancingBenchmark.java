@@ -0,0 +1,86 @@
+package cinnamon.benchmark;
+
+import cinnamon.model.material.Material;
+import cinnamon.registry.TerrainRegistry;
+import cinnamon.render.MatrixStack;
+import cinnamon.render.model.ModelInstancer;
+import cinnamon.render.model.ModelRenderer;
+import cinnamon.world.terrain.Terrain;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU time per frame of the instanced terrain path, for {@code tiles} visible terrain spread over {@code models} models
+ * every tile goes through {@link Terrain#renderInstanced}, then the {@link ModelInstancer} packs all groups into its buffer
+ * the upload and draws are left out, and so is the visibility test, as every tile is visible
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TerrainInstancingBenchmark {
+
+    @Param({"100000"})
+    public int tiles;
+
+    @Param({"1", "16"})
+    public int models;
+
+    private final ModelInstancer instancer = new ModelInstancer();
+    private final MatrixStack matrices = new MatrixStack();
+    private final List<Terrain> terrain = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(11);
+        ModelRenderer[] renderers = new ModelRenderer[models];
+        for (int i = 0; i < models; i++)
+            renderers[i] = new StubRenderer();
+
+        //a square of tiles, with a few materials and rotations mixed in
+        Material[] materials = {null, null, null, new Material("a"), new Material("b")};
+        int side = (int) Math.ceil(Math.sqrt(tiles));
+        for (int i = 0; i < tiles; i++) {
+            Tile tile = new Tile(renderers[random.nextInt(models)]);
+            tile.setPos(i % side, random.nextInt(4), i / side);
+            tile.setRotation(0f, random.nextInt(4) * 90f, 0f);
+            tile.setMaterial(materials[random.nextInt(materials.length)]);
+            terrain.add(tile);
+        }
+    }
+
+    @Benchmark
+    public int groupAndPack() {
+        for (Terrain t : terrain)
+            t.renderInstanced(instancer, matrices, 1f);
+
+        int floats = instancer.pack().remaining();
+        instancer.clear();
+        return floats;
+    }
+
+    private static class Tile extends Terrain {
+        private Tile(ModelRenderer model) {
+            super(null, TerrainRegistry.BOX);
+            this.model = model;
+        }
+    }
+
+    private static class StubRenderer extends ModelRenderer {
+        private StubRenderer() {
+            super(Map.of());
+        }
+
+        @Override
+        public Map<String, Material> getMaterials() {
+            return Map.of();
+        }
+    }
+}
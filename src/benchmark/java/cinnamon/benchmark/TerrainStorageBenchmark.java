@@ -0,0 +1,80 @@
+package cinnamon.benchmark;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.registry.TerrainRegistry;
+import cinnamon.world.terrain.Terrain;
+import cinnamon.world.worldgen.TerrainManager;
+import cinnamon.world.worldgen.TerrainStorage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert, query and remove throughput of the terrain storages, on a solid cube of unit boxes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TerrainStorageBenchmark {
+
+    @Param({"OCTREE", "CHUNKED"})
+    public TerrainStorage storage;
+
+    @Param({"10000", "100000", "1000000"})
+    public int blocks;
+
+    private Terrain[] terrain;
+    private TerrainManager manager;
+
+    private final AABB region = new AABB();
+    private final Random random = new Random(42);
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        //one box per unit cell
+        int side = (int) Math.ceil(Math.cbrt(blocks));
+        terrain = new Terrain[blocks];
+        for (int i = 0; i < blocks; i++) {
+            Terrain t = new Terrain(null, TerrainRegistry.BOX);
+            t.setPos(i % side, i / side % side, i / (side * side));
+            terrain[i] = t;
+        }
+
+        manager = storage.create();
+        for (Terrain t : terrain)
+            manager.insert(t);
+    }
+
+    @Benchmark
+    public void query(Blackhole blackhole) {
+        //a player sized box around a random block
+        Terrain t = terrain[random.nextInt(blocks)];
+        region.set(t.getAABB()).inflate(1f, 2f, 1f);
+        manager.query(region, blackhole::consume);
+    }
+
+    @Benchmark
+    public boolean removeInsert() {
+        Terrain t = terrain[next];
+        next = (next + 1) % blocks;
+        return manager.remove(t) & manager.insert(t);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public TerrainManager fill() {
+        TerrainManager fresh = storage.create();
+        for (Terrain t : terrain)
+            fresh.insert(t);
+        return fresh;
+    }
+}
@@ -0,0 +1,83 @@
+package cinnamon.benchmark;
+
+import cinnamon.model.Vertex;
+import cinnamon.render.MatrixStack;
+import cinnamon.render.batch.VertexConsumer;
+import cinnamon.render.shader.Attributes;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Faces per second packed into the world batches, through each of the {@link VertexConsumer} paths
+ * only the cpu side is measured, the batches are discarded instead of rendered, so no GL context is needed
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VertexConsumerBenchmark {
+
+    //faces per invocation, a bit over what a single batch holds
+    private static final int FACES = 8192;
+    private static final VertexConsumer CONSUMER = VertexConsumer.WORLD_MAIN;
+
+    //how many different textures the faces cycle through
+    @Param({"1", "12"})
+    public int textures;
+
+    private final MatrixStack matrices = new MatrixStack();
+    private final Vertex[] quad = {
+            new Vertex().pos(0f, 0f, 0f).uv(0f, 0f).normal(0f, 1f, 0f),
+            new Vertex().pos(1f, 0f, 0f).uv(1f, 0f).normal(0f, 1f, 0f),
+            new Vertex().pos(1f, 0f, 1f).uv(1f, 1f).normal(0f, 1f, 0f),
+            new Vertex().pos(0f, 0f, 1f).uv(0f, 1f).normal(0f, 1f, 0f)
+    };
+    private float[] raw;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        matrices.translate(1f, 2f, 3f);
+        matrices.rotateY(30f);
+
+        //a prebaked mesh of triangles, in the consumer layout
+        Attributes[] attributes = CONSUMER.getAttributes();
+        int size = Attributes.getVertexSize(attributes);
+        raw = new float[FACES * 3 * size];
+        for (int i = 0; i < FACES * 3; i++)
+            Attributes.putVertex(raw, i * size, attributes, i, 0f, i % 3, 0f, 0f, 1f, 1f, 1f, 1f, 0f, 1f, 0f);
+    }
+
+    @TearDown(Level.Invocation)
+    public void discard() {
+        VertexConsumer.discardBatches();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FACES)
+    public void vertices() {
+        for (int i = 0; i < FACES; i++)
+            CONSUMER.consume(quad, i % textures);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FACES)
+    public void emitter() {
+        for (int i = 0; i < FACES; i++) {
+            CONSUMER.begin(matrices).color(0xFFFFFFFF).normal(0f, 1f, 0f)
+                    .vertex(0f, 0f, 0f, 0f, 0f)
+                    .vertex(1f, 0f, 0f, 1f, 0f)
+                    .vertex(1f, 0f, 1f, 1f, 1f)
+                    .vertex(0f, 0f, 1f, 0f, 1f)
+                    .endFace(i % textures);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FACES)
+    public void raw() {
+        CONSUMER.consumeRaw(raw, FACES * 3, 0);
+    }
+}
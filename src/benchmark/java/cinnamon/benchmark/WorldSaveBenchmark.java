@@ -0,0 +1,261 @@
+package cinnamon.benchmark;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.registry.MaterialRegistry;
+import cinnamon.registry.TerrainRegistry;
+import cinnamon.world.terrain.Terrain;
+import cinnamon.world.worldgen.TerrainStorage;
+import cinnamon.world.worldgen.save.Compression;
+import cinnamon.world.worldgen.save.WorldSave;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Saves and loads a heightmap world through the region files, with every compression, and through a json file
+ * laid out like the old {@code LevelLoad} levels, one object per tile with a palette of tile characters
+ * every load is checked against the generated world, and one dirty chunk is saved incrementally after it
+ * arguments: [size] [depth] [runs]
+ */
+public class WorldSaveBenchmark {
+
+    private static final int HEIGHT = 64, CHUNK = 32;
+    private static final MaterialRegistry[] LAYERS = {MaterialRegistry.GRASS, MaterialRegistry.DIRT, MaterialRegistry.CLIFF_ROCK, MaterialRegistry.LAVA_ROCK};
+
+    private static AABB bounds;
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 512;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        bounds = new AABB(-size, -1f, -size, size, HEIGHT + 2, size);
+
+        MaterialRegistry.loadAllMaterials();
+
+        SaveWorld world = new SaveWorld();
+        long start = System.nanoTime();
+        generate(world, size, depth);
+        world.flush();
+        int total = count(world);
+        System.out.printf("%dx%dx%d world, %d terrain, generated in %.0f ms%n", size, HEIGHT, size, total, (System.nanoTime() - start) / 1e6);
+
+        //the first run only warms up
+        for (Compression compression : Compression.values()) {
+            Path folder = Files.createTempDirectory("save");
+            for (int run = 0; run <= runs; run++) {
+                clear(folder);
+
+                WorldSave save = new WorldSave(folder, compression);
+                long s0 = System.nanoTime();
+                save.saveAll(world).join();
+                save.close(world);
+                long s1 = System.nanoTime();
+
+                SaveWorld loaded = new SaveWorld();
+                WorldSave load = new WorldSave(folder, compression);
+                long l0 = System.nanoTime();
+                int count = load.load(loaded);
+                loaded.flush();
+                long l1 = System.nanoTime();
+                verify(world, loaded, count, total);
+
+                //one new piece, then only its chunk is written
+                loaded.setSave(load);
+                Terrain terrain = TerrainRegistry.BOX.getFactory().get();
+                terrain.setPos(3f, HEIGHT - 1, 3f);
+                loaded.addTerrain(terrain);
+                loaded.flush();
+                long i0 = System.nanoTime();
+                load.saveDirty(loaded).join();
+                long i1 = System.nanoTime();
+                load.close(loaded);
+
+                if (run > 0)
+                    System.out.printf("region %-7s save %6.0f ms, load %6.0f ms, %6.2f MB, one dirty chunk %.2f ms%n", compression.name().toLowerCase(), (s1 - s0) / 1e6, (l1 - l0) / 1e6, size(folder) / 1048576.0, (i1 - i0) / 1e6);
+            }
+            clear(folder);
+            Files.delete(folder);
+        }
+
+        Path json = Files.createTempFile("level", ".json");
+        for (int run = 0; run <= runs; run++) {
+            long s0 = System.nanoTime();
+            Files.writeString(json, toJson(world), StandardCharsets.UTF_8);
+            long s1 = System.nanoTime();
+
+            SaveWorld loaded = new SaveWorld();
+            int count = fromJson(loaded, Files.readString(json, StandardCharsets.UTF_8));
+            loaded.flush();
+            long l1 = System.nanoTime();
+            verify(world, loaded, count, total);
+
+            if (run > 0)
+                System.out.printf("json           save %6.0f ms, load %6.0f ms, %6.2f MB%n", (s1 - s0) / 1e6, (l1 - s1) / 1e6, Files.size(json) / 1048576.0);
+        }
+        Files.delete(json);
+    }
+
+    private static int height(int x, int z) {
+        return (int) (HEIGHT / 2 + 14 * Math.sin(x * 0.031) * Math.cos(z * 0.027) + 8 * Math.sin((x + z) * 0.11));
+    }
+
+    private static void generate(SaveWorld world, int size, int depth) {
+        Random random = new Random(3);
+        for (int x = -size / 2; x < size / 2; x++) {
+            for (int z = -size / 2; z < size / 2; z++) {
+                int h = Math.min(height(x, z), HEIGHT - 1);
+                for (int y = Math.max(0, h - depth + 1); y <= h; y++) {
+                    Terrain terrain = TerrainRegistry.BOX.getFactory().get();
+                    terrain.setMaterial(LAYERS[y == h ? 0 : y > h - 3 ? 1 : y > 8 ? 2 : 3].material);
+                    terrain.setPos(x, y, z);
+                    world.addTerrain(terrain);
+                }
+
+                //a few rotated slabs off the grid
+                if (random.nextInt(64) == 0) {
+                    Terrain slab = TerrainRegistry.SLAB.getFactory().get();
+                    slab.setPos(x + random.nextFloat(), h + 1, z + random.nextFloat());
+                    slab.setRotation(0f, random.nextFloat() * 360f, 0f);
+                    world.addTerrain(slab);
+                }
+            }
+        }
+    }
+
+    private static String toJson(SaveWorld world) {
+        Map<String, Character> palette = new LinkedHashMap<>();
+        Map<Long, JsonArray> chunks = new LinkedHashMap<>();
+        JsonArray chunkData = new JsonArray();
+
+        world.getTerrains(bounds, terrain -> {
+            Vector3f pos = terrain.getTransform().getPos();
+            Quaternionf rot = terrain.getTransform().getRot();
+            MaterialRegistry material = terrain.getMaterial() == null ? null : MaterialRegistry.findByMaterial(terrain.getMaterial());
+
+            String key = terrain.getType() + "|" + (material == null ? "" : material.name()) + "|" + rot.x + "|" + rot.y + "|" + rot.z + "|" + rot.w;
+            char tile = palette.computeIfAbsent(key, k -> (char) ('!' + palette.size()));
+
+            int cx = Math.floorDiv((int) Math.floor(pos.x), CHUNK), cy = Math.floorDiv((int) Math.floor(pos.y), CHUNK), cz = Math.floorDiv((int) Math.floor(pos.z), CHUNK);
+            long chunkKey = ((long) cx << 42) ^ ((long) (cy & 0x1FFFFF) << 21) ^ (cz & 0x1FFFFF);
+            JsonArray mapData = chunks.computeIfAbsent(chunkKey, k -> {
+                JsonObject chunk = new JsonObject();
+                chunk.addProperty("chunkX", cx);
+                chunk.addProperty("chunkY", cy);
+                chunk.addProperty("chunkZ", cz);
+                JsonArray array = new JsonArray();
+                chunk.add("mapData", array);
+                chunkData.add(chunk);
+                return array;
+            });
+
+            JsonObject data = new JsonObject();
+            data.addProperty("x", pos.x - cx * CHUNK);
+            data.addProperty("y", pos.y - cy * CHUNK);
+            data.addProperty("z", pos.z - cz * CHUNK);
+            data.addProperty("tile", tile);
+            mapData.add(data);
+        });
+
+        JsonObject terrainMap = new JsonObject();
+        palette.forEach((key, tile) -> terrainMap.addProperty(String.valueOf(tile), key));
+
+        JsonObject root = new JsonObject();
+        root.add("chunkData", chunkData);
+        root.add("terrainMap", terrainMap);
+        return new Gson().toJson(root);
+    }
+
+    private static int fromJson(SaveWorld world, String json) {
+        JsonObject root = JsonParser.parseString(json).getAsJsonObject();
+        Map<Character, String[]> terrainMap = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject("terrainMap").entrySet())
+            terrainMap.put(entry.getKey().charAt(0), entry.getValue().getAsString().split("\\|", -1));
+
+        int count = 0;
+        for (JsonElement element : root.getAsJsonArray("chunkData")) {
+            JsonObject chunk = element.getAsJsonObject();
+            int x0 = chunk.get("chunkX").getAsInt() * CHUNK, y0 = chunk.get("chunkY").getAsInt() * CHUNK, z0 = chunk.get("chunkZ").getAsInt() * CHUNK;
+
+            for (JsonElement tileElement : chunk.getAsJsonArray("mapData")) {
+                JsonObject data = tileElement.getAsJsonObject();
+                String[] tile = terrainMap.get(data.get("tile").getAsString().charAt(0));
+
+                Terrain terrain = TerrainRegistry.valueOf(tile[0]).getFactory().get();
+                if (!tile[1].isEmpty())
+                    terrain.setMaterial(MaterialRegistry.valueOf(tile[1]).material);
+                terrain.setRotation(new Quaternionf(Float.parseFloat(tile[2]), Float.parseFloat(tile[3]), Float.parseFloat(tile[4]), Float.parseFloat(tile[5])));
+                terrain.setPos(data.get("x").getAsFloat() + x0, data.get("y").getAsFloat() + y0, data.get("z").getAsFloat() + z0);
+                world.addTerrain(terrain);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static void verify(SaveWorld expected, SaveWorld loaded, int count, int total) {
+        if (count != total || count(loaded) != total)
+            fail(count + " terrain loaded, but " + total + " were saved");
+
+        //same pieces, compared as a multiset
+        Map<String, Integer> a = new HashMap<>(), b = new HashMap<>();
+        expected.getTerrains(bounds, terrain -> a.merge(key(terrain), 1, Integer::sum));
+        loaded.getTerrains(bounds, terrain -> b.merge(key(terrain), 1, Integer::sum));
+        if (!a.equals(b))
+            fail("the loaded terrain does not match the saved one");
+    }
+
+    private static String key(Terrain terrain) {
+        //json stores the positions relative to the chunk, which may be off by a rounding error
+        Vector3f pos = terrain.getTransform().getPos();
+        return String.format("%s %s %.3f %.3f %.3f %s", terrain.getType(), terrain.getMaterial(), pos.x, pos.y, pos.z, terrain.getTransform().getRot());
+    }
+
+    private static int count(SaveWorld world) {
+        int[] count = {0};
+        world.getTerrains(bounds, terrain -> count[0]++);
+        return count[0];
+    }
+
+    private static void clear(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : files.toList())
+                Files.delete(file);
+        }
+    }
+
+    private static long size(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            long size = 0;
+            for (Path file : files.toList())
+                size += Files.size(file);
+            return size;
+        }
+    }
+
+    private static void fail(String message) {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+
+    private static class SaveWorld extends HeadlessWorld {
+        @Override
+        protected TerrainStorage getTerrainStorage() {
+            return TerrainStorage.CHUNKED;
+        }
+    }
+}
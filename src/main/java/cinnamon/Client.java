@@ -11,12 +11,15 @@ import cinnamon.logger.Logger;
 import cinnamon.math.Timer;
 import cinnamon.messages.MessageCategory;
 import cinnamon.messages.MessageManager;
+import cinnamon.networking.ClientConnection;
+import cinnamon.networking.ServerConnection;
 import cinnamon.render.Camera;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.Window;
 import cinnamon.render.batch.VertexConsumer;
 import cinnamon.render.framebuffer.Framebuffer;
 import cinnamon.render.shader.PostProcess;
+import cinnamon.render.shader.Shader;
 import cinnamon.render.texture.AnimatedTexture;
 import cinnamon.settings.ArgsOptions;
 import cinnamon.settings.Settings;
@@ -24,6 +27,7 @@ import cinnamon.sound.SoundManager;
 import cinnamon.text.ClickEvent;
 import cinnamon.text.Style;
 import cinnamon.text.Text;
+import cinnamon.utils.AssetLoader;
 import cinnamon.utils.TextureIO;
 import cinnamon.utils.Version;
 import cinnamon.vr.XrManager;
@@ -136,7 +140,8 @@ public class Client {
         }
 
         runScheduledTicks();
-        //ServerConnection.tick();
+        ServerConnection.tick();
+        ClientConnection.tick();
         Await.tick();
 
         SoundManager.tick(camera);
@@ -168,6 +173,10 @@ public class Client {
     public void render() {
         frames++;
         float delta = timer.partialTick;
+        Shader.resetCounters();
+
+        //finish the assets loaded in the background
+        AssetLoader.processUploads();
 
         matrices.pushMatrix();
 
@@ -250,7 +259,7 @@ public class Client {
     }
 
     public void disconnect() {
-        //ClientConnection.disconnect();
+        ClientConnection.disconnect();
         queueTick(() -> {
             if (this.world != null)
                 this.world.close();
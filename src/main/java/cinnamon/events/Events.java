@@ -11,6 +11,7 @@ import cinnamon.render.batch.VertexConsumer;
 import cinnamon.render.shader.PostProcess;
 import cinnamon.render.shader.Shader;
 import cinnamon.render.shader.Shaders;
+import cinnamon.render.shader.UniformBlock;
 import cinnamon.render.texture.AnimatedTexture;
 import cinnamon.render.texture.CubeMap;
 import cinnamon.render.texture.SkyBox;
@@ -18,6 +19,8 @@ import cinnamon.render.texture.Texture;
 import cinnamon.settings.Settings;
 import cinnamon.sound.Sound;
 import cinnamon.sound.SoundManager;
+import cinnamon.utils.AssetLoader;
+import cinnamon.utils.Resource;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -31,6 +34,7 @@ import static cinnamon.events.EventType.RESOURCE_INIT;
 public class Events {
 
     public static final Logger LOGGER = new Logger(Logger.ROOT_NAMESPACE + "/resource");
+    public static final Resource PRELOAD_MANIFEST = new Resource("data/preload.json");
 
     //event map
     private final Map<EventType, List<Consumer<Object[]>>> eventMap = new HashMap<>(EventType.values().length, 1f);
@@ -57,6 +61,9 @@ public class Events {
         registerEvent(RESOURCE_INIT, o -> MaterialRegistry.loadAllMaterials());
         registerEvent(RESOURCE_INIT, o -> LangManager.init());
         registerEvent(RESOURCE_INIT, o -> GUISkin.init());
+        registerEvent(RESOURCE_INIT, o -> AssetLoader.preload(PRELOAD_MANIFEST));
+
+        registerEvent(RESOURCE_FREE, o -> AssetLoader.clear());
 
         registerEvent(RESOURCE_FREE, o -> Texture.freeAll());
         registerEvent(RESOURCE_FREE, o -> AnimatedTexture.freeAll());
@@ -65,6 +72,7 @@ public class Events {
         registerEvent(RESOURCE_FREE, o -> Sound.freeAllSounds());
         registerEvent(RESOURCE_FREE, o -> Shader.freeCache());
         registerEvent(RESOURCE_FREE, o -> Shaders.freeAll());
+        registerEvent(RESOURCE_FREE, o -> UniformBlock.freeAll());
         registerEvent(RESOURCE_FREE, o -> PostProcess.free());
         registerEvent(RESOURCE_FREE, o -> ModelManager.free());
         registerEvent(RESOURCE_FREE, o -> MaterialManager.free());
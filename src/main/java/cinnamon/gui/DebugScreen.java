@@ -17,11 +17,15 @@ import cinnamon.model.GeometryHelper;
 import cinnamon.registry.MaterialRegistry;
 import cinnamon.render.Camera;
 import cinnamon.render.DebugRenderer;
+import cinnamon.render.GlyphAtlas;
+import cinnamon.render.LightRenderer;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.Window;
 import cinnamon.render.WorldRenderer;
 import cinnamon.render.batch.VertexConsumer;
 import cinnamon.render.shader.PostProcess;
+import cinnamon.render.shader.Shader;
+import cinnamon.render.shader.UniformBlock;
 import cinnamon.settings.Settings;
 import cinnamon.sound.SoundCategory;
 import cinnamon.sound.SoundManager;
@@ -292,7 +296,7 @@ public class DebugScreen {
         float w = TextUtils.getWidth(text);
         float h = TextUtils.getHeight(text);
 
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x, y, x + w, y + h, bg));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x, y, x + w, y + h, bg);
 
         matrices.pushMatrix();
         matrices.translate(0, 0, UIHelper.getDepthOffset());
@@ -359,7 +363,7 @@ public class DebugScreen {
             float w = TextUtils.getWidth(text);
             float h = TextUtils.getHeight(text);
 
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x - 4, y - 4, x + w + 4, y + h + 4, bg));
+            GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x - 4, y - 4, x + w + 4, y + h + 4, bg);
 
             matrices.pushMatrix();
             matrices.translate(0, 0, UIHelper.getDepthOffset());
@@ -496,6 +500,8 @@ public class DebugScreen {
                     &e%s&r x &e%s&r gui scale &e%s&r fullscreen &e%s&r
                     vsync &e%s&r FPS limit &e%s&r @ &e%s&rhz
                     ticks &e%s&r frames &e%s&r
+                    uniform calls &e%s&r block updates &e%s&r
+                    glyph atlas &e%s&r sheets (&e%s&r KB)
 
                     [&beffects&r]
                     post process &e%s&r
@@ -512,6 +518,8 @@ public class DebugScreen {
                     w.width, w.height, w.guiScale, w.isFullscreen() ? "on" : "off",
                     Settings.vsync.get() ? "on" : "off", Settings.fpsLimit.get() <= 0 ? "unlimited" : Settings.fpsLimit.get() + " fps", w.getCurrentRefreshRate(),
                     c.ticks, c.frames,
+                    Shader.getUniformCalls(), UniformBlock.getUpdates(),
+                    GlyphAtlas.getSheetCount(), GlyphAtlas.getMemoryUsage() / 1024,
 
                     post == null ? "none" : post.name(),
                     c.anaglyph3D ? "on" : "off", XrManager.isInXR() ? "on" : "off",
@@ -626,8 +634,9 @@ public class DebugScreen {
                     time &e%s&rt &e%07.2f&rm &e%s&rh
                     day &e%s&r %s
                     camera &e%s&r
-                    &e%s&r light sources
-                    &e%s&r shadow casters
+                    &e%s&r light sources (&e%s&r clustered)
+                    &e%s&r shadow casters (&e%s&r cached)
+                    &e%s&r shadow draws
                     &e%s&r particles
                     &e%s&r decals""",
 
@@ -635,7 +644,10 @@ public class DebugScreen {
                     w.getDay(), w.isNight() ? "(night)" : "(day)",
                     camera,
                     WorldRenderer.getLightsCount(),
+                    LightRenderer.getClusteredLightsCount(),
                     WorldRenderer.getShadowsCount(),
+                    LightRenderer.getCachedShadowsCount(),
+                    WorldRenderer.getShadowCastersCount(),
                     WorldRenderer.getRenderedParticles(),
                     WorldRenderer.getDecalsCount()
             );
@@ -1,12 +1,14 @@
 package cinnamon.gui.screens;
 
 import cinnamon.gui.Screen;
+import cinnamon.gui.Toast;
 import cinnamon.gui.Twinkle;
 import cinnamon.gui.widgets.ContainerGrid;
 import cinnamon.gui.widgets.types.Button;
 import cinnamon.gui.widgets.types.Label;
 import cinnamon.math.Maths;
 import cinnamon.model.GeometryHelper;
+import cinnamon.networking.ServerConnection;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.batch.VertexConsumer;
 import cinnamon.render.texture.Texture;
@@ -46,13 +48,13 @@ public class MainMenu extends Screen {
 
         //open world
         Button worldButton = new MainButton(Text.translated("gui.main_menu.playground"), button -> {
+            //init the internal server, the world still opens offline without it
+            if (!ServerConnection.open())
+                Toast.addToast(Text.of("Unable to create the internal server"));
+
             //init client
-            //if (ServerConnection.open()) {
-                WorldClient world = new WorldClient();
-                world.init();
-            //} else {
-            //    Toast.addToast(Text.of("Unable to create the internal server"), client.font);
-            //}
+            WorldClient world = new WorldClient();
+            world.init();
         });
         grid.addWidget(worldButton);
 
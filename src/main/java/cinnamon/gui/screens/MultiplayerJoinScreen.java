@@ -83,7 +83,7 @@ public class MultiplayerJoinScreen extends ParentedScreen {
 
         Settings.playerName.set(name);
 
-        if (false) { //ClientConnection.connectToServer(ip, NetworkConstants.TCP_PORT, NetworkConstants.UDP_PORT, 10_000)) {
+        if (false) { //ClientConnection.connectToServer(ip, NetworkConstants.TCP_PORT, 10_000)) {
             WorldClient world = new WorldClient();
             world.init();
         } else {
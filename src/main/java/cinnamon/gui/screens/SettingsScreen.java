@@ -200,7 +200,7 @@ public class SettingsScreen extends ParentedScreen {
             @Override
             protected void renderWidgets(MatrixStack matrices, int mouseX, int mouseY, float delta) {
                 if (UIHelper.isMouseOver(this, mouseX, mouseY))
-                    VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, getX(), getY() + getHeight(), getX() + getWidth(), getY() + getHeight() + 1, getSkin().getInt("hovered_outline_color")));
+                    GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, getX(), getY() + getHeight(), getX() + getWidth(), getY() + getHeight() + 1, getSkin().getInt("hovered_outline_color"));
                 super.renderWidgets(matrices, mouseX, mouseY, delta);
             }
         };
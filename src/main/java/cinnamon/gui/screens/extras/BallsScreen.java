@@ -105,7 +105,7 @@ public class BallsScreen extends ParentedScreen {
         }
 
         public void render(MatrixStack matrices, int mouseX, int mouseY, float delta) {
-            VertexConsumer.MAIN.consume(GeometryHelper.circle(matrices, pos.x, pos.y, radius, 12, color));
+            GeometryHelper.circle(VertexConsumer.MAIN, matrices, pos.x, pos.y, radius, 12, color);
         }
 
         public void applyForce(Vector2f force) {
@@ -229,7 +229,7 @@ public class CollisionScreen extends ParentedScreen {
         boolean collided = hit != null;
 
         //draw line
-        VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, rayPos.x, rayPos.y, mouseX, mouseY, 1, collided ? 0xFFFFFF00 : 0xFFFFFFFF));
+        GeometryHelper.line(VertexConsumer.MAIN, matrices, rayPos.x, rayPos.y, mouseX, mouseY, 1, collided ? 0xFFFFFF00 : 0xFFFFFFFF);
 
         if (collided) {
             Vector3f near = hit.position();
@@ -239,7 +239,7 @@ public class CollisionScreen extends ParentedScreen {
             DebugRenderer.renderPoint(matrices, far, 3, 0xFFFF7200);
 
             Vector3f normal = hit.normal();
-            VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, near.x, near.y, near.x + normal.x * 10, near.y + normal.y * 10, 1, 0xFF72FF72));
+            GeometryHelper.line(VertexConsumer.MAIN, matrices, near.x, near.y, near.x + normal.x * 10, near.y + normal.y * 10, 1, 0xFF72FF72);
         }
     }
 
@@ -269,7 +269,7 @@ public class CollisionScreen extends ParentedScreen {
 
             //preview normal
             Vector3f normal = col.normal();
-            VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, near.x, near.y, near.x + normal.x * 10, near.y + normal.y * 10, 1, 0xFF72FF72));
+            GeometryHelper.line(VertexConsumer.MAIN, matrices, near.x, near.y, near.x + normal.x * 10, near.y + normal.y * 10, 1, 0xFF72FF72);
         }
     }
 
@@ -159,7 +159,7 @@ public class CurvesScreen extends ParentedScreen {
                 Point a = points.get(i);
                 Point b = points.get((i + 1) % size);
 
-                VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, a.getX() + R, a.getY() + R, b.getX() + R, b.getY() + R, 2, 0x88FF72AD));
+                GeometryHelper.line(VertexConsumer.MAIN, matrices, a.getX() + R, a.getY() + R, b.getX() + R, b.getY() + R, 2, 0x88FF72AD);
             }
         }
 
@@ -188,7 +188,7 @@ public class CurvesScreen extends ParentedScreen {
 
             Vector3f a = curve.get(i);
             Vector3f b = curve.get(i + 1);
-            VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, a.x, a.z, b.x, b.z, 1, color + (0xFF << 24)));
+            GeometryHelper.line(VertexConsumer.MAIN, matrices, a.x, a.z, b.x, b.z, 1, color + (0xFF << 24));
         }
     }
 
@@ -305,7 +305,7 @@ public class CurvesScreen extends ParentedScreen {
         public void renderWidget(MatrixStack matrices, int mouseX, int mouseY, float delta) {
             float d = UIHelper.tickDelta(0.6f);
             alpha = Math.lerp(alpha, this.isHoveredOrFocused() ? 1f : 0.5f, d);
-            VertexConsumer.MAIN.consume(GeometryHelper.circle(matrices, getX() + R, getY() + R, R, 12, 0xAD72FF + ((int) (alpha * 255) << 24)));
+            GeometryHelper.circle(VertexConsumer.MAIN, matrices, getX() + R, getY() + R, R, 12, 0xAD72FF + ((int) (alpha * 255) << 24));
         }
 
         @Override
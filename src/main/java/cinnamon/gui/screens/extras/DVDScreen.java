@@ -120,7 +120,7 @@ public class DVDScreen extends ParentedScreen {
         VertexConsumer.MAIN.consume(vertices, DVD_TEX);
 
         if (mousePressed)
-            VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, anchorX, anchorY, anchorX + directionX, anchorY + directionY, 1f, Colors.WHITE.argb));
+            GeometryHelper.line(VertexConsumer.MAIN, matrices, anchorX, anchorY, anchorX + directionX, anchorY + directionY, 1f, Colors.WHITE.argb);
 
         //render children on top
         super.render(matrices, mouseX, mouseY, delta);
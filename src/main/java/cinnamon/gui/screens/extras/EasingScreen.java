@@ -243,7 +243,7 @@ public class EasingScreen extends ParentedScreen {
         @Override
         public void renderWidget(MatrixStack matrices, int mouseX, int mouseY, float delta) {
             //background
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, getX(), getY(), getX() + getWidth(), getY() + getHeight(), 0x88000000));
+            GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, getX(), getY(), getX() + getWidth(), getY() + getHeight(), 0x88000000);
 
             //graph
             float d = UIHelper.getDepthOffset();
@@ -257,18 +257,18 @@ public class EasingScreen extends ParentedScreen {
 
                 Vector2f a = points.get(i);
                 Vector2f b = points.get(i + 1);
-                VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, a.x, a.y, b.x, b.y, 1f, color + (0xFF << 24)));
+                GeometryHelper.line(VertexConsumer.MAIN, matrices, a.x, a.y, b.x, b.y, 1f, color + (0xFF << 24));
             }
 
             //cursor
             int color = this.color + (0xFF << 24);
             Vector2f a = Maths.lerp(oPos, pos, delta);
 
-            VertexConsumer.MAIN.consume(GeometryHelper.circle(matrices, a.x, a.y, 2, 12, color));
+            GeometryHelper.circle(VertexConsumer.MAIN, matrices, a.x, a.y, 2, 12, color);
 
             if (renderLines) {
-                VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, 0f, a.y, getWidth(), a.y + 1, color));
-                VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, a.x, 0f, a.x + 1, getHeight(), color));
+                GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, 0f, a.y, getWidth(), a.y + 1, color);
+                GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, a.x, 0f, a.x + 1, getHeight(), color);
             }
 
             matrices.popMatrix();
@@ -568,17 +568,17 @@ public class MIDIScreen extends ParentedScreen {
             int color2 = ColorUtils.rgbToInt(ColorUtils.intToRGB(color).mul(0.65f)) + 0xFF000000;
 
             for (Vector2f press : new ArrayList<>(presses))
-                VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x + b, press.x + d, x + w - b, press.x + press.y + d, sharp ? color2 : color));
+                GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x + b, press.x + d, x + w - b, press.x + press.y + d, sharp ? color2 : color);
 
             //render key
             matrices.pushMatrix();
 
             float depth = UIHelper.getDepthOffset();
             matrices.translate(0f, 0f, depth * (sharp ? 2 : 0));
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x, y + (pressed && !sharp ? 4 : 0), x + w, y + h, sharp ? 0xFF000000 : 0xFFDDDDDD));
+            GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x, y + (pressed && !sharp ? 4 : 0), x + w, y + h, sharp ? 0xFF000000 : 0xFFDDDDDD);
 
             matrices.translate(0f, 0f, depth);
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x + b, y + (pressed && !sharp ? 4 : 0) + b, x + w - b, y + h - (pressed ? 0 : 4) - b, sharp ? 0xFF303030 : 0xFFFFFFFF));
+            GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x + b, y + (pressed && !sharp ? 4 : 0) + b, x + w - b, y + h - (pressed ? 0 : 4) - b, sharp ? 0xFF303030 : 0xFFFFFFFF);
 
             //render label
             String label = keys[key % 12];
@@ -212,11 +212,11 @@ public class ModelViewerScreen extends ParentedScreen {
                 glDisable(GL_CULL_FACE);
 
                 //ground plane
-                VertexConsumer.MAIN.consume(GeometryHelper.plane(matrices, -10f, 0f, -10f, 10f, 10f, 1, 1, 0x80000000));
-                VertexConsumer.MAIN.consume(GeometryHelper.plane(matrices, -0.5f, 0f, -0.5f, 0.5f, 0.5f, 1, 1, 0x80000000));
+                GeometryHelper.plane(VertexConsumer.MAIN, matrices, -10f, 0f, -10f, 10f, 10f, 1, 1, 0x80000000);
+                GeometryHelper.plane(VertexConsumer.MAIN, matrices, -0.5f, 0f, -0.5f, 0.5f, 0.5f, 1, 1, 0x80000000);
                 //axis lines
-                VertexConsumer.MAIN.consume(GeometryHelper.plane(matrices, 0f, 0f, -0.005f, 0.5f, 0.005f, 1, 1, 0x80FF0000));
-                VertexConsumer.MAIN.consume(GeometryHelper.plane(matrices, -0.005f, 0f, 0f, 0.005f, 0.5f, 1, 1, 0x800000FF));
+                GeometryHelper.plane(VertexConsumer.MAIN, matrices, 0f, 0f, -0.005f, 0.5f, 0.005f, 1, 1, 0x80FF0000);
+                GeometryHelper.plane(VertexConsumer.MAIN, matrices, -0.005f, 0f, 0f, 0.005f, 0.5f, 1, 1, 0x800000FF);
 
                 //bake and restore renderer
                 VertexConsumer.finishAllBatches(client.camera);
@@ -241,7 +241,7 @@ public class ModelViewerScreen extends ParentedScreen {
         if (!bone.isModel()) {
             matrices.pushMatrix();
             matrices.translate(bone.getTransform().getPivot());
-            VertexConsumer.WORLD_MAIN.consume(GeometryHelper.box(matrices, -size, -size, -size, size, size, size, 0xAA00F0FF));
+            GeometryHelper.box(VertexConsumer.WORLD_MAIN, matrices, -size, -size, -size, size, size, size, 0xAA00F0FF);
             matrices.popMatrix();
         }
 
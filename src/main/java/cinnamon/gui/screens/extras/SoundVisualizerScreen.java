@@ -53,7 +53,6 @@ public class SoundVisualizerScreen extends ParentedScreen {
     private final List<Track> playlist = new ArrayList<>();
     private int playlistIndex = -1;
 
-    private Sound sound;
     private SoundInstance soundData;
     private final SoundSpectrum spectrum = new SoundSpectrum();
 
@@ -191,7 +190,7 @@ public class SoundVisualizerScreen extends ParentedScreen {
 
         //slider for the playback control
         slider = new Slider((width - 240) / 2, height - 8 - 4, 240);
-        slider.setMax(sound != null ? sound.duration : 1);
+        slider.setMax(soundData != null ? Math.max((int) soundData.getDuration(), 1) : 1);
         slider.setChangeListener((f, i) -> {
             if (soundData != null)
                 soundData.setPlaybackTime(Math.max(i - 1, 0));
@@ -284,7 +283,7 @@ public class SoundVisualizerScreen extends ParentedScreen {
     @Override
     public void render(MatrixStack matrices, int mouseX, int mouseY, float delta) {
         //grab the audio spectrum and calculate the amplitudes
-        spectrum.updateAmplitudes(sound, soundData, true);
+        spectrum.updateAmplitudes(soundData, true);
         float[] amplitudes = spectrum.getAmplitudes();
 
         //draw bars
@@ -373,7 +372,7 @@ public class SoundVisualizerScreen extends ParentedScreen {
             Matrix4f pos = matrices.peek().pos();
 
             //front
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x, y - height, x + w, y, -d, color));
+            GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x, y - height, x + w, y, -d, color);
 
             //top
             Vertex[] vertices = GeometryHelper.rectangle(matrices, x, y - height - top, x + w, y - height, -d, color - 0x222222);
@@ -416,13 +415,12 @@ public class SoundVisualizerScreen extends ParentedScreen {
         Track track = playlist.get(index);
         Resource resource = track.resource;
 
-        //save properties and play the sound instance
-        sound = Sound.of(resource);
-        soundData = SoundManager.playSound(resource, SoundCategory.MUSIC);
+        //save properties and stream the sound instance
+        soundData = SoundManager.streamSound(resource, SoundCategory.MUSIC);
         soundData.loop(repeat == 1);
 
         //update widgets
-        slider.setMax(sound != null ? sound.duration : 1);
+        slider.setMax(Math.max((int) soundData.getDuration(), 1));
         playPauseButton.setIcon(PAUSE);
 
         //notify the user
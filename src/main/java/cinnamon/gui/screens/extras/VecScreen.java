@@ -33,8 +33,8 @@ public class VecScreen extends ParentedScreen {
         matrices.translate(width / 2f, height / 2f, 0f);
 
         //draw xy axis
-        VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, -width / 2f, 0, width / 2f, 0, 1f, Colors.WHITE.argb));
-        VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, 0, -height / 2f, 0, height / 2f, 1f, Colors.WHITE.argb));
+        GeometryHelper.line(VertexConsumer.MAIN, matrices, -width / 2f, 0, width / 2f, 0, 1f, Colors.WHITE.argb);
+        GeometryHelper.line(VertexConsumer.MAIN, matrices, 0, -height / 2f, 0, height / 2f, 1f, Colors.WHITE.argb);
 
         matrices.scale(scale, scale, 1f);
 
@@ -46,13 +46,12 @@ public class VecScreen extends ParentedScreen {
         for (int i = 0; i < vectors.size(); i++) {
             matrices.translate(0f, 0f, d);
             Vector2f vec = vectors.get(i);
-            VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, src.x, -src.y, src.x + vec.x, -src.y - vec.y, 3f / scale, (i % 2 == 0 ? Colors.YELLOW : Colors.ORANGE).argb));
+            GeometryHelper.line(VertexConsumer.MAIN, matrices, src.x, -src.y, src.x + vec.x, -src.y - vec.y, 3f / scale, (i % 2 == 0 ? Colors.YELLOW : Colors.ORANGE).argb);
             src.add(vec);
         }
 
         matrices.translate(0f, 0f, d);
-        VertexConsumer.MAIN.consume(
-                GeometryHelper.circle(matrices, src.x, -src.y, 3f / scale, 16, Colors.LIME.argb));
+        GeometryHelper.circle(VertexConsumer.MAIN, matrices, src.x, -src.y, 3f / scale, 16, Colors.LIME.argb);
 
         matrices.popMatrix();
         matrices.popMatrix();
@@ -196,7 +196,7 @@ public class WidgetTestScreen extends ParentedScreen {
             @Override
             public void renderWidget(MatrixStack matrices, int mouseX, int mouseY, float delta) {
                 setPos(mouseX - getWidth() / 2, mouseY - getHeight() / 2);
-                VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, getX(), getY(), getX() + getWidth(), getY() + getHeight(), 0x88 << 24));
+                GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, getX(), getY(), getX() + getWidth(), getY() + getHeight(), 0x88 << 24);
 
                 int x = getX(), y = getY() + getHeight() + 20;
                 int i = 0;
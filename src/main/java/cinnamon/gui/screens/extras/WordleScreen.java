@@ -455,12 +455,12 @@ public class WordleScreen extends ParentedScreen {
 
         @Override
         public void render(MatrixStack matrices, int mouseX, int mouseY, float delta) {
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(
-                    matrices,
+            GeometryHelper.rectangle(
+                    VertexConsumer.MAIN, matrices,
                     getX(), getY(),
                     getX() + getWidth(), getY() + getHeight(),
                     -1, color.argb
-            ));
+            );
 
             if (text != null)
                 text.render(VertexConsumer.MAIN, matrices, getCenterX(), getCenterY(), Alignment.CENTER);
@@ -597,12 +597,12 @@ public class WordleScreen extends ParentedScreen {
 
         @Override
         protected void renderBackground(MatrixStack matrices, int mouseX, int mouseY, float delta) {
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(
-                    matrices,
+            GeometryHelper.rectangle(
+                    VertexConsumer.MAIN, matrices,
                     getX(), getY(),
                     getX() + getWidth(), getY() + getHeight(),
                     -1, COLORS[isHoveredOrFocused() ? 6 : status].argb
-            ));
+            );
         }
 
         public void setStatus(int status) {
@@ -118,31 +118,31 @@ public class ChatScreen extends Screen {
         int backgroundColor = GUISkin.getCurrentSkin().getInt("chat_background_color");
 
         //field background
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, field.getX(), field.getY(), field.getX() + field.getWidth(), field.getY() + field.getHeight(), -UIHelper.getDepthOffset(), backgroundColor));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, field.getX(), field.getY(), field.getX() + field.getWidth(), field.getY() + field.getHeight(), -UIHelper.getDepthOffset(), backgroundColor);
 
         int chatX = 4;
         int chatY = 40;
 
         //chat background
         if (chatHeight > 0)
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(
-                    matrices,
+            GeometryHelper.rectangle(
+                    VertexConsumer.MAIN, matrices,
                     messageList.getAlignedX() - 2, messageList.getAlignedY() - 2,
                     messageList.getAlignedX() + messageList.getWidth() + 2, messageList.getAlignedY() + messageList.getHeight() + 2,
                     -UIHelper.getDepthOffset(), backgroundColor
-            ));
+            );
 
         //render scrollbar
         if (messageList.isScrollbarNeeded()) {
             int scrollbarHeight = (int) ((float) maxChatHeight / chatHeight * maxChatHeight);
             int scrollX = chatX + maxChatWidth;
             int scrollY = chatY + (int) (messageList.getScrollbar().getPercentage() * (maxChatHeight - scrollbarHeight));
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, scrollX + 1, scrollY, scrollX + 2, scrollY + scrollbarHeight - 4, -UIHelper.getDepthOffset(), GUISkin.getCurrentSkin().getInt("chat_scrollbar_color")));
+            GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, scrollX + 1, scrollY, scrollX + 2, scrollY + scrollbarHeight - 4, -UIHelper.getDepthOffset(), GUISkin.getCurrentSkin().getInt("chat_scrollbar_color"));
         }
 
         //render preview message
         if (showPreview) {
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, field.getX(), field.getY() + field.getHeight() + 2, field.getX() + field.getWidth(), field.getY() + field.getHeight() + 2 + field.getHeight(), -UIHelper.getDepthOffset(), backgroundColor));
+            GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, field.getX(), field.getY() + field.getHeight() + 2, field.getX() + field.getWidth(), field.getY() + field.getHeight() + 2 + field.getHeight(), -UIHelper.getDepthOffset(), backgroundColor);
             previewText.render(VertexConsumer.MAIN, matrices, field.getX() + 2, field.getY() + field.getHeight() + 2 + field.getHeight() - 2, Alignment.BOTTOM_LEFT);
         }
 
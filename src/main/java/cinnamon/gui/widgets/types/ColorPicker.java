@@ -426,10 +426,10 @@ public class ColorPicker extends Button {
 
             if (shift) { //saturation
                 matrices.translate(0f, 0f, d);
-                VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, getX(), y, getX() + getWidth(), y, 1, 0x44000000));
+                GeometryHelper.line(VertexConsumer.MAIN, matrices, getX(), y, getX() + getWidth(), y, 1, 0x44000000);
             } else if (ctrl) { //value
                 matrices.translate(0f, 0f, d);
-                VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, x, getY(), x, getY() + getHeight(), 1, 0x44000000));
+                GeometryHelper.line(VertexConsumer.MAIN, matrices, x, getY(), x, getY() + getHeight(), 1, 0x44000000);
             }
 
             //render crosshair
@@ -75,7 +75,7 @@ public class ConfirmPopup extends PopupWidget {
     protected void renderBackground(MatrixStack matrices, float delta) {
         float w = Client.getInstance().window.getGUIWidth();
         float h = Client.getInstance().window.getGUIHeight();
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, 0, 0, w, h, 0xDD000000));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, 0, 0, w, h, 0xDD000000);
     }
 
     public void setRenderBackground(boolean renderBackground) {
@@ -164,7 +164,7 @@ public class ModelViewer extends SelectableWidget {
         if (renderBounds) {
             Vector3f min = aabb.getMin();
             Vector3f max = aabb.getMax();
-            VertexConsumer.LINES.consume(GeometryHelper.box(matrices, min.x, min.y, min.z, max.x, max.y, max.z, 0xFFFFFFFF));
+            GeometryHelper.box(VertexConsumer.LINES, matrices, min.x, min.y, min.z, max.x, max.y, max.z, 0xFFFFFFFF);
             VertexConsumer.LINES.finishBatch(client.camera);
         }
 
@@ -261,7 +261,7 @@ public class TextField extends SelectableWidget implements Tickable {
         if (isActive() && isFocused() && (blinkSpeed <= 1 || blinkTime % blinkSpeed < blinkSpeed / 2)) {
             matrices.pushMatrix();
             matrices.translate(0, 0, UIHelper.getDepthOffset() * (Font.Z_DEPTH + 2));
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x, y, x + (getSkin().getInt(insert ? "cursor_insert_width" : "cursor_width")), y + height, getTextStyle().getColor()));
+            GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x, y, x + (getSkin().getInt(insert ? "cursor_insert_width" : "cursor_width")), y + height, getTextStyle().getColor());
             matrices.popMatrix();
         }
     }
@@ -270,7 +270,7 @@ public class TextField extends SelectableWidget implements Tickable {
         float t = x0;
         x0 = Math.min(x0, x1);
         x1 = Math.max(t, x1);
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x0, y, x1, y + height, selectionColor == null ? getSkin().getInt("accent_color") : selectionColor));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x0, y, x1, y + height, selectionColor == null ? getSkin().getInt("accent_color") : selectionColor);
     }
 
     protected void renderText(MatrixStack matrices, Text text, float x, float y) {
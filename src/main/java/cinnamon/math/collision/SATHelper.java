@@ -13,17 +13,8 @@ public class SATHelper {
             AXIS_Z = new Vector3f(0, 0, 1);
     public static final Vector3f[] AABB_AXES = {AXIS_X, AXIS_Y, AXIS_Z};
 
-    private static final float[]
-            minMaxA = new float[2],
-            minMaxB = new float[2];
-    private static final Vector3f
-            tempNormAxis = new Vector3f(),
-            tempCross = new Vector3f(),
-            tempDir = new Vector3f();
-
-    private static float
-            sweepTNear,
-            sweepTFar;
+    //scratch data is per thread, so collision queries can run from parallel entity ticks
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
 
     public static boolean intersectsOBBSAT(Vector3f cA, Vector3f hA, Vector3f a0, Vector3f a1, Vector3f a2, Vector3f cB, Vector3f hB, Vector3f b0, Vector3f b1, Vector3f b2) {
         //rotation matrix: r_ij = Ai dot Bj
@@ -65,27 +56,28 @@ public class SATHelper {
         ra = hA.x * ar12 + hA.y * ar02; rb = hB.x * ar21 + hB.y * ar20; return Math.abs(t1 * r02 - t0 * r12) <= ra + rb; //no axes found a separating plane - overlap
     }
 
-    private static float testAxis(Vector3f axis, Collider<?> a, Collider<?> b) {
+    private static float testAxis(Scratch s, Vector3f axis, Collider<?> a, Collider<?> b) {
         //invalid axis
         if (axis.lengthSquared() < Maths.KINDA_SMALL_NUMBER)
             return Float.MAX_VALUE;
 
-        axis.normalize(tempNormAxis);
-        a.project(tempNormAxis, minMaxA);
-        b.project(tempNormAxis, minMaxB);
+        axis.normalize(s.tempNormAxis);
+        a.project(s.tempNormAxis, s.minMaxA);
+        b.project(s.tempNormAxis, s.minMaxB);
 
         //returns overlap
         //positive = intersecting, negative = gap
-        return Math.min(minMaxA[1], minMaxB[1]) - Math.max(minMaxA[0], minMaxB[0]);
+        return Math.min(s.minMaxA[1], s.minMaxB[1]) - Math.max(s.minMaxA[0], s.minMaxB[0]);
     }
 
     public static Collision SATCollide(Collider<?> a, Collider<?> b, Vector3f[] axesA, Vector3f[] axesB) {
+        Scratch s = SCRATCH.get();
         float minDepth = Float.MAX_VALUE;
         Vector3f minAxis = new Vector3f();
 
         //test A axes
         for (Vector3f axis : axesA) {
-            float overlap = testAxis(axis, a, b);
+            float overlap = testAxis(s, axis, a, b);
             if (overlap <= 0f)
                 return null;
 
@@ -98,7 +90,7 @@ public class SATHelper {
         //test B axes and cross products
         if (axesB != null) {
             for (Vector3f axis : axesB) {
-                float overlap = testAxis(axis, a, b);
+                float overlap = testAxis(s, axis, a, b);
                 if (overlap <= 0f)
                     return null;
 
@@ -110,39 +102,40 @@ public class SATHelper {
 
             for (Vector3f axisA : axesA) {
                 for (Vector3f axisB : axesB) {
-                    axisA.cross(axisB, tempCross);
-                    float overlap = testAxis(tempCross, a, b);
+                    axisA.cross(axisB, s.tempCross);
+                    float overlap = testAxis(s, s.tempCross, a, b);
 
                     if (overlap <= 0f)
                         return null;
 
                     if (overlap < minDepth) {
                         minDepth = overlap;
-                        minAxis.set(tempCross);
+                        minAxis.set(s.tempCross);
                     }
                 }
             }
         }
 
         //ensure normal points from A to B
-        b.getCenter().sub(a.getCenter(), tempDir);
-        if (tempDir.dot(minAxis) < 0)
+        b.getCenter().sub(a.getCenter(), s.tempDir);
+        if (s.tempDir.dot(minAxis) < 0)
             minAxis.negate();
 
         return new Collision(minAxis, minDepth, a, b);
     }
 
-    private static boolean testAxisSweep(Vector3f axis, Collider<?> a, Collider<?> b, Vector3f sweepNormal, Vector3f velocity) {
+    private static boolean testAxisSweep(Scratch s, Vector3f axis, Collider<?> a, Collider<?> b, Vector3f sweepNormal, Vector3f velocity) {
         //invalid axis
         if (axis.lengthSquared() < Maths.KINDA_SMALL_NUMBER)
             return true;
 
-        axis.normalize(tempNormAxis);
+        float[] minMaxA = s.minMaxA, minMaxB = s.minMaxB;
+        axis.normalize(s.tempNormAxis);
 
         //project the shapes and velocity onto the axis
-        a.project(tempNormAxis, minMaxA);
-        b.project(tempNormAxis, minMaxB);
-        float projVel = tempNormAxis.dot(velocity);
+        a.project(s.tempNormAxis, minMaxA);
+        b.project(s.tempNormAxis, minMaxB);
+        float projVel = s.tempNormAxis.dot(velocity);
 
         //check if objects are moving parallel to the separating axis plane
         if (Math.abs(projVel) < Maths.KINDA_SMALL_NUMBER)
@@ -164,17 +157,17 @@ public class SATHelper {
         }
 
         //find the latest time of entry
-        if (tEnter > sweepTNear) {
-            sweepTNear = tEnter;
-            sweepNormal.set(tempNormAxis);
+        if (tEnter > s.sweepTNear) {
+            s.sweepTNear = tEnter;
+            sweepNormal.set(s.tempNormAxis);
         }
 
         //find the earliest time of exit
-        if (tExit < sweepTFar)
-            sweepTFar = tExit;
+        if (tExit < s.sweepTFar)
+            s.sweepTFar = tExit;
 
         //accept tangent contacts too (tNear == tFar) to avoid grazing false negatives
-        return sweepTNear <= sweepTFar;
+        return s.sweepTNear <= s.sweepTFar;
     }
 
     public static Hit SATSweep(Collider<?> a, Collider<?> b, Vector3f[] axesA, Vector3f[] axesB, Vector3f velocity) {
@@ -182,36 +175,38 @@ public class SATHelper {
             return null;
 
         //initialize time interval and collision normal
-        sweepTNear = -Float.MAX_VALUE;
-        sweepTFar  =  Float.MAX_VALUE;
+        Scratch s = SCRATCH.get();
+        s.sweepTNear = -Float.MAX_VALUE;
+        s.sweepTFar  =  Float.MAX_VALUE;
         Vector3f sweepNormal = new Vector3f();
 
         //test axes of the first object
         for (Vector3f axis : axesA)
-            if (!testAxisSweep(axis, a, b, sweepNormal, velocity))
+            if (!testAxisSweep(s, axis, a, b, sweepNormal, velocity))
                 return null;
 
         //test axes of the second object
         for (Vector3f axis : axesB)
-            if (!testAxisSweep(axis, a, b, sweepNormal, velocity))
+            if (!testAxisSweep(s, axis, a, b, sweepNormal, velocity))
                 return null;
 
         //test cross product axes
         for (Vector3f axisA : axesA) {
             for (Vector3f axisB : axesB) {
-                axisA.cross(axisB, tempCross);
-                if (!testAxisSweep(tempCross, a, b, sweepNormal, velocity))
+                axisA.cross(axisB, s.tempCross);
+                if (!testAxisSweep(s, s.tempCross, a, b, sweepNormal, velocity))
                     return null;
             }
         }
 
         //if no collision within the time frame [0, 1]
+        float sweepTNear = s.sweepTNear, sweepTFar = s.sweepTFar;
         if (sweepTNear > 1f || sweepTNear < 0f)
             return null;
 
         //ensure the normal points from the moving object (a) to the static one (b)
-        a.getCenter().sub(b.getCenter(), tempDir);
-        if (sweepNormal.dot(tempDir) < 0)
+        a.getCenter().sub(b.getCenter(), s.tempDir);
+        if (sweepNormal.dot(s.tempDir) < 0)
             sweepNormal.negate();
 
         Ray ray = new Ray(a.getCenter(), velocity, velocity.length());
@@ -223,4 +218,17 @@ public class SATHelper {
 
         return new Hit(hitPosition, sweepNormal, sweepTNear, sweepTFar, ray, b);
     }
+
+    private static class Scratch {
+        private final float[]
+                minMaxA = new float[2],
+                minMaxB = new float[2];
+        private final Vector3f
+                tempNormAxis = new Vector3f(),
+                tempCross = new Vector3f(),
+                tempDir = new Vector3f();
+        private float
+                sweepTNear,
+                sweepTFar;
+    }
 }
@@ -20,6 +20,7 @@ import java.util.List;
 public class MeshCollider extends Collider<MeshCollider> {
 
     private final Triangle[] triangles;
+    private final TriangleBVH bvh;
     private final AABB bounds;
 
     public MeshCollider(Mesh mesh) {
@@ -49,6 +50,7 @@ public class MeshCollider extends Collider<MeshCollider> {
 
         //wrap back into an array and calculate the bounding box of the mesh
         this.triangles = tris.toArray(new Triangle[0]);
+        this.bvh = new TriangleBVH(triangles);
         this.bounds = new AABB();
         this.recalculateBounds();
     }
@@ -57,6 +59,7 @@ public class MeshCollider extends Collider<MeshCollider> {
         this.triangles = new Triangle[mesh.triangles.length];
         for (int i = 0; i < mesh.triangles.length; i++)
             this.triangles[i] = mesh.triangles[i].clone();
+        this.bvh = new TriangleBVH(mesh.bvh, triangles);
         this.bounds = mesh.bounds.clone();
     }
 
@@ -83,6 +86,7 @@ public class MeshCollider extends Collider<MeshCollider> {
             }
             this.triangles[i / 3] = t;
         }
+        this.bvh = new TriangleBVH(triangles);
 
         //clone bounds if not null, otherwise recalculate the bounds
         if (bounds != null) {
@@ -101,6 +105,15 @@ public class MeshCollider extends Collider<MeshCollider> {
         return bounds;
     }
 
+    public TriangleBVH getBVH() {
+        return bvh;
+    }
+
+    protected void refit() {
+        bvh.refit();
+        recalculateBounds();
+    }
+
     protected void recalculateBounds() {
         if (triangles.length == 0)
             return;
@@ -152,6 +165,7 @@ public class MeshCollider extends Collider<MeshCollider> {
     public MeshCollider translate(float x, float y, float z) {
         for (Triangle tri : triangles)
             tri.translate(x, y, z);
+        bvh.translate(x, y, z);
         bounds.translate(x, y, z);
         return this;
     }
@@ -171,7 +185,7 @@ public class MeshCollider extends Collider<MeshCollider> {
             tri.v2.sub(anchorX, anchorY, anchorZ).rotate(rotation).add(anchorX, anchorY, anchorZ);
             tri.set(tri.v0, tri.v1, tri.v2, tri.getNormal().rotate(rotation).normalize());
         }
-        recalculateBounds();
+        refit();
         return this;
     }
 
@@ -191,7 +205,7 @@ public class MeshCollider extends Collider<MeshCollider> {
             tri.v2.sub(anchorX, anchorY, anchorZ).rotateX(rad).add(anchorX, anchorY, anchorZ);
             tri.set(tri.v0, tri.v1, tri.v2, tri.getNormal().rotateX(rad).normalize());
         }
-        recalculateBounds();
+        refit();
         return this;
     }
 
@@ -211,7 +225,7 @@ public class MeshCollider extends Collider<MeshCollider> {
             tri.v2.sub(anchorX, anchorY, anchorZ).rotateY(rad).add(anchorX, anchorY, anchorZ);
             tri.set(tri.v0, tri.v1, tri.v2, tri.getNormal().rotateY(rad).normalize());
         }
-        recalculateBounds();
+        refit();
         return this;
     }
 
@@ -231,7 +245,7 @@ public class MeshCollider extends Collider<MeshCollider> {
             tri.v2.sub(anchorX, anchorY, anchorZ).rotateZ(rad).add(anchorX, anchorY, anchorZ);
             tri.set(tri.v0, tri.v1, tri.v2, tri.getNormal().rotateZ(rad).normalize());
         }
-        recalculateBounds();
+        refit();
         return this;
     }
 
@@ -243,7 +257,7 @@ public class MeshCollider extends Collider<MeshCollider> {
         for (Triangle tri : triangles)
             tri.applyMatrix(matrix);
 
-        recalculateBounds();
+        refit();
         return this;
     }
 
@@ -252,12 +266,7 @@ public class MeshCollider extends Collider<MeshCollider> {
         if (!bounds.containsPoint(x, y, z))
             return false;
 
-        for (Triangle tri : triangles) {
-            if (tri.containsPoint(x, y, z))
-                return true;
-        }
-
-        return false;
+        return bvh.query(x, y, z, x, y, z, i -> triangles[i].containsPoint(x, y, z));
     }
 
     @Override
@@ -265,14 +274,8 @@ public class MeshCollider extends Collider<MeshCollider> {
         if (!bounds.containsPoint(x, y, z))
             return bounds.distanceToPoint(x, y, z);
 
-        float minDist = Float.MAX_VALUE;
-        for (Triangle tri : triangles) {
-            float dist = tri.distanceToPoint(x, y, z);
-            if (dist < minDist)
-                minDist = dist;
-        }
-
-        return minDist;
+        int closest = bvh.closestTriangle(x, y, z);
+        return closest < 0 ? Float.MAX_VALUE : triangles[closest].distanceToPoint(x, y, z);
     }
 
     @Override
@@ -281,21 +284,8 @@ public class MeshCollider extends Collider<MeshCollider> {
             return bounds.closestPoint(x, y, z, out);
 
         //if inside the broadphase bounds, find the actual closest triangle
-        float minDistSq = Float.MAX_VALUE;
-        float ox = 0f, oy = 0f, oz = 0f;
-
-        for (Triangle tri : triangles) {
-            tri.closestPoint(x, y, z, out);
-            float distSq = out.distanceSquared(x, y, z);
-            if (distSq < minDistSq) {
-                minDistSq = distSq;
-                ox = out.x;
-                oy = out.y;
-                oz = out.z;
-            }
-        }
-
-        return out.set(ox, oy, oz);
+        int closest = bvh.closestTriangle(x, y, z);
+        return closest < 0 ? out.set(0f) : triangles[closest].closestPoint(x, y, z, out);
     }
 
     @Override
@@ -333,26 +323,18 @@ public class MeshCollider extends Collider<MeshCollider> {
         if (!bounds.intersects(mesh.bounds))
             return false;
 
-        for (Triangle triA : triangles) {
-            for (Triangle triB : mesh.triangles) {
-                if (triA.intersects(triB))
-                    return true;
-            }
-        }
-
-        return false;
+        //walk our tree against the other mesh, then the other tree against each of our triangles
+        return bvh.query(mesh.bounds, a -> {
+            Triangle triA = triangles[a];
+            return mesh.bvh.query(triA.toAABB(), b -> triA.intersects(mesh.triangles[b]));
+        });
     }
 
     protected boolean genericIntersects(Collider<?> shape) {
         if (!bounds.intersects(shape))
             return false;
 
-        for (Triangle tri : triangles) {
-            if (tri.intersects(shape))
-                return true;
-        }
-
-        return false;
+        return bvh.query(shape.toAABB(), i -> triangles[i].intersects(shape));
     }
 
     @Override
@@ -360,13 +342,7 @@ public class MeshCollider extends Collider<MeshCollider> {
         if (bounds.rayCast(ray) == null)
             return null;
 
-        Hit closestHit = null;
-        for (Triangle tri : triangles) {
-            Hit hit = tri.rayCast(ray);
-            if (hit != null && (closestHit == null || hit.tNear() < closestHit.tNear()))
-                closestHit = hit;
-        }
-
+        Hit closestHit = bvh.rayCast(ray);
         if (closestHit != null)
             closestHit.setCollider(this);
 
@@ -403,16 +379,20 @@ public class MeshCollider extends Collider<MeshCollider> {
         if (!bounds.intersects(mesh.bounds))
             return null;
 
-        Collision bestCol = null;
+        Collision[] best = new Collision[1];
 
-        for (Triangle triA : triangles) {
-            for (Triangle triB : mesh.triangles) {
-                Collision col = triA.collide(triB);
-                if (col != null && (bestCol == null || col.depth() > bestCol.depth()))
-                    bestCol = col;
-            }
-        }
+        bvh.query(mesh.bounds, a -> {
+            Triangle triA = triangles[a];
+            mesh.bvh.query(triA.toAABB(), b -> {
+                Collision col = triA.collide(mesh.triangles[b]);
+                if (col != null && (best[0] == null || col.depth() > best[0].depth()))
+                    best[0] = col;
+                return false;
+            });
+            return false;
+        });
 
+        Collision bestCol = best[0];
         if (bestCol != null)
             bestCol = new Collision(bestCol.normal(), bestCol.depth(), this, mesh);
 
@@ -423,14 +403,16 @@ public class MeshCollider extends Collider<MeshCollider> {
         if (!bounds.intersects(shape))
             return null;
 
-        Collision bestCol = null;
+        Collision[] best = new Collision[1];
 
-        for (Triangle tri : triangles) {
-            Collision col = tri.collide(shape);
-            if (col != null && (bestCol == null || col.depth() > bestCol.depth()))
-                bestCol = col;
-        }
+        bvh.query(shape.toAABB(), i -> {
+            Collision col = triangles[i].collide(shape);
+            if (col != null && (best[0] == null || col.depth() > best[0].depth()))
+                best[0] = col;
+            return false;
+        });
 
+        Collision bestCol = best[0];
         if (bestCol != null)
             bestCol = new Collision(bestCol.normal(), bestCol.depth(), this, shape);
 
@@ -470,16 +452,21 @@ public class MeshCollider extends Collider<MeshCollider> {
         if (bounds.sweep(mesh.bounds, velocity) == null && !bounds.intersects(mesh.bounds))
             return null;
 
-        Hit bestHit = null;
-
-        for (Triangle triA : triangles) {
-            for (Triangle triB : mesh.triangles) {
-                Hit hit = triA.sweep(triB, velocity);
-                if (hit != null && (bestHit == null || hit.tNear() < bestHit.tNear()))
-                    bestHit = hit;
-            }
-        }
+        Hit[] best = new Hit[1];
+
+        //our triangles move by the velocity, so the other mesh is swept backwards to find the candidates
+        bvh.query(new AABB(mesh.bounds).expand(-velocity.x, -velocity.y, -velocity.z), a -> {
+            Triangle triA = triangles[a];
+            mesh.bvh.query(triA.toAABB().expand(velocity), b -> {
+                Hit hit = triA.sweep(mesh.triangles[b], velocity);
+                if (hit != null && (best[0] == null || hit.tNear() < best[0].tNear()))
+                    best[0] = hit;
+                return false;
+            });
+            return false;
+        });
 
+        Hit bestHit = best[0];
         if (bestHit != null)
             bestHit.setCollider(this);
 
@@ -490,14 +477,17 @@ public class MeshCollider extends Collider<MeshCollider> {
         if (bounds.sweep(shape, velocity) == null && !bounds.intersects(shape))
             return null;
 
-        Hit bestHit = null;
+        Hit[] best = new Hit[1];
 
-        for (Triangle tri : triangles) {
-            Hit hit = tri.sweep(shape, velocity);
-            if (hit != null && (bestHit == null || hit.tNear() < bestHit.tNear()))
-                bestHit = hit;
-        }
+        //only triangles whose swept bounds reach the shape can hit it
+        bvh.query(shape.toAABB().expand(-velocity.x, -velocity.y, -velocity.z), i -> {
+            Hit hit = triangles[i].sweep(shape, velocity);
+            if (hit != null && (best[0] == null || hit.tNear() < best[0].tNear()))
+                best[0] = hit;
+            return false;
+        });
 
+        Hit bestHit = best[0];
         if (bestHit != null)
             bestHit.setCollider(shape);
 
@@ -0,0 +1,455 @@
+package cinnamon.math.collision.shape;
+
+import cinnamon.math.collision.Hit;
+import cinnamon.math.collision.Ray;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Bounding volume hierarchy over a triangle array, built with binned SAH
+ * nodes and primitives are stored in flat arrays, children are always stored after their parent
+ */
+public class TriangleBVH {
+
+    private static final int BINS = 12;
+    private static final int MIN_LEAF_SIZE = 2;
+    private static final int MAX_LEAF_SIZE = 16;
+
+    private final Triangle[] triangles;
+
+    //per node: minX, minY, minZ, maxX, maxY, maxZ
+    private float[] bounds;
+    //per node: first child (inner) or first primitive (leaf), primitive count (0 for inner nodes)
+    private int[] nodes;
+    //triangle indices, reordered so every leaf owns a contiguous range
+    private final int[] primitives;
+    private int nodeCount;
+
+    public TriangleBVH(Triangle[] triangles) {
+        this.triangles = triangles;
+        this.primitives = new int[triangles.length];
+        build();
+    }
+
+    public TriangleBVH(TriangleBVH other, Triangle[] triangles) {
+        //same topology over a copied triangle array
+        this.triangles = triangles;
+        this.bounds = other.bounds.clone();
+        this.nodes = other.nodes.clone();
+        this.primitives = other.primitives.clone();
+        this.nodeCount = other.nodeCount;
+    }
+
+    // -- building -- //
+
+    private void build() {
+        int n = triangles.length;
+        bounds = new float[Math.max(2 * n - 1, 0) * 6];
+        nodes = new int[Math.max(2 * n - 1, 0) * 2];
+        nodeCount = 0;
+
+        if (n == 0)
+            return;
+
+        //cache triangle bounds and centroids
+        float[] triBounds = new float[n * 6];
+        float[] centroids = new float[n * 3];
+        for (int i = 0; i < n; i++) {
+            primitives[i] = i;
+            triangleBounds(triangles[i], triBounds, i * 6);
+            centroids[i * 3]     = (triBounds[i * 6]     + triBounds[i * 6 + 3]) * 0.5f;
+            centroids[i * 3 + 1] = (triBounds[i * 6 + 1] + triBounds[i * 6 + 4]) * 0.5f;
+            centroids[i * 3 + 2] = (triBounds[i * 6 + 2] + triBounds[i * 6 + 5]) * 0.5f;
+        }
+
+        //scratch for the binning
+        int[] binCount = new int[BINS];
+        float[] binBounds = new float[BINS * 6];
+        float[] rightArea = new float[BINS];
+        float[] box = new float[6];
+
+        //iterative build, so deep trees do not blow the call stack
+        int[] stack = new int[64];
+        int sp = 0;
+
+        nodes[0] = 0;
+        nodes[1] = n;
+        nodeCount = 1;
+        stack[sp++] = 0;
+
+        while (sp > 0) {
+            int node = stack[--sp];
+            int first = nodes[node * 2];
+            int count = nodes[node * 2 + 1];
+
+            //node bounds and centroid bounds
+            int b = node * 6;
+            emptyBox(bounds, b);
+            float cMinX = Float.POSITIVE_INFINITY, cMinY = Float.POSITIVE_INFINITY, cMinZ = Float.POSITIVE_INFINITY;
+            float cMaxX = Float.NEGATIVE_INFINITY, cMaxY = Float.NEGATIVE_INFINITY, cMaxZ = Float.NEGATIVE_INFINITY;
+            for (int i = first; i < first + count; i++) {
+                int p = primitives[i];
+                includeBox(bounds, b, triBounds, p * 6);
+                float cx = centroids[p * 3], cy = centroids[p * 3 + 1], cz = centroids[p * 3 + 2];
+                cMinX = Math.min(cMinX, cx); cMaxX = Math.max(cMaxX, cx);
+                cMinY = Math.min(cMinY, cy); cMaxY = Math.max(cMaxY, cy);
+                cMinZ = Math.min(cMinZ, cz); cMaxZ = Math.max(cMaxZ, cz);
+            }
+
+            if (count <= MIN_LEAF_SIZE)
+                continue;
+
+            //find the cheapest split plane over all axes
+            float nodeArea = surfaceArea(bounds, b);
+            float bestCost = Float.POSITIVE_INFINITY;
+            int bestAxis = -1, bestBin = -1;
+
+            for (int axis = 0; axis < 3; axis++) {
+                float cMin = axis == 0 ? cMinX : axis == 1 ? cMinY : cMinZ;
+                float cMax = axis == 0 ? cMaxX : axis == 1 ? cMaxY : cMaxZ;
+                if (cMax - cMin <= 0f)
+                    continue;
+
+                //fill the bins
+                float scale = BINS / (cMax - cMin);
+                Arrays.fill(binCount, 0);
+                for (int i = 0; i < BINS; i++)
+                    emptyBox(binBounds, i * 6);
+                for (int i = first; i < first + count; i++) {
+                    int p = primitives[i];
+                    int bin = Math.min((int) ((centroids[p * 3 + axis] - cMin) * scale), BINS - 1);
+                    binCount[bin]++;
+                    includeBox(binBounds, bin * 6, triBounds, p * 6);
+                }
+
+                //sweep from the right to get the right side areas
+                emptyBox(box, 0);
+                for (int i = BINS - 1; i > 0; i--) {
+                    includeBox(box, 0, binBounds, i * 6);
+                    rightArea[i] = surfaceArea(box, 0);
+                }
+
+                //then from the left, evaluating the cost of splitting after each bin
+                emptyBox(box, 0);
+                int leftCount = 0;
+                for (int i = 0; i < BINS - 1; i++) {
+                    includeBox(box, 0, binBounds, i * 6);
+                    leftCount += binCount[i];
+                    int rightCount = count - leftCount;
+                    if (leftCount == 0 || rightCount == 0)
+                        continue;
+
+                    float cost = leftCount * surfaceArea(box, 0) + rightCount * rightArea[i + 1];
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestAxis = axis;
+                        bestBin = i;
+                    }
+                }
+            }
+
+            //keep as a leaf when splitting is not worth it
+            float leafCost = count * nodeArea;
+            float splitCost = nodeArea + bestCost;
+            if (count <= MAX_LEAF_SIZE && (bestAxis < 0 || splitCost >= leafCost))
+                continue;
+
+            //partition the primitives around the split plane
+            int mid = first;
+            if (bestAxis >= 0) {
+                float cMin = bestAxis == 0 ? cMinX : bestAxis == 1 ? cMinY : cMinZ;
+                float cMax = bestAxis == 0 ? cMaxX : bestAxis == 1 ? cMaxY : cMaxZ;
+                float scale = BINS / (cMax - cMin);
+                int j = first + count - 1;
+                while (mid <= j) {
+                    int p = primitives[mid];
+                    int bin = Math.min((int) ((centroids[p * 3 + bestAxis] - cMin) * scale), BINS - 1);
+                    if (bin <= bestBin) {
+                        mid++;
+                    } else {
+                        primitives[mid] = primitives[j];
+                        primitives[j--] = p;
+                    }
+                }
+            }
+
+            //no usable split (all centroids on the same spot), halve the range instead
+            if (mid == first || mid == first + count)
+                mid = first + count / 2;
+
+            int left = nodeCount;
+            nodeCount += 2;
+
+            nodes[left * 2] = first;
+            nodes[left * 2 + 1] = mid - first;
+            nodes[left * 2 + 2] = mid;
+            nodes[left * 2 + 3] = first + count - mid;
+
+            nodes[node * 2] = left;
+            nodes[node * 2 + 1] = 0;
+
+            if (sp + 2 > stack.length)
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[sp++] = left + 1;
+            stack[sp++] = left;
+        }
+
+        //trim the unused tail
+        bounds = Arrays.copyOf(bounds, nodeCount * 6);
+        nodes = Arrays.copyOf(nodes, nodeCount * 2);
+    }
+
+    // -- updating -- //
+
+    public void refit() {
+        //children are always after their parents, so a reverse walk is bottom-up
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            int b = node * 6;
+            int first = nodes[node * 2];
+            int count = nodes[node * 2 + 1];
+
+            if (count > 0) {
+                emptyBox(bounds, b);
+                for (int i = first; i < first + count; i++) {
+                    Triangle tri = triangles[primitives[i]];
+                    includePoint(bounds, b, tri.v0);
+                    includePoint(bounds, b, tri.v1);
+                    includePoint(bounds, b, tri.v2);
+                }
+            } else {
+                System.arraycopy(bounds, first * 6, bounds, b, 6);
+                includeBox(bounds, b, bounds, (first + 1) * 6);
+            }
+        }
+    }
+
+    public void translate(float x, float y, float z) {
+        for (int i = 0; i < nodeCount * 6; i += 6) {
+            bounds[i] += x; bounds[i + 1] += y; bounds[i + 2] += z;
+            bounds[i + 3] += x; bounds[i + 4] += y; bounds[i + 5] += z;
+        }
+    }
+
+    // -- queries -- //
+
+    /**
+     * Visits every triangle whose node bounds overlap the given box
+     * @param visitor receives the triangle index, returning true stops the traversal
+     * @return true if the visitor stopped the traversal
+     */
+    public boolean query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, IntPredicate visitor) {
+        if (nodeCount == 0)
+            return false;
+
+        int[] stack = new int[64];
+        int sp = 0;
+        stack[sp++] = 0;
+
+        while (sp > 0) {
+            int node = stack[--sp];
+            int b = node * 6;
+            if (bounds[b] > maxX || bounds[b + 3] < minX || bounds[b + 1] > maxY || bounds[b + 4] < minY || bounds[b + 2] > maxZ || bounds[b + 5] < minZ)
+                continue;
+
+            int first = nodes[node * 2];
+            int count = nodes[node * 2 + 1];
+            if (count > 0) {
+                for (int i = first; i < first + count; i++) {
+                    if (visitor.test(primitives[i]))
+                        return true;
+                }
+            } else {
+                if (sp + 2 > stack.length)
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[sp++] = first + 1;
+                stack[sp++] = first;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean query(AABB aabb, IntPredicate visitor) {
+        return query(aabb.minX(), aabb.minY(), aabb.minZ(), aabb.maxX(), aabb.maxY(), aabb.maxZ(), visitor);
+    }
+
+    public Hit rayCast(Ray ray) {
+        if (nodeCount == 0)
+            return null;
+
+        Vector3f origin = ray.getOrigin();
+        Vector3f dir = ray.getDirection();
+        float maxDist = ray.getMaxDistance();
+
+        //avoid 0 * inf on axis-parallel rays
+        float invX = 1f / (dir.x == 0f ? 1e-30f : dir.x);
+        float invY = 1f / (dir.y == 0f ? 1e-30f : dir.y);
+        float invZ = 1f / (dir.z == 0f ? 1e-30f : dir.z);
+
+        Hit closest = null;
+        float closestDist = maxDist;
+
+        int[] stack = new int[64];
+        int sp = 0;
+        stack[sp++] = 0;
+
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (rayBox(node * 6, origin, invX, invY, invZ, closestDist) == Float.POSITIVE_INFINITY)
+                continue;
+
+            int first = nodes[node * 2];
+            int count = nodes[node * 2 + 1];
+            if (count > 0) {
+                for (int i = first; i < first + count; i++) {
+                    Hit hit = triangles[primitives[i]].rayCast(ray);
+                    if (hit != null && (closest == null || hit.tNear() < closest.tNear())) {
+                        closest = hit;
+                        closestDist = hit.tNear() * maxDist;
+                    }
+                }
+            } else {
+                //visit the nearest child first so the far one is more likely to be pruned
+                float tl = rayBox(first * 6, origin, invX, invY, invZ, closestDist);
+                float tr = rayBox((first + 1) * 6, origin, invX, invY, invZ, closestDist);
+                if (sp + 2 > stack.length)
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                if (tl <= tr) {
+                    if (tr != Float.POSITIVE_INFINITY) stack[sp++] = first + 1;
+                    if (tl != Float.POSITIVE_INFINITY) stack[sp++] = first;
+                } else {
+                    if (tl != Float.POSITIVE_INFINITY) stack[sp++] = first;
+                    stack[sp++] = first + 1;
+                }
+            }
+        }
+
+        return closest;
+    }
+
+    /**
+     * @return the index of the triangle closest to the point, or -1 if there are no triangles
+     */
+    public int closestTriangle(float x, float y, float z) {
+        if (nodeCount == 0)
+            return -1;
+
+        Vector3f point = new Vector3f();
+        int best = -1;
+        float bestDistSq = Float.POSITIVE_INFINITY;
+
+        int[] stack = new int[64];
+        int sp = 0;
+        stack[sp++] = 0;
+
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (boxDistanceSq(node * 6, x, y, z) >= bestDistSq)
+                continue;
+
+            int first = nodes[node * 2];
+            int count = nodes[node * 2 + 1];
+            if (count > 0) {
+                for (int i = first; i < first + count; i++) {
+                    int p = primitives[i];
+                    float distSq = triangles[p].closestPoint(x, y, z, point).distanceSquared(x, y, z);
+                    if (distSq < bestDistSq) {
+                        bestDistSq = distSq;
+                        best = p;
+                    }
+                }
+            } else {
+                float dl = boxDistanceSq(first * 6, x, y, z);
+                float dr = boxDistanceSq((first + 1) * 6, x, y, z);
+                if (sp + 2 > stack.length)
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                if (dl <= dr) {
+                    stack[sp++] = first + 1;
+                    stack[sp++] = first;
+                } else {
+                    stack[sp++] = first;
+                    stack[sp++] = first + 1;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getDepth() {
+        if (nodeCount == 0)
+            return 0;
+
+        int[] depth = new int[nodeCount];
+        int max = 1;
+        depth[0] = 1;
+        for (int node = 0; node < nodeCount; node++) {
+            max = Math.max(max, depth[node]);
+            if (nodes[node * 2 + 1] == 0) {
+                int child = nodes[node * 2];
+                depth[child] = depth[child + 1] = depth[node] + 1;
+            }
+        }
+        return max;
+    }
+
+    // -- helpers -- //
+
+    private float rayBox(int b, Vector3f origin, float invX, float invY, float invZ, float maxDist) {
+        //slab test, returns the entry distance or infinity when missed
+        float t1 = (bounds[b]     - origin.x) * invX, t2 = (bounds[b + 3] - origin.x) * invX;
+        float t3 = (bounds[b + 1] - origin.y) * invY, t4 = (bounds[b + 4] - origin.y) * invY;
+        float t5 = (bounds[b + 2] - origin.z) * invZ, t6 = (bounds[b + 5] - origin.z) * invZ;
+
+        float tNear = Math.max(Math.max(Math.min(t1, t2), Math.min(t3, t4)), Math.min(t5, t6));
+        float tFar  = Math.min(Math.min(Math.max(t1, t2), Math.max(t3, t4)), Math.max(t5, t6));
+
+        if (tFar < 0f || tNear > tFar || tNear > maxDist)
+            return Float.POSITIVE_INFINITY;
+        return tNear;
+    }
+
+    private float boxDistanceSq(int b, float x, float y, float z) {
+        float dx = Math.max(Math.max(bounds[b] - x, 0f), x - bounds[b + 3]);
+        float dy = Math.max(Math.max(bounds[b + 1] - y, 0f), y - bounds[b + 4]);
+        float dz = Math.max(Math.max(bounds[b + 2] - z, 0f), z - bounds[b + 5]);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static void triangleBounds(Triangle tri, float[] out, int o) {
+        emptyBox(out, o);
+        includePoint(out, o, tri.v0);
+        includePoint(out, o, tri.v1);
+        includePoint(out, o, tri.v2);
+    }
+
+    private static void emptyBox(float[] box, int o) {
+        box[o] = box[o + 1] = box[o + 2] = Float.POSITIVE_INFINITY;
+        box[o + 3] = box[o + 4] = box[o + 5] = Float.NEGATIVE_INFINITY;
+    }
+
+    private static void includePoint(float[] box, int o, Vector3f p) {
+        box[o]     = Math.min(box[o], p.x);     box[o + 3] = Math.max(box[o + 3], p.x);
+        box[o + 1] = Math.min(box[o + 1], p.y); box[o + 4] = Math.max(box[o + 4], p.y);
+        box[o + 2] = Math.min(box[o + 2], p.z); box[o + 5] = Math.max(box[o + 5], p.z);
+    }
+
+    private static void includeBox(float[] box, int o, float[] src, int s) {
+        box[o]     = Math.min(box[o], src[s]);         box[o + 3] = Math.max(box[o + 3], src[s + 3]);
+        box[o + 1] = Math.min(box[o + 1], src[s + 1]); box[o + 4] = Math.max(box[o + 4], src[s + 4]);
+        box[o + 2] = Math.min(box[o + 2], src[s + 2]); box[o + 5] = Math.max(box[o + 5], src[s + 5]);
+    }
+
+    private static float surfaceArea(float[] box, int o) {
+        float dx = box[o + 3] - box[o], dy = box[o + 4] - box[o + 1], dz = box[o + 5] - box[o + 2];
+        if (dx < 0f || dy < 0f || dz < 0f)
+            return 0f;
+        return 2f * (dx * dy + dy * dz + dz * dx);
+    }
+}
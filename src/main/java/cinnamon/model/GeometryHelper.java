@@ -2,6 +2,8 @@ package cinnamon.model;
 
 import cinnamon.math.Maths;
 import cinnamon.render.MatrixStack;
+import cinnamon.render.batch.VertexConsumer;
+import cinnamon.render.batch.VertexEmitter;
 import org.joml.Math;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
@@ -855,4 +857,253 @@ public class GeometryHelper {
 
         return quads;
     }
+
+
+    // * direct emission * //
+    //same shapes as above, written straight into the consumer batches instead of returning vertices
+
+
+    public static void quad(VertexConsumer consumer, MatrixStack matrices, float x, float y, float width, float height, int texture) {
+        quad(consumer, matrices, x, y, width, height, 1, 1, texture);
+    }
+
+    public static void quad(VertexConsumer consumer, MatrixStack matrices, float x, float y, float width, float height, int hFrames, int vFrames, int texture) {
+        quad(consumer, matrices, x, y, width, height, 0, 0, 1f, 1f, hFrames, vFrames, texture);
+    }
+
+    public static void quad(VertexConsumer consumer, MatrixStack matrices, float x, float y, float width, float height, float u, float v, float regionW, float regionH, int textureW, int textureH, int texture) {
+        quad(consumer, matrices, x, y, width, height, u, v, regionW, regionH, textureW, textureH, 0xFFFFFFFF, texture);
+    }
+
+    public static void quad(VertexConsumer consumer, MatrixStack matrices, float x, float y, float width, float height, float u, float v, float regionW, float regionH, int textureW, int textureH, int color, int texture) {
+        float u0 = u / textureW;
+        float v0 = v / textureH;
+        float u1 = (u + regionW) / (float) textureW;
+        float v1 = (v + regionH) / (float) textureH;
+
+        float x1 = x + width;
+        float y1 = y + height;
+
+        consumer.begin(matrices).color(color)
+                .vertex(x, y1, 0f, u0, v1)
+                .vertex(x1, y1, 0f, u1, v1)
+                .vertex(x1, y, 0f, u1, v0)
+                .vertex(x, y, 0f, u0, v0)
+                .endFace(texture);
+    }
+
+    public static void quad(VertexConsumer consumer, MatrixStack matrices, float x0, float y0, float width, float height, float z, float u0, float u1, float v0, float v1, int texture) {
+        float x1 = x0 + width;
+        float y1 = y0 + height;
+
+        consumer.begin(matrices)
+                .vertex(x0, y1, z, u0, v1)
+                .vertex(x1, y1, z, u1, v1)
+                .vertex(x1, y0, z, u1, v0)
+                .vertex(x0, y0, z, u0, v0)
+                .endFace(texture);
+    }
+
+    public static void circle(VertexConsumer consumer, MatrixStack matrices, float x, float y, float radius, int sides, int color) {
+        circle(consumer, matrices, x, y, radius, 1f, sides, color);
+    }
+
+    public static void circle(VertexConsumer consumer, MatrixStack matrices, float x, float y, float radius, float progress, int sides, int color) {
+        if (progress <= 0)
+            return;
+
+        float f = Math.toRadians(-90f);
+        float max = Math.toRadians(360f * progress) + f;
+        float aStep = Math.toRadians(360f / Math.max(sides, 3));
+        int count = (int) Math.ceil(Math.max(sides, 3) * progress) + 2;
+
+        //center, then the border backwards
+        VertexEmitter emitter = consumer.begin(matrices).color(color).vertex(x, y, 0);
+        for (int i = count - 1; i >= 1; i--) {
+            float angle = aStep * (i - 1) + f;
+            float x1 = Math.cos(angle) * radius;
+            float y1 = Math.sin(angle) * radius;
+
+            if (angle > max) {
+                float prevAngle = aStep * (i - 2) + f;
+                float t = (max - prevAngle) / (angle - prevAngle);
+                x1 = Math.lerp(Math.cos(prevAngle) * radius, x1, t);
+                y1 = Math.lerp(Math.sin(prevAngle) * radius, y1, t);
+            }
+
+            emitter.vertex(x + x1, y + y1, 0);
+        }
+        emitter.endFace(-1);
+    }
+
+    public static void arc(VertexConsumer consumer, MatrixStack matrices, float x, float y, float radius, float start, float end, float thickness, int sides, int color) {
+        if (start >= end)
+            return;
+
+        float f = Math.toRadians(-90f);
+        float min = Math.toRadians(360f * start) + f;
+        float max = Math.toRadians(360f * end) + f;
+        float aStep = Math.toRadians(360f / Math.max(sides, 3));
+
+        float firstStep = (Math.floor((min - f) / aStep) * aStep) + f;
+        float lastStep = (Math.ceil((max - f) / aStep) * aStep) + f;
+        float iRadius = radius - thickness;
+        int count = (int) Math.ceil((lastStep - firstStep) / aStep);
+
+        VertexEmitter emitter = consumer.begin(matrices).color(color);
+        for (int i = 0; i < count; i++) {
+            float angle1 = firstStep + aStep * i;
+            float angle2 = angle1 + aStep;
+
+            float cos1 = Math.cos(angle1);
+            float sin1 = Math.sin(angle1);
+            float cos2 = Math.cos(angle2);
+            float sin2 = Math.sin(angle2);
+
+            float x1 = cos1 * radius, y1 = sin1 * radius;
+            float x3 = cos1 * iRadius, y3 = sin1 * iRadius;
+
+            if (angle1 < min) {
+                float t = (min - angle1) / (angle2 - angle1);
+                x1 = Math.lerp(x1, cos2 * radius, t);
+                y1 = Math.lerp(y1, sin2 * radius, t);
+                x3 = Math.lerp(x3, cos2 * iRadius, t);
+                y3 = Math.lerp(y3, sin2 * iRadius, t);
+            }
+
+            float x2 = cos2 * radius, y2 = sin2 * radius;
+            float x4 = cos2 * iRadius, y4 = sin2 * iRadius;
+
+            if (angle2 > max) {
+                float t = (max - angle1) / (angle2 - angle1);
+                x2 = Math.lerp(cos1 * radius, x2, t);
+                y2 = Math.lerp(sin1 * radius, y2, t);
+                x4 = Math.lerp(cos1 * iRadius, x4, t);
+                y4 = Math.lerp(sin1 * iRadius, y4, t);
+            }
+
+            emitter.vertex(x + x1, y + y1, 0)
+                    .vertex(x + x3, y + y3, 0)
+                    .vertex(x + x4, y + y4, 0)
+                    .vertex(x + x2, y + y2, 0)
+                    .endFace(-1);
+        }
+    }
+
+    public static void line(VertexConsumer consumer, MatrixStack matrices, float x0, float y0, float x1, float y1, float size, int color) {
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float len = Math.sqrt(dx * dx + dy * dy);
+
+        if (len <= 0f)
+            return;
+
+        float halfSize = size * 0.5f;
+        float nx = (-dy / len) * halfSize;
+        float ny = ( dx / len) * halfSize;
+
+        consumer.begin(matrices).color(color)
+                .vertex(x0 + nx, y0 + ny, 0, 0f, 1f)
+                .vertex(x1 + nx, y1 + ny, 0, 1f, 1f)
+                .vertex(x1 - nx, y1 - ny, 0, 1f, 0f)
+                .vertex(x0 - nx, y0 - ny, 0, 0f, 0f)
+                .endFace(-1);
+    }
+
+    public static void rectangle(VertexConsumer consumer, MatrixStack matrices, float x0, float y0, float x1, float y1, int color) {
+        rectangle(consumer, matrices, x0, y0, x1, y1, 0, color);
+    }
+
+    public static void rectangle(VertexConsumer consumer, MatrixStack matrices, float x0, float y0, float x1, float y1, float z, int color) {
+        consumer.begin(matrices).color(color)
+                .vertex(x0, y1, z, 0f, 1f)
+                .vertex(x1, y1, z, 1f, 1f)
+                .vertex(x1, y0, z, 1f, 0f)
+                .vertex(x0, y0, z, 0f, 0f)
+                .endFace(-1);
+    }
+
+    public static void plane(VertexConsumer consumer, MatrixStack matrices, float x0, float y, float z0, float x1, float z1, int cellsX, int cellsZ, int color) {
+        if (cellsX <= 0 || cellsZ <= 0)
+            return;
+
+        float cellWidth = (x1 - x0) / cellsX;
+        float cellDepth = (z1 - z0) / cellsZ;
+
+        VertexEmitter emitter = consumer.begin(matrices).color(color).normal(0, 1, 0);
+        for (int i = 0; i < cellsX; i++) {
+            float xa = i * cellWidth, xb = (i + 1) * cellWidth;
+            for (int j = 0; j < cellsZ; j++) {
+                float za = j * cellDepth, zb = (j + 1) * cellDepth;
+                emitter.vertex(x0 + xa, y, z0 + za, xa, za)
+                        .vertex(x0 + xa, y, z0 + zb, xa, zb)
+                        .vertex(x0 + xb, y, z0 + zb, xb, zb)
+                        .vertex(x0 + xb, y, z0 + za, xb, za)
+                        .endFace(-1);
+            }
+        }
+    }
+
+    public static void line(VertexConsumer consumer, MatrixStack matrices, float x0, float y0, float z0, float x1, float y1, float z1, float width, int color) {
+        float dx = x1 - x0, dy = y1 - y0, dz = z1 - z0;
+        float len = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+        //a box along the line direction
+        matrices.pushMatrix();
+        matrices.translate(x0, y0, z0);
+        matrices.rotate(Maths.dirToQuat(dx / len, dy / len, dz / len));
+
+        float w = width * 0.5f;
+        box(consumer, matrices, -w, -w, 0, w, w, len, color);
+
+        matrices.popMatrix();
+    }
+
+    public static void box(VertexConsumer consumer, MatrixStack matrices, float x0, float y0, float z0, float x1, float y1, float z1, int color) {
+        float w = x1 - x0; float h = y1 - y0; float d = z1 - z0;
+        VertexEmitter emitter = consumer.begin(matrices).color(color);
+
+        //north
+        emitter.normal(0, 0, -1)
+                .vertex(x0, y1, z0, w, 0)
+                .vertex(x1, y1, z0, 0, 0)
+                .vertex(x1, y0, z0, 0, h)
+                .vertex(x0, y0, z0, w, h)
+                .endFace(-1);
+        //west
+        emitter.normal(-1, 0, 0)
+                .vertex(x0, y1, z1, d, 0)
+                .vertex(x0, y1, z0, 0, 0)
+                .vertex(x0, y0, z0, 0, h)
+                .vertex(x0, y0, z1, d, h)
+                .endFace(-1);
+        //south
+        emitter.normal(0, 0, 1)
+                .vertex(x1, y1, z1, w, 0)
+                .vertex(x0, y1, z1, 0, 0)
+                .vertex(x0, y0, z1, 0, h)
+                .vertex(x1, y0, z1, w, h)
+                .endFace(-1);
+        //east
+        emitter.normal(1, 0, 0)
+                .vertex(x1, y1, z0, d, 0)
+                .vertex(x1, y1, z1, 0, 0)
+                .vertex(x1, y0, z1, 0, h)
+                .vertex(x1, y0, z0, d, h)
+                .endFace(-1);
+        //up
+        emitter.normal(0, 1, 0)
+                .vertex(x1, y1, z0, w, 0)
+                .vertex(x0, y1, z0, 0, 0)
+                .vertex(x0, y1, z1, 0, d)
+                .vertex(x1, y1, z1, w, d)
+                .endFace(-1);
+        //down
+        emitter.normal(0, -1, 0)
+                .vertex(x1, y0, z1, 0, d)
+                .vertex(x0, y0, z1, w, d)
+                .vertex(x0, y0, z0, w, 0)
+                .vertex(x1, y0, z0, 0, 0)
+                .endFace(-1);
+    }
 }
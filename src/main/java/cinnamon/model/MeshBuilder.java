@@ -0,0 +1,454 @@
+package cinnamon.model;
+
+import cinnamon.math.Maths;
+import cinnamon.render.shader.Attributes;
+import org.joml.Math;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Primitive array version of the {@link VertexHelper} mesh processing, to bake meshes without a {@link Vertex} per corner
+ * the polygon corners are stored once, and the triangles reference them, so the corners shared by the triangles of a polygon
+ * behave the same as the shared vertices of {@link VertexHelper#triangulate(java.util.List)}
+ * <br>
+ * smoothing groups are found through a hash of the exact corner positions, in linear time
+ * not thread safe, but independent builders can run in parallel
+ */
+public class MeshBuilder {
+
+    //polygon corners
+    private float[] pos = new float[3 * 64], uv = new float[2 * 64], normal = new float[3 * 64], tangent = new float[3 * 64];
+    private int cornerCount;
+
+    //triangle corners, as indices into the polygon corners
+    private int[] triangles = new int[64];
+    private int triangleCount;
+
+    //corners with the same position, built once the triangles are done
+    private int[] positionHead, positionNext;
+
+    //scratch
+    private int[] polygon = new int[8];
+    private final Vector3f a = new Vector3f(), b = new Vector3f(), c = new Vector3f(), p = new Vector3f();
+
+    //output of stripIndices
+    private int[] unique;
+    private int uniqueCount;
+
+    /**
+     * Adds a polygon corner, the normal is normalized the same way as {@link Vertex#normal(Vector3f)}
+     * @return the index of the corner
+     */
+    public int addCorner(Vector3f pos, Vector2f uv, Vector3f normal) {
+        if (cornerCount * 3 == this.pos.length) {
+            int size = this.pos.length * 2;
+            this.pos = Arrays.copyOf(this.pos, size);
+            this.normal = Arrays.copyOf(this.normal, size);
+            this.tangent = Arrays.copyOf(this.tangent, size);
+            this.uv = Arrays.copyOf(this.uv, size / 3 * 2);
+        }
+
+        int i = cornerCount++;
+        setVec3(this.pos, i, pos.x, pos.y, pos.z);
+        this.uv[i * 2] = uv.x; this.uv[i * 2 + 1] = uv.y;
+        setNormalized(this.normal, i, p.set(normal));
+        Vector3f t = Vertex.DEFAULT_TANGENT;
+        setVec3(this.tangent, i, t.x, t.y, t.z);
+        return i;
+    }
+
+    public int getCornerCount() {
+        return cornerCount;
+    }
+
+    /**
+     * @return the amount of triangle corners, three per triangle
+     */
+    public int getTriangleCornerCount() {
+        return triangleCount;
+    }
+
+    public boolean isEmpty() {
+        return triangleCount == 0;
+    }
+
+    // -- triangulation -- //
+
+    /**
+     * Triangulates a polygon made of consecutive corners using ear clipping, same as {@link VertexHelper#triangulate(java.util.List)}
+     * @param first the first corner of the polygon
+     * @param count the amount of corners of the polygon
+     */
+    public void triangulate(int first, int count) {
+        if (polygon.length < count)
+            polygon = new int[count];
+        for (int i = 0; i < count; i++)
+            polygon[i] = first + i;
+
+        int n = count;
+        while (n >= 3) {
+            boolean earFound = false;
+
+            for (int i = 0; i < n; i++) {
+                int prev = polygon[(i - 1 + n) % n];
+                int curr = polygon[i];
+                int next = polygon[(i + 1) % n];
+
+                if (n == 3 || isEar(prev, curr, next, n)) {
+                    addTriangle(prev, curr, next);
+
+                    //remove the anchor corner
+                    System.arraycopy(polygon, i + 1, polygon, i, n - i - 1);
+                    n--;
+                    earFound = true;
+                    break;
+                }
+            }
+
+            //self-intersecting or with holes
+            if (!earFound)
+                break;
+        }
+    }
+
+    private boolean isEar(int ia, int ib, int ic, int n) {
+        getVec3(pos, ia, a);
+        getVec3(pos, ib, b);
+        getVec3(pos, ic, c);
+
+        for (int i = 0; i < n; i++) {
+            getVec3(pos, polygon[i], p);
+            if (p.equals(a) || p.equals(b) || p.equals(c))
+                continue;
+
+            if (Maths.isPointInTriangle(a, b, c, p))
+                return false;
+        }
+
+        return true;
+    }
+
+    private void addTriangle(int i0, int i1, int i2) {
+        positionHead = positionNext = null;
+        if (triangleCount + 3 > triangles.length)
+            triangles = Arrays.copyOf(triangles, triangles.length * 2);
+        triangles[triangleCount++] = i0;
+        triangles[triangleCount++] = i1;
+        triangles[triangleCount++] = i2;
+    }
+
+    // -- normals, uvs and tangents -- //
+
+    public void calculateFlatNormals() {
+        for (int i = 0; i < triangleCount; i += 3) {
+            int i0 = triangles[i], i1 = triangles[i + 1], i2 = triangles[i + 2];
+            float ax = pos[i0 * 3], ay = pos[i0 * 3 + 1], az = pos[i0 * 3 + 2];
+
+            //(B - A) x (C - A)
+            a.set(pos[i1 * 3] - ax, pos[i1 * 3 + 1] - ay, pos[i1 * 3 + 2] - az)
+                    .cross(pos[i2 * 3] - ax, pos[i2 * 3 + 1] - ay, pos[i2 * 3 + 2] - az).normalize();
+
+            setNormalized(normal, i0, p.set(a));
+            setNormalized(normal, i1, p.set(a));
+            setNormalized(normal, i2, p.set(a));
+        }
+    }
+
+    public void smoothNormals(float angleThreshold) {
+        int[][] groups = findSmoothingGroups(angleThreshold);
+        int[] members = groups[0], starts = groups[1];
+        float[] newNormals = new float[triangleCount * 3];
+
+        for (int g = 0; g < starts.length - 1; g++) {
+            a.set(0f);
+            for (int m = starts[g]; m < starts[g + 1]; m++)
+                a.add(getVec3(normal, triangles[members[m]], b));
+            a.normalize();
+
+            for (int m = starts[g]; m < starts[g + 1]; m++)
+                setVec3(newNormals, members[m], a.x, a.y, a.z);
+        }
+
+        //in triangle order, so the last triangle sharing a corner wins
+        for (int i = 0; i < triangleCount; i++)
+            setNormalized(normal, triangles[i], getVec3(newNormals, i, p));
+    }
+
+    public void calculateUVs(Vector3f minBounds, Vector3f maxBounds) {
+        Vector3f size = maxBounds.sub(minBounds, c);
+        for (int i = 0; i < cornerCount; i++) {
+            float x = pos[i * 3], y = pos[i * 3 + 1], z = pos[i * 3 + 2];
+            Vector3f norm = getVec3(normal, i, a).absolute();
+            float u, v;
+            if (norm.x >= norm.y && norm.x >= norm.z) {
+                //x major
+                u = (z - minBounds.z) / size.z;
+                v = (y - minBounds.y) / size.y;
+            } else if (norm.y >= norm.x && norm.y >= norm.z) {
+                //y major
+                u = (x - minBounds.x) / size.x;
+                v = (z - minBounds.z) / size.z;
+            } else {
+                //z major
+                u = (x - minBounds.x) / size.x;
+                v = (y - minBounds.y) / size.y;
+            }
+            uv[i * 2] = u;
+            uv[i * 2 + 1] = v;
+        }
+    }
+
+    public void calculateTangents(float angleThreshold) {
+        int[][] groups = findSmoothingGroups(angleThreshold);
+        int[] members = groups[0], starts = groups[1];
+
+        //per triangle tangents
+        int triCount = triangleCount / 3;
+        float[] triangleTangents = new float[triCount * 3];
+        for (int t = 0; t < triCount; t++) {
+            int i0 = triangles[t * 3], i1 = triangles[t * 3 + 1], i2 = triangles[t * 3 + 2];
+
+            float ax = pos[i0 * 3], ay = pos[i0 * 3 + 1], az = pos[i0 * 3 + 2];
+            float e1x = pos[i1 * 3] - ax, e1y = pos[i1 * 3 + 1] - ay, e1z = pos[i1 * 3 + 2] - az;
+            float e2x = pos[i2 * 3] - ax, e2y = pos[i2 * 3 + 1] - ay, e2z = pos[i2 * 3 + 2] - az;
+
+            float u0 = uv[i0 * 2], v0 = uv[i0 * 2 + 1];
+            float deltaU1 = uv[i1 * 2] - u0;
+            float deltaV1 = uv[i1 * 2 + 1] - v0;
+            float deltaU2 = uv[i2 * 2] - u0;
+            float deltaV2 = uv[i2 * 2 + 1] - v0;
+
+            float f = 1f / (deltaU1 * deltaV2 - deltaU2 * deltaV1);
+            f = (Float.isInfinite(f) || Float.isNaN(f)) ? 0f : f;
+
+            setVec3(triangleTangents, t,
+                    f * (deltaV2 * e1x - deltaV1 * e2x),
+                    f * (deltaV2 * e1y - deltaV1 * e2y),
+                    f * (deltaV2 * e1z - deltaV1 * e2z)
+            );
+        }
+
+        //smooth them per group, adding each triangle only once
+        float[] newTangents = new float[triangleCount * 3];
+        int[] processed = new int[triCount];
+        Arrays.fill(processed, -1);
+
+        for (int g = 0; g < starts.length - 1; g++) {
+            a.set(0f);
+            for (int m = starts[g]; m < starts[g + 1]; m++) {
+                int tri = members[m] / 3;
+                if (processed[tri] != g) {
+                    processed[tri] = g;
+                    a.add(getVec3(triangleTangents, tri, b));
+                }
+            }
+
+            //orthogonalize against the vertex normal
+            for (int m = starts[g]; m < starts[g + 1]; m++) {
+                Vector3f t = b.set(a);
+                Vector3f n = getVec3(normal, triangles[members[m]], c);
+
+                if (t.lengthSquared() > Maths.KINDA_SMALL_NUMBER) {
+                    float dot = n.dot(t);
+                    t.sub(n.x * dot, n.y * dot, n.z * dot).normalize();
+                } else {
+                    t.set(Vertex.DEFAULT_TANGENT);
+                }
+
+                setVec3(newTangents, members[m], t.x, t.y, t.z);
+            }
+        }
+
+        for (int i = 0; i < triangleCount; i++)
+            setNormalized(tangent, triangles[i], getVec3(newTangents, i, p));
+    }
+
+    /**
+     * Chains the triangle corners with the same position, in ascending order, through a hash of their exact position
+     */
+    private void chainPositions() {
+        int[] head = new int[triangleCount];
+        int[] next = new int[triangleCount];
+        int[] last = new int[triangleCount];
+        Arrays.fill(next, -1);
+
+        int[] table = newTable(triangleCount);
+        int mask = table.length - 1;
+        for (int i = 0; i < triangleCount; i++) {
+            int corner = triangles[i];
+            int slot = hashVec3(pos, corner) & mask;
+
+            while (true) {
+                int other = table[slot];
+                if (other == -1) {
+                    table[slot] = i;
+                    head[i] = last[i] = i;
+                    break;
+                }
+                if (equalsVec3(pos, corner, triangles[other])) {
+                    head[i] = other;
+                    next[last[other]] = i;
+                    last[other] = i;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        positionHead = head;
+        positionNext = next;
+    }
+
+    /**
+     * Groups the triangle corners sharing the same position and with normals within the angle threshold
+     * @return the triangle corners ordered by group, and the start of each group followed by the end of the last one
+     */
+    private int[][] findSmoothingGroups(float angleThreshold) {
+        if (positionHead == null)
+            chainPositions();
+        int[] head = positionHead, next = positionNext;
+
+        //breadth first search over the chains, the output doubles as the queue
+        int[] members = new int[triangleCount];
+        int[] starts = new int[triangleCount + 1];
+        boolean[] visited = new boolean[triangleCount];
+        float cosThreshold = Math.cos(Math.toRadians(angleThreshold)) - Maths.KINDA_SMALL_NUMBER;
+        int size = 0, groupCount = 0;
+
+        for (int i = 0; i < triangleCount; i++) {
+            if (visited[i])
+                continue;
+
+            starts[groupCount++] = size;
+            members[size++] = i;
+            visited[i] = true;
+
+            for (int q = size - 1; q < size; q++) {
+                int current = members[q];
+                getVec3(normal, triangles[current], a);
+
+                for (int other = head[current]; other != -1; other = next[other]) {
+                    if (!visited[other] && Math.abs(a.dot(getVec3(normal, triangles[other], b))) >= cosThreshold) {
+                        visited[other] = true;
+                        members[size++] = other;
+                    }
+                }
+            }
+        }
+        starts[groupCount] = size;
+
+        return new int[][]{members, Arrays.copyOf(starts, groupCount + 1)};
+    }
+
+    // -- output -- //
+
+    /**
+     * Merges the triangle corners with equal attributes, same as {@link VertexHelper#stripIndices(java.util.Collection)}
+     * @return the index of the unique vertex used by each triangle corner
+     */
+    public int[] stripIndices() {
+        int[] indices = new int[triangleCount];
+        unique = new int[triangleCount];
+        uniqueCount = 0;
+
+        int[] table = newTable(triangleCount);
+        int mask = table.length - 1;
+        for (int i = 0; i < triangleCount; i++) {
+            int corner = triangles[i];
+            int slot = hashCorner(corner) & mask;
+
+            while (true) {
+                int index = table[slot];
+                if (index == -1) {
+                    index = uniqueCount++;
+                    unique[index] = corner;
+                    table[slot] = index;
+                    indices[i] = index;
+                    break;
+                }
+                if (equalsCorner(corner, unique[index])) {
+                    indices[i] = index;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * @return the interleaved data of the unique vertices found by {@link #stripIndices()}
+     */
+    public float[] getVertexData(Attributes[] flags) {
+        int vertexSize = Attributes.getVertexSize(flags);
+        float[] data = new float[uniqueCount * vertexSize];
+        int offset = 0;
+
+        for (int k = 0; k < uniqueCount; k++) {
+            int i = unique[k];
+            offset = Attributes.putVertex(data, offset, flags,
+                    pos[i * 3], pos[i * 3 + 1], pos[i * 3 + 2],
+                    uv[i * 2], uv[i * 2 + 1],
+                    1f, 1f, 1f, 1f,
+                    normal[i * 3], normal[i * 3 + 1], normal[i * 3 + 2],
+                    tangent[i * 3], tangent[i * 3 + 1], tangent[i * 3 + 2]
+            );
+        }
+
+        return data;
+    }
+
+    // -- helpers -- //
+
+    private static int[] newTable(int count) {
+        int[] table = new int[Math.max(Integer.highestOneBit(Math.max(count, 1)) << 2, 16)];
+        Arrays.fill(table, -1);
+        return table;
+    }
+
+    private static int hashVec3(float[] array, int i) {
+        int h = Float.floatToIntBits(array[i * 3]);
+        h = h * 31 + Float.floatToIntBits(array[i * 3 + 1]);
+        h = h * 31 + Float.floatToIntBits(array[i * 3 + 2]);
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equalsVec3(float[] array, int i, int j) {
+        return Float.floatToIntBits(array[i * 3]) == Float.floatToIntBits(array[j * 3]) &&
+                Float.floatToIntBits(array[i * 3 + 1]) == Float.floatToIntBits(array[j * 3 + 1]) &&
+                Float.floatToIntBits(array[i * 3 + 2]) == Float.floatToIntBits(array[j * 3 + 2]);
+    }
+
+    private int hashCorner(int i) {
+        int h = hashVec3(pos, i);
+        h = h * 31 + Float.floatToIntBits(uv[i * 2]);
+        h = h * 31 + Float.floatToIntBits(uv[i * 2 + 1]);
+        h = h * 31 + hashVec3(normal, i);
+        h = h * 31 + hashVec3(tangent, i);
+        return h ^ (h >>> 16);
+    }
+
+    private boolean equalsCorner(int i, int j) {
+        return i == j || (equalsVec3(pos, i, j) && equalsVec3(normal, i, j) && equalsVec3(tangent, i, j) &&
+                Float.floatToIntBits(uv[i * 2]) == Float.floatToIntBits(uv[j * 2]) &&
+                Float.floatToIntBits(uv[i * 2 + 1]) == Float.floatToIntBits(uv[j * 2 + 1]));
+    }
+
+    private static Vector3f getVec3(float[] array, int i, Vector3f out) {
+        return out.set(array[i * 3], array[i * 3 + 1], array[i * 3 + 2]);
+    }
+
+    private static void setVec3(float[] array, int i, float x, float y, float z) {
+        array[i * 3] = x;
+        array[i * 3 + 1] = y;
+        array[i * 3 + 2] = z;
+    }
+
+    private static void setNormalized(float[] array, int i, Vector3f vec) {
+        vec.normalize();
+        setVec3(array, i, vec.x, vec.y, vec.z);
+    }
+}
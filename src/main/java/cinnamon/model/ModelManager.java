@@ -1,5 +1,7 @@
 package cinnamon.model;
 
+import cinnamon.model.material.Material;
+import cinnamon.model.material.MaterialTexture;
 import cinnamon.model.obj.Mesh;
 import cinnamon.parsers.AssimpLoader;
 import cinnamon.parsers.ObjLoader;
@@ -7,10 +9,17 @@ import cinnamon.render.model.AnimatedObjRenderer;
 import cinnamon.render.model.AssimpRenderer;
 import cinnamon.render.model.ModelRenderer;
 import cinnamon.render.model.ObjRenderer;
+import cinnamon.render.model.PlaceholderRenderer;
+import cinnamon.render.texture.Texture;
+import cinnamon.utils.AssetLoader;
+import cinnamon.utils.Pair;
 import cinnamon.utils.Resource;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static cinnamon.events.Events.LOGGER;
 
@@ -18,6 +27,7 @@ public class ModelManager {
 
     private static final Map<Resource, ModelRenderer> RENDERERS = new HashMap<>();
     private static final Map<Resource, Mesh> MESHES = new HashMap<>();
+    private static final Map<Resource, CompletableFuture<ModelRenderer>> PENDING = new HashMap<>();
 
     public static ModelRenderer getRenderer(Resource resource) {
         if (resource == null)
@@ -27,8 +37,91 @@ public class ModelManager {
         if (model != null)
             return model instanceof AnimatedObjRenderer anim ? new AnimatedObjRenderer(anim) : model;
 
-        //bake and cache
-        return cacheRenderer(resource, bakeModel(resource));
+        //assimp models are loaded on the main thread anyway
+        if (!resource.getExtension().equalsIgnoreCase("obj"))
+            return bakeRenderer(resource);
+
+        //parse it on the loader, or join the load already running, stalling only until it is done
+        CompletableFuture<ModelRenderer> future = loadRenderer(resource);
+        finish(resource);
+        return future.isCompletedExceptionally() ? null : future.join();
+    }
+
+    /**
+     * Same as {@link #getRenderer(Resource)}, but never stalls on loading
+     * a {@link PlaceholderRenderer} is returned while the model is loaded in the background
+     * once done, the loaded renderer, or null if it failed, is given to the callback on the main thread
+     */
+    public static ModelRenderer getRendererAsync(Resource resource, Consumer<ModelRenderer> onLoad) {
+        CompletableFuture<ModelRenderer> future = loadRenderer(resource);
+        if (future.isDone())
+            return future.isCompletedExceptionally() ? null : future.join();
+
+        future.whenComplete((model, e) -> onLoad.accept(e == null ? model : null));
+        return new PlaceholderRenderer(() -> finish(resource));
+    }
+
+    //the loader only knows the future of the load itself, not the ones derived from it
+    private static void finish(Resource resource) {
+        CompletableFuture<ModelRenderer> pending = PENDING.get(resource);
+        if (pending != null)
+            AssetLoader.finish(pending);
+    }
+
+    /**
+     * Loads a model in the background, obj files are parsed and baked on a worker thread, leaving only the upload to the main thread
+     * other formats go through Assimp, which also loads its textures, so they are loaded on the main thread instead
+     * should only be called from the main thread
+     */
+    public static CompletableFuture<ModelRenderer> loadRenderer(Resource resource) {
+        if (resource == null)
+            return CompletableFuture.completedFuture(null);
+
+        if (getCachedRenderer(resource) != null)
+            return CompletableFuture.completedFuture(getRenderer(resource));
+
+        //a failed load is not cached, so only look it up again when it worked
+        CompletableFuture<ModelRenderer> pending = PENDING.get(resource);
+        if (pending != null)
+            return pending.thenApply(model -> model == null ? null : getRenderer(resource));
+
+        CompletableFuture<ModelRenderer> future;
+        if (resource.getExtension().equalsIgnoreCase("obj")) {
+            future = AssetLoader.load(() -> {
+                Mesh mesh = loadMesh(resource);
+                return mesh == null ? null : new Pair<>(mesh, bakeMesh(mesh));
+            }, data -> {
+                if (getCachedMesh(resource) == null) {
+                    //failed to load, already logged
+                    if (data == null)
+                        return null;
+
+                    cacheMesh(resource, data.first());
+                    preloadTextures(data.first());
+                }
+
+                //upload the baked data, unless it was loaded in the meantime
+                if (data != null && data.second() != null && getCachedRenderer(resource) == null && getCachedMesh(resource) == data.first())
+                    cacheRenderer(resource, newObjRenderer(data.first(), data.second()));
+
+                return bakeRenderer(resource);
+            });
+        } else {
+            future = AssetLoader.runOnMainThread(() -> bakeRenderer(resource));
+        }
+
+        PENDING.put(resource, future);
+        future.whenComplete((m, e) -> PENDING.remove(resource, future));
+        return future;
+    }
+
+    private static void preloadTextures(Mesh mesh) {
+        for (Material material : mesh.getMaterials().values()) {
+            for (MaterialTexture texture : new MaterialTexture[]{material.getAlbedo(), material.getHeight(), material.getNormal(), material.getAO(), material.getRoughness(), material.getMetallic(), material.getEmissive()}) {
+                if (texture != null)
+                    Texture.load(texture.texture(), texture.params());
+            }
+        }
     }
 
     public static Mesh getMesh(Resource resource) {
@@ -51,6 +144,15 @@ public class ModelManager {
         return getCachedMesh(resource) != null;
     }
 
+    //main thread only, bakes the model right away when not cached
+    private static ModelRenderer bakeRenderer(Resource resource) {
+        ModelRenderer model = getCachedRenderer(resource);
+        if (model != null)
+            return model instanceof AnimatedObjRenderer anim ? new AnimatedObjRenderer(anim) : model;
+
+        return cacheRenderer(resource, bakeModel(resource));
+    }
+
     private static ModelRenderer getCachedRenderer(Resource resource) {
         return resource == null ? null : RENDERERS.get(resource);
     }
@@ -79,7 +181,7 @@ public class ModelManager {
             String extension = resource.getExtension();
             if (extension.equalsIgnoreCase("obj")) { //prefer built-in OBJ loader
                 Mesh mesh = getMesh(resource);
-                model = mesh.getAnimationData() != null ? new AnimatedObjRenderer(mesh) : new ObjRenderer(mesh);
+                model = newObjRenderer(mesh, ObjRenderer.bake(mesh));
             //} else if (extension.equalsIgnoreCase("bbmodel")) { //blockbench model
             //    BBModelLoader.BBModelData modelData = BBModelLoader.load(resource);
             //    model = new AnimatedObjRenderer(modelData.mesh(), modelData.rootBone(), modelData.animations());
@@ -94,6 +196,19 @@ public class ModelManager {
         return model;
     }
 
+    private static ModelRenderer newObjRenderer(Mesh mesh, List<ObjRenderer.BakedGroup> groups) {
+        return mesh.getAnimationData() != null ? new AnimatedObjRenderer(mesh, groups) : new ObjRenderer(mesh, groups);
+    }
+
+    private static List<ObjRenderer.BakedGroup> bakeMesh(Mesh mesh) {
+        try {
+            return ObjRenderer.bake(mesh);
+        } catch (Exception e) {
+            //retried and logged by the main thread
+            return null;
+        }
+    }
+
     private static Mesh loadMesh(Resource resource) {
         try {
             return ObjLoader.load(resource);
@@ -104,6 +219,7 @@ public class ModelManager {
     }
 
     public static void free() {
+        PENDING.clear();
         for (ModelRenderer value : RENDERERS.values())
             value.free();
         RENDERERS.clear();
@@ -0,0 +1,50 @@
+package cinnamon.networking;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cinnamon.networking.NetworkConstants.BUFFER_SIZE;
+
+/**
+ * Pool of direct buffers shared by all connections, so sending and receiving does not allocate per packet
+ * only buffers of {@link NetworkConstants#BUFFER_SIZE} are pooled, bigger ones are allocated on demand and dropped
+ */
+public class BufferPool {
+
+    private static final int MAX_POOLED = 1024;
+
+    private static final Queue<ByteBuffer> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    public static ByteBuffer acquire() {
+        ByteBuffer buffer = POOL.poll();
+        if (buffer == null)
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        POOLED.decrementAndGet();
+        return buffer;
+    }
+
+    public static ByteBuffer acquire(int capacity) {
+        if (capacity <= BUFFER_SIZE)
+            return acquire();
+
+        //round up, so growing frames do not reallocate on every few bytes
+        return ByteBuffer.allocateDirect(Integer.highestOneBit(capacity - 1) << 1);
+    }
+
+    public static void release(ByteBuffer buffer) {
+        if (buffer.capacity() != BUFFER_SIZE || !buffer.isDirect())
+            return;
+
+        if (POOLED.incrementAndGet() > MAX_POOLED) {
+            POOLED.decrementAndGet();
+            return;
+        }
+
+        buffer.clear();
+        POOL.add(buffer);
+    }
+}
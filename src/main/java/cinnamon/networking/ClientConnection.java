@@ -1,49 +1,54 @@
 package cinnamon.networking;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.FrameworkMessage;
-import com.esotericsoftware.kryonet.Listener;
 import cinnamon.networking.packet.Packet;
+import cinnamon.networking.snapshot.SnapshotClient;
+import cinnamon.world.world.WorldClient;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static cinnamon.Client.LOGGER;
 
 public class ClientConnection {
 
-    public static Client connection;
+    public static NetClient connection;
+    public static SnapshotClient snapshots;
+
+    //network events, handled on the main thread
+    private static final Queue<Runnable> EVENTS = new ConcurrentLinkedQueue<>();
 
-    public static boolean connectToServer(String ip, int tcpPort, int udpPort, int timeout) {
+    public static boolean connectToServer(String ip, int port, int timeout) {
         disconnect();
 
         try {
-            Client client = new Client(Client.DEFAULT_WRITE_BUFFER_SIZE, 8192); //TODO - Change to default value once chunks are implemented
-            PacketRegistry.register(client.getKryo());
-            client.start();
-            client.connect(timeout, ip, tcpPort, udpPort);
-
-            client.addListener(new Listener() {
+            NetClient client = new NetClient(new NetworkListener() {
                 @Override
                 public void disconnected(Connection connection) {
-                    cinnamon.Client.getInstance().disconnect();
+                    EVENTS.add(() -> {
+                        //only when dropped by the server, not when disconnecting ourselves
+                        if (ClientConnection.connection != null && ClientConnection.connection.getConnection() == connection)
+                            cinnamon.Client.getInstance().disconnect();
+                    });
                 }
 
                 @Override
-                public void received(Connection connection, Object object) {
-                    try {
-                        if (object instanceof Packet p)
-                            p.clientReceived(client, connection);
-                        else if (!(object instanceof FrameworkMessage))
-                            LOGGER.warn("Unknown packet %s", object);
-                    } catch (Exception e) {
-                        LOGGER.error("Failed to parse packet %s", object, e);
-                    }
+                public void received(Connection connection, Packet packet) {
+                    EVENTS.add(() -> {
+                        try {
+                            packet.clientReceived(ClientConnection.connection, connection);
+                        } catch (Exception e) {
+                            LOGGER.error("Failed to handle packet %s", packet, e);
+                        }
+                    });
                 }
             });
 
             connection = client;
+            snapshots = new SnapshotClient();
+            client.connect(ip, port, timeout);
         } catch (Exception e) {
             LOGGER.error("", e);
+            disconnect();
             return false;
         }
 
@@ -52,9 +57,26 @@ public class ClientConnection {
 
     public static void disconnect() {
         if (connection != null) {
-            connection.close();
+            NetClient client = connection;
             connection = null;
+            client.close();
         }
+
+        snapshots = null;
+        EVENTS.clear();
+    }
+
+    public static void tick() {
+        if (connection == null)
+            return;
+
+        Runnable event;
+        while ((event = EVENTS.poll()) != null)
+            event.run();
+
+        //move the replicated entities, the local player moves on its own
+        WorldClient world = cinnamon.Client.getInstance().world;
+        if (world != null && snapshots != null)
+            snapshots.apply(world, world.player);
     }
 }
- */
\ No newline at end of file
@@ -0,0 +1,220 @@
+package cinnamon.networking;
+
+import cinnamon.networking.packet.Packet;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static cinnamon.networking.NetworkConstants.BUFFER_SIZE;
+import static cinnamon.networking.NetworkConstants.MAX_FRAME_SIZE;
+
+/**
+ * A single TCP connection, read and written only by the network thread of its {@link NetworkEndpoint}
+ * sending is thread-safe, packets are encoded by the caller and queued until the network thread flushes them
+ */
+public class Connection {
+
+    //max frames handed to a single gathering write
+    private static final int MAX_GATHER = 64;
+
+    private final int id;
+    private final SocketChannel channel;
+    private final NetworkEndpoint endpoint;
+    private SelectionKey key;
+
+    //network thread only
+    private ByteBuffer readBuffer = BufferPool.acquire();
+    private final ArrayDeque<Outgoing> writing = new ArrayDeque<>();
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private boolean disposed;
+
+    private final Queue<Outgoing> queued = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    Connection(int id, SocketChannel channel, NetworkEndpoint endpoint) {
+        this.id = id;
+        this.channel = channel;
+        this.endpoint = endpoint;
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    public void send(Packet packet) {
+        Frame frame = Frame.encode(packet);
+        frame.retain();
+        enqueue(frame);
+    }
+
+    /**
+     * Queues an already retained frame, the reference is released once written or dropped
+     */
+    void enqueue(Frame frame) {
+        if (closed.get()) {
+            frame.release();
+            return;
+        }
+
+        queued.add(new Outgoing(frame, frame.view()));
+        if (flushScheduled.compareAndSet(false, true))
+            endpoint.scheduleFlush(this);
+    }
+
+    // -- network thread -- //
+
+    /**
+     * Reads what is available and decodes every complete frame
+     * @return false if the remote side closed the connection
+     */
+    boolean read() throws IOException {
+        if (channel.read(readBuffer) < 0)
+            return false;
+
+        readBuffer.flip();
+        while (readBuffer.remaining() >= Frame.HEADER_SIZE) {
+            int start = readBuffer.position();
+            int length = readBuffer.getInt(start);
+            if (length <= 0 || length > MAX_FRAME_SIZE - Frame.HEADER_SIZE)
+                throw new IOException("Invalid frame length " + length);
+
+            //incomplete frame, wait for more data
+            int end = start + Frame.HEADER_SIZE + length;
+            if (end > readBuffer.limit())
+                break;
+
+            //decode within the frame bounds only
+            int limit = readBuffer.limit();
+            readBuffer.position(start + Frame.HEADER_SIZE).limit(end);
+            Packet packet;
+            try {
+                packet = PacketRegistry.read(readBuffer);
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed packet from connection " + id, e);
+            }
+            readBuffer.limit(limit).position(end);
+
+            endpoint.received(this, packet);
+        }
+        readBuffer.compact();
+
+        int pending = readBuffer.position();
+        if (pending >= Frame.HEADER_SIZE) {
+            //the pending frame does not fit, move it to a bigger buffer
+            int needed = readBuffer.getInt(0) + Frame.HEADER_SIZE;
+            if (needed > readBuffer.capacity())
+                swapReadBuffer(BufferPool.acquire(needed));
+        } else if (readBuffer.capacity() > BUFFER_SIZE) {
+            //back to a pooled buffer after a big frame
+            swapReadBuffer(BufferPool.acquire());
+        }
+
+        return true;
+    }
+
+    private void swapReadBuffer(ByteBuffer buffer) {
+        readBuffer.flip();
+        buffer.put(readBuffer);
+        BufferPool.release(readBuffer);
+        readBuffer = buffer;
+    }
+
+    /**
+     * Writes the queued frames, batching them into gathering writes, and waits for the socket when it is full
+     */
+    void flush() throws IOException {
+        flushScheduled.set(false);
+        if (closed.get())
+            return;
+
+        Outgoing out;
+        while ((out = queued.poll()) != null)
+            writing.add(out);
+
+        while (!writing.isEmpty()) {
+            int count = 0;
+            for (Outgoing o : writing) {
+                gather[count++] = o.data;
+                if (count == MAX_GATHER)
+                    break;
+            }
+
+            channel.write(gather, 0, count);
+            boolean full = gather[count - 1].hasRemaining();
+            Arrays.fill(gather, 0, count, null);
+
+            //release what was fully written
+            while (!writing.isEmpty() && !writing.peek().data.hasRemaining())
+                writing.poll().frame.release();
+
+            if (full)
+                break;
+        }
+
+        //only listen for writes while there is something left
+        if (key.isValid())
+            key.interestOps(writing.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Frees the buffers of a closed connection, called once by the network thread, or after it stopped
+     * @return false if it was already disposed
+     */
+    boolean dispose() {
+        if (disposed)
+            return false;
+        disposed = true;
+
+        Outgoing out;
+        while ((out = queued.poll()) != null)
+            writing.add(out);
+        while ((out = writing.poll()) != null)
+            out.frame.release();
+
+        BufferPool.release(readBuffer);
+        return true;
+    }
+
+    // -- end network thread -- //
+
+    public void close() {
+        if (!closed.compareAndSet(false, true))
+            return;
+
+        if (key != null)
+            key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+
+        //the network thread frees the buffers
+        endpoint.scheduleFlush(this);
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public int getID() {
+        return id;
+    }
+
+    public SocketAddress getRemoteAddress() {
+        try {
+            return channel.getRemoteAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private record Outgoing(Frame frame, ByteBuffer data) {}
+}
@@ -0,0 +1,67 @@
+package cinnamon.networking;
+
+import cinnamon.networking.packet.Packet;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cinnamon.networking.NetworkConstants.BUFFER_SIZE;
+import static cinnamon.networking.NetworkConstants.MAX_FRAME_SIZE;
+
+/**
+ * An encoded packet, laid out as {@code [int length][byte packet id][payload]}, where the length excludes itself
+ * frames are reference counted, so a broadcast is encoded once and every connection writes from its own view of the same buffer
+ */
+public final class Frame {
+
+    public static final int HEADER_SIZE = Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final AtomicInteger refs = new AtomicInteger();
+
+    private Frame(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public static Frame encode(Packet packet) {
+        PacketRegistry type = PacketRegistry.of(packet);
+
+        //try the pooled size first, and grow for the rare big packet
+        int capacity = BUFFER_SIZE;
+        while (true) {
+            ByteBuffer buffer = BufferPool.acquire(capacity);
+            try {
+                buffer.position(HEADER_SIZE);
+                buffer.put((byte) type.ordinal());
+                packet.write(buffer);
+            } catch (BufferOverflowException e) {
+                BufferPool.release(buffer);
+                if (capacity >= MAX_FRAME_SIZE)
+                    throw new IllegalArgumentException("Packet " + type + " is bigger than the max frame size");
+                capacity = Math.min(buffer.capacity() * 2, MAX_FRAME_SIZE);
+                continue;
+            }
+
+            buffer.putInt(0, buffer.position() - HEADER_SIZE).flip();
+            return new Frame(buffer);
+        }
+    }
+
+    public int size() {
+        return buffer.limit();
+    }
+
+    ByteBuffer view() {
+        return buffer.duplicate();
+    }
+
+    void retain() {
+        refs.incrementAndGet();
+    }
+
+    void release() {
+        if (refs.decrementAndGet() == 0)
+            BufferPool.release(buffer);
+    }
+}
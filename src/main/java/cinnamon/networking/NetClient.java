@@ -0,0 +1,52 @@
+package cinnamon.networking;
+
+import cinnamon.networking.packet.Packet;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A single connection to a {@link NetServer}, connected with a blocking timeout and then handed to the selector thread
+ */
+public class NetClient extends NetworkEndpoint {
+
+    private Connection connection;
+
+    public NetClient(NetworkListener listener) throws IOException {
+        super(listener);
+    }
+
+    public void connect(String host, int port, int timeout) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(new InetSocketAddress(host, port), timeout);
+            connection = register(channel, 0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        connected(connection);
+        start("Client Network");
+    }
+
+    public void send(Packet packet) {
+        connection.send(packet);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public boolean isConnected() {
+        return connection != null && !connection.isClosed();
+    }
+
+    @Override
+    public void close() {
+        if (connection != null)
+            connection.close();
+        super.close();
+    }
+}
@@ -0,0 +1,101 @@
+package cinnamon.networking;
+
+import cinnamon.networking.packet.Packet;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accepts clients on a single selector thread, broadcasts are encoded once and shared by all connections
+ */
+public class NetServer extends NetworkEndpoint {
+
+    private final Map<Integer, Connection> connections = new ConcurrentHashMap<>();
+    private ServerSocketChannel serverChannel;
+    private int nextID = 1;
+
+    public NetServer(NetworkListener listener) throws IOException {
+        super(listener);
+    }
+
+    public void bind(int port) throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        start("Server Network");
+    }
+
+    @Override
+    protected void accept(SelectionKey key) throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            Connection connection = register(channel, nextID++);
+            connections.put(connection.getID(), connection);
+            connected(connection);
+        }
+    }
+
+    @Override
+    protected void disconnected(Connection connection) {
+        connections.remove(connection.getID());
+        super.disconnected(connection);
+    }
+
+    public void sendTo(int id, Packet packet) {
+        Connection connection = connections.get(id);
+        if (connection != null)
+            connection.send(packet);
+    }
+
+    public void sendToAll(Packet packet) {
+        broadcast(packet, -1);
+    }
+
+    public void sendToAllExcept(int id, Packet packet) {
+        broadcast(packet, id);
+    }
+
+    private void broadcast(Packet packet, int except) {
+        if (connections.isEmpty())
+            return;
+
+        //hold a reference while queueing, so an early write cannot recycle the buffer
+        Frame frame = Frame.encode(packet);
+        frame.retain();
+        for (Connection connection : connections.values()) {
+            if (connection.getID() != except) {
+                frame.retain();
+                connection.enqueue(frame);
+            }
+        }
+        frame.release();
+    }
+
+    public Connection getConnection(int id) {
+        return connections.get(id);
+    }
+
+    public Collection<Connection> getConnections() {
+        return connections.values();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (serverChannel != null)
+                serverChannel.close();
+        } catch (IOException ignored) {}
+
+        for (Connection connection : connections.values())
+            connection.close();
+
+        super.close();
+    }
+}
@@ -2,9 +2,13 @@ package cinnamon.networking;
 
 public class NetworkConstants {
     public static final int
-            TCP_PORT = 3726,
-            UDP_PORT = 3727;
+            TCP_PORT = 3726;
 
     public static final String
             LOCAL_IP = "localhost";
+
+    //size of the pooled buffers, frames bigger than this get a dedicated buffer
+    public static final int
+            BUFFER_SIZE = 16 * 1024,
+            MAX_FRAME_SIZE = 16 * 1024 * 1024;
 }
@@ -0,0 +1,160 @@
+package cinnamon.networking;
+
+import cinnamon.networking.packet.Packet;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static cinnamon.Client.LOGGER;
+
+/**
+ * A selector loop running on its own thread, doing all the socket reads and writes of its connections
+ */
+public abstract class NetworkEndpoint {
+
+    protected final Selector selector;
+    protected final NetworkListener listener;
+
+    private final Queue<Connection> flushes = new ConcurrentLinkedQueue<>();
+    private Thread thread;
+    private volatile boolean running;
+
+    protected NetworkEndpoint(NetworkListener listener) throws IOException {
+        this.selector = Selector.open();
+        this.listener = listener;
+    }
+
+    protected void start(String name) {
+        running = true;
+        thread = new Thread(this::loop, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                selector.select();
+
+                //queued sends and closes
+                Connection connection;
+                while ((connection = flushes.poll()) != null)
+                    flush(connection);
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable()) {
+                        accept(key);
+                        continue;
+                    }
+
+                    Connection c = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable() && !c.read()) {
+                            close(c);
+                            continue;
+                        }
+                        if (key.isValid() && key.isWritable())
+                            c.flush();
+                    } catch (IOException e) {
+                        LOGGER.warn("Connection %s dropped: %s", c.getID(), e.getMessage());
+                        close(c);
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (Exception e) {
+                LOGGER.error("Error on the network loop", e);
+            }
+        }
+    }
+
+    private void flush(Connection connection) {
+        if (connection.isClosed()) {
+            close(connection);
+            return;
+        }
+
+        try {
+            connection.flush();
+        } catch (IOException e) {
+            LOGGER.warn("Connection %s dropped: %s", connection.getID(), e.getMessage());
+            close(connection);
+        }
+    }
+
+    private void close(Connection connection) {
+        connection.close();
+        if (connection.dispose())
+            disconnected(connection);
+    }
+
+    protected void accept(SelectionKey key) throws IOException {}
+
+    protected Connection register(SocketChannel channel, int id) throws IOException {
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+        Connection connection = new Connection(id, channel, this);
+        connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+        return connection;
+    }
+
+    void scheduleFlush(Connection connection) {
+        flushes.add(connection);
+        selector.wakeup();
+    }
+
+    protected void connected(Connection connection) {
+        listener.connected(connection);
+    }
+
+    protected void disconnected(Connection connection) {
+        listener.disconnected(connection);
+    }
+
+    void received(Connection connection, Packet packet) {
+        listener.received(connection, packet);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops the network thread and closes the selector, subclasses close their connections first
+     */
+    public void close() {
+        running = false;
+        selector.wakeup();
+
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        //the loop is gone, so free what it left behind
+        Connection connection;
+        while ((connection = flushes.poll()) != null)
+            close(connection);
+
+        try {
+            selector.close();
+        } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,12 @@
+package cinnamon.networking;
+
+import cinnamon.networking.packet.Packet;
+
+/**
+ * Connection events, always called from the network thread
+ */
+public interface NetworkListener {
+    default void connected(Connection connection) {}
+    default void disconnected(Connection connection) {}
+    default void received(Connection connection, Packet packet) {}
+}
@@ -1,60 +1,64 @@
 package cinnamon.networking;
 
-/*
-import com.esotericsoftware.kryo.Kryo;
 import cinnamon.networking.packet.*;
-import cinnamon.networking.serializer.*;
-import cinnamon.world.entity.Entity;
-import cinnamon.world.entity.living.LivingEntity;
-import cinnamon.world.entity.living.Player;
-import cinnamon.world.entity.projectile.Projectile;
-import cinnamon.world.terrain.Terrain;
-import org.joml.Vector2f;
-import org.joml.Vector3f;
-
-import java.util.ArrayList;
-import java.util.UUID;
-
-public final class PacketRegistry {
-
-    public static void register(Kryo kryo) {
-        //kryo.setRegistrationRequired(false);
-        //kryo.setWarnUnregisteredClasses(true);
-
-        // -- types -- //
-
-        //misc
-        kryo.register(ArrayList.class);
-        kryo.register(UUID.class, new UUIDSerializer());
-        kryo.register(Vector2f.class, new Vector2fSerializer());
-        kryo.register(Vector3f.class, new Vector3fSerializer());
-
-        //terrain
-        kryo.addDefaultSerializer(Terrain.class, TerrainSerializer.class);
-        //Registry.registerType(kryo, TerrainRegistry.class);
-
-        //entity
-        kryo.addDefaultSerializer(Entity.class, EntitySerializer.class);
-        kryo.addDefaultSerializer(Projectile.class, ProjectileSerializer.class);
-        kryo.addDefaultSerializer(LivingEntity.class, LivingEntitySerializer.class);
-        kryo.addDefaultSerializer(Player.class, PlayerEntitySerializer.class);
-        //Registry.registerType(kryo, EntityRegistry.class);
-
-        // -- packets -- //
-
-        kryo.register(Handshake.class);
-        kryo.register(Message.class);
-        kryo.register(Login.class);
-        kryo.register(SendTerrain.class);
-        kryo.register(SendEntities.class);
-        kryo.register(AddEntity.class);
-        kryo.register(RemoveEntity.class);
-        kryo.register(ClientMovement.class);
-        kryo.register(EntitySync.class);
-        kryo.register(ClientEntityAction.class);
-        kryo.register(Respawn.class);
-        kryo.register(SelectItem.class);
-        kryo.register(SyncHealth.class);
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * All packet types, the ordinal is the id written on each frame, so new packets go at the end
+ */
+public enum PacketRegistry {
+
+    HANDSHAKE(Handshake.class, Handshake::new),
+    MESSAGE(Message.class, Message::new),
+    LOGIN(Login.class, Login::new),
+    SEND_TERRAIN(SendTerrain.class, SendTerrain::new),
+    SEND_ENTITIES(SendEntities.class, SendEntities::new),
+    ADD_ENTITY(AddEntity.class, AddEntity::new),
+    REMOVE_ENTITY(RemoveEntity.class, RemoveEntity::new),
+    CLIENT_MOVEMENT(ClientMovement.class, ClientMovement::new),
+    ENTITY_SYNC(EntitySync.class, EntitySync::new),
+    CLIENT_ENTITY_ACTION(ClientEntityAction.class, ClientEntityAction::new),
+    RESPAWN(Respawn.class, Respawn::new),
+    SELECT_ITEM(SelectItem.class, SelectItem::new),
+    SYNC_HEALTH(SyncHealth.class, SyncHealth::new),
+    ENTITY_SNAPSHOT(EntitySnapshot.class, EntitySnapshot::new),
+    SNAPSHOT_ACK(SnapshotAck.class, SnapshotAck::new),
+    UNLOAD_TERRAIN(UnloadTerrain.class, UnloadTerrain::new);
+
+    private static final PacketRegistry[] VALUES = values();
+    private static final Map<Class<? extends Packet>, PacketRegistry> BY_CLASS = new HashMap<>();
+
+    static {
+        for (PacketRegistry type : VALUES)
+            BY_CLASS.put(type.type, type);
+    }
+
+    private final Class<? extends Packet> type;
+    private final Function<ByteBuffer, Packet> reader;
+
+    PacketRegistry(Class<? extends Packet> type, Function<ByteBuffer, Packet> reader) {
+        this.type = type;
+        this.reader = reader;
+    }
+
+    public static PacketRegistry of(Packet packet) {
+        PacketRegistry type = BY_CLASS.get(packet.getClass());
+        if (type == null)
+            throw new IllegalArgumentException("Unregistered packet " + packet.getClass().getSimpleName());
+        return type;
+    }
+
+    /**
+     * Reads a packet from a frame, positioned right after the length
+     */
+    public static Packet read(ByteBuffer buffer) {
+        int id = buffer.get() & 0xFF;
+        if (id >= VALUES.length)
+            throw new IllegalArgumentException("Unknown packet id " + id);
+        return VALUES[id].reader.apply(buffer);
     }
 }
- */
\ No newline at end of file
@@ -1,51 +1,64 @@
 package cinnamon.networking;
 
-/*
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.FrameworkMessage;
-import com.esotericsoftware.kryonet.Listener;
-import com.esotericsoftware.kryonet.Server;
-import cinnamon.networking.packet.Packet;
-import cinnamon.world.WorldServer;
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.networking.interest.InterestConfig;
+import cinnamon.networking.interest.InterestListener;
+import cinnamon.networking.interest.InterestManager;
+import cinnamon.networking.packet.*;
+import cinnamon.networking.snapshot.SnapshotServer;
+import cinnamon.world.entity.Entity;
+import cinnamon.world.terrain.Terrain;
+import cinnamon.world.world.WorldServer;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static cinnamon.Client.LOGGER;
 
 public class ServerConnection {
 
     public static WorldServer world;
-    public static Server connection;
+    public static NetServer connection;
+    public static SnapshotServer snapshots;
+    public static InterestManager interest;
+
+    //network events, handled on the main thread
+    private static final Queue<Runnable> EVENTS = new ConcurrentLinkedQueue<>();
 
     public static boolean open() {
         close();
 
         //open server
         try {
-            Server server = new Server(Server.DEFAULT_WRITE_BUFFER_SIZE, 8192); //TODO - Change to default value once chunks are implemented
-            PacketRegistry.register(server.getKryo());
-            server.start();
-            server.bind(NetworkConstants.TCP_PORT, NetworkConstants.UDP_PORT);
-
-            server.addListener(new Listener() {
+            NetServer server = new NetServer(new NetworkListener() {
                 @Override
                 public void disconnected(Connection connection) {
-                    if (world != null)
-                        world.removePlayer(connection.getID());
+                    EVENTS.add(() -> {
+                        if (world != null)
+                            world.removePlayer(connection.getID());
+                        if (snapshots != null)
+                            snapshots.removeClient(connection.getID());
+                        if (interest != null)
+                            interest.removeClient(connection.getID());
+                    });
                 }
 
                 @Override
-                public void received (Connection connection, Object object) {
-                    try {
-                        if (object instanceof Packet p)
-                            p.serverReceived(server, connection);
-                        else if (!(object instanceof FrameworkMessage))
-                            LOGGER.warn("Unknown packet %s", object);
-                    } catch (Exception e) {
-                        LOGGER.error("Failed to parse packet %s", object, e);
-                    }
+                public void received(Connection connection, Packet packet) {
+                    EVENTS.add(() -> {
+                        try {
+                            packet.serverReceived(ServerConnection.connection, connection);
+                        } catch (Exception e) {
+                            LOGGER.error("Failed to handle packet %s", packet, e);
+                        }
+                    });
                 }
             });
 
             connection = server;
+            server.bind(NetworkConstants.TCP_PORT);
         } catch (Exception e) {
             LOGGER.error("Unable to create local server", e);
             close();
@@ -58,9 +71,31 @@ public class ServerConnection {
 
         //save server
         world = worldServer;
+        snapshots = new SnapshotServer();
+        interest = new InterestManager(worldServer, InterestConfig.DEFAULT, new InterestListener() {
+            @Override
+            public void entityEntered(int client, Entity entity) {
+                connection.sendTo(client, new AddEntity().entity(entity));
+            }
+
+            @Override
+            public void entityLeft(int client, UUID uuid) {
+                connection.sendTo(client, new RemoveEntity().uuid(uuid));
+            }
+
+            @Override
+            public void terrainEntered(int client, AABB cell, List<Terrain> terrain) {
+                connection.sendTo(client, new SendTerrain().terrain(terrain));
+            }
+
+            @Override
+            public void terrainLeft(int client, AABB cell) {
+                connection.sendTo(client, new UnloadTerrain().region(cell));
+            }
+        });
 
         //then connect to localhost
-        if (!ClientConnection.connectToServer(NetworkConstants.LOCAL_IP, NetworkConstants.TCP_PORT, NetworkConstants.UDP_PORT, 30_000)) {
+        if (!ClientConnection.connectToServer(NetworkConstants.LOCAL_IP, NetworkConstants.TCP_PORT, 30_000)) {
             LOGGER.error("Failed to connect to local server");
             close();
             return false;
@@ -79,11 +114,26 @@ public class ServerConnection {
             connection.close();
             connection = null;
         }
+
+        snapshots = null;
+        interest = null;
+        EVENTS.clear();
     }
 
     public static void tick() {
-        if (world != null)
+        if (connection == null)
+            return;
+
+        Runnable event;
+        while ((event = EVENTS.poll()) != null)
+            event.run();
+
+        if (world != null) {
             world.tick();
+
+            //replicate what each client is interested in, after everything moved
+            interest.tick();
+            snapshots.send(connection, world.getEntities().values(), interest);
+        }
     }
 }
- */
\ No newline at end of file
@@ -0,0 +1,23 @@
+package cinnamon.networking.interest;
+
+/**
+ * Area of interest of each client
+ * @param entityRadius distance where entities start being replicated to the client
+ * @param terrainRadius distance where terrain cells are sent to the client
+ * @param margin extra distance before something leaves the area, so objects on the border do not keep entering and leaving
+ * @param cellSize size of the terrain cells, terrain is sent and unloaded a whole cell at a time
+ * @param updatesPerTick max entity transform updates per client per tick, the rest wait for their priority to build up
+ * @param cellsPerTick max terrain cells sent per client per tick
+ * @param refreshInterval ticks between the searches for new entities of a client, the margin should cover what moves in between
+ */
+public record InterestConfig(float entityRadius, float terrainRadius, float margin, int cellSize, int updatesPerTick, int cellsPerTick, int refreshInterval) {
+
+    public static final InterestConfig DEFAULT = new InterestConfig(64f, 128f, 8f, 32, 64, 4, 4);
+
+    public InterestConfig {
+        if (!(entityRadius > 0f) || !(terrainRadius > 0f) || margin < 0f)
+            throw new IllegalArgumentException("Invalid interest radius");
+        if (cellSize <= 0 || updatesPerTick <= 0 || cellsPerTick <= 0 || refreshInterval <= 0)
+            throw new IllegalArgumentException("Cell size, budgets and interval must be positive");
+    }
+}
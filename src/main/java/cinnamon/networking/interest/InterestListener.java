@@ -0,0 +1,25 @@
+package cinnamon.networking.interest;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.world.entity.Entity;
+import cinnamon.world.terrain.Terrain;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Changes to the area of interest of a client, called on the server thread
+ */
+public interface InterestListener {
+
+    default void entityEntered(int client, Entity entity) {}
+
+    default void entityLeft(int client, UUID uuid) {}
+
+    /**
+     * @param terrain the terrain positioned inside the cell
+     */
+    default void terrainEntered(int client, AABB cell, List<Terrain> terrain) {}
+
+    default void terrainLeft(int client, AABB cell) {}
+}
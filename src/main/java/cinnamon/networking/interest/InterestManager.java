@@ -0,0 +1,388 @@
+package cinnamon.networking.interest;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.networking.snapshot.Snapshot;
+import cinnamon.networking.snapshot.SnapshotServer;
+import cinnamon.world.entity.Entity;
+import cinnamon.world.terrain.Terrain;
+import cinnamon.world.world.World;
+import org.joml.Vector3f;
+
+import java.util.*;
+
+/**
+ * Tracks which entities and terrain cells each client is interested in, based on the distance to its viewer
+ * the world spatial indexes are queried per client, and the changes are reported to the listener as enter and leave events
+ * entity transform updates are spread across ticks, each entity accumulates its priority every tick it is not sent,
+ * and only the highest accumulated ones are sent, closer entities having a higher priority
+ */
+public class InterestManager {
+
+    private static final int COORD_BITS = 21;
+    private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+
+    private final World world;
+    private final InterestConfig config;
+    private final InterestListener listener;
+    private final Map<Integer, ClientInterest> clients = new HashMap<>();
+    private int tick;
+
+    //the cell each terrain was last sent in, so terrain that moved or was removed also refreshes the cell it left
+    private final Map<Terrain, Long> terrainCells = new HashMap<>();
+    private final Set<Long> changedCells = new HashSet<>();
+
+    //reused between queries
+    private final AABB region = new AABB();
+    private final List<Terrain> terrain = new ArrayList<>();
+    private final List<Tracked> candidates = new ArrayList<>();
+
+    public InterestManager(World world, InterestConfig config, InterestListener listener) {
+        this.world = world;
+        this.config = config;
+        this.listener = listener;
+    }
+
+    public void addClient(int id, Entity viewer) {
+        clients.put(id, new ClientInterest(id, viewer));
+    }
+
+    public void removeClient(int id) {
+        clients.remove(id);
+    }
+
+    public Set<Integer> getClients() {
+        return clients.keySet();
+    }
+
+    public boolean isTracking(int client, UUID uuid) {
+        ClientInterest c = clients.get(client);
+        return c != null && c.entities.containsKey(uuid);
+    }
+
+    public int getTrackedEntities(int client) {
+        ClientInterest c = clients.get(client);
+        return c == null ? 0 : c.entities.size();
+    }
+
+    public int getLoadedCells(int client) {
+        ClientInterest c = clients.get(client);
+        return c == null ? 0 : c.sentCells.size();
+    }
+
+    public InterestConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Updates the area of interest of every client, should run after the world tick
+     */
+    public void tick() {
+        tick++;
+        for (ClientInterest client : clients.values()) {
+            //only the cells the client already looked at, the others are sent whenever they are reached
+            for (long key : changedCells) {
+                if (client.checkedCells.contains(key))
+                    client.changedCells.add(key);
+            }
+
+            updateEntities(client);
+            updateTerrain(client);
+        }
+        changedCells.clear();
+    }
+
+    /**
+     * Sends the leave event to the clients tracking the entity, as soon as it is removed from the world
+     */
+    public void entityRemoved(UUID uuid) {
+        for (ClientInterest client : clients.values()) {
+            if (client.entities.remove(uuid) != null)
+                listener.entityLeft(client.id, uuid);
+        }
+    }
+
+    /**
+     * Marks the cell of the terrain as changed, after it was added or moved
+     */
+    public void terrainChanged(Terrain terrain) {
+        changedCells.add(cellOf(terrain.getTransform().getPos()));
+        Long sent = terrainCells.get(terrain);
+        if (sent != null)
+            changedCells.add(sent);
+    }
+
+    /**
+     * Marks the cell the terrain was in as changed, after it was removed
+     */
+    public void terrainRemoved(Terrain terrain) {
+        Long sent = terrainCells.remove(terrain);
+        changedCells.add(sent != null ? sent : cellOf(terrain.getTransform().getPos()));
+    }
+
+    // -- entities -- //
+
+    private void updateEntities(ClientInterest client) {
+        Vector3f pos = client.viewer.getTransform().getPos();
+        float enter = config.entityRadius(), leave = enter + config.margin();
+        float enterSq = enter * enter;
+
+        //tracked entities only leave once past the margin
+        for (Iterator<Tracked> it = client.entities.values().iterator(); it.hasNext(); ) {
+            Tracked tracked = it.next();
+            float dist = tracked.entity.getTransform().getPos().distance(pos);
+            if (dist > leave || tracked.entity.isRemoved()) {
+                it.remove();
+                listener.entityLeft(client.id, tracked.entity.getUUID());
+            } else {
+                tracked.updatePriority(dist, leave);
+            }
+        }
+
+        //look for new entities only every few ticks, spread between the clients
+        if (Math.floorMod(tick + client.id, config.refreshInterval()) != 0)
+            return;
+
+        region.set(pos).inflate(enter);
+        world.getEntities(region, entity -> {
+            if (entity == client.viewer || entity.isRemoved() || client.entities.containsKey(entity.getUUID()))
+                return;
+
+            float distSq = entity.getTransform().getPos().distanceSquared(pos);
+            if (distSq > enterSq)
+                return;
+
+            Tracked tracked = new Tracked(entity);
+            tracked.updatePriority((float) Math.sqrt(distSq), leave);
+            client.entities.put(entity.getUUID(), tracked);
+            listener.entityEntered(client.id, entity);
+        });
+    }
+
+    /**
+     * Builds the snapshot of a client, with only the entities it tracks
+     * entities that changed but did not make it into the update budget keep the values last sent to the client, so they cost nothing
+     * @param snapshot the snapshot of all entities
+     * @return the client snapshot, or null if the client has no area of interest yet
+     */
+    public Snapshot select(int id, Snapshot snapshot, SnapshotServer snapshots) {
+        ClientInterest client = clients.get(id);
+        if (client == null)
+            return null;
+
+        Snapshot last = snapshots.getLastSent(id);
+        Snapshot result = new Snapshot(snapshot.tick, client.entities.size());
+        candidates.clear();
+
+        for (Tracked tracked : client.entities.values()) {
+            int networkID = snapshots.getNetworkID(tracked.entity.getUUID());
+            int i = networkID < 0 ? -1 : snapshot.indexOf(networkID);
+            if (i < 0)
+                continue;
+
+            //new to the client, or nothing to update
+            int j = last == null ? -1 : last.indexOf(networkID);
+            if (j < 0 || !last.getUUID(j).equals(snapshot.getUUID(i)) || snapshot.sameTransform(i, last, j)) {
+                result.add(snapshot, i);
+                tracked.accumulator = 0f;
+                continue;
+            }
+
+            tracked.accumulator += tracked.priority;
+            tracked.index = i;
+            tracked.lastIndex = j;
+            candidates.add(tracked);
+        }
+
+        //highest accumulated priorities first
+        candidates.sort((a, b) -> Float.compare(b.accumulator, a.accumulator));
+        for (int k = 0; k < candidates.size(); k++) {
+            Tracked tracked = candidates.get(k);
+            if (k < config.updatesPerTick()) {
+                result.add(snapshot, tracked.index);
+                tracked.accumulator = 0f;
+            } else {
+                result.add(last, tracked.lastIndex);
+            }
+        }
+        candidates.clear();
+
+        result.sort();
+        return result;
+    }
+
+    // -- terrain -- //
+
+    private void updateTerrain(ClientInterest client) {
+        Vector3f pos = client.viewer.getTransform().getPos();
+
+        //only look for cells again when the viewer moved to another cell
+        long cell = cellOf(pos);
+        if (!client.hasCell || client.cell != cell) {
+            client.hasCell = true;
+            client.cell = cell;
+            queueCells(client, pos);
+        }
+
+        //changed cells first, replacing what the client has with the current terrain
+        int budget = config.cellsPerTick();
+        for (Iterator<Long> it = client.changedCells.iterator(); budget > 0 && it.hasNext(); ) {
+            long key = it.next();
+            it.remove();
+
+            //unloaded in the meantime
+            if (!client.checkedCells.contains(key))
+                continue;
+
+            if (client.sentCells.remove(key))
+                listener.terrainLeft(client.id, cellBounds(key));
+            sendCell(client, key);
+            budget--;
+        }
+
+        //then the closest pending cells within the budget
+        while (budget > 0 && client.nextPending < client.pending.length) {
+            long key = client.pending[client.nextPending++];
+            if (client.checkedCells.add(key) && sendCell(client, key))
+                budget--;
+        }
+    }
+
+    /**
+     * Sends the terrain positioned in the cell, if any
+     * @return false if the cell was empty
+     */
+    private boolean sendCell(ClientInterest client, long key) {
+        AABB bounds = cellBounds(key);
+        terrain.clear();
+        world.getTerrains(bounds, t -> {
+            //only terrain positioned in this cell, so terrain crossing cells is sent once
+            Vector3f p = t.getTransform().getPos();
+            if (p.x >= bounds.minX() && p.x < bounds.maxX() && p.y >= bounds.minY() && p.y < bounds.maxY() && p.z >= bounds.minZ() && p.z < bounds.maxZ())
+                terrain.add(t);
+        });
+
+        if (terrain.isEmpty())
+            return false;
+
+        for (Terrain t : terrain)
+            terrainCells.put(t, key);
+
+        client.sentCells.add(key);
+        listener.terrainEntered(client.id, bounds, new ArrayList<>(terrain));
+        terrain.clear();
+        return true;
+    }
+
+    private void queueCells(ClientInterest client, Vector3f pos) {
+        float enter = config.terrainRadius(), leave = enter + config.margin();
+        int size = config.cellSize();
+
+        //unload the cells out of range
+        for (Iterator<Long> it = client.checkedCells.iterator(); it.hasNext(); ) {
+            long key = it.next();
+            if (cellDistanceSq(key, pos) <= leave * leave)
+                continue;
+
+            it.remove();
+            client.changedCells.remove(key);
+            if (client.sentCells.remove(key))
+                listener.terrainLeft(client.id, cellBounds(key));
+        }
+
+        //and queue the new ones in range, closest first
+        int r = (int) Math.ceil(enter / size);
+        int cx = unpackX(client.cell), cy = unpackY(client.cell), cz = unpackZ(client.cell);
+        List<long[]> cells = new ArrayList<>();
+        for (int x = cx - r; x <= cx + r; x++) {
+            for (int y = cy - r; y <= cy + r; y++) {
+                for (int z = cz - r; z <= cz + r; z++) {
+                    long key = pack(x, y, z);
+                    if (client.checkedCells.contains(key))
+                        continue;
+
+                    float distSq = cellDistanceSq(key, pos);
+                    if (distSq <= enter * enter)
+                        cells.add(new long[]{key, Float.floatToIntBits(distSq)});
+                }
+            }
+        }
+
+        //positive float bits sort the same as the floats
+        cells.sort(Comparator.comparingLong(c -> c[1]));
+        client.pending = new long[cells.size()];
+        for (int i = 0; i < cells.size(); i++)
+            client.pending[i] = cells.get(i)[0];
+        client.nextPending = 0;
+    }
+
+    private long cellOf(Vector3f pos) {
+        int size = config.cellSize();
+        return pack(Math.floorDiv((int) Math.floor(pos.x), size), Math.floorDiv((int) Math.floor(pos.y), size), Math.floorDiv((int) Math.floor(pos.z), size));
+    }
+
+    private float cellDistanceSq(long key, Vector3f pos) {
+        int size = config.cellSize();
+        float minX = unpackX(key) * size, minY = unpackY(key) * size, minZ = unpackZ(key) * size;
+        float dx = Math.max(Math.max(minX - pos.x, pos.x - (minX + size)), 0f);
+        float dy = Math.max(Math.max(minY - pos.y, pos.y - (minY + size)), 0f);
+        float dz = Math.max(Math.max(minZ - pos.z, pos.z - (minZ + size)), 0f);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private AABB cellBounds(long key) {
+        int size = config.cellSize();
+        float x = unpackX(key) * size, y = unpackY(key) * size, z = unpackZ(key) * size;
+        return new AABB(x, y, z, x + size, y + size, z + size);
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((x & COORD_MASK) << (COORD_BITS * 2)) | ((y & COORD_MASK) << COORD_BITS) | (z & COORD_MASK);
+    }
+
+    private static int unpackX(long key) {
+        return (int) (key << (64 - COORD_BITS * 3) >> (64 - COORD_BITS));
+    }
+
+    private static int unpackY(long key) {
+        return (int) (key << (64 - COORD_BITS * 2) >> (64 - COORD_BITS));
+    }
+
+    private static int unpackZ(long key) {
+        return (int) (key << (64 - COORD_BITS) >> (64 - COORD_BITS));
+    }
+
+    private static class ClientInterest {
+        private final int id;
+        private final Entity viewer;
+        private final Map<UUID, Tracked> entities = new HashMap<>();
+
+        //terrain cells already looked at, and the ones that had terrain to send
+        private final Set<Long> checkedCells = new HashSet<>(), sentCells = new HashSet<>();
+        //checked cells whose terrain changed since, in change order
+        private final Set<Long> changedCells = new LinkedHashSet<>();
+        private long[] pending = new long[0];
+        private int nextPending;
+        private long cell;
+        private boolean hasCell;
+
+        private ClientInterest(int id, Entity viewer) {
+            this.id = id;
+            this.viewer = viewer;
+        }
+    }
+
+    private static class Tracked {
+        private final Entity entity;
+        private float priority, accumulator;
+        private int index, lastIndex;
+
+        private Tracked(Entity entity) {
+            this.entity = entity;
+        }
+
+        private void updatePriority(float dist, float range) {
+            //closer entities accumulate faster, but far ones still get their turn
+            priority = 1f - 0.9f * Math.min(dist / range, 1f);
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.serializer.EntitySerializer;
 import cinnamon.world.entity.Entity;
 
+import java.nio.ByteBuffer;
+
 public class AddEntity implements Packet {
 
     private Entity e;
+    //received spawn data, only turned into an entity on the main thread
+    private ByteBuffer data;
+
+    public AddEntity() {}
+
+    public AddEntity(ByteBuffer buffer) {
+        this.data = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+    }
 
     public AddEntity entity(Entity e) {
         this.e = e;
@@ -16,11 +26,17 @@ public class AddEntity implements Packet {
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {
-        cinnamon.Client.getInstance().world.addEntity(e);
+    public void write(ByteBuffer buffer) {
+        EntitySerializer.write(buffer, e);
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
+        Entity entity = EntitySerializer.read(data);
+        if (entity != null)
+            cinnamon.Client.getInstance().world.addEntity(entity);
     }
 
     @Override
-    public void serverReceived(Server server, Connection connection) {}
+    public void serverReceived(NetServer server, Connection connection) {}
 }
- */
\ No newline at end of file
@@ -1,18 +1,29 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
 import cinnamon.networking.ServerConnection;
-import cinnamon.world.World;
 import cinnamon.world.entity.Entity;
 import cinnamon.world.entity.living.LivingEntity;
+import cinnamon.world.world.World;
+
+import java.nio.ByteBuffer;
 
 public class ClientEntityAction extends PacketWithOwner {
 
     private Boolean use, attack;
 
+    public ClientEntityAction() {
+        super();
+    }
+
+    public ClientEntityAction(ByteBuffer buffer) {
+        super(buffer);
+        this.use = readAction(buffer);
+        this.attack = readAction(buffer);
+    }
+
     public ClientEntityAction use(boolean use) {
         this.use = use;
         return this;
@@ -24,14 +35,31 @@ public class ClientEntityAction extends PacketWithOwner {
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {
+    public void write(ByteBuffer buffer) {
+        super.write(buffer);
+        writeAction(buffer, use);
+        writeAction(buffer, attack);
+    }
+
+    //0 = unchanged, 1 = stop, 2 = start
+    private static void writeAction(ByteBuffer buffer, Boolean action) {
+        buffer.put((byte) (action == null ? 0 : action ? 2 : 1));
+    }
+
+    private static Boolean readAction(ByteBuffer buffer) {
+        byte b = buffer.get();
+        return b == 0 ? null : b == 2;
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
         apply(cinnamon.Client.getInstance().world);
     }
 
     @Override
-    public void serverReceived(Server server, Connection connection) {
+    public void serverReceived(NetServer server, Connection connection) {
         apply(ServerConnection.world);
-        server.sendToAllUDP(this);
+        server.sendToAll(this);
     }
 
     private void apply(World world) {
@@ -48,4 +76,3 @@ public class ClientEntityAction extends PacketWithOwner {
         }
     }
 }
- */
\ No newline at end of file
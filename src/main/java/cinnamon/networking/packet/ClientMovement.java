@@ -1,27 +1,42 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
 import cinnamon.networking.ServerConnection;
-import cinnamon.world.entity.Entity;
+import cinnamon.networking.serializer.Vector2fSerializer;
+import cinnamon.networking.serializer.Vector3fSerializer;
 import cinnamon.world.entity.living.Player;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 
-import java.util.UUID;
+import java.nio.ByteBuffer;
 
 public class ClientMovement implements Packet {
 
-    private UUID uuid;
+    private static final int
+            HAS_MOVEMENT = 1,
+            HAS_ROTATION = 1 << 1,
+            SNEAK = 1 << 2,
+            SPRINT = 1 << 3,
+            FLYING = 1 << 4;
+
     private Vector3f movement;
     private Vector2f rotation;
     private boolean sneak, sprint, flying;
 
-    public ClientMovement uuid(UUID uuid) {
-        this.uuid = uuid;
-        return this;
+    public ClientMovement() {}
+
+    public ClientMovement(ByteBuffer buffer) {
+        int flags = buffer.get();
+        if ((flags & HAS_MOVEMENT) != 0)
+            this.movement = Vector3fSerializer.read(buffer);
+        if ((flags & HAS_ROTATION) != 0)
+            this.rotation = Vector2fSerializer.read(buffer);
+
+        this.sneak = (flags & SNEAK) != 0;
+        this.sprint = (flags & SPRINT) != 0;
+        this.flying = (flags & FLYING) != 0;
     }
 
     public ClientMovement move(float left, float up, float forwards) {
@@ -42,22 +57,33 @@ public class ClientMovement implements Packet {
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {}
+    public void write(ByteBuffer buffer) {
+        int flags = (movement != null ? HAS_MOVEMENT : 0) | (rotation != null ? HAS_ROTATION : 0)
+                | (sneak ? SNEAK : 0) | (sprint ? SPRINT : 0) | (flying ? FLYING : 0);
+        buffer.put((byte) flags);
+
+        if (movement != null)
+            Vector3fSerializer.write(buffer, movement);
+        if (rotation != null)
+            Vector2fSerializer.write(buffer, rotation);
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {}
 
     @Override
-    public void serverReceived(Server server, Connection connection) {
-        Entity e = ServerConnection.world.getEntityByUUID(uuid);
-        if (e == null)
+    public void serverReceived(NetServer server, Connection connection) {
+        //the player is taken from the connection, so clients can only move themselves
+        Player p = ServerConnection.world.getPlayerByID(connection.getID());
+        if (p == null)
             return;
 
         if (movement != null)
-            e.move(movement.x, movement.y, movement.z);
+            p.impulse(movement.x, movement.y, movement.z);
 
         if (rotation != null)
-            e.rotate(rotation.x, rotation.y);
+            p.rotateTo(rotation.x, rotation.y, 0f);
 
-        if (e instanceof Player p)
-            p.updateMovementFlags(sneak, sprint, flying);
+        p.updateMovementFlags(sneak, sprint, flying);
     }
 }
- */
\ No newline at end of file
@@ -0,0 +1,67 @@
+package cinnamon.networking.packet;
+
+import cinnamon.networking.ClientConnection;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.snapshot.BitReader;
+import cinnamon.networking.snapshot.BitWriter;
+import cinnamon.networking.snapshot.Snapshot;
+import cinnamon.networking.snapshot.SnapshotConfig;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The entity transforms of a server tick, delta compressed against the last snapshot the client acknowledged
+ */
+public class EntitySnapshot implements Packet {
+
+    private Snapshot snapshot, baseline;
+    private SnapshotConfig config;
+    //received delta, only decoded on the main thread, where the baselines live
+    private ByteBuffer data;
+
+    public EntitySnapshot() {}
+
+    public EntitySnapshot(ByteBuffer buffer) {
+        this.data = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+    }
+
+    public EntitySnapshot snapshot(Snapshot snapshot, Snapshot baseline, SnapshotConfig config) {
+        this.snapshot = snapshot;
+        this.baseline = baseline;
+        this.config = config;
+        return this;
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(snapshot.tick);
+        buffer.putInt(baseline == null ? -1 : baseline.tick);
+
+        buffer.put((byte) config.positionBits());
+        buffer.putFloat(config.positionPrecision());
+        buffer.put((byte) config.rotationBits());
+
+        BitWriter writer = new BitWriter(buffer);
+        Snapshot.writeDelta(writer, snapshot, baseline, config);
+        writer.flush();
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
+        if (ClientConnection.snapshots == null)
+            return;
+
+        int tick = data.getInt();
+        int baselineTick = data.getInt();
+        SnapshotConfig config = new SnapshotConfig(data.get(), data.getFloat(), data.get());
+
+        //acknowledge it, so the next snapshots use it as their baseline
+        if (ClientConnection.snapshots.receive(tick, baselineTick, config, new BitReader(data)) != null)
+            client.send(new SnapshotAck().tick(tick));
+    }
+
+    @Override
+    public void serverReceived(NetServer server, Connection connection) {}
+}
@@ -1,31 +1,49 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
-import cinnamon.world.World;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.serializer.QuaternionfSerializer;
+import cinnamon.networking.serializer.UUIDSerializer;
+import cinnamon.networking.serializer.Vector3fSerializer;
 import cinnamon.world.entity.Entity;
-import org.joml.Vector2f;
+import cinnamon.world.world.World;
+import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 public class EntitySync implements Packet {
 
     private UUID uuid;
     private Vector3f pos;
-    private Vector2f rot;
+    private Quaternionf rot;
+
+    public EntitySync() {}
+
+    public EntitySync(ByteBuffer buffer) {
+        this.uuid = UUIDSerializer.read(buffer);
+        this.pos = Vector3fSerializer.read(buffer);
+        this.rot = QuaternionfSerializer.read(buffer);
+    }
 
     public EntitySync entity(Entity entity) {
         this.uuid = entity.getUUID();
-        this.pos = new Vector3f(entity.getPos());
-        this.rot = new Vector2f(entity.getRot());
+        this.pos = new Vector3f(entity.getTransform().getPos());
+        this.rot = new Quaternionf(entity.getTransform().getRot());
         return this;
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {
+    public void write(ByteBuffer buffer) {
+        UUIDSerializer.write(buffer, uuid);
+        Vector3fSerializer.write(buffer, pos);
+        QuaternionfSerializer.write(buffer, rot);
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
         World world = cinnamon.Client.getInstance().world;
         if (world == null)
             return;
@@ -39,6 +57,5 @@ public class EntitySync implements Packet {
     }
 
     @Override
-    public void serverReceived(Server server, Connection connection) {}
+    public void serverReceived(NetServer server, Connection connection) {}
 }
- */
\ No newline at end of file
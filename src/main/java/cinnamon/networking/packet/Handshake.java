@@ -1,9 +1,12 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.serializer.StringSerializer;
+import cinnamon.utils.Version;
+
+import java.nio.ByteBuffer;
 
 import static cinnamon.Client.LOGGER;
 
@@ -13,18 +16,28 @@ public class Handshake extends PacketWithOwner {
 
     public Handshake() {
         super();
-        this.version = cinnamon.Client.VERSION;
+        this.version = Version.CLIENT_VERSION.toString();
+    }
+
+    public Handshake(ByteBuffer buffer) {
+        super(buffer);
+        this.version = StringSerializer.read(buffer);
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) {
+        super.write(buffer);
+        StringSerializer.write(buffer, version);
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {
+    public void clientReceived(NetClient client, Connection connection) {
         LOGGER.info("Handshake received!");
     }
 
     @Override
-    public void serverReceived(Server server, Connection connection) {
+    public void serverReceived(NetServer server, Connection connection) {
         LOGGER.info("[Server] %s (id %s) handshaked with version: v%s", name, connection.getID(), version);
-        connection.sendTCP(new Handshake());
+        connection.send(new Handshake());
     }
 }
- */
\ No newline at end of file
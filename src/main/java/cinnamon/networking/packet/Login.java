@@ -1,35 +1,38 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
 import cinnamon.networking.ServerConnection;
 import cinnamon.world.entity.Entity;
 
+import java.nio.ByteBuffer;
+
 import static cinnamon.Client.LOGGER;
 
 public class Login extends PacketWithOwner {
+
+    public Login() {
+        super();
+    }
+
+    public Login(ByteBuffer buffer) {
+        super(buffer);
+    }
+
     @Override
-    public void clientReceived(Client client, Connection connection) {}
+    public void clientReceived(NetClient client, Connection connection) {}
 
     @Override
-    public void serverReceived(Server server, Connection connection) {
+    public void serverReceived(NetServer server, Connection connection) {
         int id = connection.getID();
         LOGGER.info("[Server] %s (id %s) logged!", name, id);
 
         //join message
-        server.sendToAllExceptTCP(id, new Message().msg(name + " joined the server"));
-
-        //send terrain
-        //server.sendToTCP(id, new SendTerrain().terrain(ServerConnection.world.getTerrain()));
-
-        //send entities
-        server.sendToTCP(id, new SendEntities().entity(ServerConnection.world.getEntities().values()));
+        server.sendToAllExcept(id, new Message().msg(name + " joined the server"));
 
-        //add player
+        //add player, the entities and terrain around it are sent as they enter its area of interest
         Entity e = ServerConnection.world.addPlayer(id, name, uuid);
-        server.sendToAllExceptTCP(id, new AddEntity().entity(e));
+        ServerConnection.interest.addClient(id, e);
     }
 }
- */
\ No newline at end of file
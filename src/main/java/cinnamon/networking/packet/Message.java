@@ -1,9 +1,11 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.serializer.StringSerializer;
+
+import java.nio.ByteBuffer;
 
 import static cinnamon.Client.LOGGER;
 
@@ -11,21 +13,35 @@ public class Message extends PacketWithOwner {
 
     private String msg;
 
+    public Message() {
+        super();
+    }
+
+    public Message(ByteBuffer buffer) {
+        super(buffer);
+        this.msg = StringSerializer.read(buffer);
+    }
+
     public Message msg(String msg) {
         this.msg = msg;
         return this;
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {
+    public void write(ByteBuffer buffer) {
+        super.write(buffer);
+        StringSerializer.write(buffer, msg);
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
         LOGGER.info(msg);
     }
 
     @Override
-    public void serverReceived(Server server, Connection connection) {
+    public void serverReceived(NetServer server, Connection connection) {
         String s = "<%s> %s".formatted(name, msg);
         LOGGER.info("[Server] %s", s);
-        server.sendToAllTCP(new Message().msg(s));
+        server.sendToAll(new Message().msg(s));
     }
 }
- */
\ No newline at end of file
@@ -1,12 +1,19 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
 
+import java.nio.ByteBuffer;
+
+/**
+ * A network message, each type writes its own fields and reads them back in a {@code (ByteBuffer)} constructor,
+ * registered in {@link cinnamon.networking.PacketRegistry}
+ * <br>
+ * the received callbacks run on the main thread
+ */
 public interface Packet {
-    void clientReceived(Client client, Connection connection);
-    void serverReceived(Server server, Connection connection);
+    void write(ByteBuffer buffer);
+    void clientReceived(NetClient client, Connection connection);
+    void serverReceived(NetServer server, Connection connection);
 }
- */
\ No newline at end of file
@@ -1,8 +1,10 @@
 package cinnamon.networking.packet;
 
-/*
-import cinnamon.Client;
+import cinnamon.networking.serializer.StringSerializer;
+import cinnamon.networking.serializer.UUIDSerializer;
+import cinnamon.settings.Settings;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 public abstract class PacketWithOwner implements Packet {
@@ -11,8 +13,20 @@ public abstract class PacketWithOwner implements Packet {
     public final UUID uuid;
 
     public PacketWithOwner() {
-        this.name = Client.getInstance().name;
-        this.uuid = Client.getInstance().playerUUID;
+        //same name and uuid the local player is created with
+        String name = Settings.playerName.get();
+        this.name = name.isBlank() ? "Player" : name;
+        this.uuid = UUID.nameUUIDFromBytes(this.name.getBytes());
+    }
+
+    public PacketWithOwner(ByteBuffer buffer) {
+        this.name = StringSerializer.read(buffer);
+        this.uuid = UUIDSerializer.read(buffer);
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) {
+        StringSerializer.write(buffer, name);
+        UUIDSerializer.write(buffer, uuid);
     }
 }
- */
\ No newline at end of file
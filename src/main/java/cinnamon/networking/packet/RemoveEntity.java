@@ -1,26 +1,41 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.serializer.UUIDSerializer;
+import cinnamon.world.entity.Entity;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 public class RemoveEntity implements Packet {
+
     private UUID uuid;
 
+    public RemoveEntity() {}
+
+    public RemoveEntity(ByteBuffer buffer) {
+        this.uuid = UUIDSerializer.read(buffer);
+    }
+
     public RemoveEntity uuid(UUID uuid) {
         this.uuid = uuid;
         return this;
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {
-        cinnamon.Client.getInstance().world.getEntityByUUID(uuid).remove();
+    public void write(ByteBuffer buffer) {
+        UUIDSerializer.write(buffer, uuid);
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
+        Entity e = cinnamon.Client.getInstance().world.getEntityByUUID(uuid);
+        if (e != null)
+            e.remove();
     }
 
     @Override
-    public void serverReceived(Server server, Connection connection) {}
+    public void serverReceived(NetServer server, Connection connection) {}
 }
- */
\ No newline at end of file
@@ -1,23 +1,32 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
 import cinnamon.networking.ServerConnection;
 import cinnamon.world.entity.Entity;
 
+import java.nio.ByteBuffer;
+
 public class Respawn extends PacketWithOwner {
+
+    public Respawn() {
+        super();
+    }
+
+    public Respawn(ByteBuffer buffer) {
+        super(buffer);
+    }
+
     @Override
-    public void clientReceived(Client client, Connection connection) {}
+    public void clientReceived(NetClient client, Connection connection) {}
 
     @Override
-    public void serverReceived(Server server, Connection connection) {
+    public void serverReceived(NetServer server, Connection connection) {
         int id = connection.getID();
 
         //add player
         Entity e = ServerConnection.world.addPlayer(id, name, uuid);
-        server.sendToAllExceptTCP(id, new AddEntity().entity(e));
+        server.sendToAllExcept(id, new AddEntity().entity(e));
     }
 }
- */
\ No newline at end of file
@@ -1,32 +1,48 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
 import cinnamon.networking.ServerConnection;
-import cinnamon.world.World;
 import cinnamon.world.entity.Entity;
 import cinnamon.world.entity.living.LivingEntity;
+import cinnamon.world.world.World;
+
+import java.nio.ByteBuffer;
 
 public class SelectItem extends PacketWithOwner {
 
     private int index;
 
+    public SelectItem() {
+        super();
+    }
+
+    public SelectItem(ByteBuffer buffer) {
+        super(buffer);
+        this.index = buffer.getInt();
+    }
+
     public SelectItem index(int index) {
         this.index = index;
         return this;
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {
+    public void write(ByteBuffer buffer) {
+        super.write(buffer);
+        buffer.putInt(index);
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
         apply(cinnamon.Client.getInstance().world);
     }
 
     @Override
-    public void serverReceived(Server server, Connection connection) {
+    public void serverReceived(NetServer server, Connection connection) {
         apply(ServerConnection.world);
-        server.sendToAllExceptUDP(connection.getID(), this);
+        server.sendToAllExcept(connection.getID(), this);
     }
 
     private void apply(World world) {
@@ -35,4 +51,3 @@ public class SelectItem extends PacketWithOwner {
             le.setSelectedItem(index);
     }
 }
- */
\ No newline at end of file
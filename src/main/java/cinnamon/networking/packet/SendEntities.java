@@ -1,18 +1,27 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
-import cinnamon.world.WorldClient;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.serializer.EntitySerializer;
 import cinnamon.world.entity.Entity;
+import cinnamon.world.world.WorldClient;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 
 public class SendEntities implements Packet {
 
     private Collection<Entity> entities;
+    //received spawn data, only turned into entities on the main thread
+    private ByteBuffer data;
+
+    public SendEntities() {}
+
+    public SendEntities(ByteBuffer buffer) {
+        this.data = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+    }
 
     public SendEntities entity(Collection<Entity> entities) {
         this.entities = new ArrayList<>(entities);
@@ -20,13 +29,23 @@ public class SendEntities implements Packet {
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {
-        WorldClient world = cinnamon.Client.getInstance().world;
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(entities.size());
         for (Entity e : entities)
-            world.addEntity(e);
+            EntitySerializer.write(buffer, e);
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
+        WorldClient world = cinnamon.Client.getInstance().world;
+        int count = data.getInt();
+        for (int i = 0; i < count; i++) {
+            Entity e = EntitySerializer.read(data);
+            if (e != null)
+                world.addEntity(e);
+        }
     }
 
     @Override
-    public void serverReceived(Server server, Connection connection) {}
+    public void serverReceived(NetServer server, Connection connection) {}
 }
- */
\ No newline at end of file
@@ -1,18 +1,27 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
-import cinnamon.world.WorldClient;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.serializer.TerrainSerializer;
 import cinnamon.world.terrain.Terrain;
+import cinnamon.world.world.WorldClient;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 
 public class SendTerrain implements Packet {
 
     private Collection<Terrain> terrain;
+    //received terrain data, only turned into terrain on the main thread
+    private ByteBuffer data;
+
+    public SendTerrain() {}
+
+    public SendTerrain(ByteBuffer buffer) {
+        this.data = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+    }
 
     public SendTerrain terrain(Collection<Terrain> terrain) {
         this.terrain = new ArrayList<>(terrain);
@@ -20,13 +29,20 @@ public class SendTerrain implements Packet {
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(terrain.size());
+        for (Terrain t : terrain)
+            TerrainSerializer.write(buffer, t);
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
         WorldClient world = cinnamon.Client.getInstance().world;
-        //for (Terrain t : terrain)
-        //    world.addTerrain(t);
+        int count = data.getInt();
+        for (int i = 0; i < count; i++)
+            world.addTerrain(TerrainSerializer.read(data));
     }
 
     @Override
-    public void serverReceived(Server server, Connection connection) {}
+    public void serverReceived(NetServer server, Connection connection) {}
 }
- */
\ No newline at end of file
@@ -0,0 +1,38 @@
+package cinnamon.networking.packet;
+
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.ServerConnection;
+
+import java.nio.ByteBuffer;
+
+public class SnapshotAck implements Packet {
+
+    private int tick;
+
+    public SnapshotAck() {}
+
+    public SnapshotAck(ByteBuffer buffer) {
+        this.tick = buffer.getInt();
+    }
+
+    public SnapshotAck tick(int tick) {
+        this.tick = tick;
+        return this;
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(tick);
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {}
+
+    @Override
+    public void serverReceived(NetServer server, Connection connection) {
+        if (ServerConnection.snapshots != null)
+            ServerConnection.snapshots.acknowledge(connection.getID(), tick);
+    }
+}
@@ -1,12 +1,13 @@
 package cinnamon.networking.packet;
 
-/*
-import com.esotericsoftware.kryonet.Client;
-import com.esotericsoftware.kryonet.Connection;
-import com.esotericsoftware.kryonet.Server;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.serializer.UUIDSerializer;
 import cinnamon.world.entity.Entity;
 import cinnamon.world.entity.living.LivingEntity;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 public class SyncHealth implements Packet {
@@ -14,6 +15,13 @@ public class SyncHealth implements Packet {
     private UUID entity;
     private int health;
 
+    public SyncHealth() {}
+
+    public SyncHealth(ByteBuffer buffer) {
+        this.entity = UUIDSerializer.read(buffer);
+        this.health = buffer.getInt();
+    }
+
     public SyncHealth entity(UUID entity) {
         this.entity = entity;
         return this;
@@ -25,13 +33,18 @@ public class SyncHealth implements Packet {
     }
 
     @Override
-    public void clientReceived(Client client, Connection connection) {
+    public void write(ByteBuffer buffer) {
+        UUIDSerializer.write(buffer, entity);
+        buffer.putInt(health);
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
         Entity e = cinnamon.Client.getInstance().world.getEntityByUUID(entity);
         if (e instanceof LivingEntity le)
             le.setHealth(health);
     }
 
     @Override
-    public void serverReceived(Server server, Connection connection) {}
+    public void serverReceived(NetServer server, Connection connection) {}
 }
- */
\ No newline at end of file
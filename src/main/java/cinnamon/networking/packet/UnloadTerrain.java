@@ -0,0 +1,59 @@
+package cinnamon.networking.packet;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetClient;
+import cinnamon.networking.NetServer;
+import cinnamon.world.terrain.Terrain;
+import cinnamon.world.world.WorldClient;
+import org.joml.Vector3f;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes the terrain positioned inside a region, sent when a terrain cell leaves the client area of interest
+ */
+public class UnloadTerrain implements Packet {
+
+    private final AABB region = new AABB();
+
+    public UnloadTerrain() {}
+
+    public UnloadTerrain(ByteBuffer buffer) {
+        region.set(buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+    }
+
+    public UnloadTerrain region(AABB region) {
+        this.region.set(region);
+        return this;
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) {
+        buffer.putFloat(region.minX()).putFloat(region.minY()).putFloat(region.minZ());
+        buffer.putFloat(region.maxX()).putFloat(region.maxY()).putFloat(region.maxZ());
+    }
+
+    @Override
+    public void clientReceived(NetClient client, Connection connection) {
+        WorldClient world = cinnamon.Client.getInstance().world;
+        if (world == null)
+            return;
+
+        //same rule as the server cells, terrain crossing the border belongs to the cell holding its position
+        List<Terrain> toRemove = new ArrayList<>();
+        world.getTerrains(region, t -> {
+            Vector3f p = t.getTransform().getPos();
+            if (p.x >= region.minX() && p.x < region.maxX() && p.y >= region.minY() && p.y < region.maxY() && p.z >= region.minZ() && p.z < region.maxZ())
+                toRemove.add(t);
+        });
+
+        for (Terrain terrain : toRemove)
+            world.removeTerrain(terrain);
+    }
+
+    @Override
+    public void serverReceived(NetServer server, Connection connection) {}
+}
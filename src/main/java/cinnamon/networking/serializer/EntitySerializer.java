@@ -1,59 +1,77 @@
 package cinnamon.networking.serializer;
 
-/*
+import cinnamon.registry.EntityRegistry;
 import cinnamon.world.entity.Entity;
-import com.esotericsoftware.kryo.Kryo;
-import com.esotericsoftware.kryo.Serializer;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
-import org.joml.Vector2f;
-import org.joml.Vector3f;
+import cinnamon.world.entity.living.Dummy;
+import cinnamon.world.entity.living.LivingEntity;
+import cinnamon.world.entity.living.Player;
+import cinnamon.world.entity.vehicle.Cart;
+import cinnamon.world.entity.vehicle.ShoppingCart;
 
-public class EntitySerializer extends Serializer<Entity> {
+import java.nio.ByteBuffer;
+import java.util.UUID;
 
-    public EntitySerializer() {
-        super(true);
-    }
-
-    @Override
-    public void write(Kryo kryo, Output output, Entity entity) {
-        //uuid
-        kryo.writeObject(output, entity.getUUID());
+/**
+ * Spawn data of an entity, with the extra living entity state when present
+ */
+public class EntitySerializer {
 
-        //type
-        kryo.writeObject(output, entity.getType());
+    public static void write(ByteBuffer buffer, Entity entity) {
+        //uuid and type
+        UUIDSerializer.write(buffer, entity.getUUID());
+        buffer.put((byte) entity.getType().ordinal());
+        StringSerializer.write(buffer, entity.getName() == null ? "" : entity.getName());
 
-        //pos
-        Vector3f pos = entity.getPos();
-        output.writeFloat(pos.x);
-        output.writeFloat(pos.y);
-        output.writeFloat(pos.z);
+        //transform
+        Vector3fSerializer.write(buffer, entity.getTransform().getPos());
+        QuaternionfSerializer.write(buffer, entity.getTransform().getRot());
 
-        //rotation
-        Vector2f rot = entity.getRot();
-        output.writeFloat(rot.x);
-        output.writeFloat(rot.y);
+        //health and selected item
+        if (entity instanceof LivingEntity living) {
+            buffer.put((byte) 1);
+            buffer.putInt(living.getMaxHealth());
+            buffer.putInt(living.getHealth());
+            buffer.putInt(living.getInventory().getSelectedIndex());
+        } else {
+            buffer.put((byte) 0);
+        }
     }
 
-    @Override
-    public Entity read(Kryo kryo, Input input, Class<? extends Entity> type) {
-        //uuid
-        UUID uuid = kryo.readObject(input, UUID.class);
+    /**
+     * @return the entity, or null when its type cannot be spawned remotely
+     */
+    public static Entity read(ByteBuffer buffer) {
+        UUID uuid = UUIDSerializer.read(buffer);
+        EntityRegistry type = EntityRegistry.values()[buffer.get() & 0xFF];
+        String name = StringSerializer.read(buffer);
 
-        //type
-        EntityRegistry entityType = kryo.readObject(input, EntityRegistry.class);
-        Entity entity = entityType.getFactory().apply(uuid);
+        Entity entity = create(type, uuid, name);
+        if (entity != null) {
+            entity.setPos(Vector3fSerializer.read(buffer));
+            entity.setRot(QuaternionfSerializer.read(buffer));
+        } else {
+            buffer.position(buffer.position() + 7 * Float.BYTES);
+        }
 
-        //pos
-        entity.setPos(input.readFloat(), input.readFloat(), input.readFloat());
+        if (buffer.get() != 0) {
+            int maxHealth = buffer.getInt(), health = buffer.getInt(), selected = buffer.getInt();
+            if (entity instanceof LivingEntity living) {
+                living.setMaxHealth(maxHealth);
+                living.setHealth(health);
+                living.setSelectedItem(selected);
+            }
+        }
 
-        //rotation
-        entity.setRot(input.readFloat(), input.readFloat());
-
-        //add
         return entity;
+    }
 
-        return null;
+    private static Entity create(EntityRegistry type, UUID uuid, String name) {
+        return switch (type) {
+            case PLAYER -> new Player(name, uuid);
+            case DUMMY -> new Dummy(uuid);
+            case CART -> new Cart(uuid);
+            case SHOPPING_CART -> new ShoppingCart(uuid);
+            default -> null;
+        };
     }
 }
- */
\ No newline at end of file
@@ -0,0 +1,19 @@
+package cinnamon.networking.serializer;
+
+import org.joml.Quaternionf;
+
+import java.nio.ByteBuffer;
+
+public class QuaternionfSerializer {
+
+    public static void write(ByteBuffer buffer, Quaternionf quat) {
+        buffer.putFloat(quat.x);
+        buffer.putFloat(quat.y);
+        buffer.putFloat(quat.z);
+        buffer.putFloat(quat.w);
+    }
+
+    public static Quaternionf read(ByteBuffer buffer) {
+        return new Quaternionf(buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+    }
+}
@@ -0,0 +1,25 @@
+package cinnamon.networking.serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class StringSerializer {
+
+    public static final int MAX_LENGTH = 0xFFFF;
+
+    public static void write(ByteBuffer buffer, String string) {
+        //utf-8 bytes prefixed by an unsigned short length
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_LENGTH)
+            throw new IllegalArgumentException("String too long: " + bytes.length + " bytes");
+
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    public static String read(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,49 +1,27 @@
 package cinnamon.networking.serializer;
 
-/*
-import com.esotericsoftware.kryo.Kryo;
-import com.esotericsoftware.kryo.Serializer;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
 import cinnamon.registry.TerrainRegistry;
 import cinnamon.world.terrain.Terrain;
-import org.joml.Vector3f;
 
-public class TerrainSerializer extends Serializer<Terrain> {
+import java.nio.ByteBuffer;
 
-    public TerrainSerializer() {
-        super(true);
-    }
+public class TerrainSerializer {
 
-    @Override
-    public void write(Kryo kryo, Output output, Terrain terrain) {
+    public static void write(ByteBuffer buffer, Terrain terrain) {
         //type
-        kryo.writeObject(output, terrain.getType());
-
-        //pos
-        Vector3f pos = terrain.getPos();
-        output.writeFloat(pos.x);
-        output.writeFloat(pos.y);
-        output.writeFloat(pos.z);
+        buffer.put((byte) terrain.getType().ordinal());
 
-        //rotation
-        output.writeByte(terrain.getRotation());
+        //transform
+        Vector3fSerializer.write(buffer, terrain.getTransform().getPos());
+        QuaternionfSerializer.write(buffer, terrain.getTransform().getRot());
     }
 
-    @Override
-    public Terrain read(Kryo kryo, Input input, Class<? extends Terrain> type) {
-        //type
-        TerrainRegistry terrainType = kryo.readObject(input, TerrainRegistry.class);
-        Terrain terrain = terrainType.getFactory().get();
-
-        //pos
-        terrain.setPos(input.readFloat(), input.readFloat(), input.readFloat());
-
-        //rotation
-        terrain.setRotation(input.readByte());
+    public static Terrain read(ByteBuffer buffer) {
+        TerrainRegistry type = TerrainRegistry.values()[buffer.get() & 0xFF];
+        Terrain terrain = type.getFactory().get();
 
-        //add
+        terrain.setPos(Vector3fSerializer.read(buffer));
+        terrain.setRotation(QuaternionfSerializer.read(buffer));
         return terrain;
     }
 }
- */
\ No newline at end of file
@@ -1,28 +1,16 @@
 package cinnamon.networking.serializer;
 
-/*
-import com.esotericsoftware.kryo.Kryo;
-import com.esotericsoftware.kryo.Serializer;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
-
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
-public class UUIDSerializer extends Serializer<UUID> {
-
-    public UUIDSerializer() {
-        super(true);
-    }
+public class UUIDSerializer {
 
-    @Override
-    public void write(Kryo kryo, Output output, UUID uuid) {
-        output.writeLong(uuid.getMostSignificantBits());
-        output.writeLong(uuid.getLeastSignificantBits());
+    public static void write(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
     }
 
-    @Override
-    public UUID read(Kryo kryo, Input input, Class<? extends UUID> type) {
-        return new UUID(input.readLong(), input.readLong());
+    public static UUID read(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
     }
 }
- */
\ No newline at end of file
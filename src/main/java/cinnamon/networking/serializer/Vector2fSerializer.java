@@ -1,27 +1,17 @@
 package cinnamon.networking.serializer;
 
-/*
-import com.esotericsoftware.kryo.Kryo;
-import com.esotericsoftware.kryo.Serializer;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
 import org.joml.Vector2f;
 
-public class Vector2fSerializer extends Serializer<Vector2f> {
+import java.nio.ByteBuffer;
 
-    public Vector2fSerializer() {
-        super(true);
-    }
+public class Vector2fSerializer {
 
-    @Override
-    public void write(Kryo kryo, Output output, Vector2f vec) {
-        output.writeFloat(vec.x);
-        output.writeFloat(vec.y);
+    public static void write(ByteBuffer buffer, Vector2f vec) {
+        buffer.putFloat(vec.x);
+        buffer.putFloat(vec.y);
     }
 
-    @Override
-    public Vector2f read(Kryo kryo, Input input, Class<? extends Vector2f> type) {
-        return new Vector2f(input.readFloat(), input.readFloat());
+    public static Vector2f read(ByteBuffer buffer) {
+        return new Vector2f(buffer.getFloat(), buffer.getFloat());
     }
 }
- */
\ No newline at end of file
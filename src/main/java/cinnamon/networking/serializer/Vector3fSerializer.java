@@ -1,28 +1,18 @@
 package cinnamon.networking.serializer;
 
-/*
-import com.esotericsoftware.kryo.Kryo;
-import com.esotericsoftware.kryo.Serializer;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
 import org.joml.Vector3f;
 
-public class Vector3fSerializer extends Serializer<Vector3f> {
+import java.nio.ByteBuffer;
 
-    public Vector3fSerializer() {
-        super(true);
-    }
+public class Vector3fSerializer {
 
-    @Override
-    public void write(Kryo kryo, Output output, Vector3f vec) {
-        output.writeFloat(vec.x);
-        output.writeFloat(vec.y);
-        output.writeFloat(vec.z);
+    public static void write(ByteBuffer buffer, Vector3f vec) {
+        buffer.putFloat(vec.x);
+        buffer.putFloat(vec.y);
+        buffer.putFloat(vec.z);
     }
 
-    @Override
-    public Vector3f read(Kryo kryo, Input input, Class<? extends Vector3f> type) {
-        return new Vector3f(input.readFloat(), input.readFloat(), input.readFloat());
+    public static Vector3f read(ByteBuffer buffer) {
+        return new Vector3f(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
     }
 }
- */
\ No newline at end of file
@@ -0,0 +1,43 @@
+package cinnamon.networking.snapshot;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the values written by a {@link BitWriter}
+ */
+public class BitReader {
+
+    private final ByteBuffer buffer;
+    private long bits;
+    private int count;
+
+    public BitReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public long read(int bitCount) {
+        if (bitCount > 32) {
+            long low = read(32);
+            return low | read(bitCount - 32) << 32;
+        }
+
+        while (count < bitCount) {
+            bits |= (buffer.get() & 0xFFL) << count;
+            count += 8;
+        }
+
+        long value = bits & ((1L << bitCount) - 1);
+        bits >>>= bitCount;
+        count -= bitCount;
+        return value;
+    }
+
+    public int readSigned(int bitCount) {
+        //sign extend
+        return (int) (read(bitCount) << (64 - bitCount) >> (64 - bitCount));
+    }
+
+    public boolean readBoolean() {
+        return read(1) != 0;
+    }
+}
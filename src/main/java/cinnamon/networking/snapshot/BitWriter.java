@@ -0,0 +1,47 @@
+package cinnamon.networking.snapshot;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes values of any bit width into a buffer, least significant bits first
+ * {@link #flush()} must be called once done, to write the last partial byte
+ */
+public class BitWriter {
+
+    private final ByteBuffer buffer;
+    private long bits;
+    private int count;
+
+    public BitWriter(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public void write(long value, int bitCount) {
+        //split wide values, so the pending bits never overflow
+        if (bitCount > 32) {
+            write(value, 32);
+            write(value >>> 32, bitCount - 32);
+            return;
+        }
+
+        bits |= (value & ((1L << bitCount) - 1)) << count;
+        count += bitCount;
+        while (count >= 8) {
+            buffer.put((byte) bits);
+            bits >>>= 8;
+            count -= 8;
+        }
+    }
+
+    public void writeBoolean(boolean value) {
+        write(value ? 1 : 0, 1);
+    }
+
+    public void flush() {
+        if (count > 0) {
+            buffer.put((byte) bits);
+            bits = 0;
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package cinnamon.networking.snapshot;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Quantized transforms of all replicated entities on a server tick, sorted by network id
+ * snapshots are immutable once built, so the same one is shared as the baseline of every client that acked it
+ */
+public class Snapshot {
+
+    //bits of a network id, so at most 65536 entities are replicated at once
+    public static final int ID_BITS = 16;
+    public static final int MAX_ID = (1 << ID_BITS) - 1;
+
+    //bits of a small position delta, bigger changes send the full value
+    private static final int DELTA_BITS = 8;
+    private static final int DELTA_MIN = -(1 << (DELTA_BITS - 1)), DELTA_MAX = (1 << (DELTA_BITS - 1)) - 1;
+
+    //record kinds
+    private static final int UPDATE = 0, NEW = 1, REMOVED = 2, END = 3;
+
+    //changed fields of an update
+    private static final int CHANGED_X = 1, CHANGED_Y = 1 << 1, CHANGED_Z = 1 << 2, CHANGED_ROT = 1 << 3;
+
+    public final int tick;
+    private int count;
+    private int[] ids;
+    private UUID[] uuids;
+    private int[] x, y, z;
+    private long[] rot;
+
+    public Snapshot(int tick, int capacity) {
+        this.tick = tick;
+        capacity = Math.max(capacity, 1);
+        this.ids = new int[capacity];
+        this.uuids = new UUID[capacity];
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.z = new int[capacity];
+        this.rot = new long[capacity];
+    }
+
+    /**
+     * Adds an entity, already quantized by the config, ids are expected in ascending order unless {@link #sort()} is called after
+     */
+    public void add(int id, UUID uuid, int qx, int qy, int qz, long qrot) {
+        if (count == ids.length) {
+            int size = count * 2;
+            ids = Arrays.copyOf(ids, size);
+            uuids = Arrays.copyOf(uuids, size);
+            x = Arrays.copyOf(x, size);
+            y = Arrays.copyOf(y, size);
+            z = Arrays.copyOf(z, size);
+            rot = Arrays.copyOf(rot, size);
+        }
+
+        ids[count] = id;
+        uuids[count] = uuid;
+        x[count] = qx;
+        y[count] = qy;
+        z[count] = qz;
+        rot[count] = qrot;
+        count++;
+    }
+
+    public void add(int id, UUID uuid, Vector3f pos, Quaternionf rotation, SnapshotConfig config) {
+        add(id, uuid, config.quantizePosition(pos.x), config.quantizePosition(pos.y), config.quantizePosition(pos.z), config.quantizeRotation(rotation));
+    }
+
+    /**
+     * Adds an entry of another snapshot, as is
+     */
+    public void add(Snapshot other, int index) {
+        add(other.ids[index], other.uuids[index], other.x[index], other.y[index], other.z[index], other.rot[index]);
+    }
+
+    /**
+     * Sorts the entries by network id
+     */
+    public void sort() {
+        //id and original index packed together, so one primitive sort is enough
+        long[] order = new long[count];
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            order[i] = (long) ids[i] << 32 | i;
+            if (i > 0 && ids[i] < ids[i - 1])
+                sorted = false;
+        }
+        if (sorted)
+            return;
+
+        Arrays.sort(order);
+        int[] nIds = new int[ids.length], nx = new int[ids.length], ny = new int[ids.length], nz = new int[ids.length];
+        UUID[] nUuids = new UUID[ids.length];
+        long[] nRot = new long[ids.length];
+        for (int i = 0; i < count; i++) {
+            int j = (int) order[i];
+            nIds[i] = ids[j]; nUuids[i] = uuids[j];
+            nx[i] = x[j]; ny[i] = y[j]; nz[i] = z[j];
+            nRot[i] = rot[j];
+        }
+
+        ids = nIds; uuids = nUuids;
+        x = nx; y = ny; z = nz;
+        rot = nRot;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getID(int index) {
+        return ids[index];
+    }
+
+    public UUID getUUID(int index) {
+        return uuids[index];
+    }
+
+    public Vector3f getPosition(int index, SnapshotConfig config, Vector3f out) {
+        return out.set(config.dequantizePosition(x[index]), config.dequantizePosition(y[index]), config.dequantizePosition(z[index]));
+    }
+
+    public Quaternionf getRotation(int index, SnapshotConfig config, Quaternionf out) {
+        return config.dequantizeRotation(rot[index], out);
+    }
+
+    /**
+     * @return true if both entries have the same quantized position and rotation
+     */
+    public boolean sameTransform(int index, Snapshot other, int otherIndex) {
+        return x[index] == other.x[otherIndex] && y[index] == other.y[otherIndex] && z[index] == other.z[otherIndex] && rot[index] == other.rot[otherIndex];
+    }
+
+    /**
+     * @return the index of the network id, or a negative value when not present
+     */
+    public int indexOf(int id) {
+        return Arrays.binarySearch(ids, 0, count, id);
+    }
+
+    /**
+     * Writes the changes from the baseline to the current snapshot
+     * only entities with a changed quantized field are written, and only with the changed fields
+     * @param baseline the last snapshot the receiver acknowledged, or null to send everything
+     */
+    public static void writeDelta(BitWriter out, Snapshot current, Snapshot baseline, SnapshotConfig config) {
+        int bc = baseline == null ? 0 : baseline.count;
+        int i = 0, j = 0, last = -1;
+
+        //both lists are sorted by id, so walk them together
+        while (i < current.count || j < bc) {
+            int cid = i < current.count ? current.ids[i] : Integer.MAX_VALUE;
+            int bid = j < bc ? baseline.ids[j] : Integer.MAX_VALUE;
+
+            if (cid == bid && current.uuids[i].equals(baseline.uuids[j])) {
+                int mask = 0;
+                if (current.x[i] != baseline.x[j]) mask |= CHANGED_X;
+                if (current.y[i] != baseline.y[j]) mask |= CHANGED_Y;
+                if (current.z[i] != baseline.z[j]) mask |= CHANGED_Z;
+                if (current.rot[i] != baseline.rot[j]) mask |= CHANGED_ROT;
+
+                if (mask != 0) {
+                    out.write(UPDATE, 2);
+                    last = writeID(out, cid, last);
+                    out.write(mask, 4);
+                    if ((mask & CHANGED_X) != 0) writePosition(out, current.x[i], baseline.x[j], config);
+                    if ((mask & CHANGED_Y) != 0) writePosition(out, current.y[i], baseline.y[j], config);
+                    if ((mask & CHANGED_Z) != 0) writePosition(out, current.z[i], baseline.z[j], config);
+                    if ((mask & CHANGED_ROT) != 0) out.write(current.rot[i], config.rotationSize());
+                }
+                i++;
+                j++;
+            } else if (cid <= bid) {
+                //new entity, or a recycled id, the receiver drops its old entry
+                out.write(NEW, 2);
+                last = writeID(out, cid, last);
+                UUID uuid = current.uuids[i];
+                out.write(uuid.getMostSignificantBits(), 64);
+                out.write(uuid.getLeastSignificantBits(), 64);
+                out.write(current.x[i], config.positionBits());
+                out.write(current.y[i], config.positionBits());
+                out.write(current.z[i], config.positionBits());
+                out.write(current.rot[i], config.rotationSize());
+                i++;
+                if (cid == bid)
+                    j++;
+            } else {
+                out.write(REMOVED, 2);
+                last = writeID(out, bid, last);
+                j++;
+            }
+        }
+
+        out.write(END, 2);
+    }
+
+    /**
+     * Rebuilds a snapshot from the baseline and the changes written by {@link #writeDelta}
+     */
+    public static Snapshot readDelta(BitReader in, int tick, Snapshot baseline, SnapshotConfig config) {
+        int bc = baseline == null ? 0 : baseline.count;
+        Snapshot result = new Snapshot(tick, bc + 16);
+        int j = 0, last = -1;
+
+        int kind;
+        while ((kind = (int) in.read(2)) != END) {
+            int id = readID(in, last);
+            last = id;
+
+            //everything before this id is unchanged
+            while (j < bc && baseline.ids[j] < id) {
+                result.add(baseline, j);
+                j++;
+            }
+            boolean inBaseline = j < bc && baseline.ids[j] == id;
+
+            switch (kind) {
+                case UPDATE -> {
+                    if (!inBaseline)
+                        throw new IllegalStateException("Update for entity " + id + " missing from the baseline");
+
+                    int mask = (int) in.read(4);
+                    int qx = (mask & CHANGED_X) != 0 ? readPosition(in, baseline.x[j], config) : baseline.x[j];
+                    int qy = (mask & CHANGED_Y) != 0 ? readPosition(in, baseline.y[j], config) : baseline.y[j];
+                    int qz = (mask & CHANGED_Z) != 0 ? readPosition(in, baseline.z[j], config) : baseline.z[j];
+                    long qrot = (mask & CHANGED_ROT) != 0 ? in.read(config.rotationSize()) : baseline.rot[j];
+                    result.add(id, baseline.uuids[j], qx, qy, qz, qrot);
+                    j++;
+                }
+                case NEW -> {
+                    UUID uuid = new UUID(in.read(64), in.read(64));
+                    int qx = in.readSigned(config.positionBits());
+                    int qy = in.readSigned(config.positionBits());
+                    int qz = in.readSigned(config.positionBits());
+                    result.add(id, uuid, qx, qy, qz, in.read(config.rotationSize()));
+                    if (inBaseline)
+                        j++;
+                }
+                default -> {
+                    //removed, just skip it
+                    if (inBaseline)
+                        j++;
+                }
+            }
+        }
+
+        while (j < bc) {
+            result.add(baseline, j);
+            j++;
+        }
+
+        return result;
+    }
+
+    private static int writeID(BitWriter out, int id, int last) {
+        //consecutive ids are the common case, and take a single bit
+        if (id == last + 1) {
+            out.write(1, 1);
+        } else {
+            out.write(0, 1);
+            out.write(id, ID_BITS);
+        }
+        return id;
+    }
+
+    private static int readID(BitReader in, int last) {
+        return in.readBoolean() ? last + 1 : (int) in.read(ID_BITS);
+    }
+
+    private static void writePosition(BitWriter out, int value, int base, SnapshotConfig config) {
+        int delta = value - base;
+        if (delta >= DELTA_MIN && delta <= DELTA_MAX) {
+            out.write(1, 1);
+            out.write(delta, DELTA_BITS);
+        } else {
+            out.write(0, 1);
+            out.write(value, config.positionBits());
+        }
+    }
+
+    private static int readPosition(BitReader in, int base, SnapshotConfig config) {
+        return in.readBoolean() ? base + in.readSigned(DELTA_BITS) : in.readSigned(config.positionBits());
+    }
+}
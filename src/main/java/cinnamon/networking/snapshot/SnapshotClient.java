@@ -0,0 +1,95 @@
+package cinnamon.networking.snapshot;
+
+import cinnamon.world.entity.Entity;
+import cinnamon.world.world.World;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Rebuilds the server snapshots from their deltas, and moves the entities interpolating between the two snapshots around the render tick
+ * the render tick trails the newest snapshot, so late snapshots still have a following one to interpolate to
+ */
+public class SnapshotClient {
+
+    //ticks behind the newest snapshot
+    public static final int INTERPOLATION_DELAY = 2;
+
+    private final Snapshot[] history = new Snapshot[SnapshotServer.HISTORY];
+    private SnapshotConfig config = SnapshotConfig.DEFAULT;
+    private int latestTick = -1;
+    private float renderTick;
+
+    private final Vector3f pos = new Vector3f(), nextPos = new Vector3f();
+    private final Quaternionf rot = new Quaternionf(), nextRot = new Quaternionf();
+
+    /**
+     * @return the decoded snapshot, or null when its baseline is no longer known
+     */
+    public Snapshot receive(int tick, int baselineTick, SnapshotConfig config, BitReader in) {
+        Snapshot baseline = null;
+        if (baselineTick >= 0 && (baseline = getSnapshot(baselineTick)) == null)
+            return null;
+
+        Snapshot snapshot = Snapshot.readDelta(in, tick, baseline, config);
+        history[Math.floorMod(tick, history.length)] = snapshot;
+        this.config = config;
+        latestTick = Math.max(latestTick, tick);
+        return snapshot;
+    }
+
+    public Snapshot getSnapshot(int tick) {
+        Snapshot snapshot = history[Math.floorMod(tick, history.length)];
+        return snapshot != null && snapshot.tick == tick ? snapshot : null;
+    }
+
+    /**
+     * Advances the render tick and moves the replicated entities, once per client tick
+     * @param ignored an entity not driven by the snapshots, like the local player
+     */
+    public void apply(World world, Entity ignored) {
+        if (latestTick < 0)
+            return;
+
+        //keep trailing the newest snapshot, jumping when too far off
+        float target = latestTick - INTERPOLATION_DELAY;
+        renderTick += 1f;
+        if (Math.abs(renderTick - target) > INTERPOLATION_DELAY)
+            renderTick = target;
+
+        //snapshots around the render tick
+        int base = (int) Math.floor(renderTick);
+        Snapshot from = null, to = null;
+        for (int t = base; t > base - history.length && from == null; t--)
+            from = getSnapshot(t);
+        for (int t = base + 1; t <= latestTick && to == null; t++)
+            to = getSnapshot(t);
+
+        if (from == null)
+            from = to;
+        if (from == null)
+            return;
+
+        float delta = to == null || to == from ? 0f : Math.min(Math.max((renderTick - from.tick) / (to.tick - from.tick), 0f), 1f);
+
+        for (int i = 0; i < from.size(); i++) {
+            Entity entity = world.getEntityByUUID(from.getUUID(i));
+            if (entity == null || entity == ignored)
+                continue;
+
+            from.getPosition(i, config, pos);
+            from.getRotation(i, config, rot);
+
+            //the same entity on the next snapshot
+            if (delta > 0f) {
+                int j = to.indexOf(from.getID(i));
+                if (j >= 0 && to.getUUID(j).equals(from.getUUID(i))) {
+                    pos.lerp(to.getPosition(j, config, nextPos), delta);
+                    rot.slerp(to.getRotation(j, config, nextRot), delta);
+                }
+            }
+
+            entity.moveTo(pos);
+            entity.rotateTo(rot);
+        }
+    }
+}
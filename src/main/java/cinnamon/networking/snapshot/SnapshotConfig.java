@@ -0,0 +1,99 @@
+package cinnamon.networking.snapshot;
+
+import org.joml.Quaternionf;
+
+/**
+ * Quantization of the replicated transforms, sent along every snapshot so both sides always agree
+ * @param positionBits bits per position axis, as a signed value
+ * @param positionPrecision size of a position step, in world units
+ * @param rotationBits bits per quaternion component, on the "smallest three" encoding
+ */
+public record SnapshotConfig(int positionBits, float positionPrecision, int rotationBits) {
+
+    private static final float SQRT1_2 = (float) Math.sqrt(0.5);
+
+    //+-8192 units with 1/64 steps, and rotations within ~0.4 degrees, in 32 bits
+    public static final SnapshotConfig DEFAULT = new SnapshotConfig(20, 1f / 64f, 10);
+
+    public SnapshotConfig {
+        if (positionBits < 8 || positionBits > 32)
+            throw new IllegalArgumentException("Position bits must be within 8 and 32, got " + positionBits);
+        if (rotationBits < 4 || rotationBits > 20)
+            throw new IllegalArgumentException("Rotation bits must be within 4 and 20, got " + rotationBits);
+        if (!(positionPrecision > 0f))
+            throw new IllegalArgumentException("Invalid position precision " + positionPrecision);
+    }
+
+    public int quantizePosition(float value) {
+        long max = (1L << (positionBits - 1)) - 1;
+        long q = Math.round((double) value / positionPrecision);
+        return (int) Math.max(-max - 1, Math.min(max, q));
+    }
+
+    public float dequantizePosition(int value) {
+        return value * positionPrecision;
+    }
+
+    public int rotationSize() {
+        return 2 + rotationBits * 3;
+    }
+
+    /**
+     * Packs a unit quaternion as the index of its largest component, followed by the other three
+     * the largest one is rebuilt from the others, and its sign is dropped since q and -q are the same rotation
+     */
+    public long quantizeRotation(Quaternionf q) {
+        float ax = Math.abs(q.x), ay = Math.abs(q.y), az = Math.abs(q.z), aw = Math.abs(q.w);
+        int largest = 0;
+        float max = ax;
+        if (ay > max) {largest = 1; max = ay;}
+        if (az > max) {largest = 2; max = az;}
+        if (aw > max) {largest = 3;}
+
+        float sign = component(q, largest) < 0f ? -1f : 1f;
+        float scale = ((1 << rotationBits) - 1) / (2f * SQRT1_2);
+
+        long packed = largest;
+        int shift = 2;
+        for (int i = 0; i < 4; i++) {
+            if (i == largest)
+                continue;
+
+            //the smaller components are within +-1/sqrt(2)
+            float v = Math.max(-SQRT1_2, Math.min(SQRT1_2, component(q, i) * sign));
+            packed |= (long) Math.round((v + SQRT1_2) * scale) << shift;
+            shift += rotationBits;
+        }
+
+        return packed;
+    }
+
+    public Quaternionf dequantizeRotation(long packed, Quaternionf out) {
+        int largest = (int) (packed & 3);
+        long mask = (1L << rotationBits) - 1;
+        float scale = (2f * SQRT1_2) / mask;
+
+        //the three stored components, in order
+        float a = ((packed >>> 2) & mask) * scale - SQRT1_2;
+        float b = ((packed >>> (2 + rotationBits)) & mask) * scale - SQRT1_2;
+        float c = ((packed >>> (2 + rotationBits * 2)) & mask) * scale - SQRT1_2;
+        float d = (float) Math.sqrt(Math.max(0f, 1f - a * a - b * b - c * c));
+
+        switch (largest) {
+            case 0 -> out.set(d, a, b, c);
+            case 1 -> out.set(a, d, b, c);
+            case 2 -> out.set(a, b, d, c);
+            default -> out.set(a, b, c, d);
+        }
+        return out.normalize();
+    }
+
+    private static float component(Quaternionf q, int i) {
+        return switch (i) {
+            case 0 -> q.x;
+            case 1 -> q.y;
+            case 2 -> q.z;
+            default -> q.w;
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package cinnamon.networking.snapshot;
+
+import cinnamon.networking.Connection;
+import cinnamon.networking.NetServer;
+import cinnamon.networking.interest.InterestManager;
+import cinnamon.networking.packet.EntitySnapshot;
+import cinnamon.world.entity.Entity;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import static cinnamon.Client.LOGGER;
+
+/**
+ * Captures a snapshot of the entities every tick, and sends each client only the changes since the last snapshot it acknowledged
+ * entities are identified by a compact per-session network id instead of their uuid, which is only sent when they first appear
+ * each client keeps its own history, since with an area of interest every client receives a different subset of the entities
+ */
+public class SnapshotServer {
+
+    //snapshots kept as baselines, clients further behind get a full snapshot
+    public static final int HISTORY = 32;
+
+    private final SnapshotConfig config;
+    private final Map<Integer, ClientHistory> clients = new HashMap<>();
+
+    //network ids, released ids are only reused once no baseline can reference them anymore
+    private final Map<UUID, NetworkID> ids = new HashMap<>();
+    private final ArrayDeque<NetworkID> released = new ArrayDeque<>();
+    private int nextID;
+
+    private int tick;
+    private Snapshot capturing;
+
+    public SnapshotServer() {
+        this(SnapshotConfig.DEFAULT);
+    }
+
+    public SnapshotServer(SnapshotConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Captures the entities and sends the changes to every connected client
+     */
+    public void send(NetServer server, Collection<Entity> entities) {
+        Snapshot snapshot = capture(entities);
+        for (Connection connection : server.getConnections())
+            connection.send(createPacket(connection.getID(), snapshot));
+    }
+
+    /**
+     * Captures the entities and sends every client with an area of interest only the entities it tracks
+     */
+    public void send(NetServer server, Collection<Entity> entities, InterestManager interest) {
+        Snapshot snapshot = capture(entities);
+        for (int id : interest.getClients()) {
+            Connection connection = server.getConnection(id);
+            if (connection != null)
+                connection.send(createPacket(id, interest.select(id, snapshot, this)));
+        }
+    }
+
+    public Snapshot capture(Collection<Entity> entities) {
+        begin(entities.size());
+        for (Entity entity : entities) {
+            if (!entity.isRemoved())
+                add(entity.getUUID(), entity.getTransform().getPos(), entity.getTransform().getRot());
+        }
+        return end();
+    }
+
+    public void begin(int expectedSize) {
+        tick++;
+        capturing = new Snapshot(tick, expectedSize);
+    }
+
+    public void add(UUID uuid, Vector3f pos, Quaternionf rot) {
+        NetworkID id = ids.get(uuid);
+        if (id == null) {
+            id = allocate();
+            if (id == null) {
+                LOGGER.warn("Out of network ids, entity %s will not be replicated", uuid);
+                return;
+            }
+            ids.put(uuid, id);
+        }
+
+        id.lastSeen = tick;
+        capturing.add(id.id, uuid, pos, rot, config);
+    }
+
+    public Snapshot end() {
+        //release the ids of entities gone this tick
+        Iterator<NetworkID> it = ids.values().iterator();
+        while (it.hasNext()) {
+            NetworkID id = it.next();
+            if (id.lastSeen != tick) {
+                it.remove();
+                id.lastSeen = tick;
+                released.add(id);
+            }
+        }
+
+        Snapshot snapshot = capturing;
+        capturing = null;
+        snapshot.sort();
+        return snapshot;
+    }
+
+    private NetworkID allocate() {
+        NetworkID id = released.peek();
+        if (id != null && tick - id.lastSeen > HISTORY)
+            return released.poll();
+        if (nextID > Snapshot.MAX_ID)
+            return null;
+        return new NetworkID(nextID++);
+    }
+
+    /**
+     * Creates the packet of a client snapshot, delta compressed against the last one the client acknowledged
+     */
+    public EntitySnapshot createPacket(int connectionID, Snapshot snapshot) {
+        ClientHistory client = clients.computeIfAbsent(connectionID, id -> new ClientHistory());
+        Snapshot baseline = client.acked < 0 ? null : client.get(client.acked);
+
+        client.history[snapshot.tick % HISTORY] = snapshot;
+        client.last = snapshot;
+        return new EntitySnapshot().snapshot(snapshot, baseline, config);
+    }
+
+    /**
+     * @return the last snapshot sent to the client, or null if none
+     */
+    public Snapshot getLastSent(int connectionID) {
+        ClientHistory client = clients.get(connectionID);
+        return client == null ? null : client.last;
+    }
+
+    /**
+     * @return the network id of the entity, or -1 if it is not replicated
+     */
+    public int getNetworkID(UUID uuid) {
+        NetworkID id = ids.get(uuid);
+        return id == null ? -1 : id.id;
+    }
+
+    public void acknowledge(int connectionID, int tick) {
+        ClientHistory client = clients.get(connectionID);
+        if (client != null)
+            client.acked = Math.max(client.acked, tick);
+    }
+
+    public void removeClient(int connectionID) {
+        clients.remove(connectionID);
+    }
+
+    public SnapshotConfig getConfig() {
+        return config;
+    }
+
+    private static class ClientHistory {
+        private final Snapshot[] history = new Snapshot[HISTORY];
+        private Snapshot last;
+        private int acked = -1;
+
+        private Snapshot get(int tick) {
+            Snapshot snapshot = history[Math.floorMod(tick, HISTORY)];
+            return snapshot != null && snapshot.tick == tick ? snapshot : null;
+        }
+    }
+
+    private static class NetworkID {
+        private final int id;
+        private int lastSeen;
+
+        private NetworkID(int id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package cinnamon.parsers;
+
+import cinnamon.utils.IOUtils;
+import cinnamon.utils.Resource;
+
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.jar.JarEntry;
+
+import static cinnamon.events.Events.LOGGER;
+
+/**
+ * Binary cache of parsed OBJ files, stored in the cache folder mirroring the resource path
+ * each entry is stamped with the source size and modification time, and is read back in a single read
+ */
+public class ObjCache {
+
+    public static final Path CACHE_FOLDER = IOUtils.ROOT_FOLDER.resolve("cache/models");
+
+    private static final int MAGIC = 0x4F424A43; //OBJC
+    private static final int VERSION = 1;
+
+    public static boolean enabled = true;
+
+    public static ObjData read(Resource res) {
+        if (!enabled)
+            return null;
+
+        long[] stamp = getStamp(res);
+        if (stamp == null)
+            return null;
+
+        Path path = getCachePath(res);
+        if (!Files.exists(path))
+            return null;
+
+        //read to the heap, a live mapping would keep the stale file from being replaced on windows
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+
+            //outdated
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != stamp[0] || buffer.getLong() != stamp[1])
+                return null;
+
+            ObjData data = new ObjData();
+            data.minX = buffer.getFloat(); data.minY = buffer.getFloat(); data.minZ = buffer.getFloat();
+            data.maxX = buffer.getFloat(); data.maxY = buffer.getFloat(); data.maxZ = buffer.getFloat();
+
+            data.vertexCount = buffer.getInt();
+            data.vertices = readFloats(buffer, data.vertexCount * 3);
+            data.uvCount = buffer.getInt();
+            data.uvs = readFloats(buffer, data.uvCount * 2);
+            data.normalCount = buffer.getInt();
+            data.normals = readFloats(buffer, data.normalCount * 3);
+
+            int libs = buffer.getInt();
+            for (int i = 0; i < libs; i++)
+                data.materialLibs.add(readString(buffer));
+
+            int groups = buffer.getInt();
+            for (int i = 0; i < groups; i++) {
+                ObjData.GroupData group = data.addGroup(readString(buffer), readString(buffer));
+                group.faceCount = buffer.getInt();
+                group.faces = readInts(buffer, group.faceCount * 3);
+                group.vSize = buffer.getInt();
+                group.v = readInts(buffer, group.vSize);
+                group.vtSize = buffer.getInt();
+                group.vt = readInts(buffer, group.vtSize);
+                group.vnSize = buffer.getInt();
+                group.vn = readInts(buffer, group.vnSize);
+            }
+
+            return data;
+        } catch (Exception e) {
+            LOGGER.warn("Failed to read mesh cache for \"%s\"", res, e);
+            return null;
+        }
+    }
+
+    public static void write(Resource res, ObjData data) {
+        if (!enabled)
+            return;
+
+        long[] stamp = getStamp(res);
+        if (stamp == null)
+            return;
+
+        //calculate the size first
+        int size = 4 + 4 + 8 + 8 + 6 * 4;
+        size += 4 + data.vertexCount * 3 * 4;
+        size += 4 + data.uvCount * 2 * 4;
+        size += 4 + data.normalCount * 3 * 4;
+        size += 4;
+        for (String lib : data.materialLibs)
+            size += stringSize(lib);
+        size += 4;
+        for (ObjData.GroupData group : data.groups)
+            size += stringSize(group.name) + stringSize(group.material) + 4 * 4 + (group.faceCount * 3 + group.vSize + group.vtSize + group.vnSize) * 4;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(stamp[0]).putLong(stamp[1]);
+        buffer.putFloat(data.minX).putFloat(data.minY).putFloat(data.minZ);
+        buffer.putFloat(data.maxX).putFloat(data.maxY).putFloat(data.maxZ);
+
+        writeFloats(buffer.putInt(data.vertexCount), data.vertices, data.vertexCount * 3);
+        writeFloats(buffer.putInt(data.uvCount), data.uvs, data.uvCount * 2);
+        writeFloats(buffer.putInt(data.normalCount), data.normals, data.normalCount * 3);
+
+        buffer.putInt(data.materialLibs.size());
+        for (String lib : data.materialLibs)
+            writeString(buffer, lib);
+
+        buffer.putInt(data.groups.size());
+        for (ObjData.GroupData group : data.groups) {
+            writeString(buffer, group.name);
+            writeString(buffer, group.material);
+            writeInts(buffer.putInt(group.faceCount), group.faces, group.faceCount * 3);
+            writeInts(buffer.putInt(group.vSize), group.v, group.vSize);
+            writeInts(buffer.putInt(group.vtSize), group.vt, group.vtSize);
+            writeInts(buffer.putInt(group.vnSize), group.vn, group.vnSize);
+        }
+
+        //write to a temp file, then swap it in, so a half written cache is never read
+        Path path = getCachePath(res);
+        try {
+            IOUtils.ensureParentExists(path);
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            Files.write(temp, buffer.array());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to write mesh cache for \"%s\"", res, e);
+        }
+    }
+
+    public static void clear() {
+        IOUtils.deleteDir(CACHE_FOLDER);
+    }
+
+    private static Path getCachePath(Resource res) {
+        //external files are keyed by their path hash
+        if (res.getNamespace().isEmpty())
+            return CACHE_FOLDER.resolve("external/" + Integer.toHexString(res.getPath().hashCode()) + "_" + res.getFileName().replaceAll(IOUtils.INVALID_FILENAME_REGEX, "_") + ".bin");
+        return CACHE_FOLDER.resolve(res.getNamespace() + "/" + res.getPath() + ".bin");
+    }
+
+    private static long[] getStamp(Resource res) {
+        try {
+            URL url = IOUtils.getResourceURL(res);
+            if (url == null)
+                return null;
+
+            //only local resources, remote ones could change without notice
+            String protocol = url.getProtocol();
+            if (!protocol.equals("file") && !protocol.equals("jar"))
+                return null;
+
+            //read files directly, a connection to them keeps the file open until collected
+            if (protocol.equals("file")) {
+                Path path = Path.of(url.toURI());
+                return toStamp(Files.size(path), Files.getLastModifiedTime(path).toMillis());
+            }
+
+            //the jar entry has both, without opening a stream for it
+            JarURLConnection connection = (JarURLConnection) url.openConnection();
+            try {
+                JarEntry entry = connection.getJarEntry();
+                return toStamp(entry.getSize(), entry.getTime());
+            } finally {
+                //an uncached jar is opened just for this connection
+                if (!connection.getUseCaches())
+                    connection.getJarFile().close();
+            }
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static long[] toStamp(long size, long modified) {
+        return size < 0 || modified <= 0 ? null : new long[]{size, modified};
+    }
+
+    private static float[] readFloats(ByteBuffer buffer, int count) {
+        float[] array = new float[Math.max(count, 1)];
+        buffer.asFloatBuffer().get(array, 0, count);
+        buffer.position(buffer.position() + count * 4);
+        return array;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] array = new int[Math.max(count, 1)];
+        buffer.asIntBuffer().get(array, 0, count);
+        buffer.position(buffer.position() + count * 4);
+        return array;
+    }
+
+    private static void writeFloats(ByteBuffer buffer, float[] array, int count) {
+        buffer.asFloatBuffer().put(array, 0, count);
+        buffer.position(buffer.position() + count * 4);
+    }
+
+    private static void writeInts(ByteBuffer buffer, int[] array, int count) {
+        buffer.asIntBuffer().put(array, 0, count);
+        buffer.position(buffer.position() + count * 4);
+    }
+
+    private static int stringSize(String string) {
+        return 4 + (string == null ? 0 : string.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0)
+            return null;
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(ByteBuffer buffer, String string) {
+        if (string == null) {
+            buffer.putInt(-1);
+            return;
+        }
+
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+}
@@ -0,0 +1,197 @@
+package cinnamon.parsers;
+
+import cinnamon.model.material.Material;
+import cinnamon.model.obj.Face;
+import cinnamon.model.obj.Group;
+import cinnamon.model.obj.Mesh;
+import cinnamon.utils.Resource;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static cinnamon.events.Events.LOGGER;
+
+/**
+ * Raw OBJ data kept in flat primitive arrays, as produced by the {@link ObjLoader} tokenizer and stored by the {@link ObjCache}
+ */
+public class ObjData {
+
+    //xyz, uv and xyz
+    float[] vertices = new float[192], uvs = new float[128], normals = new float[192];
+    int vertexCount, uvCount, normalCount;
+
+    //mesh bounds
+    float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+    float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+
+    final List<String> materialLibs = new ArrayList<>();
+    final List<GroupData> groups = new ArrayList<>();
+
+    void addVertex(float x, float y, float z) {
+        vertices = ensure(vertices, vertexCount * 3 + 3);
+        int i = vertexCount++ * 3;
+        vertices[i] = x; vertices[i + 1] = y; vertices[i + 2] = z;
+
+        minX = Math.min(minX, x); minY = Math.min(minY, y); minZ = Math.min(minZ, z);
+        maxX = Math.max(maxX, x); maxY = Math.max(maxY, y); maxZ = Math.max(maxZ, z);
+    }
+
+    void addUV(float u, float v) {
+        uvs = ensure(uvs, uvCount * 2 + 2);
+        int i = uvCount++ * 2;
+        uvs[i] = u; uvs[i + 1] = v;
+    }
+
+    void addNormal(float x, float y, float z) {
+        normals = ensure(normals, normalCount * 3 + 3);
+        int i = normalCount++ * 3;
+        normals[i] = x; normals[i + 1] = y; normals[i + 2] = z;
+    }
+
+    GroupData addGroup(String name, String material) {
+        GroupData group = new GroupData(name, material);
+        groups.add(group);
+        return group;
+    }
+
+    static float[] ensure(float[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    static int[] ensure(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    public Mesh toMesh(Resource res) {
+        Mesh mesh = new Mesh();
+
+        //materials
+        for (String lib : materialLibs) {
+            Resource material = res.resolveSibling(lib);
+            try {
+                mesh.getMaterials().putAll(MaterialLoader.load(material));
+            } catch (Exception e) {
+                LOGGER.error("Failed to load material file \"%s\"", material, e);
+            }
+        }
+
+        //vertex data
+        List<Vector3f> meshVertices = mesh.getVertices();
+        for (int i = 0; i < vertexCount * 3; i += 3)
+            meshVertices.add(new Vector3f(vertices[i], vertices[i + 1], vertices[i + 2]));
+
+        List<Vector2f> meshUVs = mesh.getUVs();
+        for (int i = 0; i < uvCount * 2; i += 2)
+            meshUVs.add(new Vector2f(uvs[i], uvs[i + 1]));
+
+        List<Vector3f> meshNormals = mesh.getNormals();
+        for (int i = 0; i < normalCount * 3; i += 3)
+            meshNormals.add(new Vector3f(normals[i], normals[i + 1], normals[i + 2]));
+
+        //groups
+        for (GroupData data : groups) {
+            if (data.faceCount == 0)
+                continue;
+
+            Group group = new Group(data.name);
+            group.setMaterial(data.material == null ? null : mesh.getMaterials().get(data.material));
+
+            float gMinX = Float.MAX_VALUE, gMinY = Float.MAX_VALUE, gMinZ = Float.MAX_VALUE;
+            float gMaxX = -Float.MAX_VALUE, gMaxY = -Float.MAX_VALUE, gMaxZ = -Float.MAX_VALUE;
+            int v = 0, vt = 0, vn = 0;
+
+            for (int f = 0; f < data.faceCount; f++) {
+                int vCount = data.faces[f * 3], vtCount = data.faces[f * 3 + 1], vnCount = data.faces[f * 3 + 2];
+                List<Integer> faceV = new ArrayList<>(vCount), faceVT = new ArrayList<>(vtCount), faceVN = new ArrayList<>(vnCount);
+
+                for (int i = 0; i < vCount; i++, v++) {
+                    int index = data.v[v];
+                    faceV.add(index);
+
+                    //group bounds from the vertices it actually uses
+                    if (index >= 0 && index < vertexCount) {
+                        float x = vertices[index * 3], y = vertices[index * 3 + 1], z = vertices[index * 3 + 2];
+                        gMinX = Math.min(gMinX, x); gMinY = Math.min(gMinY, y); gMinZ = Math.min(gMinZ, z);
+                        gMaxX = Math.max(gMaxX, x); gMaxY = Math.max(gMaxY, y); gMaxZ = Math.max(gMaxZ, z);
+                    }
+                }
+                for (int i = 0; i < vtCount; i++)
+                    faceVT.add(data.vt[vt++]);
+                for (int i = 0; i < vnCount; i++)
+                    faceVN.add(data.vn[vn++]);
+
+                group.getFaces().add(new Face(faceV, faceVT, faceVN));
+            }
+
+            if (gMinX <= gMaxX)
+                group.getBounds().set(gMinX, gMinY, gMinZ, gMaxX, gMaxY, gMaxZ);
+
+            mesh.getGroups().add(group);
+        }
+
+        //set mesh bounding box
+        mesh.getBounds().set(minX, minY, minZ, maxX, maxY, maxZ);
+        return mesh;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getUVCount() {
+        return uvCount;
+    }
+
+    public int getNormalCount() {
+        return normalCount;
+    }
+
+    public int getFaceCount() {
+        int count = 0;
+        for (GroupData group : groups)
+            count += group.faceCount;
+        return count;
+    }
+
+    static class GroupData {
+
+        final String name, material;
+
+        //per face: vertex, uv and normal index count
+        int[] faces = new int[48];
+        int faceCount;
+
+        //flattened indexes
+        int[] v = new int[64], vt = new int[64], vn = new int[64];
+        int vSize, vtSize, vnSize;
+
+        GroupData(String name, String material) {
+            this.name = name;
+            this.material = material;
+        }
+
+        void addFace(int vCount, int vtCount, int vnCount) {
+            faces = ensure(faces, faceCount * 3 + 3);
+            int i = faceCount++ * 3;
+            faces[i] = vCount; faces[i + 1] = vtCount; faces[i + 2] = vnCount;
+        }
+
+        void addV(int index) {
+            v = ensure(v, vSize + 1);
+            v[vSize++] = index;
+        }
+
+        void addVT(int index) {
+            vt = ensure(vt, vtSize + 1);
+            vt[vtSize++] = index;
+        }
+
+        void addVN(int index) {
+            vn = ensure(vn, vnSize + 1);
+            vn[vnSize++] = index;
+        }
+    }
+}
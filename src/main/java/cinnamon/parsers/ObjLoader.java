@@ -1,182 +1,307 @@
 package cinnamon.parsers;
 
-import cinnamon.model.material.Material;
-import cinnamon.model.obj.Face;
-import cinnamon.model.obj.Group;
 import cinnamon.model.obj.Mesh;
 import cinnamon.utils.IOUtils;
 import cinnamon.utils.Resource;
-import org.joml.Vector3f;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 
 import static cinnamon.events.Events.LOGGER;
-import static cinnamon.math.Maths.parseVec2;
-import static cinnamon.math.Maths.parseVec3;
-import static java.lang.Integer.parseInt;
 
 public class ObjLoader {
 
-    private static final Vector3f bbMin = new Vector3f(Float.MAX_VALUE);
-    private static final Vector3f bbMax = new Vector3f(-Float.MAX_VALUE);
-    private static final Vector3f groupMin = new Vector3f(Float.MAX_VALUE);
-    private static final Vector3f groupMax = new Vector3f(-Float.MAX_VALUE);
+    private static final double[] POW10 = new double[23];
+    static {
+        POW10[0] = 1d;
+        for (int i = 1; i < POW10.length; i++)
+            POW10[i] = POW10[i - 1] * 10d;
+    }
 
     public static Mesh load(Resource res) throws IOException {
         LOGGER.debug("Loading model \"%s\"", res);
+        long start = System.nanoTime();
 
-        InputStream stream = IOUtils.getResource(res);
-        if (stream == null)
-            throw new RuntimeException("Resource not found: " + res);
-
-        try (stream; InputStreamReader reader = new InputStreamReader(stream); BufferedReader br = new BufferedReader(reader)) {
-            Mesh theMesh = new Mesh();
-            Group currentGroup = new Group("default");
-            Material currentMaterial = null;
-
-            bbMin.set(Float.MAX_VALUE);
-            bbMax.set(-Float.MAX_VALUE);
-            groupMin.set(Float.MAX_VALUE);
-            groupMax.set(-Float.MAX_VALUE);
-
-            for (String line; (line = br.readLine()) != null; ) {
-                //skip comments and empty lines
-                if (line.isBlank() || line.startsWith("#"))
-                    continue;
-
-                //grab first word on the line
-                String[] split = line.split(" +", 2);
-                switch (split[0]) {
-                    //material file
-                    case "mtllib" -> {
-                        Resource material = res.resolveSibling(split[1]);
-                        try {
-                            theMesh.getMaterials().putAll(MaterialLoader.load(material));
-                        } catch (Exception e) {
-                            LOGGER.error("Failed to load material file \"%s\"", material, e);
-                        }
-                    }
+        //try the binary cache first
+        ObjData data = ObjCache.read(res);
+        boolean cached = data != null;
 
-                    //group
-                    case "g", "o" -> {
-                        //add current group
-                        addGroupToMesh(currentGroup, currentMaterial, theMesh);
+        if (!cached) {
+            InputStream stream = IOUtils.getResource(res);
+            if (stream == null)
+                throw new RuntimeException("Resource not found: " + res);
 
-                        //create new group
-                        currentGroup = new Group(split[1]);
-                    }
+            byte[] bytes;
+            try (stream) {
+                bytes = stream.readAllBytes();
+            }
 
-                    //group material
-                    case "usemtl" -> {
-                        //add current group
-                        addGroupToMesh(currentGroup, currentMaterial, theMesh);
+            data = parse(bytes);
+            ObjCache.write(res, data);
+        }
 
-                        //new material
-                        currentMaterial = theMesh.getMaterials().get(split[1]);
-                        //create a new group with same name
-                        currentGroup = new Group(currentGroup.getName());
-                    }
+        Mesh theMesh = data.toMesh(res);
 
-                    //vertex
-                    case "v" -> {
-                        Vector3f v = parseVec3(split[1], " +");
-                        theMesh.getVertices().add(v);
+        //check for animations
+        Resource anim = res.resolveSibling("animations.json");
+        if (IOUtils.hasResource(anim)) {
+            try {
+                theMesh.setAnimationData(AnimationLoader.load(anim));
+            } catch (Exception e) {
+                LOGGER.error("Failed to load animations for model \"%s\"", res, e);
+            }
+        }
 
-                        bbMin.min(v);
-                        bbMax.max(v);
-                        groupMin.min(v);
-                        groupMax.max(v);
-                    }
+        LOGGER.debug("Loaded model \"%s\" (%s vertices, %s faces) in %.2fms%s", res, data.getVertexCount(), data.getFaceCount(), (System.nanoTime() - start) / 1_000_000f, cached ? " from cache" : "");
 
-                    //uv
-                    case "vt" -> theMesh.getUVs().add(parseVec2(split[1], " +"));
+        //return the mesh
+        return theMesh;
+    }
 
-                    //normal
-                    case "vn" -> theMesh.getNormals().add(parseVec3(split[1], " +"));
+    /**
+     * Parses the OBJ text straight into primitive arrays, without regex or per-line strings
+     */
+    public static ObjData parse(byte[] bytes) throws IOException {
+        Tokenizer t = new Tokenizer(bytes);
+        ObjData data = new ObjData();
+        String currentMaterial = null;
+        ObjData.GroupData currentGroup = data.addGroup("default", null);
+
+        while (t.hasNext()) {
+            //skip comments and empty lines
+            t.skipSpaces();
+            if (t.isLineEnd() || t.peek() == '#') {
+                t.nextLine();
+                continue;
+            }
 
-                    //faces
-                    case "f" -> currentGroup.getFaces().add(parseFace(split[1], theMesh));
-                }
+            //grab first word on the line
+            int start = t.pos;
+            t.skipToken();
+            int length = t.pos - start;
+            byte c = bytes[start];
+
+            if (length == 1 && c == 'v') {
+                //vertex
+                data.addVertex(t.nextFloat(), t.nextFloat(), t.nextFloat());
+            } else if (length == 2 && c == 'v' && bytes[start + 1] == 't') {
+                //uv
+                data.addUV(t.nextFloat(), t.nextFloat());
+            } else if (length == 2 && c == 'v' && bytes[start + 1] == 'n') {
+                //normal
+                data.addNormal(t.nextFloat(), t.nextFloat(), t.nextFloat());
+            } else if (length == 1 && c == 'f') {
+                //faces
+                parseFace(t, data, currentGroup);
+            } else if (length == 1 && (c == 'g' || c == 'o')) {
+                //new group
+                currentGroup = data.addGroup(t.restOfLine(), currentMaterial);
+            } else if (t.matches(start, length, "usemtl")) {
+                //new material, on a new group with the same name
+                currentMaterial = t.restOfLine();
+                currentGroup = data.addGroup(currentGroup.name, currentMaterial);
+            } else if (t.matches(start, length, "mtllib")) {
+                //material file
+                data.materialLibs.add(t.restOfLine());
             }
 
-            //add last group to the mesh
-            addGroupToMesh(currentGroup, currentMaterial, theMesh);
+            t.nextLine();
+        }
+
+        return data;
+    }
 
-            //set mesh bounding box
-            theMesh.getBounds().set(bbMin, bbMax);
+    private static void parseFace(Tokenizer t, ObjData data, ObjData.GroupData group) throws IOException {
+        int vCount = 0, vtCount = 0, vnCount = 0;
 
-            //check for animations
-            Resource anim = res.resolveSibling("animations.json");
-            if (IOUtils.hasResource(anim)) {
-                try {
-                    theMesh.setAnimationData(AnimationLoader.load(anim));
-                } catch (Exception e) {
-                    LOGGER.error("Failed to load animations for model \"%s\"", res, e);
+        //v, v/vt, v//vn or v/vt/vn
+        while (true) {
+            t.skipSpaces();
+            if (t.isLineEnd())
+                break;
+
+            //v is always present
+            group.addV(parseIndex(t.nextInt(), data.vertexCount));
+            vCount++;
+
+            if (t.peek() == '/') {
+                t.pos++;
+
+                //vt, unless v//vn
+                if (t.isNumber()) {
+                    group.addVT(parseIndex(t.nextInt(), data.uvCount));
+                    vtCount++;
+                }
+
+                if (t.peek() == '/') {
+                    t.pos++;
+                    if (t.isNumber()) {
+                        group.addVN(parseIndex(t.nextInt(), data.normalCount));
+                        vnCount++;
+                    }
                 }
             }
 
-            //return the mesh
-            return theMesh;
+            t.skipToken();
         }
+
+        group.addFace(vCount, vtCount, vnCount);
     }
 
-    private static void addGroupToMesh(Group group, Material material, Mesh mesh) {
-        if (group.isEmpty())
-            return;
+    private static int parseIndex(int idx, int size) {
+        //negative indexes are relative to the end
+        return idx < 0 ? size + idx : idx - 1;
+    }
 
-        group.setMaterial(material);
-        group.getBounds().set(groupMin, groupMax);
+    private static class Tokenizer {
 
-        mesh.getGroups().add(group);
+        private final byte[] bytes;
+        private int pos;
 
-        groupMin.set(Float.MAX_VALUE);
-        groupMax.set(-Float.MAX_VALUE);
-    }
+        private Tokenizer(byte[] bytes) {
+            this.bytes = bytes;
+            //skip the utf-8 bom
+            if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF)
+                pos = 3;
+        }
+
+        private boolean hasNext() {
+            return pos < bytes.length;
+        }
+
+        private byte peek() {
+            return pos < bytes.length ? bytes[pos] : (byte) '\n';
+        }
 
-    private static Face parseFace(String face, Mesh mesh) {
-        String[] split = face.split(" +");
+        private boolean isLineEnd() {
+            byte c = peek();
+            return c == '\n' || c == '\r';
+        }
 
-        //prepare arrays
-        List<Integer>
-                v = new ArrayList<>(),
-                vt = new ArrayList<>(),
-                vn = new ArrayList<>();
+        private boolean isNumber() {
+            byte c = peek();
+            return (c >= '0' && c <= '9') || c == '-' || c == '+';
+        }
 
-        //fill arrays
-        for (String s : split) {
-            String[] vtx = s.split("/");
+        private void skipSpaces() {
+            while (pos < bytes.length && (bytes[pos] == ' ' || bytes[pos] == '\t'))
+                pos++;
+        }
 
-            //v is always present
-            v.add(parseIndex(vtx[0], mesh.getVertices().size()));
+        private void skipToken() {
+            while (pos < bytes.length && bytes[pos] > ' ')
+                pos++;
+        }
 
-            //try v/vt/vn
-            if (vtx.length == 3) {
-                //vn present
-                vn.add(parseIndex(vtx[2], mesh.getNormals().size()));
+        private void nextLine() {
+            while (pos < bytes.length && bytes[pos] != '\n')
+                pos++;
+            pos++;
+        }
 
-                //test for vt (v//vn)
-                if (!vtx[1].isBlank())
-                    vt.add(parseIndex(vtx[1], mesh.getUVs().size()));
-            }
-            //then try v/vt
-            else if (vtx.length == 2)
-                vt.add(parseIndex(vtx[1], mesh.getUVs().size()));
+        private boolean matches(int start, int length, String keyword) {
+            if (length != keyword.length())
+                return false;
+            for (int i = 0; i < length; i++)
+                if (bytes[start + i] != keyword.charAt(i))
+                    return false;
+            return true;
         }
 
-        return new Face(v, vt, vn);
-    }
+        private String restOfLine() {
+            skipSpaces();
+            int start = pos, end = pos;
+            while (end < bytes.length && bytes[end] != '\n' && bytes[end] != '\r')
+                end++;
+            //trim trailing spaces
+            while (end > start && (bytes[end - 1] == ' ' || bytes[end - 1] == '\t'))
+                end--;
+            pos = end;
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        private int nextInt() throws IOException {
+            skipSpaces();
+            boolean negative = false;
+            if (peek() == '-' || peek() == '+')
+                negative = bytes[pos++] == '-';
+
+            int start = pos, value = 0;
+            while (pos < bytes.length && bytes[pos] >= '0' && bytes[pos] <= '9')
+                value = value * 10 + (bytes[pos++] - '0');
+
+            if (pos == start)
+                throw new IOException("Invalid index at byte " + pos);
+
+            return negative ? -value : value;
+        }
 
-    private static int parseIndex(String index, int size) {
-        int idx = parseInt(index);
-        if (idx < 0)
-            idx = size + idx;
-        else
-            idx = idx - 1;
-        return idx;
+        private float nextFloat() throws IOException {
+            skipSpaces();
+            int start = pos;
+
+            boolean negative = false;
+            if (peek() == '-' || peek() == '+')
+                negative = bytes[pos++] == '-';
+
+            //up to 18 significant digits fit in the mantissa, the rest only move the exponent
+            long mantissa = 0;
+            int significant = 0, exponent = 0;
+            boolean digits = false;
+
+            while (pos < bytes.length && bytes[pos] >= '0' && bytes[pos] <= '9') {
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + (bytes[pos] - '0');
+                    if (mantissa != 0) significant++;
+                } else {
+                    exponent++;
+                }
+                pos++;
+                digits = true;
+            }
+
+            if (peek() == '.') {
+                pos++;
+                while (pos < bytes.length && bytes[pos] >= '0' && bytes[pos] <= '9') {
+                    if (significant < 18) {
+                        mantissa = mantissa * 10 + (bytes[pos] - '0');
+                        if (mantissa != 0) significant++;
+                        exponent--;
+                    }
+                    pos++;
+                    digits = true;
+                }
+            }
+
+            if (digits && (peek() == 'e' || peek() == 'E')) {
+                pos++;
+                boolean negativeExp = false;
+                if (peek() == '-' || peek() == '+')
+                    negativeExp = bytes[pos++] == '-';
+
+                int exp = 0;
+                while (pos < bytes.length && bytes[pos] >= '0' && bytes[pos] <= '9')
+                    exp = Math.min(exp * 10 + (bytes[pos++] - '0'), 1000);
+                exponent += negativeExp ? -exp : exp;
+            }
+
+            //anything unusual (nan, inf, garbage) goes through the slow path
+            if (!digits || peek() > ' ') {
+                pos = start;
+                skipToken();
+                if (pos == start)
+                    throw new IOException("Missing number at byte " + pos);
+                return Float.parseFloat(new String(bytes, start, pos - start, StandardCharsets.US_ASCII));
+            }
+
+            double value = mantissa;
+            if (exponent < 0)
+                value = -exponent < POW10.length ? value / POW10[-exponent] : value / Math.pow(10, -exponent);
+            else if (exponent > 0)
+                value = exponent < POW10.length ? value * POW10[exponent] : value * Math.pow(10, exponent);
+
+            return (float) (negative ? -value : value);
+        }
     }
 }
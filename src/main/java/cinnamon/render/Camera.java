@@ -228,6 +228,10 @@ public class Camera {
         return frustum.isBoxInside(aabb.minX(), aabb.minY(), aabb.minZ(), aabb.maxX(), aabb.maxY(), aabb.maxZ());
     }
 
+    public boolean isInsideFrustum(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        return frustum.isBoxInside(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
     public boolean isInsideFrustum(float x, float y, float z) {
         return frustum.isPointInside(x, y, z);
     }
@@ -1,5 +1,6 @@
 package cinnamon.render;
 
+import cinnamon.math.collision.shape.AABB;
 import org.joml.Math;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
@@ -11,7 +12,10 @@ public class CascadedShadow {
     public static float[] CASCADES = {0.02f, 0.05f, 0.12f, 0.25f};
     public static float Z_MULT = 10f;
 
+    public static final int ALL_CASCADES = (1 << NUM_CASCADES) - 1;
+
     private final Matrix4f[] cascadeMatrices;
+    private final Frustum[] cascadeFrustums;
     private final float[] cascadeDistances;
 
     //reusable objects to avoid allocations
@@ -24,10 +28,13 @@ public class CascadedShadow {
 
     public CascadedShadow() {
         this.cascadeMatrices = new Matrix4f[NUM_CASCADES];
+        this.cascadeFrustums = new Frustum[NUM_CASCADES];
         this.cascadeDistances = new float[NUM_CASCADES];
 
-        for (int i = 0; i < NUM_CASCADES; i++)
+        for (int i = 0; i < NUM_CASCADES; i++) {
             cascadeMatrices[i] = new Matrix4f();
+            cascadeFrustums[i] = new Frustum();
+        }
     }
 
     public void calculateCascadeMatrices(Camera camera, Vector3f lightDir) {
@@ -41,6 +48,7 @@ public class CascadedShadow {
             float farClip = Math.lerp(near, far, CASCADES[i]);
             float zMult = Z_MULT / (i + 1);
             calculateCascadeMatrices(camera, lightDir, nearClip, farClip, zMult, cascadeMatrices[i]);
+            cascadeFrustums[i].update(cascadeMatrices[i]);
             this.cascadeDistances[i] = farClip;
         }
 
@@ -92,6 +100,18 @@ public class CascadedShadow {
         outMatrix.setOrtho(minX, maxX, minY, maxY, minZ, maxZ).mul(lightView);
     }
 
+    /**
+     * @return a bit per cascade whose ortho box holds the bounds
+     */
+    public int getCascadeMask(AABB aabb) {
+        int mask = 0;
+        for (int i = 0; i < NUM_CASCADES; i++) {
+            if (cascadeFrustums[i].isBoxInside(aabb.minX(), aabb.minY(), aabb.minZ(), aabb.maxX(), aabb.maxY(), aabb.maxZ()))
+                mask |= 1 << i;
+        }
+        return mask;
+    }
+
     public Matrix4f[] getCascadeMatrices() {
         return this.cascadeMatrices;
     }
@@ -35,16 +35,16 @@ public class DebugRenderer {
         matrices.pushMatrix();
         matrices.translate(sphere.getCenter());
         float radius = sphere.getRadius() + 0.01f;
-        VertexConsumer.LINES.consume(GeometryHelper.circle(matrices, 0, 0, radius, 24, color));
+        GeometryHelper.circle(VertexConsumer.LINES, matrices, 0, 0, radius, 24, color);
         matrices.rotate(Rotation.X.rotationDeg(90f));
-        VertexConsumer.LINES.consume(GeometryHelper.circle(matrices, 0, 0, radius, 24, color));
+        GeometryHelper.circle(VertexConsumer.LINES, matrices, 0, 0, radius, 24, color);
         matrices.rotate(Rotation.Y.rotationDeg(90f));
-        VertexConsumer.LINES.consume(GeometryHelper.circle(matrices, 0, 0, radius, 24, color));
+        GeometryHelper.circle(VertexConsumer.LINES, matrices, 0, 0, radius, 24, color);
         matrices.popMatrix();
     }
 
     public static void renderAABB(MatrixStack matrices, AABB aabb, int color) {
-        VertexConsumer.LINES.consume(GeometryHelper.box(matrices, aabb.minX(), aabb.minY(), aabb.minZ(), aabb.maxX(), aabb.maxY(), aabb.maxZ(), color));
+        GeometryHelper.box(VertexConsumer.LINES, matrices, aabb.minX(), aabb.minY(), aabb.minZ(), aabb.maxX(), aabb.maxY(), aabb.maxZ(), color);
     }
 
     public static void renderOBB(MatrixStack matrices, OBB obb, int color) {
@@ -60,7 +60,7 @@ public class DebugRenderer {
         matrices.rotate(rot);
 
         Vector3f half = obb.getHalfExtents();
-        VertexConsumer.LINES.consume(GeometryHelper.box(matrices, -half.x, -half.y, -half.z, half.x, half.y, half.z, color));
+        GeometryHelper.box(VertexConsumer.LINES, matrices, -half.x, -half.y, -half.z, half.x, half.y, half.z, color);
 
         matrices.popMatrix();
     }
@@ -92,7 +92,7 @@ public class DebugRenderer {
         matrices.rotate(Rotation.X.rotationDeg(90f));
 
         int s = 4;
-        VertexConsumer.LINES.consume(GeometryHelper.plane(matrices, -s, 0f, -s, s, s, s * 4, s * 4, color));
+        GeometryHelper.plane(VertexConsumer.LINES, matrices, -s, 0f, -s, s, s, s * 4, s * 4, color);
 
         matrices.popMatrix();
     }
@@ -107,7 +107,7 @@ public class DebugRenderer {
         //Vector3f n = triangle.getNormal();
         //Vector3f c = triangle.getCenter();
         //float s = 0.5f;
-        //VertexConsumer.LINES.consume(GeometryHelper.line(matrices, c.x, c.y, c.z, c.x + n.x * s, c.y + n.y * s, c.z + n.z * s, 0.001f, color));
+        //GeometryHelper.line(VertexConsumer.LINES, matrices, c.x, c.y, c.z, c.x + n.x * s, c.y + n.y * s, c.z + n.z * s, 0.001f, color);
     }
 
     public static void renderMesh(MatrixStack matrices, MeshCollider mesh, int color) {
@@ -136,7 +136,7 @@ public class DebugRenderer {
 
         matrices.pushMatrix();
         matrices.rotate(Maths.dirToQuat(dirX, dirY, dirZ));
-        VertexConsumer.LINES.consume(GeometryHelper.line(matrices, 0f, 0f, 0f, 0f, 0f, l1, 0.001f, color));
+        GeometryHelper.line(VertexConsumer.LINES, matrices, 0f, 0f, 0f, 0f, 0f, l1, 0.001f, color);
 
         matrices.translate(0f, 0f, l1);
         matrices.rotate(Rotation.X.rotationDeg(90f));
@@ -178,7 +178,7 @@ public class DebugRenderer {
                         a = corners[order[k]],
                         b = corners[order[(k + 1) % 4]];
 
-                VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, a.x, a.y, a.z, b.x, b.y, b.z, s, color));
+                GeometryHelper.line(VertexConsumer.MAIN, matrices, a.x, a.y, a.z, b.x, b.y, b.z, s, color);
             }
         }
 
@@ -188,7 +188,7 @@ public class DebugRenderer {
                     near = corners[i],
                     far = corners[i + 4];
 
-            VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, near.x, near.y, near.z, far.x, far.y, far.z, s, color));
+            GeometryHelper.line(VertexConsumer.MAIN, matrices, near.x, near.y, near.z, far.x, far.y, far.z, s, color);
         }
     }
 
@@ -35,7 +35,7 @@ public class DecalRenderer {
         for (Decal decal : decals) {
             shader.setMat4("model", decal.getTransform().getMatrix().pos());
             shader.setMat4("invModel", decal.getTransform().getInverseMatrix().pos());
-            shader.setTexture("textureSampler", Texture.of(decal.getAlbedoTexture()), 1);
+            shader.setTexture("textureSampler", Texture.ofAsync(decal.getAlbedoTexture()), 1);
             shader.applyColor(((ModelTransform) decal.getTransform()).getColor());
             shader.setFloat("opacity", decal.getOpacity());
             StaticGeometry.INV_CUBE.render();
@@ -1,12 +1,12 @@
 package cinnamon.render;
 
 import cinnamon.Client;
-import cinnamon.model.Vertex;
 import cinnamon.render.batch.VertexConsumer;
 import cinnamon.text.Style;
 import cinnamon.text.Text;
 import cinnamon.utils.IOUtils;
 import cinnamon.utils.Resource;
+import cinnamon.utils.TextUtils;
 import org.lwjgl.stb.STBTTAlignedQuad;
 import org.lwjgl.stb.STBTTFontinfo;
 import org.lwjgl.stb.STBTTPackContext;
@@ -16,11 +16,10 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
 
 import static cinnamon.events.Events.LOGGER;
-import static cinnamon.model.GeometryHelper.rectangle;
-import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL33.GL_TEXTURE_SWIZZLE_RGBA;
 import static org.lwjgl.stb.STBTruetype.*;
 import static org.lwjgl.system.MemoryUtil.*;
 
@@ -36,6 +35,7 @@ public class Font {
     public static final int EXTRA_GLYPH_SLOTS = 3; // ".notdef" ".null" "nonmarkingreturn"
     public static final int MISSING_GLYPH_CODEPOINT = UNICODE_MAX_CODEPOINT + 1;
     public static final float Z_DEPTH = 3;
+    public static final int LAYOUT_CACHE_SIZE = 256, LINE_CACHE_SIZE = 1024;
 
     private static final Random RANDOM = new Random();
     private static long SEED = 42;
@@ -47,10 +47,17 @@ public class Font {
     //data
     private final ByteBuffer ttf; //needs to be kept in memory
     private final STBTTFontinfo info = STBTTFontinfo.malloc();
-    private final Map<Integer, GlyphPage> glyphPages = new HashMap<>();
+    private final Map<Integer, GlyphPage> glyphPages = new HashMap<>(); //null values for pages without glyphs
     private final GlyphPage missingCharPage;
     private Font fallback;
 
+    //packing
+    private final Resource res;
+    private final boolean smooth;
+    private final int oversample;
+    private final GlyphAtlas atlas;
+    private final String cacheKey;
+
     //properties
     public final float
             lineHeight,
@@ -61,6 +68,19 @@ public class Font {
 
     private final Map<Float, List<Integer>> charsByWidth = new HashMap<>();
 
+    //layout cache, keyed by the flattened strings and styles
+    private final Map<List<Object>, TextLayout> layouts = lruCache(LAYOUT_CACHE_SIZE);
+    private final Map<List<Object>, TextLayout.Line> lineLayouts = lruCache(LINE_CACHE_SIZE);
+    private final List<Object> keyParts = new ArrayList<>();
+    private boolean keyObfuscated;
+    private final BiConsumer<String, Style> keyVisitor = (s, style) -> {
+        if (s.isEmpty())
+            return;
+        keyParts.add(s);
+        keyParts.add(style);
+        keyObfuscated |= style.isObfuscated();
+    };
+
 
     // -- font initialization -- //
 
@@ -74,11 +94,22 @@ public class Font {
     }
 
     private Font(Resource res, float height, float lineSpacing, boolean smooth, int oversample) {
+        long start = System.nanoTime();
+
         ByteBuffer buffer = IOUtils.getResourceBuffer(res);
         this.ttf = memAlloc(buffer.capacity()).put(buffer).flip();
         this.lineHeight = height;
         this.lineGap = lineSpacing;
 
+        this.res = res;
+        this.smooth = smooth;
+        this.oversample = oversample;
+        this.atlas = GlyphAtlas.get(smooth);
+
+        CRC32 crc = new CRC32();
+        crc.update(ttf.duplicate());
+        this.cacheKey = GlyphCache.getKey(crc.getValue(), height, oversample, smooth);
+
         //font data
         stbtt_InitFont(info, ttf);
 
@@ -92,46 +123,65 @@ public class Font {
         this.descent = descent.get(0) * scale;
         memFree(ascent); memFree(descent); memFree(lineGap);
 
-        //pack missing char data first
-        this.missingCharPage = packGlyphPage(res, MISSING_GLYPH_CODEPOINT, EXTRA_GLYPH_SLOTS, height, smooth, oversample);
+        //only the missing char is packed upfront, the other pages are packed on their first use
+        this.missingCharPage = loadGlyphPage(MISSING_GLYPH_CODEPOINT, EXTRA_GLYPH_SLOTS);
 
-        //discover supported ranges and pack them
-        for (int pageStart = 0; pageStart <= UNICODE_MAX_CODEPOINT; pageStart += UNICODE_PAGE_SIZE) {
-            //check if the page has a glyph
-            int pageEnd = pageStart + UNICODE_PAGE_SIZE - 1;
-            boolean hasGlyphs = false;
+        //finished!
+        LOGGER.debug("Loaded font \"%s\" in %.2f ms", res, (System.nanoTime() - start) / 1_000_000f);
+    }
 
-            for (int codepoint = pageStart; codepoint <= pageEnd; codepoint++) {
-                if (hasGlyph(codepoint)) {
-                    hasGlyphs = true;
-                    break;
-                }
+    private GlyphPage getGlyphPage(int pageStart) {
+        GlyphPage page = glyphPages.get(pageStart);
+        if (page != null || glyphPages.containsKey(pageStart))
+            return page;
+
+        //first use of this page
+        page = hasGlyphs(pageStart) ? loadGlyphPage(pageStart, UNICODE_PAGE_SIZE) : null;
+        glyphPages.put(pageStart, page);
+
+        //register its chars for obfuscation
+        if (page != null) {
+            for (int i = 0; i < UNICODE_PAGE_SIZE; i++) {
+                int c = pageStart + i;
+                if (!Character.isSpaceChar(c) && hasGlyph(c))
+                    charsByWidth.computeIfAbsent(page.charData.get(i).xadvance(), k -> new ArrayList<>()).add(c);
             }
+        }
 
-            //if so, pack the entire page into its own texture
-            if (hasGlyphs) {
-                GlyphPage page = packGlyphPage(res, pageStart, UNICODE_PAGE_SIZE, height, smooth, oversample);
-                if (page != null)
-                    this.glyphPages.put(pageStart, page);
-            }
+        return page;
+    }
+
+    private boolean hasGlyphs(int pageStart) {
+        for (int codepoint = pageStart; codepoint < pageStart + UNICODE_PAGE_SIZE; codepoint++) {
+            if (hasGlyph(codepoint))
+                return true;
         }
+        return false;
+    }
 
-        //calculate char widths
-        for (int start : glyphPages.keySet()) {
-            int end = start + UNICODE_PAGE_SIZE - 1;
-            for (int i = start; i <= end; i++) {
-                if (Character.isSpaceChar(i) || !hasGlyph(i))
-                    continue;
-                float w = width(i);
-                charsByWidth.computeIfAbsent(w, k -> new ArrayList<>()).add(i);
-            }
+    private GlyphPage loadGlyphPage(int startCodepoint, int numChars) {
+        //rasterize the page, unless it was already cached
+        GlyphCache.Page packed = GlyphCache.read(cacheKey, startCodepoint, numChars);
+        if (packed == null) {
+            packed = packGlyphPage(startCodepoint, numChars);
+            if (packed == null)
+                return null;
+            GlyphCache.write(cacheKey, startCodepoint, packed);
         }
 
-        //finished!
-        LOGGER.debug("Loaded font \"%s\"", res);
+        //place it in the atlas, and move the char data to its region
+        GlyphAtlas.Region region = atlas.add(packed.bitmap(), packed.width(), packed.height());
+        memFree(packed.bitmap());
+
+        for (STBTTPackedchar c : packed.charData()) {
+            c.x0((short) (c.x0() + region.x())).x1((short) (c.x1() + region.x()));
+            c.y0((short) (c.y0() + region.y())).y1((short) (c.y1() + region.y()));
+        }
+
+        return new GlyphPage(region, packed.charData());
     }
 
-    private GlyphPage packGlyphPage(Resource res, int startCodepoint, int numChars, float height, boolean smooth, int oversample) {
+    private GlyphCache.Page packGlyphPage(int startCodepoint, int numChars) {
         STBTTPackedchar.Buffer charData = STBTTPackedchar.malloc(numChars);
 
         int texSize = MIN_SIZE;
@@ -147,7 +197,7 @@ public class Font {
                 stbtt_PackSetOversampling(spc, oversample, oversample);
 
                 //try to pack the glyphs into the current size
-                if (!stbtt_PackFontRange(spc, this.ttf, 0, height, startCodepoint, charData)) {
+                if (!stbtt_PackFontRange(spc, this.ttf, 0, lineHeight, startCodepoint, charData)) {
                     //fail (not enough space)
                     //clean up and try a larger size
                     stbtt_PackEnd(spc);
@@ -158,31 +208,27 @@ public class Font {
 
                 stbtt_PackEnd(spc);
 
+                //success! trim the bitmap to the used area
+                int w = 1, h = 1;
+                for (STBTTPackedchar c : charData) {
+                    w = Math.max(w, c.x1() & 0xFFFF);
+                    h = Math.max(h, c.y1() & 0xFFFF);
+                }
+
+                ByteBuffer trimmed = memAlloc(w * h);
+                for (int y = 0; y < h; y++)
+                    memCopy(memAddress(bitmap) + (long) y * texSize, memAddress(trimmed) + (long) y * w, w);
+                memFree(bitmap);
+
                 //strip blurry edges for non-smooth fonts
                 if (!smooth) {
-                    for (int i = 0; i < texSize * texSize; i++) {
-                        int alpha = bitmap.get(i) & 0xFF;
-                        bitmap.put(i, (byte) (alpha > 0 ? 255 : 0));
+                    for (int i = 0; i < w * h; i++) {
+                        int alpha = trimmed.get(i) & 0xFF;
+                        trimmed.put(i, (byte) (alpha > 0 ? 255 : 0));
                     }
                 }
 
-                //success! create the texture
-                int texID = glGenTextures();
-                glBindTexture(GL_TEXTURE_2D, texID);
-                glTexImage2D(GL_TEXTURE_2D, 0, GL_RED, texSize, texSize, 0, GL_RED, GL_UNSIGNED_BYTE, bitmap);
-
-                int filter = smooth ? GL_LINEAR : GL_NEAREST;
-                glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filter);
-                glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filter);
-
-                int[] swizzleMask = {GL_RED, GL_RED, GL_RED, GL_RED};
-                glTexParameteriv(GL_TEXTURE_2D, GL_TEXTURE_SWIZZLE_RGBA, swizzleMask);
-
-                glBindTexture(GL_TEXTURE_2D, 0);
-
-                //free the RAM buffer as it is now in the GPU VRAM
-                memFree(bitmap);
-                return new GlyphPage(texID, texSize, texSize, charData);
+                return new GlyphCache.Page(w, h, trimmed, charData);
             }
         }
 
@@ -196,16 +242,35 @@ public class Font {
         for (Font font : FONTS_CACHE.values())
             font.free();
         FONTS_CACHE.clear();
+        GlyphAtlas.freeAll();
     }
 
     public void setFallback(Font fallback) {
         this.fallback = fallback == this ? null : fallback;
+        clearLayouts();
+    }
+
+    public void clearLayouts() {
+        layouts.clear();
+        lineLayouts.clear();
+    }
+
+    private static <K, V> Map<K, V> lruCache(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
     }
 
     public void free() {
-        for (GlyphPage page : glyphPages.values())
-            page.free();
+        for (GlyphPage page : glyphPages.values()) {
+            if (page != null)
+                page.free();
+        }
         glyphPages.clear();
+        clearLayouts();
         missingCharPage.free();
         info.free();
         q.free();
@@ -224,17 +289,19 @@ public class Font {
         if (owner != null) {
             //get the char data from the owner font
             int pageStart = owner.getCodepointPage(c);
-            GlyphPage page = owner.glyphPages.get(pageStart);
+            GlyphPage page = owner.getGlyphPage(pageStart);
             if (page != null) {
                 //if the owner has the page, get the char data
-                stbtt_GetPackedQuad(page.charData, page.width, page.height, c - pageStart, xb, yb, q, false);
-                return page.textureID;
+                int size = page.region.size();
+                stbtt_GetPackedQuad(page.charData, size, size, c - pageStart, xb, yb, q, false);
+                return page.region.texture();
             }
         }
 
         //no owner, use missing char data
-        stbtt_GetPackedQuad(missingCharPage.charData, missingCharPage.width, missingCharPage.height, 0, xb, yb, q, false);
-        return missingCharPage.textureID;
+        int size = missingCharPage.region.size();
+        stbtt_GetPackedQuad(missingCharPage.charData, size, size, 0, xb, yb, q, false);
+        return missingCharPage.region.texture();
     }
 
     private boolean hasGlyph(int codepoint) {
@@ -259,10 +326,68 @@ public class Font {
 
 
     public void bake(VertexConsumer consumer, MatrixStack matrices, Text text, float x, float y, float zOffset) {
+        getLine(text).render(consumer, matrices, x, y, zOffset);
+    }
+
+    /**
+     * Lays out the text, split at its line breaks
+     * layouts are cached by the text strings and styles, so the same text is only laid out once, no matter its instance
+     */
+    public TextLayout getLayout(Text text) {
+        //obfuscated text changes every tick
+        if (!collectKey(text))
+            return bakeLayout(text);
+
+        TextLayout layout = layouts.get(keyParts);
+        if (layout == null) {
+            List<Object> key = List.copyOf(keyParts);
+            layout = bakeLayout(text);
+            layouts.put(key, layout);
+        }
+
+        return layout;
+    }
+
+    private TextLayout bakeLayout(Text text) {
+        //lines are cached on their own too, so a changed line does not lay out the whole text again
+        List<Text> split = TextUtils.split(text, "\n");
+        TextLayout.Line[] lines = new TextLayout.Line[split.size()];
+        for (int i = 0; i < lines.length; i++)
+            lines[i] = getLine(split.get(i));
+        return new TextLayout(this, lines);
+    }
+
+    private TextLayout.Line getLine(Text text) {
+        if (!collectKey(text))
+            return bakeLine(text, Client.getInstance().ticks + keyParts.hashCode());
+
+        TextLayout.Line line = lineLayouts.get(keyParts);
+        if (line == null) {
+            line = bakeLine(text, 0).trim();
+            lineLayouts.put(List.copyOf(keyParts), line);
+        }
+
+        return line;
+    }
+
+    /**
+     * Flattens the text into its strings and resolved styles, as the layout cache key
+     * @return false when the text should not be cached
+     */
+    private boolean collectKey(Text text) {
+        keyParts.clear();
+        keyObfuscated = false;
+        text.visit(keyVisitor, Style.EMPTY);
+        return !keyObfuscated;
+    }
+
+    private TextLayout.Line bakeLine(Text text, long seed) {
         //prepare vars
+        TextLayout.Line line = new TextLayout.Line();
+        line.width = width(text);
         boolean[] prevItalic = {false};
         xb.put(0, 0f); yb.put(0, 0f);
-        SEED = Client.getInstance().ticks + Float.floatToIntBits(x * 31 + y);
+        SEED = seed;
 
         //iterate text and children
         text.visit((s, style) -> {
@@ -307,8 +432,8 @@ public class Font {
 
             //render background
             if (bg) {
-                float x0 = initialX + x;
-                float y0 = initialY + y - lineHeight - descent;
+                float x0 = initialX;
+                float y0 = initialY - lineHeight - descent;
                 float w  = finalX - initialX;
                 float h  = lineHeight;
 
@@ -323,7 +448,7 @@ public class Font {
                 }
 
                 int bgc = style.getBackgroundColor();
-                consumer.consume(rectangle(matrices, x0, y0, x0 + w, y0 + h, zOffset * zi++, bgc));
+                line.addRect(x0, y0, x0 + w, y0 + h, bgc, zi++);
             }
 
             //render outline
@@ -335,7 +460,7 @@ public class Font {
                             continue;
 
                         xb.put(0, initialX + i); yb.put(0, initialY + j);
-                        bakeString(consumer, matrices, s, italic, bold, obf, under, strike, x, y, zOffset * zi, oc, italicOffset, boldOffset);
+                        bakeString(line, s, italic, bold, obf, under, strike, zi, oc, italicOffset, boldOffset);
                     }
                 }
                 zi++;
@@ -345,20 +470,22 @@ public class Font {
             if (shadow) {
                 xb.put(0, initialX + shadowOffset); yb.put(0, initialY + shadowOffset);
                 int sc = style.getShadowColor();
-                bakeString(consumer, matrices, s, italic, bold, obf, under, strike, x, y, zOffset * zi++, sc, italicOffset, boldOffset);
+                bakeString(line, s, italic, bold, obf, under, strike, zi++, sc, italicOffset, boldOffset);
             }
 
             //main render
             xb.put(0, initialX); yb.put(0, initialY);
             int color = style.getColor();
-            bakeString(consumer, matrices, s, italic, bold, obf, under, strike, x, y, zOffset * zi, color, italicOffset, boldOffset);
+            bakeString(line, s, italic, bold, obf, under, strike, zi, color, italicOffset, boldOffset);
 
             //prepare buffer data for the next word
             xb.put(0, finalX); yb.put(0, initialY);
         }, Style.EMPTY);
+
+        return line;
     }
 
-    private void bakeString(VertexConsumer consumer, MatrixStack matrices, String s, boolean italic, boolean bold, boolean obfuscated, boolean underlined, boolean strikethrough, float x, float y, float z, int color, int italicOffset, int boldOffset) {
+    private void bakeString(TextLayout.Line line, String s, boolean italic, boolean bold, boolean obfuscated, boolean underlined, boolean strikethrough, int layer, int color, int italicOffset, int boldOffset) {
         //prepare vars
         RANDOM.setSeed(SEED);
         float preX = xb.get(0);
@@ -371,28 +498,28 @@ public class Font {
             if (obfuscated && !Character.isSpaceChar(c))
                 c = getRandomCodepoint(c);
 
-            bakeChar(consumer, matrices, c, italic, bold, x, y, z, color, italicOffset, boldOffset);
+            bakeChar(line, c, italic, bold, layer, color, italicOffset, boldOffset);
 
             if (!obfuscated && i < s.length())
                 xb.put(0, xb.get(0) + getKerning(c, s.codePointAt(i)));
         }
 
         //extra rendering
-        float x0 = preX + x, y0 = yb.get(0) + y;
+        float x0 = preX, y0 = yb.get(0);
         float width = xb.get(0) - preX + (italic ? italicOffset : 0f);
 
         //underline
         if (underlined)
-            consumer.consume(rectangle(matrices, x0, y0, x0 + width, y0 + 1, z, color));
+            line.addRect(x0, y0, x0 + width, y0 + 1, color, layer);
 
         //strikethrough
         if (strikethrough) {
             float rectY = y0 - (int) (ascent / 2);
-            consumer.consume(rectangle(matrices, x0, rectY, x0 + width, rectY + 1f, z, color));
+            line.addRect(x0, rectY, x0 + width, rectY + 1f, color, layer);
         }
     }
 
-    private void bakeChar(VertexConsumer consumer, MatrixStack matrices, int c, boolean italic, boolean bold, float x, float y, float z, int color, int italicOffset, int boldOffset) {
+    private void bakeChar(TextLayout.Line line, int c, boolean italic, boolean bold, int layer, int color, int italicOffset, int boldOffset) {
         int glyphTexture = getCharData(c);
 
         float
@@ -410,27 +537,15 @@ public class Font {
             i1 = ((y1 + descent) / lineHeight) * -italicOffset;
         }
 
-        x0 += x; x1 += x;
-        y0 += y; y1 += y;
-
-        consumer.consume(bakeQuad(matrices, x0, x1, i0, i1, y0, y1, z, u0, u1, v0, v1, color), glyphTexture);
+        line.addQuad(x0, x1, i0, i1, y0, y1, u0, u1, v0, v1, color, glyphTexture, layer);
 
         if (bold) {
             xb.put(0, xb.get(0) + boldOffset);
             x0 += boldOffset; x1 += boldOffset;
-            consumer.consume(bakeQuad(matrices, x0, x1, i0, i1, y0, y1, z, u0, u1, v0, v1, color), glyphTexture);
+            line.addQuad(x0, x1, i0, i1, y0, y1, u0, u1, v0, v1, color, glyphTexture, layer);
         }
     }
 
-    private static Vertex[] bakeQuad(MatrixStack matrices, float x0, float x1, float i0, float i1, float y0, float y1, float z, float u0, float u1, float v0, float v1, int color) {
-        return new Vertex[]{
-                new Vertex().pos(x0 + i1, y1, z).uv(u0, v1).color(color).mul(matrices),
-                new Vertex().pos(x1 + i1, y1, z).uv(u1, v1).color(color).mul(matrices),
-                new Vertex().pos(x1 + i0, y0, z).uv(u1, v0).color(color).mul(matrices),
-                new Vertex().pos(x0 + i0, y0, z).uv(u0, v0).color(color).mul(matrices),
-        };
-    }
-
 
     // -- misc functions -- //
 
@@ -453,7 +568,7 @@ public class Font {
         if (owner != null) {
             //get the char data from the owner font
             int pageStart = owner.getCodepointPage(codepoint);
-            GlyphPage page = owner.glyphPages.get(pageStart);
+            GlyphPage page = owner.getGlyphPage(pageStart);
             if (page != null)
                 return page.charData.get(codepoint - pageStart).xadvance();
         }
@@ -514,9 +629,9 @@ public class Font {
         return x[0];
     }
 
-    private record GlyphPage(int textureID, int width, int height, STBTTPackedchar.Buffer charData) {
+    private record GlyphPage(GlyphAtlas.Region region, STBTTPackedchar.Buffer charData) {
         void free() {
-            glDeleteTextures(textureID);
+            //the texture belongs to the atlas
             charData.free();
         }
     }
@@ -12,6 +12,10 @@ import org.joml.Vector4f;
  */
 public class Frustum {
 
+    //plane masks for testBox()
+    public static final int ALL_PLANES = 0b111111;
+    public static final int OUTSIDE = -1;
+
     //left, right, bottom, top, near, far
     private final Vector4f[] planes = {new Vector4f(), new Vector4f(), new Vector4f(), new Vector4f(), new Vector4f(), new Vector4f()};
     private final Matrix4f matrix = new Matrix4f();
@@ -134,6 +138,40 @@ public class Frustum {
         return true; //box is inside
     }
 
+    /**
+     * Tests an Axis-Aligned Bounding Box (AABB) only against the planes in the given mask, for hierarchical culling
+     * <p>
+     * A box fully inside a plane clears its bit, so the returned mask can be passed down to anything contained by this box
+     * @param planeMask The planes to test, one bit per {@link Plane} ordinal, starting with {@link #ALL_PLANES}
+     * @return {@link #OUTSIDE} if the box is outside the frustum, otherwise the mask of planes the box still intersects,
+     * where {@code 0} means the box is fully inside
+     */
+    public int testBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int planeMask) {
+        int mask = planeMask;
+        for (int i = 0; i < 6; i++) {
+            if ((planeMask & (1 << i)) == 0)
+                continue;
+
+            Vector4f plane = planes[i];
+
+            //the "positive vertex" outside means the whole box is outside
+            float px = plane.x > 0 ? maxX : minX;
+            float py = plane.y > 0 ? maxY : minY;
+            float pz = plane.z > 0 ? maxZ : minZ;
+            if (distanceToPoint(plane, px, py, pz) < 0)
+                return OUTSIDE;
+
+            //the "negative vertex" inside means the whole box is inside
+            float nx = plane.x > 0 ? minX : maxX;
+            float ny = plane.y > 0 ? minY : maxY;
+            float nz = plane.z > 0 ? minZ : maxZ;
+            if (distanceToPoint(plane, nx, ny, nz) >= 0)
+                mask &= ~(1 << i);
+        }
+
+        return mask;
+    }
+
     /**
      * Gets the array of frustum planes
      * <p>
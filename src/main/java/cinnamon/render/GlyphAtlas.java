@@ -0,0 +1,169 @@
+package cinnamon.render;
+
+import cinnamon.Client;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL30.GL_R8;
+import static org.lwjgl.opengl.GL33.GL_TEXTURE_SWIZZLE_RGBA;
+import static org.lwjgl.system.MemoryUtil.memCalloc;
+import static org.lwjgl.system.MemoryUtil.memFree;
+
+/**
+ * Texture atlas shared by every font, where glyph pages are packed in rows as soon as they get rasterized
+ * once the sheets are full a new one is appended, so a placed page never moves and its texture and uvs stay valid
+ */
+public class GlyphAtlas {
+
+    public static final int SHEET_SIZE = 512;
+    private static final int PADDING = 1;
+
+    private static final GlyphAtlas
+            SHARP = new GlyphAtlas(false),
+            SMOOTH = new GlyphAtlas(true);
+
+    private final boolean smooth;
+    private final List<Sheet> sheets = new ArrayList<>();
+
+    private GlyphAtlas(boolean smooth) {
+        this.smooth = smooth;
+    }
+
+    public static GlyphAtlas get(boolean smooth) {
+        return smooth ? SMOOTH : SHARP;
+    }
+
+    /**
+     * Uploads a single channel bitmap into the first free region of the atlas
+     * @return the region where the bitmap was placed
+     */
+    public Region add(ByteBuffer bitmap, int width, int height) {
+        int w = width + PADDING, h = height + PADDING;
+
+        for (Sheet sheet : sheets) {
+            Region region = sheet.allocate(w, h);
+            if (region != null)
+                return sheet.upload(region, bitmap, width, height);
+        }
+
+        //no space left, so add a new sheet, large enough for oversized pages
+        int size = SHEET_SIZE;
+        while (size < w || size < h)
+            size *= 2;
+
+        Sheet sheet = new Sheet(size, smooth);
+        sheets.add(sheet);
+        return sheet.upload(sheet.allocate(w, h), bitmap, width, height);
+    }
+
+    private void free() {
+        for (Sheet sheet : sheets) {
+            if (sheet.texture != 0)
+                glDeleteTextures(sheet.texture);
+        }
+        sheets.clear();
+    }
+
+    public static void freeAll() {
+        SHARP.free();
+        SMOOTH.free();
+    }
+
+    public static int getSheetCount() {
+        return SHARP.sheets.size() + SMOOTH.sheets.size();
+    }
+
+    /**
+     * @return the video memory used by all sheets, in bytes
+     */
+    public static long getMemoryUsage() {
+        long bytes = 0;
+        for (GlyphAtlas atlas : new GlyphAtlas[]{SHARP, SMOOTH})
+            for (Sheet sheet : atlas.sheets)
+                bytes += (long) sheet.size * sheet.size;
+        return bytes;
+    }
+
+    /**
+     * A placed bitmap
+     * @param texture the texture of the sheet holding it
+     * @param x the x offset inside the sheet
+     * @param y the y offset inside the sheet
+     * @param size the width and height of the sheet
+     */
+    public record Region(int texture, int x, int y, int size) {}
+
+    private static class Sheet {
+
+        private final int texture, size;
+        //y, height and the used width of each row
+        private final List<int[]> rows = new ArrayList<>();
+        private int nextY;
+
+        private Sheet(int size, boolean smooth) {
+            this.size = size;
+
+            //no window means no gl, the rows are still placed so fonts can be laid out headless
+            if (Client.getInstance().window == null) {
+                this.texture = 0;
+                return;
+            }
+
+            //start cleared, so filtering at the region borders never reads garbage
+            ByteBuffer empty = memCalloc(size * size);
+            this.texture = glGenTextures();
+            glBindTexture(GL_TEXTURE_2D, texture);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_R8, size, size, 0, GL_RED, GL_UNSIGNED_BYTE, empty);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+            memFree(empty);
+
+            int filter = smooth ? GL_LINEAR : GL_NEAREST;
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filter);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filter);
+
+            int[] swizzleMask = {GL_RED, GL_RED, GL_RED, GL_RED};
+            glTexParameteriv(GL_TEXTURE_2D, GL_TEXTURE_SWIZZLE_RGBA, swizzleMask);
+
+            glBindTexture(GL_TEXTURE_2D, 0);
+        }
+
+        private Region allocate(int w, int h) {
+            if (w > size)
+                return null;
+
+            //first row tall enough, without wasting too much of its height
+            for (int[] row : rows) {
+                if (h <= row[1] && h * 2 >= row[1] && row[2] + w <= size) {
+                    Region region = new Region(texture, row[2], row[0], size);
+                    row[2] += w;
+                    return region;
+                }
+            }
+
+            //open a new row
+            if (nextY + h > size)
+                return null;
+
+            rows.add(new int[]{nextY, h, w});
+            Region region = new Region(texture, 0, nextY, size);
+            nextY += h;
+            return region;
+        }
+
+        private Region upload(Region region, ByteBuffer bitmap, int width, int height) {
+            if (texture == 0)
+                return region;
+
+            glBindTexture(GL_TEXTURE_2D, texture);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+            glTexSubImage2D(GL_TEXTURE_2D, 0, region.x(), region.y(), width, height, GL_RED, GL_UNSIGNED_BYTE, bitmap);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+            glBindTexture(GL_TEXTURE_2D, 0);
+            return region;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package cinnamon.render;
+
+import cinnamon.utils.IOUtils;
+import org.lwjgl.stb.STBTTPackedchar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static cinnamon.events.Events.LOGGER;
+import static org.lwjgl.system.MemoryUtil.memAlloc;
+
+/**
+ * Disk cache of rasterized glyph pages, so a page is only packed once per font, size and oversampling
+ * pages are stored in the cache folder under the font key, with the packed char data followed by the bitmap
+ */
+public class GlyphCache {
+
+    public static final Path CACHE_FOLDER = IOUtils.ROOT_FOLDER.resolve("cache/fonts");
+
+    private static final int MAGIC = 0x474C5950; //GLYP
+    private static final int VERSION = 1;
+    private static final int CHAR_BYTES = 4 * 2 + 5 * 4;
+
+    public static boolean enabled = true;
+
+    /**
+     * @param key the folder of the font, see {@link #getKey(long, float, int, boolean)}
+     * @return the cached page, or null if there is none
+     */
+    public static Page read(String key, int startCodepoint, int numChars) {
+        if (!enabled)
+            return null;
+
+        Path path = getCachePath(key, startCodepoint);
+        if (!Files.exists(path))
+            return null;
+
+        //read to the heap, a live mapping would keep the stale file from being replaced on windows
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+
+            //outdated
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != numChars)
+                return null;
+
+            int width = buffer.getInt(), height = buffer.getInt();
+            if (buffer.remaining() != numChars * CHAR_BYTES + width * height)
+                return null;
+
+            STBTTPackedchar.Buffer charData = STBTTPackedchar.malloc(numChars);
+            for (int i = 0; i < numChars; i++) {
+                STBTTPackedchar c = charData.get(i);
+                c.x0(buffer.getShort()).y0(buffer.getShort()).x1(buffer.getShort()).y1(buffer.getShort());
+                c.xoff(buffer.getFloat()).yoff(buffer.getFloat()).xadvance(buffer.getFloat()).xoff2(buffer.getFloat()).yoff2(buffer.getFloat());
+            }
+
+            ByteBuffer bitmap = memAlloc(width * height);
+            bitmap.put(buffer.slice(buffer.position(), width * height)).flip();
+            return new Page(width, height, bitmap, charData);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to read glyph cache \"%s\"", path, e);
+            return null;
+        }
+    }
+
+    public static void write(String key, int startCodepoint, Page page) {
+        if (!enabled)
+            return;
+
+        int numChars = page.charData().capacity();
+        int bitmapSize = page.width() * page.height();
+        ByteBuffer buffer = ByteBuffer.allocate(4 * 5 + numChars * CHAR_BYTES + bitmapSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(numChars).putInt(page.width()).putInt(page.height());
+
+        for (STBTTPackedchar c : page.charData()) {
+            buffer.putShort(c.x0()).putShort(c.y0()).putShort(c.x1()).putShort(c.y1());
+            buffer.putFloat(c.xoff()).putFloat(c.yoff()).putFloat(c.xadvance()).putFloat(c.xoff2()).putFloat(c.yoff2());
+        }
+
+        buffer.put(page.bitmap().slice(0, bitmapSize));
+
+        //write to a temp file, then swap it in, so a half written cache is never read
+        Path path = getCachePath(key, startCodepoint);
+        try {
+            IOUtils.ensureParentExists(path);
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            Files.write(temp, buffer.array());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to write glyph cache \"%s\"", path, e);
+        }
+    }
+
+    public static void clear() {
+        IOUtils.deleteDir(CACHE_FOLDER);
+    }
+
+    /**
+     * @param fontHash a hash of the font file content
+     */
+    public static String getKey(long fontHash, float height, int oversample, boolean smooth) {
+        return "%08x_%s_%d%s".formatted(fontHash, Float.toString(height), oversample, smooth ? "_smooth" : "");
+    }
+
+    private static Path getCachePath(String key, int startCodepoint) {
+        return CACHE_FOLDER.resolve(key + "/" + Integer.toHexString(startCodepoint) + ".bin");
+    }
+
+    /**
+     * A rasterized glyph page, with the char data relative to its own bitmap
+     */
+    public record Page(int width, int height, ByteBuffer bitmap, STBTTPackedchar.Buffer charData) {}
+}
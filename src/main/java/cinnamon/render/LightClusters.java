@@ -0,0 +1,197 @@
+package cinnamon.render;
+
+import cinnamon.world.light.PointLight;
+import org.joml.Math;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.util.Arrays;
+
+/**
+ * Bins lights into a froxel grid, made of screen tiles split into exponential depth slices
+ * each cluster keeps an offset and count into a shared light index list, so the light pass only evaluates the lights that reach it
+ * lights are bound by their falloff sphere, which also covers spotlights
+ */
+public class LightClusters {
+
+    public static final int
+            CLUSTERS_X = 16,
+            CLUSTERS_Y = 9,
+            CLUSTERS_Z = 24,
+            CLUSTER_COUNT = CLUSTERS_X * CLUSTERS_Y * CLUSTERS_Z;
+
+    //4 vec4 per light, see Light#pushToBuffer
+    public static final int LIGHT_FLOATS = 16;
+
+    //offset and count per cluster
+    private final int[] grid = new int[CLUSTER_COUNT * 2];
+    private int[] indices = new int[1024];
+    private int indexCount;
+
+    private float[] lights = new float[LIGHT_FLOATS * 64];
+    //x, y and z cluster ranges of each light
+    private int[] ranges = new int[6 * 64];
+    private int lightCount;
+
+    private final Matrix4f view = new Matrix4f(), projection = new Matrix4f();
+    private float near, far, sliceScale;
+
+    private final Vector3f center = new Vector3f();
+    private final Vector4f corner = new Vector4f();
+
+    /**
+     * Starts a new grid for the given camera matrices
+     */
+    public void begin(Matrix4f view, Matrix4f projection) {
+        this.view.set(view);
+        this.projection.set(projection);
+        this.near = projection.perspectiveNear();
+        this.far = projection.perspectiveFar();
+        this.sliceScale = (float) (CLUSTERS_Z / java.lang.Math.log(far / near));
+
+        Arrays.fill(grid, 0);
+        lightCount = 0;
+        indexCount = 0;
+    }
+
+    /**
+     * Adds the light to every cluster its falloff sphere touches
+     * @return false if the light is outside of the view, and was not added
+     */
+    public boolean add(PointLight light) {
+        Vector3f pos = light.getTransform().getPos();
+        float r = light.getFalloffEnd();
+        view.transformPosition(pos, center);
+
+        //view looks towards -z
+        float zMin = -center.z - r, zMax = -center.z + r;
+        if (zMax < near || zMin > far)
+            return false;
+
+        int z0 = getSlice(Math.max(zMin, near));
+        int z1 = getSlice(Math.min(zMax, far));
+        int x0 = 0, x1 = CLUSTERS_X - 1;
+        int y0 = 0, y1 = CLUSTERS_Y - 1;
+
+        //when the sphere crosses the near plane the projection is not bounded, so it covers the whole screen
+        if (zMin > near) {
+            float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+            float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+
+            for (int i = 0; i < 8; i++) {
+                corner.set(
+                        center.x + ((i & 1) == 0 ? -r : r),
+                        center.y + ((i & 2) == 0 ? -r : r),
+                        center.z + ((i & 4) == 0 ? -r : r),
+                        1f
+                );
+                projection.transform(corner);
+
+                float x = corner.x / corner.w, y = corner.y / corner.w;
+                minX = Math.min(minX, x); maxX = Math.max(maxX, x);
+                minY = Math.min(minY, y); maxY = Math.max(maxY, y);
+            }
+
+            if (maxX < -1f || minX > 1f || maxY < -1f || minY > 1f)
+                return false;
+
+            x0 = getTile(minX, CLUSTERS_X); x1 = getTile(maxX, CLUSTERS_X);
+            y0 = getTile(minY, CLUSTERS_Y); y1 = getTile(maxY, CLUSTERS_Y);
+        }
+
+        //store the light
+        int index = lightCount++;
+        if (lights.length < lightCount * LIGHT_FLOATS) {
+            lights = Arrays.copyOf(lights, lights.length * 2);
+            ranges = Arrays.copyOf(ranges, ranges.length * 2);
+        }
+
+        light.pushToBuffer(lights, index * LIGHT_FLOATS);
+
+        int i = index * 6;
+        ranges[i] = x0; ranges[i + 1] = x1;
+        ranges[i + 2] = y0; ranges[i + 3] = y1;
+        ranges[i + 4] = z0; ranges[i + 5] = z1;
+
+        //count it in its clusters
+        for (int z = z0; z <= z1; z++)
+            for (int y = y0; y <= y1; y++)
+                for (int x = x0; x <= x1; x++)
+                    grid[getCluster(x, y, z) * 2 + 1]++;
+
+        return true;
+    }
+
+    /**
+     * Lays out the index list from the cluster counts, then fills it
+     */
+    public void build() {
+        //offsets from the counts
+        int total = 0;
+        for (int c = 0; c < CLUSTER_COUNT; c++) {
+            int count = grid[c * 2 + 1];
+            grid[c * 2] = total;
+            grid[c * 2 + 1] = 0;
+            total += count;
+        }
+
+        if (indices.length < total)
+            indices = new int[Math.max(total, indices.length * 2)];
+        indexCount = total;
+
+        //fill, in light order
+        for (int l = 0; l < lightCount; l++) {
+            int i = l * 6;
+            for (int z = ranges[i + 4]; z <= ranges[i + 5]; z++) {
+                for (int y = ranges[i + 2]; y <= ranges[i + 3]; y++) {
+                    for (int x = ranges[i]; x <= ranges[i + 1]; x++) {
+                        int c = getCluster(x, y, z) * 2;
+                        indices[grid[c] + grid[c + 1]++] = l;
+                    }
+                }
+            }
+        }
+    }
+
+    private int getSlice(float depth) {
+        int slice = (int) (java.lang.Math.log(depth / near) * sliceScale);
+        return Math.clamp(0, CLUSTERS_Z - 1, slice);
+    }
+
+    private static int getTile(float ndc, int tiles) {
+        return Math.clamp(0, tiles - 1, (int) ((ndc * 0.5f + 0.5f) * tiles));
+    }
+
+    private static int getCluster(int x, int y, int z) {
+        return (z * CLUSTERS_Y + y) * CLUSTERS_X + x;
+    }
+
+    public int[] getGrid() {
+        return grid;
+    }
+
+    public int[] getIndices() {
+        return indices;
+    }
+
+    public int getIndexCount() {
+        return indexCount;
+    }
+
+    public float[] getLights() {
+        return lights;
+    }
+
+    public int getLightCount() {
+        return lightCount;
+    }
+
+    public float getNear() {
+        return near;
+    }
+
+    public float getFar() {
+        return far;
+    }
+}
@@ -1,5 +1,7 @@
 package cinnamon.render;
 
+import cinnamon.math.Maths;
+import cinnamon.math.collision.shape.AABB;
 import cinnamon.model.StaticGeometry;
 import cinnamon.render.batch.VertexConsumer;
 import cinnamon.render.framebuffer.Framebuffer;
@@ -29,10 +31,12 @@ import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.ToLongFunction;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL14.glBlendFuncSeparate;
 import static org.lwjgl.opengl.GL15.GL_DYNAMIC_COPY;
+import static org.lwjgl.opengl.GL15.GL_DYNAMIC_DRAW;
 
 public class LightRenderer {
 
@@ -48,11 +52,21 @@ public class LightRenderer {
     private static final SSBO visibilitySSBO = new SSBO();
     private static int allocatedVisibilitySize = 0;
 
+    private static final LightClusters lightClusters = new LightClusters();
+    private static final SSBO
+            clusterGridSSBO = new SSBO(),
+            clusterLightsSSBO = new SSBO(),
+            clusterIndicesSSBO = new SSBO();
+
     public static final float
             SHADOW_BIAS_FACTOR = 2f,
             SHADOW_BIAS_UNITS = 2f;
 
     private static Light shadowLight = null;
+    private static ShadowPass shadowPass = ShadowPass.ALL;
+    //while drawing the cascades, casters only go to the cascades holding them
+    private static boolean cascadeCulling;
+    private static final ShadowCache shadowCache = new ShadowCache();
 
     private static final Vector3f cameraPos = new Vector3f();
     private static final Quaternionf cameraRot = new Quaternionf();
@@ -62,14 +76,26 @@ public class LightRenderer {
 
     private static final Set<Light> lightsToRender = new LinkedHashSet<>();
 
-    private static int renderedLights, renderedShadows;
+    private static int renderedLights, renderedShadows, clusteredLights;
 
     public static void renderLights(PBRDeferredFramebuffer gBuffer, List<Light> lights, Camera camera, boolean renderShadows, boolean volumetric, Runnable renderFunction) {
-        renderedLights = renderedShadows = 0;
+        renderLights(gBuffer, lights, camera, renderShadows, volumetric, renderFunction, null);
+    }
+
+    /**
+     * @param staticCasters when present, point light shadows of static casters are cached between frames
+     */
+    public static void renderLights(PBRDeferredFramebuffer gBuffer, List<Light> lights, Camera camera, boolean renderShadows, boolean volumetric, Runnable renderFunction, StaticCasters staticCasters) {
+        renderedLights = renderedShadows = clusteredLights = 0;
 
         lightsToRender.addAll(lights);
         lightsToRender.removeIf(l -> !lights.contains(l));
 
+        if (staticCasters != null) {
+            shadowCache.resetCounters();
+            shadowCache.retain(lightsToRender);
+        }
+
         if (lightsToRender.isEmpty())
             return;
 
@@ -81,6 +107,11 @@ public class LightRenderer {
         if (hasVolumetric)
             initVolumetricBuffer(gBuffer);
 
+        //lights without shadows are binned and resolved in a single pass
+        boolean clustered = Settings.clusteredLights.get() && !camera.isOrtho();
+        if (clustered)
+            lightClusters.begin(camera.getViewMatrix(), camera.getProjectionMatrix());
+
         //render the lights
         for (Light light : lightsToRender) {
             if (light.getIntensity() <= 0f)
@@ -93,7 +124,7 @@ public class LightRenderer {
 
                 //render the light shadow
                 switch (light.getType()) {
-                    case POINT -> renderLightShadowToCubeMap((PointLight) light, camera, renderFunction);
+                    case POINT -> renderLightShadowToCubeMap((PointLight) light, camera, renderFunction, staticCasters);
                     case DIRECTIONAL -> renderDirectionalLightShadow(light, camera, renderFunction);
                     default -> renderSpotLightShadow(light, camera, renderFunction);
                 }
@@ -102,14 +133,25 @@ public class LightRenderer {
             }
 
             //bake this light
-            bakeLight(gBuffer, camera, light, shadow);
-            renderedLights++;
+            if (clustered && !shadow && isClusterable(light)) {
+                if (lightClusters.add((PointLight) light)) {
+                    clusteredLights++;
+                    renderedLights++;
+                }
+            } else {
+                bakeLight(gBuffer, camera, light, shadow);
+                renderedLights++;
+            }
 
             //render volumetric effect
             if (hasVolumetric && light.getType() != Light.Type.DIRECTIONAL)
                 renderVolumetricLight(gBuffer, camera, light, shadow);
         }
 
+        //resolve the clustered lights
+        if (clusteredLights > 0)
+            bakeClusteredLights(gBuffer, camera);
+
         //reset light state
         resetLightState(camera);
     }
@@ -163,7 +205,7 @@ public class LightRenderer {
             s.setFloat("intensity", intensity);
             s.setVec3("lightPosition", light.getTransform().getPos());
             s.setFloat("glareSize", light.getGlareSize() * xrScalar);
-            s.setTexture("textureSampler", Texture.of(light.getGlareTexture()), 1);
+            s.setTexture("textureSampler", Texture.ofAsync(light.getGlareTexture()), 1);
             s.setInt("lightIndex", i);
             s.setFloat("deltaTime", deltaTime);
 
@@ -289,9 +331,12 @@ public class LightRenderer {
         //prepare shader
         Shader s = Shaders.DEPTH_DIR.getShader().use();
         s.setMat4Array("cascadeMatrices", cascadeMatrices);
+        s.setInt("layerMask", CascadedShadow.ALL_CASCADES);
 
         //render world
+        cascadeCulling = true;
         renderFunction.run();
+        cascadeCulling = false;
         MaterialApplier.cleanup();
 
         //render vertex consumer
@@ -348,14 +393,13 @@ public class LightRenderer {
         WorldRenderer.activeMask = WorldRenderer.passMask;
     }
 
-    private static void renderLightShadowToCubeMap(PointLight light, Camera camera, Runnable renderFunction) {
+    private static void renderLightShadowToCubeMap(PointLight light, Camera camera, Runnable renderFunction, StaticCasters staticCasters) {
         //set rendering state
         shadowLight = light;
         WorldRenderer.activeMask = light.getShadowMask();
 
         //calculate light matrix
         light.calculateLightSpaceMatrix();
-        Matrix4f lightSpaceMatrix = light.getLightSpaceMatrix();
         Vector3f pos = light.getTransform().getPos();
         float farPlane = light.getFalloffEnd();
 
@@ -368,14 +412,49 @@ public class LightRenderer {
         sh.setVec3("lightPos", pos);
         sh.setFloat("farPlane", farPlane);
 
-        //render the scene for each cube map face
         cubeShadowBuffer.use();
-        for (CubeMap.Face face : CubeMap.Face.values()) {
-            //bind the face
-            cubeShadowBuffer.bindCubemap(face.GLTarget);
 
+        if (staticCasters == null) {
+            //render everything at once
+            renderCubeMapFaces(light, camera, renderFunction, s, sh, true);
+        } else {
+            //static casters come from the cache when nothing changed inside the light volume
+            int resolution = cubeShadowBuffer.getWidth();
+            long signature = staticCasters.signature().applyAsLong(light.getAABB());
+
+            if (!shadowCache.restore(light, resolution, signature, cubeShadowBuffer.getCubemap())) {
+                shadowPass = ShadowPass.STATIC;
+                renderCubeMapFaces(light, camera, staticCasters.render(), s, sh, true);
+                shadowCache.store(light, resolution, signature, cubeShadowBuffer.getCubemap());
+            }
+
+            //then the dynamic casters on top of them
+            shadowPass = ShadowPass.DYNAMIC;
+            renderCubeMapFaces(light, camera, renderFunction, s, sh, false);
+            shadowPass = ShadowPass.ALL;
+        }
+
+        //reset state
+        shadowLight = null;
+        WorldRenderer.activeMask = WorldRenderer.passMask;
+    }
+
+    private static void renderCubeMapFaces(PointLight light, Camera camera, Runnable renderFunction, Shader s, Shader sh, boolean clear) {
+        Matrix4f lightSpaceMatrix = light.getLightSpaceMatrix();
+        Vector3f pos = light.getTransform().getPos();
+
+        //render the scene for each cube map face
+        for (CubeMap.Face face : CubeMap.Face.values()) {
             //check for the light mask
             Boolean mask = light.testShadowCubemapMask(face);
+
+            //masked faces are constant, so they are only written when clearing
+            if (mask != null && !clear)
+                continue;
+
+            //bind the face
+            cubeShadowBuffer.bindCubemap(face.GLTarget, clear);
+
             if (mask != null) {
                 //clear the face to either black or white depending on the mask
                 PostProcess.COLOR_DEPTH
@@ -408,10 +487,6 @@ public class LightRenderer {
             sh.setMat4("lightSpaceMatrix", pointLightMatrix);
             VertexConsumer.finishAllBatches(sh, camera);
         }
-
-        //reset state
-        shadowLight = null;
-        WorldRenderer.activeMask = WorldRenderer.passMask;
     }
 
 
@@ -498,7 +573,7 @@ public class LightRenderer {
         s.setTexture("gDepth",  gBuffer.getDepthBuffer(), 3);
 
         s.setTexture("shadowMap", hasShadow ? shadowBuffer.getDepthBuffer() : 0, 4);
-        s.setTexture("cookieMap", light instanceof CookieLight cookie ? Texture.of(cookie.getCookieTexture()).getID() : 0, 5);
+        s.setTexture("cookieMap", light instanceof CookieLight cookie ? Texture.ofAsync(cookie.getCookieTexture()).getID() : 0, 5);
         s.setCubeMap("shadowCubeMap", hasShadow ? cubeShadowBuffer.getCubemap() : 0, 6);
         s.setTextureArray("shadowCascadeMap", hasShadow ? cascadeShadowBuffer.getDepthTextureArray() : 0, 7);
 
@@ -563,6 +638,47 @@ public class LightRenderer {
         TextureArray.unbindTex(7);
     }
 
+    private static boolean isClusterable(Light light) {
+        //cookies need their own texture
+        Light.Type type = light.getType();
+        return type == Light.Type.POINT || type == Light.Type.SPOT;
+    }
+
+    private static void bakeClusteredLights(PBRDeferredFramebuffer gBuffer, Camera camera) {
+        //upload the grid
+        lightClusters.build();
+        clusterGridSSBO.uploadData(lightClusters.getGrid(), GL_DYNAMIC_DRAW);
+        clusterLightsSSBO.uploadData(lightClusters.getLights(), GL_DYNAMIC_DRAW);
+        clusterIndicesSSBO.uploadData(lightClusters.getIndices(), GL_DYNAMIC_DRAW);
+        SSBO.unbind();
+
+        clusterGridSSBO.bind(1);
+        clusterLightsSSBO.bind(2);
+        clusterIndicesSSBO.bind(3);
+
+        //restore camera to its original view
+        camera.setPos(cameraPos.x, cameraPos.y, cameraPos.z);
+        camera.setRot(cameraRot);
+
+        lightingMultiPassBuffer.use();
+        lightingMultiPassBuffer.adjustViewPort();
+
+        //the camera matrices and position come from the camera block
+        Shader s = Shaders.LIGHT_CLUSTERED.getShader().use();
+        s.setup(camera);
+        s.setFloat("clusterNear", lightClusters.getNear());
+        s.setFloat("clusterFar", lightClusters.getFar());
+
+        s.setTexture("gAlbedo", gBuffer.getAlbedo(),      0);
+        s.setTexture("gNormal", gBuffer.getNormal(),      1);
+        s.setTexture("gORM",    gBuffer.getORM(),         2);
+        s.setTexture("gDepth",  gBuffer.getDepthBuffer(), 3);
+
+        StaticGeometry.QUAD.render();
+
+        Texture.unbindAll(4);
+    }
+
 
     // getters //
 
@@ -579,7 +695,89 @@ public class LightRenderer {
         return renderedShadows;
     }
 
+    public static int getClusteredLightsCount() {
+        return clusteredLights;
+    }
+
     public static Light getShadowLight() {
         return shadowLight;
     }
+
+    public static ShadowPass getShadowPass() {
+        return shadowPass;
+    }
+
+    /**
+     * @return the shadow map layers the bounds should be drawn to, one bit per cascade
+     */
+    public static int getShadowLayers(AABB aabb) {
+        return cascadeCulling ? cascadedShadow.getCascadeMask(aabb) : CascadedShadow.ALL_CASCADES;
+    }
+
+    /**
+     * Limits the next draws to the layers from {@link #getShadowLayers(AABB)}, only while drawing the cascades
+     */
+    public static void applyShadowLayers(int layers) {
+        if (cascadeCulling)
+            Shader.activeShader.setInt("layerMask", layers);
+    }
+
+    /**
+     * @return the region where casters of the current shadow light can be, or null if it is not bounded
+     */
+    public static AABB getShadowBounds() {
+        return shadowLight instanceof PointLight ? shadowLight.getAABB() : null;
+    }
+
+    /**
+     * Tests if the bounds are within the range of the current shadow light, as anything further can not cast a shadow
+     */
+    public static boolean isInsideShadowVolume(AABB aabb) {
+        if (!(shadowLight instanceof PointLight p))
+            return true;
+
+        Vector3f pos = p.getTransform().getPos();
+        return aabb.distanceToPoint(pos.x, pos.y, pos.z) <= p.getFalloffEnd();
+    }
+
+    //same as above, for bounds not stored in an AABB
+    public static boolean isInsideShadowVolume(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        if (!(shadowLight instanceof PointLight p))
+            return true;
+
+        Vector3f pos = p.getTransform().getPos();
+        float dx = pos.x - Maths.clamp(pos.x, minX, maxX);
+        float dy = pos.y - Maths.clamp(pos.y, minY, maxY);
+        float dz = pos.z - Maths.clamp(pos.z, minZ, maxZ);
+        float falloff = p.getFalloffEnd();
+        return dx * dx + dy * dy + dz * dz <= falloff * falloff;
+    }
+
+    public static int getCachedShadowsCount() {
+        return shadowCache.getHits();
+    }
+
+    public static void clearShadowCache() {
+        shadowCache.free();
+    }
+
+    public enum ShadowPass {
+        //everything
+        ALL,
+        //only casters that can be cached
+        STATIC,
+        //everything but the cached casters
+        DYNAMIC;
+
+        public boolean accepts(boolean staticCaster) {
+            return this == ALL || (this == STATIC) == staticCaster;
+        }
+    }
+
+    /**
+     * The casters that only change when the world is modified
+     * @param render renders the static casters, when the shadow pass is {@link ShadowPass#STATIC}
+     * @param signature a hash of the static casters inside a region, compared to decide if the cache is still valid
+     */
+    public record StaticCasters(Runnable render, ToLongFunction<AABB> signature) {}
 }
@@ -6,89 +6,106 @@ import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
-import java.util.Stack;
-
+import java.util.Arrays;
+
+/**
+ * A stack of transform poses, backed by a grow-only array of reusable poses
+ * pushing copies the current pose into the next slot, so no pose is allocated once the stack has reached its deepest level
+ * <br>
+ * the pose returned by {@link #peek()} is only valid until it is popped, as its slot is reused by the next push
+ */
 public class MatrixStack {
-    private final Stack<Pose> stack = new Stack<>() {{
-        add(new Pose());
-    }};
+    private Pose[] stack = {new Pose()};
+    private int depth;
 
     public MatrixStack pushMatrix() {
-        Pose mat = stack.peek();
-        stack.push(new Pose(mat.pos, mat.normal));
+        if (++depth == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+            for (int i = depth; i < stack.length; i++)
+                stack[i] = new Pose();
+        }
+
+        stack[depth].set(stack[depth - 1]);
         return this;
     }
 
     public MatrixStack popMatrix() {
-        stack.pop();
+        if (depth == 0)
+            throw new IllegalStateException("Cannot pop the root pose");
+
+        depth--;
         return this;
     }
 
     public Pose peek() {
-        return stack.peek();
+        return stack[depth];
     }
 
     public boolean isEmpty() {
-        return stack.size() == 1;
+        return depth == 0;
+    }
+
+    public int getDepth() {
+        return depth;
     }
 
     public MatrixStack translate(float x, float y, float z) {
-        stack.peek().translate(x, y, z);
+        stack[depth].translate(x, y, z);
         return this;
     }
 
     public MatrixStack translate(Vector3f vector) {
-        stack.peek().translate(vector);
+        stack[depth].translate(vector);
         return this;
     }
 
     public MatrixStack rotate(Quaternionf quaternion) {
-        stack.peek().rotate(quaternion);
+        stack[depth].rotate(quaternion);
         return this;
     }
 
     public MatrixStack rotateX(float angle) {
-        stack.peek().rotateX(angle);
+        stack[depth].rotateX(angle);
         return this;
     }
 
     public MatrixStack rotateY(float angle) {
-        stack.peek().rotateY(angle);
+        stack[depth].rotateY(angle);
         return this;
     }
 
     public MatrixStack rotateZ(float angle) {
-        stack.peek().rotateZ(angle);
+        stack[depth].rotateZ(angle);
         return this;
     }
 
     public MatrixStack scale(float x, float y, float z) {
-        stack.peek().scale(x, y, z);
+        stack[depth].scale(x, y, z);
         return this;
     }
 
     public MatrixStack scale(float scalar) {
-        stack.peek().scale(scalar);
+        stack[depth].scale(scalar);
         return this;
     }
 
     public MatrixStack scale(Vector3f vector) {
-        stack.peek().scale(vector);
+        stack[depth].scale(vector);
         return this;
     }
 
     public MatrixStack identity() {
-        stack.peek().identity();
+        stack[depth].identity();
         return this;
     }
 
     public MatrixStack set(Pose other) {
-        stack.peek().set(other);
+        stack[depth].set(other);
         return this;
     }
 
     public MatrixStack mul(Matrix4f pos, Matrix3f normal) {
-        stack.peek().mul(pos, normal);
+        stack[depth].mul(pos, normal);
         return this;
     }
 
@@ -0,0 +1,177 @@
+package cinnamon.render;
+
+import cinnamon.render.texture.CubeMap;
+import cinnamon.world.light.Light;
+import cinnamon.world.light.PointLight;
+import org.joml.Vector3f;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL12.GL_TEXTURE_WRAP_R;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE_CUBE_MAP;
+import static org.lwjgl.opengl.GL14.GL_DEPTH_COMPONENT24;
+import static org.lwjgl.opengl.GL42.glTexStorage2D;
+import static org.lwjgl.opengl.GL43.glCopyImageSubData;
+
+/**
+ * Keeps a copy of the static part of point light shadow maps, so lights whose casters did not change skip their static pass
+ * an entry is valid while the light keeps its position, range and face masks, and the static caster signature of its volume matches
+ * least recently used entries are evicted once the memory budget is reached
+ */
+public class ShadowCache {
+
+    private static final long MEMORY_BUDGET = 128L * 1024 * 1024; //bytes
+    private static final int MAX_ENTRIES = 64;
+
+    private final Map<Light, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int hits, misses;
+
+    /**
+     * Copies the cached static shadows of the light into the target cube map
+     * @return false if there was no valid cache for the light
+     */
+    public boolean restore(PointLight light, int resolution, long signature, int targetCubemap) {
+        Entry entry = entries.get(light);
+        if (entry == null || !entry.matches(light, resolution, signature)) {
+            misses++;
+            return false;
+        }
+
+        glCopyImageSubData(entry.cubemap, GL_TEXTURE_CUBE_MAP, 0, 0, 0, 0, targetCubemap, GL_TEXTURE_CUBE_MAP, 0, 0, 0, 0, resolution, resolution, 6);
+        hits++;
+        return true;
+    }
+
+    /**
+     * Stores a copy of the cube map as the static shadows of the light
+     */
+    public void store(PointLight light, int resolution, long signature, int sourceCubemap) {
+        Entry entry = entries.get(light);
+        if (entry != null && entry.resolution != resolution) {
+            entry.free();
+            entries.remove(light);
+            entry = null;
+        }
+
+        if (entry == null) {
+            //make room for the new entry
+            int capacity = getCapacity(resolution);
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() >= capacity && iterator.hasNext()) {
+                iterator.next().free();
+                iterator.remove();
+            }
+
+            entry = new Entry(resolution);
+            entries.put(light, entry);
+        }
+
+        entry.update(light, signature);
+        glCopyImageSubData(sourceCubemap, GL_TEXTURE_CUBE_MAP, 0, 0, 0, 0, entry.cubemap, GL_TEXTURE_CUBE_MAP, 0, 0, 0, 0, resolution, resolution, 6);
+    }
+
+    /**
+     * Frees the entries of lights that are no longer in the given collection
+     */
+    public void retain(Collection<Light> lights) {
+        for (Iterator<Map.Entry<Light, Entry>> iterator = entries.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<Light, Entry> e = iterator.next();
+            if (!lights.contains(e.getKey())) {
+                e.getValue().free();
+                iterator.remove();
+            }
+        }
+    }
+
+    public void invalidate(Light light) {
+        Entry entry = entries.remove(light);
+        if (entry != null)
+            entry.free();
+    }
+
+    public void free() {
+        for (Entry entry : entries.values())
+            entry.free();
+        entries.clear();
+    }
+
+    public void resetCounters() {
+        hits = misses = 0;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static int getCapacity(int resolution) {
+        long bytes = (long) resolution * resolution * 4 * 6;
+        return (int) Math.max(1, Math.min(MAX_ENTRIES, MEMORY_BUDGET / bytes));
+    }
+
+    private static int getFaceMask(PointLight light) {
+        //two bits per face, set and value
+        int mask = 0;
+        for (CubeMap.Face face : CubeMap.Face.values()) {
+            Boolean b = light.testShadowCubemapMask(face);
+            if (b != null)
+                mask |= (b ? 3 : 1) << (face.ordinal() * 2);
+        }
+        return mask;
+    }
+
+    private static class Entry {
+
+        private final int cubemap, resolution;
+        private final Vector3f pos = new Vector3f();
+        private float farPlane;
+        private int faceMask;
+        private long signature;
+
+        private Entry(int resolution) {
+            this.resolution = resolution;
+
+            //same format as the shadow cube map, so it can be copied back and forth
+            this.cubemap = glGenTextures();
+            glBindTexture(GL_TEXTURE_CUBE_MAP, cubemap);
+            glTexStorage2D(GL_TEXTURE_CUBE_MAP, 1, GL_DEPTH_COMPONENT24, resolution, resolution);
+            glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+            glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+            glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+            glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+            glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_WRAP_R, GL_CLAMP_TO_EDGE);
+            glBindTexture(GL_TEXTURE_CUBE_MAP, 0);
+        }
+
+        private boolean matches(PointLight light, int resolution, long signature) {
+            return this.resolution == resolution &&
+                    this.signature == signature &&
+                    this.farPlane == light.getFalloffEnd() &&
+                    this.faceMask == getFaceMask(light) &&
+                    this.pos.equals(light.getTransform().getPos());
+        }
+
+        private void update(PointLight light, long signature) {
+            this.signature = signature;
+            this.farPlane = light.getFalloffEnd();
+            this.faceMask = getFaceMask(light);
+            this.pos.set(light.getTransform().getPos());
+        }
+
+        private void free() {
+            glDeleteTextures(cubemap);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package cinnamon.render;
+
+import cinnamon.render.batch.VertexConsumer;
+import cinnamon.render.shader.Attributes;
+import cinnamon.utils.Alignment;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Pre laid out glyph quads of a text, relative to the origin of each line, built by {@link Font#getLayout(cinnamon.text.Text)}
+ * rendering only offsets and transforms the quads, writing them straight into the batch data
+ */
+public class TextLayout {
+
+    //shared emission scratch, text is only rendered from the render thread
+    private static float[] vertexData = new float[0];
+    private static final Vector3f pos = new Vector3f(), normal = new Vector3f();
+
+    private final Font font;
+    private final Line[] lines;
+
+    TextLayout(Font font, Line[] lines) {
+        this.font = font;
+        this.lines = lines;
+    }
+
+    public void render(VertexConsumer consumer, MatrixStack matrices, float x, float y, Alignment alignment, float zOffset) {
+        int size = lines.length;
+        float yOffset = alignment.getHeightOffset(font.lineHeight * size + font.lineGap * (size - 1));
+
+        for (int i = 0; i < size; i++) {
+            Line line = lines[i];
+            float x2 = alignment.getWidthOffset(line.width);
+            float y2 = font.ascent + (font.lineHeight + font.lineGap) * i + yOffset;
+            line.render(consumer, matrices, x + x2, y + y2, zOffset);
+        }
+    }
+
+    public int getLineCount() {
+        return lines.length;
+    }
+
+    public float getWidth() {
+        float width = 0f;
+        for (Line line : lines)
+            width = Math.max(width, line.width);
+        return width;
+    }
+
+    /**
+     * A single line, with the quads in the same order they are rendered
+     */
+    static class Line {
+
+        //x0, x1, i0, i1, y0, y1, u0, u1, v0, v1
+        private static final int QUAD_FLOATS = 10;
+        //color, texture, z layer
+        private static final int QUAD_INTS = 3;
+
+        private float[] quads = new float[QUAD_FLOATS * 16];
+        private int[] quadInfo = new int[QUAD_INTS * 16];
+        private int quadCount;
+        float width;
+
+        void addQuad(float x0, float x1, float i0, float i1, float y0, float y1, float u0, float u1, float v0, float v1, int color, int texture, int layer) {
+            if (quadCount * QUAD_FLOATS == quads.length) {
+                quads = Arrays.copyOf(quads, quads.length * 2);
+                quadInfo = Arrays.copyOf(quadInfo, quadInfo.length * 2);
+            }
+
+            int f = quadCount * QUAD_FLOATS;
+            quads[f]     = x0; quads[f + 1] = x1;
+            quads[f + 2] = i0; quads[f + 3] = i1;
+            quads[f + 4] = y0; quads[f + 5] = y1;
+            quads[f + 6] = u0; quads[f + 7] = u1;
+            quads[f + 8] = v0; quads[f + 9] = v1;
+
+            int i = quadCount * QUAD_INTS;
+            quadInfo[i]     = color;
+            quadInfo[i + 1] = texture;
+            quadInfo[i + 2] = layer;
+
+            quadCount++;
+        }
+
+        void addRect(float x0, float y0, float x1, float y1, int color, int layer) {
+            addQuad(x0, x1, 0f, 0f, y0, y1, 0f, 1f, 0f, 1f, color, -1, layer);
+        }
+
+        /**
+         * Shrinks the arrays to the used size, for lines kept in the cache
+         */
+        Line trim() {
+            quads = Arrays.copyOf(quads, quadCount * QUAD_FLOATS);
+            quadInfo = Arrays.copyOf(quadInfo, quadCount * QUAD_INTS);
+            return this;
+        }
+
+        void render(VertexConsumer consumer, MatrixStack matrices, float x, float y, float zOffset) {
+            if (quadCount == 0)
+                return;
+
+            Attributes[] attributes = consumer.getAttributes();
+            int vertexSize = Attributes.getVertexSize(attributes);
+            int required = quadCount * 6 * vertexSize;
+            if (vertexData.length < required)
+                vertexData = new float[required];
+
+            MatrixStack.Pose pose = matrices.peek();
+            Matrix4f mat = pose.pos();
+            pose.normal().transform(normal.set(0f, 0f, -1f));
+            float nx = normal.x, ny = normal.y, nz = normal.z;
+
+            //quads are flushed in runs sharing the same texture, keeping their order
+            int runStart = 0, offset = 0;
+            int runTexture = quadInfo[1];
+
+            for (int q = 0; q < quadCount; q++) {
+                int f = q * QUAD_FLOATS, i = q * QUAD_INTS;
+                int texture = quadInfo[i + 1];
+
+                if (texture != runTexture) {
+                    consumer.consumeRaw(vertexData, (q - runStart) * 6, runTexture);
+                    runStart = q;
+                    runTexture = texture;
+                    offset = 0;
+                }
+
+                float x0 = quads[f] + x, x1 = quads[f + 1] + x;
+                float i0 = quads[f + 2], i1 = quads[f + 3];
+                float y0 = quads[f + 4] + y, y1 = quads[f + 5] + y;
+                float u0 = quads[f + 6], u1 = quads[f + 7];
+                float v0 = quads[f + 8], v1 = quads[f + 9];
+                float z = zOffset * quadInfo[i + 2];
+
+                //same as Vertex.color(int)
+                int color = quadInfo[i];
+                float a = (color >> 24 & 0xFF) / 255f;
+                float r = (color >> 16 & 0xFF) / 255f;
+                float g = (color >> 8 & 0xFF) / 255f;
+                float b = (color & 0xFF) / 255f;
+
+                //corners, in the same order as the face unwrapping: 0 1 2, 0 2 3
+                mat.transformPosition(pos.set(x0 + i1, y1, z));
+                float ax = pos.x, ay = pos.y, az = pos.z;
+                mat.transformPosition(pos.set(x1 + i1, y1, z));
+                float bx = pos.x, by = pos.y, bz = pos.z;
+                mat.transformPosition(pos.set(x1 + i0, y0, z));
+                float cx = pos.x, cy = pos.y, cz = pos.z;
+                mat.transformPosition(pos.set(x0 + i0, y0, z));
+                float dx = pos.x, dy = pos.y, dz = pos.z;
+
+                offset = Attributes.putVertex(vertexData, offset, attributes, ax, ay, az, u0, v1, r, g, b, a, nx, ny, nz);
+                offset = Attributes.putVertex(vertexData, offset, attributes, bx, by, bz, u1, v1, r, g, b, a, nx, ny, nz);
+                offset = Attributes.putVertex(vertexData, offset, attributes, cx, cy, cz, u1, v0, r, g, b, a, nx, ny, nz);
+                offset = Attributes.putVertex(vertexData, offset, attributes, ax, ay, az, u0, v1, r, g, b, a, nx, ny, nz);
+                offset = Attributes.putVertex(vertexData, offset, attributes, cx, cy, cz, u1, v0, r, g, b, a, nx, ny, nz);
+                offset = Attributes.putVertex(vertexData, offset, attributes, dx, dy, dz, u0, v0, r, g, b, a, nx, ny, nz);
+            }
+
+            consumer.consumeRaw(vertexData, (quadCount - runStart) * 6, runTexture);
+        }
+    }
+}
@@ -50,6 +50,7 @@ public class WorldRenderer {
             renderedParticles,
             renderedLights,
             renderedShadows,
+            renderedShadowCasters,
             renderedDecals;
 
     //render mask
@@ -94,14 +95,15 @@ public class WorldRenderer {
                     if (xr && client.screen == null)
                         renderXrHands(camera, matrices, delta);
                 },
-                () -> world.renderTerrain(camera, matrices, delta),
-                () -> world.renderEntities(camera, matrices, delta),
-                () -> world.renderParticles(camera, matrices, delta),
+                () -> renderedShadowCasters += world.renderTerrain(camera, matrices, delta),
+                () -> renderedShadowCasters += world.renderEntities(camera, matrices, delta),
+                () -> renderedShadowCasters += world.renderParticles(camera, matrices, delta),
                 () -> {
                     if (camera.getEntity() instanceof LivingEntity le)
                         world.renderItemExtra(le, matrices, delta);
                 }
         };
+        LightRenderer.StaticCasters staticCasters = new LightRenderer.StaticCasters(renderFunc[1], world::getStaticShadowSignature);
 
         //render the sky before all
         if (renderSky)
@@ -109,7 +111,7 @@ public class WorldRenderer {
 
         //3d anaglyph rendering
         if (client.anaglyph3D) {
-            renderAsAnaglyph(world, matrices, delta, dt, renderFunc);
+            renderAsAnaglyph(world, matrices, delta, dt, renderFunc, staticCasters);
             worldRendering = false;
             return;
         }
@@ -141,7 +143,7 @@ public class WorldRenderer {
         renderSSR(camera);
 
         //render the world lights
-        renderLights(world.getLights(camera), camera, renderFunc);
+        renderLights(world.getLights(camera), camera, renderFunc, staticCasters);
 
         //bake world
         bakeDeferred(camera, world.getSky());
@@ -177,7 +179,7 @@ public class WorldRenderer {
         worldRendering = false;
     }
 
-    private static void renderAsAnaglyph(WorldClient world, MatrixStack matrices, float delta, float dt, Runnable[] renderFunc) {
+    private static void renderAsAnaglyph(WorldClient world, MatrixStack matrices, float delta, float dt, Runnable[] renderFunc, LightRenderer.StaticCasters staticCasters) {
         camera.anaglyph3D(matrices, -1f / 64f, -1f, () -> {
             //render world
             initGBuffer(camera);
@@ -202,7 +204,7 @@ public class WorldRenderer {
             renderSSR(camera);
 
             //lights
-            renderLights(world.getLights(camera), camera, renderFunc);
+            renderLights(world.getLights(camera), camera, renderFunc, staticCasters);
         }, () -> {
             //bake world
             bakeDeferred(camera, world.getSky());
@@ -369,12 +371,16 @@ public class WorldRenderer {
     }
 
     public static void renderLights(List<Light> lights, Camera camera, Runnable[] renderFunc) {
-        renderedLights = renderedShadows = 0;
+        renderLights(lights, camera, renderFunc, null);
+    }
+
+    public static void renderLights(List<Light> lights, Camera camera, Runnable[] renderFunc, LightRenderer.StaticCasters staticCasters) {
+        renderedLights = renderedShadows = renderedShadowCasters = 0;
         if (renderLights) {
             LightRenderer.renderLights(PBRFrameBuffer, lights, camera, renderShadows, renderVolLight, () -> {
                 for (Runnable r : renderFunc)
                     r.run();
-            });
+            }, staticCasters);
             renderedLights = LightRenderer.getRenderedLightsCount();
             renderedShadows = LightRenderer.getRenderedShadowsCount();
         }
@@ -619,6 +625,10 @@ public class WorldRenderer {
         return renderedShadows;
     }
 
+    public static int getShadowCastersCount() {
+        return renderedShadowCasters;
+    }
+
     public static int getDecalsCount() {
         return renderedDecals;
     }
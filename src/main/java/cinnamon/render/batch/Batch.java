@@ -9,8 +9,6 @@ import cinnamon.render.texture.Texture;
 import org.lwjgl.BufferUtils;
 
 import java.nio.FloatBuffer;
-import java.util.ArrayList;
-import java.util.List;
 
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
@@ -25,15 +23,18 @@ public abstract class Batch { //vertex consumer
     protected static final int[] TEXTURE_SLOTS;
 
     //buffer
-    protected final List<Integer> textures;
+    protected final TextureSlotTable textures;
     protected final FloatBuffer buffer;
     protected final int vertexSize;
     protected final int verticesPerFace;
     protected final Attributes[] attributes;
+    protected final int textureOffset;
     protected int faceCount = 0;
 
-    //rendering data
-    protected final int vaoID, vboID;
+    //rendering data, created on the first render so the packing also works without a gl context
+    protected int vaoID, vboID;
+    protected StreamBuffer stream;
+    protected static final int STREAM_REGIONS = 3;
 
     static {
         TEXTURE_SLOTS = new int[Texture.MAX_TEXTURES];
@@ -42,23 +43,33 @@ public abstract class Batch { //vertex consumer
     }
 
     public Batch(int verticesPerFace, Attributes... attributes) {
-        this.textures = new ArrayList<>();
+        this.textures = new TextureSlotTable(TEXTURE_SLOTS.length);
         this.verticesPerFace = verticesPerFace;
         this.attributes = attributes;
 
         this.vertexSize = Attributes.getVertexSize(attributes);
+        this.textureOffset = Attributes.getOffset(Attributes.TEXTURE_ID, attributes);
         //each face have 6 vertices, times the amount of vertex data
         int capacity = BUFFER_SIZE * verticesPerFace * vertexSize;
         buffer = BufferUtils.createFloatBuffer(capacity);
+    }
+
+    protected void createBuffers() {
+        long bytes = (long) buffer.capacity() * Float.BYTES;
 
         //generate vao
         this.vaoID = glGenVertexArrays();
         glBindVertexArray(vaoID);
 
-        //generate vbo
-        this.vboID = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboID);
-        glBufferData(GL_ARRAY_BUFFER, (long) capacity * Float.BYTES, GL_DYNAMIC_DRAW);
+        //generate vbo, persistently mapped when supported
+        if (StreamBuffer.isSupported()) {
+            this.stream = new StreamBuffer(bytes, STREAM_REGIONS);
+            this.vboID = stream.getID();
+        } else {
+            this.vboID = glGenBuffers();
+            glBindBuffer(GL_ARRAY_BUFFER, vboID);
+            glBufferData(GL_ARRAY_BUFFER, bytes, GL_STREAM_DRAW);
+        }
 
         //enable the shader attributes
         Attributes.load(attributes, vertexSize);
@@ -69,42 +80,69 @@ public abstract class Batch { //vertex consumer
     }
 
     public void free() {
-        glDeleteBuffers(vboID);
+        if (vaoID == 0)
+            return;
+
+        if (stream != null) stream.free();
+        else glDeleteBuffers(vboID);
         glDeleteVertexArrays(vaoID);
+
+        stream = null;
+        vaoID = vboID = 0;
     }
 
     public int render(Shader shader) {
         if (!hasFace())
             return 0;
 
+        if (vaoID == 0)
+            createBuffers();
+
         int count = buffer.position() / vertexSize;
 
-        //bind buffer
-        buffer.rewind();
-        glBindBuffer(GL_ARRAY_BUFFER, vboID);
-        glBufferSubData(GL_ARRAY_BUFFER, 0, buffer);
+        //upload only the used part of the buffer
+        buffer.flip();
+        int first = upload();
 
         //function to run before drawing the vao
         preRender(shader);
 
         //textures
-        for (int i = 0; i < textures.size(); i++)
-            Texture.bind(textures.get(i), i);
+        int textureCount = textures.size();
+        for (int i = 0; i < textureCount; i++)
+            Texture.bind(textures.getID(i), i);
         shader.setIntArray("textures", TEXTURE_SLOTS);
 
         //render
         glBindVertexArray(vaoID);
-        glDrawArrays(primitive(), 0, count);
+        glDrawArrays(primitive(), first, count);
+        if (stream != null)
+            stream.fence();
 
         //clear gl flags
         glBindVertexArray(0);
-        Texture.unbindAll(textures.size());
+        Texture.unbindAll(textureCount);
 
         //clear buffers
         clear();
         return count;
     }
 
+    /**
+     * Uploads the packed vertices to the gpu
+     * @return the index of the first uploaded vertex
+     */
+    protected int upload() {
+        if (stream != null)
+            return (int) (stream.write(buffer) / ((long) vertexSize * Float.BYTES));
+
+        //orphan the old storage, so the driver does not wait for the previous draw
+        glBindBuffer(GL_ARRAY_BUFFER, vboID);
+        glBufferData(GL_ARRAY_BUFFER, (long) buffer.capacity() * Float.BYTES, GL_STREAM_DRAW);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, buffer);
+        return 0;
+    }
+
     public void clear() {
         if (faceCount > 0) {
             textures.clear();
@@ -121,17 +159,13 @@ public abstract class Batch { //vertex consumer
 
     public boolean pushFace(Vertex[] vertices, int textureID) {
         //cant add
-        if (isFull(getUnwrappedVertexCount(vertices)))
+        if (isFull(getUnwrappedVertexCount(vertices.length)))
             return false;
 
         //add texture
-        if (textureID != -1 && !textures.contains(textureID)) {
-            //cannot add texture
-            if (textures.size() >= TEXTURE_SLOTS.length)
-                return false;
-            textures.add(textureID);
-        }
-        int texID = textures.indexOf(textureID);
+        int texID = addTexture(textureID);
+        if (texID == -2)
+            return false;
 
         //unwrap and push the vertices
         unwrapVertices(vertices, texID);
@@ -140,6 +174,64 @@ public abstract class Batch { //vertex consumer
         return true;
     }
 
+    /**
+     * Pushes a single face already laid out in this batch format, unwrapped the same way as the {@link Vertex} faces
+     * @see VertexEmitter
+     */
+    public boolean pushFace(float[] face, int vertexCount, int textureID) {
+        //cant add
+        if (isFull(getUnwrappedVertexCount(vertexCount)))
+            return false;
+
+        //add texture
+        int texID = addTexture(textureID);
+        if (texID == -2)
+            return false;
+
+        //unwrap and push the vertices
+        unwrapVertices(face, vertexCount, texID);
+
+        faceCount++;
+        return true;
+    }
+
+    /**
+     * Pushes vertex data already laid out in this batch format, in groups of whole faces
+     * the texture id slot of each vertex is overwritten with the batch texture slot
+     * @return the amount of vertices consumed, which can be less than requested when the batch is full
+     */
+    public int pushRaw(float[] data, int vertexOffset, int vertexCount, int textureID) {
+        //how many whole faces fit
+        int fit = Math.min(vertexCount, buffer.remaining() / (vertexSize * verticesPerFace) * verticesPerFace);
+        if (fit <= 0)
+            return 0;
+
+        int texID = addTexture(textureID);
+        if (texID == -2)
+            return 0;
+        int start = buffer.position();
+        buffer.put(data, vertexOffset * vertexSize, fit * vertexSize);
+
+        if (textureOffset >= 0) {
+            for (int i = 0; i < fit; i++)
+                buffer.put(start + i * vertexSize + textureOffset, texID);
+        }
+
+        faceCount += fit / verticesPerFace;
+        return fit;
+    }
+
+    /**
+     * @return the slot of the texture, -1 for no texture, or -2 when there are no slots left
+     */
+    protected int addTexture(int textureID) {
+        if (textureID == -1)
+            return -1;
+
+        int slot = textures.put(textureID);
+        return slot == -1 ? -2 : slot;
+    }
+
     protected void unwrapVertices(Vertex[] vertices, int texID) {
         for (int i = 1; i <= vertices.length - 2; i++) {
             Attributes.pushVertex(buffer, vertices[0], texID, attributes);
@@ -148,8 +240,26 @@ public abstract class Batch { //vertex consumer
         }
     }
 
-    protected int getUnwrappedVertexCount(Vertex[] vertices) {
-        return (vertices.length - 2) * 3;
+    protected void unwrapVertices(float[] face, int vertexCount, int texID) {
+        for (int i = 1; i <= vertexCount - 2; i++) {
+            putVertex(face, 0, texID);
+            putVertex(face, i, texID);
+            putVertex(face, i + 1, texID);
+        }
+    }
+
+    protected void putVertex(float[] face, int index, int texID) {
+        buffer.put(face, index * vertexSize, vertexSize);
+        if (textureOffset >= 0)
+            buffer.put(buffer.position() - vertexSize + textureOffset, texID);
+    }
+
+    protected int getUnwrappedVertexCount(int vertexCount) {
+        return (vertexCount - 2) * 3;
+    }
+
+    public boolean isFull() {
+        return isFull(verticesPerFace);
     }
 
     public boolean isFull(int size) {
@@ -165,14 +275,18 @@ public abstract class Batch { //vertex consumer
 
 
     public static class MainFlatBatch extends Batch {
+        public static final Attributes[] ATTRIBUTES = {Attributes.POS, Attributes.TEXTURE_ID, Attributes.UV, Attributes.COLOR_RGBA};
+
         public MainFlatBatch() {
-            super(6, Attributes.POS, Attributes.TEXTURE_ID, Attributes.UV, Attributes.COLOR_RGBA);
+            super(6, ATTRIBUTES);
         }
     }
 
     public static class MainBatch extends Batch {
+        public static final Attributes[] ATTRIBUTES = {Attributes.POS, Attributes.TEXTURE_ID, Attributes.UV, Attributes.COLOR_RGBA, Attributes.NORMAL};
+
         public MainBatch() {
-            super(6, Attributes.POS, Attributes.TEXTURE_ID, Attributes.UV, Attributes.COLOR_RGBA, Attributes.NORMAL);
+            super(6, ATTRIBUTES);
         }
 
         @Override
@@ -186,8 +300,10 @@ public abstract class Batch { //vertex consumer
     }
 
     public static class LinesBatch extends Batch {
+        public static final Attributes[] ATTRIBUTES = {Attributes.POS, Attributes.COLOR_RGBA};
+
         public LinesBatch() {
-            super(8, Attributes.POS, Attributes.COLOR_RGBA);
+            super(8, ATTRIBUTES);
         }
 
         @Override
@@ -211,14 +327,28 @@ public abstract class Batch { //vertex consumer
         }
 
         @Override
-        protected int getUnwrappedVertexCount(Vertex[] vertices) {
-            return (vertices.length - 1) * 2 + 2;
+        protected void unwrapVertices(float[] face, int vertexCount, int texID) {
+            //same as the vertex objects
+            for (int i = 1; i < vertexCount; i++) {
+                putVertex(face, i - 1, texID);
+                putVertex(face, i, texID);
+            }
+
+            putVertex(face, 0, texID);
+            putVertex(face, vertexCount - 1, texID);
+        }
+
+        @Override
+        protected int getUnwrappedVertexCount(int vertexCount) {
+            return (vertexCount - 1) * 2 + 2;
         }
     }
 
     public static class ScreenSpaceUVBatch extends Batch {
+        public static final Attributes[] ATTRIBUTES = {Attributes.POS, Attributes.TEXTURE_ID, Attributes.COLOR_RGBA, Attributes.NORMAL};
+
         public ScreenSpaceUVBatch() {
-            super(6, Attributes.POS, Attributes.TEXTURE_ID, Attributes.COLOR_RGBA, Attributes.NORMAL);
+            super(6, ATTRIBUTES);
         }
     }
 }
@@ -4,14 +4,21 @@ import cinnamon.model.Vertex;
 import cinnamon.render.Camera;
 import cinnamon.render.shader.Shader;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 
 import static cinnamon.Client.LOGGER;
 
 public class BatchRenderer<T extends Batch> {
 
-    private final Batch[] batches = new Batch[32];
+    //only a warning, the batch list grows as needed
+    private static final int WARN_BATCHES = 32;
+
+    private final List<Batch> batches = new ArrayList<>();
     private final Supplier<T> factory;
+    //batches before this one are full
+    private int firstFree;
 
     public BatchRenderer(Supplier<T> factory) {
         this.factory = factory;
@@ -21,22 +28,70 @@ public class BatchRenderer<T extends Batch> {
         if (vertices == null || vertices.length == 0)
             return;
 
-        int i = 0;
-        for (; i < batches.length; i++) {
-            if (batches[i] == null)
-                break;
-            if (batches[i].pushFace(vertices, textureID))
+        for (int i = firstFree; i < batches.size(); i++) {
+            Batch batch = batches.get(i);
+            if (batch.pushFace(vertices, textureID))
+                return;
+
+            //skip full batches next time
+            if (i == firstFree && batch.isFull())
+                firstFree++;
+        }
+
+        //an empty batch already refused it, so the face is too big for any batch
+        if (!batches.isEmpty() && !batches.get(batches.size() - 1).hasFace())
+            return;
+
+        newBatch().pushFace(vertices, textureID);
+    }
+
+    public void consume(float[] face, int vertexCount, int textureID) {
+        if (vertexCount == 0)
+            return;
+
+        for (int i = firstFree; i < batches.size(); i++) {
+            Batch batch = batches.get(i);
+            if (batch.pushFace(face, vertexCount, textureID))
                 return;
+
+            //skip full batches next time
+            if (i == firstFree && batch.isFull())
+                firstFree++;
         }
 
-        if (i >= batches.length)
+        //an empty batch already refused it, so the face is too big for any batch
+        if (!batches.isEmpty() && !batches.get(batches.size() - 1).hasFace())
             return;
 
-        batches[i] = factory.get();
-        batches[i].pushFace(vertices, textureID);
+        newBatch().pushFace(face, vertexCount, textureID);
+    }
+
+    private Batch newBatch() {
+        Batch batch = factory.get();
+        batches.add(batch);
+
+        if (batches.size() == WARN_BATCHES)
+            LOGGER.warn("Renderer of %s has reached over %s batches!", batch.getClass().getSimpleName(), WARN_BATCHES);
 
-        if (i == batches.length - 1)
-            LOGGER.warn("Renderer of %s has reached over %s batches!", batches[i].getClass().getSimpleName(), batches.length);
+        return batch;
+    }
+
+    public void consumeRaw(float[] data, int vertexCount, int textureID) {
+        int offset = 0;
+
+        //fill the batches in order, spilling whatever does not fit into the next one
+        for (int i = firstFree; offset < vertexCount; i++) {
+            Batch batch = i < batches.size() ? batches.get(i) : newBatch();
+            int pushed = batch.pushRaw(data, offset, vertexCount - offset, textureID);
+
+            //a fresh batch that takes nothing would never take anything
+            if (pushed == 0 && !batch.hasFace())
+                break;
+
+            offset += pushed;
+            if (batch.isFull() && i == firstFree)
+                firstFree++;
+        }
     }
 
     public int render(Shader shader, Camera camera) {
@@ -45,9 +100,6 @@ public class BatchRenderer<T extends Batch> {
         int count = 0;
 
         for (Batch batch : batches) {
-            if (batch == null)
-                break;
-
             if (!batch.hasFace())
                 continue;
 
@@ -60,6 +112,7 @@ public class BatchRenderer<T extends Batch> {
 
             count += batch.render(shader);
         }
+        firstFree = 0;
 
         if (old != null)
             old.use();
@@ -68,20 +121,19 @@ public class BatchRenderer<T extends Batch> {
     }
 
     public void clear() {
-        for (Batch batch : batches) {
-            if (batch == null)
-                break;
+        for (Batch batch : batches)
             batch.clear();
-        }
+        firstFree = 0;
     }
 
     public void free() {
-        for (int i = 0; i < batches.length; i++) {
-            if (batches[i] == null)
-                break;
+        for (Batch batch : batches)
+            batch.free();
+        batches.clear();
+        firstFree = 0;
+    }
 
-            batches[i].free();
-            batches[i] = null;
-        }
+    public int getBatchCount() {
+        return batches.size();
     }
 }
@@ -0,0 +1,119 @@
+package cinnamon.render.batch;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.GL_MAP_WRITE_BIT;
+import static org.lwjgl.opengl.GL30.glMapBufferRange;
+import static org.lwjgl.opengl.GL32.*;
+import static org.lwjgl.opengl.GL44.*;
+
+/**
+ * A persistently mapped vertex buffer split into a ring of regions, each guarded by a fence
+ * data is copied straight into the mapped memory of the next free region, so the gpu can still be reading the previous ones
+ * requires OpenGL 4.4 (or ARB_buffer_storage)
+ */
+public class StreamBuffer {
+
+    private static final int FLAGS = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+    private static final long FENCE_TIMEOUT = 1_000_000L; //nanoseconds
+
+    private final int id;
+    private final long regionSize;
+    private final long address;
+    private final long[] fences;
+    private int region = -1;
+
+    public StreamBuffer(long regionSize, int regions) {
+        this.regionSize = regionSize;
+        this.fences = new long[regions];
+
+        this.id = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, id);
+        glBufferStorage(GL_ARRAY_BUFFER, regionSize * regions, FLAGS);
+
+        ByteBuffer mapped = glMapBufferRange(GL_ARRAY_BUFFER, 0, regionSize * regions, FLAGS);
+        if (mapped == null)
+            throw new IllegalStateException("Failed to map stream buffer");
+        this.address = MemoryUtil.memAddress(mapped);
+    }
+
+    public static boolean isSupported() {
+        GLCapabilities caps = GL.getCapabilities();
+        return caps.OpenGL44 || caps.GL_ARB_buffer_storage;
+    }
+
+    /**
+     * Copies the remaining data of the buffer into the next region, waiting for the gpu to be done with it first
+     * @return the byte offset of the written data
+     */
+    public long write(FloatBuffer data) {
+        long bytes = (long) data.remaining() * Float.BYTES;
+        if (bytes > regionSize)
+            throw new IllegalArgumentException("Data does not fit the stream region: " + bytes + " > " + regionSize);
+
+        region = (region + 1) % fences.length;
+        waitFence(region);
+
+        long offset = region * regionSize;
+        MemoryUtil.memCopy(MemoryUtil.memAddress(data), address + offset, bytes);
+        return offset;
+    }
+
+    /**
+     * Fences the last written region, must be called after the draw call that reads it
+     */
+    public void fence() {
+        if (region < 0)
+            return;
+
+        if (fences[region] != 0)
+            glDeleteSync(fences[region]);
+        fences[region] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+    }
+
+    private void waitFence(int region) {
+        long sync = fences[region];
+        if (sync == 0)
+            return;
+
+        //flush on the first wait, so the fence is guaranteed to signal
+        int result = glClientWaitSync(sync, GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT);
+        while (result == GL_TIMEOUT_EXPIRED)
+            result = glClientWaitSync(sync, 0, FENCE_TIMEOUT);
+
+        glDeleteSync(sync);
+        fences[region] = 0;
+    }
+
+    public void free() {
+        for (int i = 0; i < fences.length; i++) {
+            if (fences[i] != 0) {
+                glDeleteSync(fences[i]);
+                fences[i] = 0;
+            }
+        }
+
+        glBindBuffer(GL_ARRAY_BUFFER, id);
+        glUnmapBuffer(GL_ARRAY_BUFFER);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glDeleteBuffers(id);
+    }
+
+    public int getID() {
+        return id;
+    }
+
+    public long getRegionSize() {
+        return regionSize;
+    }
+
+    public int getRegions() {
+        return fences.length;
+    }
+}
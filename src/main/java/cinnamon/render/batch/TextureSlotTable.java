@@ -0,0 +1,110 @@
+package cinnamon.render.batch;
+
+import java.util.Arrays;
+
+/**
+ * Maps texture ids to sampler slots, in insertion order
+ * lookups go through a small open addressing table keyed by the texture id, with the last lookup cached
+ */
+public class TextureSlotTable {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private final int[] ids; //slot -> texture id
+    private final int[] keys, slots;
+    private final int mask;
+    private int size;
+
+    //consecutive faces usually share the same texture
+    private int lastID = EMPTY, lastSlot = -1;
+
+    public TextureSlotTable(int capacity) {
+        this.ids = new int[capacity];
+
+        //keep the table at most a quarter full
+        int tableSize = Integer.highestOneBit(Math.max(capacity * 4 - 1, 1)) << 1;
+        this.keys = new int[tableSize];
+        this.slots = new int[tableSize];
+        this.mask = tableSize - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * @return the slot of the texture, adding it if needed, or -1 if the table is full
+     */
+    public int put(int id) {
+        if (id == lastID)
+            return lastSlot;
+
+        int i = hash(id);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == id)
+                return cache(id, slots[i]);
+            i = (i + 1) & mask;
+        }
+
+        if (size >= ids.length)
+            return -1;
+
+        int slot = size++;
+        keys[i] = id;
+        slots[i] = slot;
+        ids[slot] = id;
+        return cache(id, slot);
+    }
+
+    /**
+     * @return the slot of the texture, or -1 if it is not in the table
+     */
+    public int get(int id) {
+        if (id == lastID)
+            return lastSlot;
+
+        for (int i = hash(id); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == id)
+                return cache(id, slots[i]);
+        }
+
+        return -1;
+    }
+
+    public boolean contains(int id) {
+        return get(id) != -1;
+    }
+
+    public int getID(int slot) {
+        return ids[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return ids.length;
+    }
+
+    public boolean isFull() {
+        return size >= ids.length;
+    }
+
+    public void clear() {
+        if (size == 0)
+            return;
+
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        lastID = EMPTY;
+        lastSlot = -1;
+    }
+
+    private int cache(int id, int slot) {
+        lastID = id;
+        lastSlot = slot;
+        return slot;
+    }
+
+    private int hash(int id) {
+        return (id * 0x9E3779B9 >>> 16) & mask;
+    }
+}
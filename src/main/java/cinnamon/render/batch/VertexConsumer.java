@@ -2,10 +2,12 @@ package cinnamon.render.batch;
 
 import cinnamon.model.Vertex;
 import cinnamon.render.Camera;
+import cinnamon.render.MatrixStack;
 import cinnamon.render.batch.Batch.LinesBatch;
 import cinnamon.render.batch.Batch.MainBatch;
 import cinnamon.render.batch.Batch.MainFlatBatch;
 import cinnamon.render.batch.Batch.ScreenSpaceUVBatch;
+import cinnamon.render.shader.Attributes;
 import cinnamon.render.shader.Shader;
 import cinnamon.render.shader.Shaders;
 import cinnamon.render.texture.Texture;
@@ -14,18 +16,30 @@ import cinnamon.utils.Resource;
 import java.util.function.Supplier;
 
 public enum VertexConsumer {
-    MAIN(MainFlatBatch::new, Shaders.MAIN),
-    WORLD_MAIN(MainBatch::new, Shaders.WORLD_MAIN),
-    WORLD_MAIN_EMISSIVE(MainBatch::new, Shaders.WORLD_MAIN_EMISSIVE),
-    LINES(LinesBatch::new, Shaders.LINES),
-    SCREEN_UV(ScreenSpaceUVBatch::new, Shaders.SCREEN_SPACE_UV);
+    MAIN(MainFlatBatch::new, MainFlatBatch.ATTRIBUTES, Shaders.MAIN),
+    WORLD_MAIN(MainBatch::new, MainBatch.ATTRIBUTES, Shaders.WORLD_MAIN),
+    WORLD_MAIN_EMISSIVE(MainBatch::new, MainBatch.ATTRIBUTES, Shaders.WORLD_MAIN_EMISSIVE),
+    LINES(LinesBatch::new, LinesBatch.ATTRIBUTES, Shaders.LINES),
+    SCREEN_UV(ScreenSpaceUVBatch::new, ScreenSpaceUVBatch.ATTRIBUTES, Shaders.SCREEN_SPACE_UV);
 
     private final BatchRenderer<Batch> renderer;
+    private final Attributes[] attributes;
     private final Shaders shader;
+    private final VertexEmitter emitter;
 
-    VertexConsumer(Supplier<Batch> factory, Shaders shader) {
+    VertexConsumer(Supplier<Batch> factory, Attributes[] attributes, Shaders shader) {
         this.renderer = new BatchRenderer<>(factory);
+        this.attributes = attributes;
         this.shader = shader;
+        this.emitter = new VertexEmitter(renderer, attributes);
+    }
+
+    /**
+     * Starts emitting a face straight into the batches of this consumer
+     * @see VertexEmitter
+     */
+    public VertexEmitter begin(MatrixStack matrices) {
+        return emitter.begin(matrices);
     }
 
     public void consume(Vertex[] vertices) {
@@ -33,7 +47,7 @@ public enum VertexConsumer {
     }
 
     public void consume(Vertex[] vertices, Resource texture, Texture.TextureParams... params) {
-        consume(vertices, Texture.of(texture, params).getID());
+        consume(vertices, Texture.ofAsync(texture, params).getID());
     }
 
     public void consume(Vertex[] vertices, int texture) {
@@ -45,7 +59,7 @@ public enum VertexConsumer {
     }
 
     public void consume(Vertex[][] vertices, Resource texture, Texture.TextureParams... params) {
-        consume(vertices, Texture.of(texture, params).getID());
+        consume(vertices, Texture.ofAsync(texture, params).getID());
     }
 
     public void consume(Vertex[][] vertices, int texture) {
@@ -53,6 +67,22 @@ public enum VertexConsumer {
             consume(vertex, texture);
     }
 
+    public void consumeRaw(float[] data, int vertexCount, Resource texture, Texture.TextureParams... params) {
+        consumeRaw(data, vertexCount, Texture.ofAsync(texture, params).getID());
+    }
+
+    public void consumeRaw(float[] data, int vertexCount, int texture) {
+        if (vertexCount > 0)
+            renderer.consumeRaw(data, vertexCount, texture);
+    }
+
+    /**
+     * @return the vertex layout expected by {@link #consumeRaw(float[], int, int)}
+     */
+    public Attributes[] getAttributes() {
+        return attributes;
+    }
+
     public int finishBatch(Camera camera) {
         return finishBatch(shader.getShader(), camera);
     }
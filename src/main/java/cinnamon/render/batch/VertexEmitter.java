@@ -0,0 +1,103 @@
+package cinnamon.render.batch;
+
+import cinnamon.model.Vertex;
+import cinnamon.render.MatrixStack;
+import cinnamon.render.shader.Attributes;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Writes faces in the vertex layout of a consumer, with the pose applied inline, without creating {@link Vertex} objects
+ * the faces are unwrapped by the batch the same way as {@link VertexConsumer#consume(Vertex[], int)}
+ * <br>
+ * usage: {@code consumer.begin(matrices).color(color).vertex(...).vertex(...).vertex(...).endFace(texture)}
+ */
+public class VertexEmitter {
+
+    private static final Matrix4f IDENTITY_POS = new Matrix4f();
+    private static final Matrix3f IDENTITY_NORMAL = new Matrix3f();
+
+    private final BatchRenderer<Batch> renderer;
+    private final Attributes[] attributes;
+    private final int vertexSize;
+
+    //current face
+    private float[] face;
+    private int vertexCount;
+
+    //current state
+    private Matrix4f pos = IDENTITY_POS;
+    private Matrix3f normalMat = IDENTITY_NORMAL;
+    private final Vector3f vec = new Vector3f();
+    private float r, g, b, a;
+    private float nx, ny, nz;
+
+    VertexEmitter(BatchRenderer<Batch> renderer, Attributes[] attributes) {
+        this.renderer = renderer;
+        this.attributes = attributes;
+        this.vertexSize = Attributes.getVertexSize(attributes);
+        this.face = new float[vertexSize * 8];
+    }
+
+    /**
+     * Starts a new face, transformed by the current pose of the matrices, or untransformed when null
+     * color and normal are reset to the {@link Vertex} defaults
+     */
+    public VertexEmitter begin(MatrixStack matrices) {
+        if (matrices != null) {
+            MatrixStack.Pose pose = matrices.peek();
+            pos = pose.pos();
+            normalMat = pose.normal();
+        } else {
+            pos = IDENTITY_POS;
+            normalMat = IDENTITY_NORMAL;
+        }
+
+        vertexCount = 0;
+        r = g = b = a = 1f;
+        Vector3f n = Vertex.DEFAULT_NORMAL;
+        return normal(n.x, n.y, n.z);
+    }
+
+    public VertexEmitter color(int color) {
+        //same as Vertex.color(int)
+        a = (color >> 24 & 0xFF) / 255f;
+        r = (color >> 16 & 0xFF) / 255f;
+        g = (color >> 8 & 0xFF) / 255f;
+        b = (color & 0xFF) / 255f;
+        return this;
+    }
+
+    public VertexEmitter normal(float x, float y, float z) {
+        vec.set(x, y, z).normalize().mul(normalMat);
+        nx = vec.x; ny = vec.y; nz = vec.z;
+        return this;
+    }
+
+    public VertexEmitter vertex(float x, float y, float z) {
+        return vertex(x, y, z, 0f, 0f);
+    }
+
+    public VertexEmitter vertex(float x, float y, float z, float u, float v) {
+        if ((vertexCount + 1) * vertexSize > face.length)
+            face = Arrays.copyOf(face, face.length * 2);
+
+        vec.set(x, y, z).mulPosition(pos);
+        Attributes.putVertex(face, vertexCount * vertexSize, attributes, vec.x, vec.y, vec.z, u, v, r, g, b, a, nx, ny, nz);
+        vertexCount++;
+        return this;
+    }
+
+    /**
+     * Pushes the current face to the batches, and starts a new one with the same state
+     * @param texture the texture id, or -1 for none
+     */
+    public VertexEmitter endFace(int texture) {
+        renderer.consume(face, vertexCount, texture);
+        vertexCount = 0;
+        return this;
+    }
+}
@@ -52,8 +52,12 @@ public class ShadowCubemapFramebuffer extends Framebuffer {
     }
 
     public void bindCubemap(int texTarget) {
+        bindCubemap(texTarget, true);
+    }
+
+    public void bindCubemap(int texTarget, boolean clear) {
         glFramebufferTexture2D(GL_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, texTarget, depthCube, 0);
-        clear();
+        if (clear) clear();
     }
 
     public int getCubemap() {
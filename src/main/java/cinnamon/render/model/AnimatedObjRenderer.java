@@ -29,7 +29,11 @@ public class AnimatedObjRenderer extends ObjRenderer {
     }
 
     public AnimatedObjRenderer(Mesh mesh) {
-        super(mesh);
+        this(mesh, bake(mesh));
+    }
+
+    public AnimatedObjRenderer(Mesh mesh, List<BakedGroup> groups) {
+        super(mesh, groups);
         this.bone = mesh.getAnimationData().first();
         this.animations = new HashMap<>();
         for (Animation animation : mesh.getAnimationData().second())
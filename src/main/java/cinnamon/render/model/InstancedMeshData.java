@@ -4,29 +4,27 @@ import cinnamon.math.collision.shape.AABB;
 import cinnamon.model.Vertex;
 import cinnamon.model.material.Material;
 import cinnamon.render.MatrixStack;
-import org.joml.Matrix3f;
-import org.joml.Matrix4f;
-import org.joml.Vector3f;
-import org.joml.Vector4f;
 import org.lwjgl.BufferUtils;
 
 import java.nio.FloatBuffer;
 import java.util.Collection;
 
 import static org.lwjgl.opengl.GL15.*;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
 import static org.lwjgl.opengl.GL30.glBindVertexArray;
 import static org.lwjgl.opengl.GL31.glDrawElementsInstanced;
-import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
 
 public class InstancedMeshData extends MeshData {
 
     protected final int instanceVBO;
     protected int count;
+    private FloatBuffer matrixBuffer;
 
     public InstancedMeshData(AABB aabb, Collection<Vertex> vertices, int[] indices, Material material) {
-        super(aabb, vertices, indices, material);
+        this(aabb, toVertexData(vertices, DEFAULT_ATTRIBUTES), indices, material);
+    }
+
+    public InstancedMeshData(AABB aabb, float[] vertexData, int[] indices, Material material) {
+        super(aabb, vertexData, indices, material);
         instanceVBO = genInstanceBuffer(attributeCount);
         attributeCount += 7; //4 attributes for the pos matrix and 3 for the normal matrix
     }
@@ -39,33 +37,7 @@ public class InstancedMeshData extends MeshData {
         int vbo = glGenBuffers();
         glBindBuffer(GL_ARRAY_BUFFER, vbo);
 
-        int stride = Matrix4f.BYTES + Matrix3f.BYTES;
-        int location = startLoaction;
-        long offset = 0;
-
-        //create and set attribute pointer for pos matrix (4 vec4)
-        for (int i = 0; i < 4; i++) {
-            //attribute index
-            glEnableVertexAttribArray(location);
-            glVertexAttribPointer(location, 4, GL_FLOAT, false, stride, offset);
-            glVertexAttribDivisor(location, 1);
-
-            //next attribute
-            location++;
-            offset += Vector4f.BYTES;
-        }
-
-        //create and set attribute pointer for normal matrix (3 vec3)
-        for (int i = 0; i < 3; i++) {
-            //attribute index
-            glEnableVertexAttribArray(location);
-            glVertexAttribPointer(location, 3, GL_FLOAT, false, stride, offset);
-            glVertexAttribDivisor(location, 1);
-
-            //next attribute
-            location++;
-            offset += Vector3f.BYTES;
-        }
+        bindInstanceAttributes(startLoaction);
 
         glBindVertexArray(0);
         return vbo;
@@ -74,9 +46,11 @@ public class InstancedMeshData extends MeshData {
     public void updateInstanceBuffer(Collection<MatrixStack.Pose> matrices) {
         count = matrices.size();
 
-        //prepare buffer
+        //prepare buffer, reused while it fits
         int capacity = count * (16 + 9);
-        FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(capacity);
+        if (matrixBuffer == null || matrixBuffer.capacity() < capacity)
+            matrixBuffer = BufferUtils.createFloatBuffer(capacity);
+        matrixBuffer.clear();
 
         //extract matrices to the buffer
         for (MatrixStack.Pose matrix : matrices) {
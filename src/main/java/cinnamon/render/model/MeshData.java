@@ -4,27 +4,49 @@ import cinnamon.math.collision.shape.AABB;
 import cinnamon.model.Vertex;
 import cinnamon.model.material.Material;
 import cinnamon.render.shader.Attributes;
-import org.lwjgl.BufferUtils;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
 
 import java.nio.FloatBuffer;
 import java.util.Collection;
 
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
 import static org.lwjgl.opengl.GL30.glBindVertexArray;
 import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
 import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+import static org.lwjgl.opengl.GL42.glDrawElementsInstancedBaseInstance;
+import static org.lwjgl.opengl.GL43.glBindVertexBuffer;
+import static org.lwjgl.opengl.GL43.glVertexAttribBinding;
+import static org.lwjgl.opengl.GL43.glVertexAttribFormat;
+import static org.lwjgl.opengl.GL43.glVertexBindingDivisor;
 
 public class MeshData {
 
     public static final Attributes[] DEFAULT_ATTRIBUTES = {Attributes.POS, Attributes.UV_FLIP, Attributes.NORMAL, Attributes.TANGENTS};
+    public static final int INSTANCE_STRIDE = Matrix4f.BYTES + Matrix3f.BYTES;
+
+    //vertex buffer binding point of the shared instance buffer, away from the ones implied by the mesh attribute pointers
+    private static final int INSTANCE_BINDING = 15;
 
     protected final int vao, vbo, ebo, indicesCount;
     protected int attributeCount;
     private final Material material;
     private final AABB aabb = new AABB();
+    private boolean instanceFormat;
 
     public MeshData(AABB aabb, Collection<Vertex> vertices, int[] indices, Material material) {
+        this(aabb, toVertexData(vertices, DEFAULT_ATTRIBUTES), indices, material);
+    }
+
+    /**
+     * @param vertexData the interleaved vertex data, in the {@link #DEFAULT_ATTRIBUTES} layout
+     */
+    public MeshData(AABB aabb, float[] vertexData, int[] indices, Material material) {
         this.indicesCount = indices.length;
         this.material = material;
         this.aabb.set(aabb);
@@ -35,7 +57,7 @@ public class MeshData {
 
         //vbo
         this.attributeCount = DEFAULT_ATTRIBUTES.length;
-        this.vbo = generateVertexBuffer(vertices, DEFAULT_ATTRIBUTES);
+        this.vbo = generateVertexBuffer(vertexData, DEFAULT_ATTRIBUTES);
 
         //ebo
         this.ebo = generateIndices(indices);
@@ -43,33 +65,30 @@ public class MeshData {
         glBindVertexArray(0);
     }
 
-    protected static int generateVertexBuffer(Collection<Vertex> vertices, Attributes... flags) {
-        int vertexSize = Attributes.getVertexSize(flags);
-        int capacity = vertices.size() * vertexSize;
+    protected static float[] toVertexData(Collection<Vertex> vertices, Attributes... flags) {
+        float[] data = new float[vertices.size() * Attributes.getVertexSize(flags)];
+        FloatBuffer buffer = FloatBuffer.wrap(data);
+
+        //push vertices to buffer
+        for (Vertex vertex : vertices)
+            Attributes.pushVertex(buffer, vertex, 0, flags);
 
+        return data;
+    }
+
+    protected static int generateVertexBuffer(float[] vertexData, Attributes... flags) {
         //vbo
         int vbo = glGenBuffers();
         glBindBuffer(GL_ARRAY_BUFFER, vbo);
-        glBufferData(GL_ARRAY_BUFFER, (long) capacity * Float.BYTES, GL_STATIC_DRAW);
+        glBufferData(GL_ARRAY_BUFFER, vertexData, GL_STATIC_DRAW);
 
         //load vertex attributes
-        Attributes.load(flags, vertexSize);
+        Attributes.load(flags, Attributes.getVertexSize(flags));
 
         //enable attributes
         for (int i = 0; i < flags.length; i++)
             glEnableVertexAttribArray(i);
 
-        //different buffer per group
-        FloatBuffer buffer = BufferUtils.createFloatBuffer(capacity);
-
-        //push vertices to buffer
-        for (Vertex vertex : vertices)
-            Attributes.pushVertex(buffer, vertex, 0, flags);
-
-        //bind buffer to the current VBO
-        buffer.rewind();
-        glBufferSubData(GL_ARRAY_BUFFER, 0, buffer);
-
         return vbo;
     }
 
@@ -80,12 +99,86 @@ public class MeshData {
         return ebo;
     }
 
+    /**
+     * Sets the per instance attributes, a pos matrix (4 vec4) followed by a normal matrix (3 vec3), to the currently bound array buffer
+     * @return the next free attribute location
+     */
+    protected static int bindInstanceAttributes(int location) {
+        long offset = 0;
+
+        //create and set attribute pointer for pos matrix (4 vec4)
+        for (int i = 0; i < 4; i++) {
+            //attribute index
+            glEnableVertexAttribArray(location);
+            glVertexAttribPointer(location, 4, GL_FLOAT, false, INSTANCE_STRIDE, offset);
+            glVertexAttribDivisor(location, 1);
+
+            //next attribute
+            location++;
+            offset += Vector4f.BYTES;
+        }
+
+        //create and set attribute pointer for normal matrix (3 vec3)
+        for (int i = 0; i < 3; i++) {
+            //attribute index
+            glEnableVertexAttribArray(location);
+            glVertexAttribPointer(location, 3, GL_FLOAT, false, INSTANCE_STRIDE, offset);
+            glVertexAttribDivisor(location, 1);
+
+            //next attribute
+            location++;
+            offset += Vector3f.BYTES;
+        }
+
+        return location;
+    }
+
     public void render() {
         glBindVertexArray(vao);
         glDrawElements(GL_TRIANGLES, indicesCount, GL_UNSIGNED_INT, 0);
         glBindVertexArray(0);
     }
 
+    /**
+     * Same layout as {@link #bindInstanceAttributes(int)}, but reading from the {@link #INSTANCE_BINDING} binding point instead of a fixed buffer
+     */
+    private static void formatInstanceAttributes(int location) {
+        int offset = 0;
+
+        //pos matrix (4 vec4)
+        for (int i = 0; i < 4; i++, location++, offset += Vector4f.BYTES) {
+            glEnableVertexAttribArray(location);
+            glVertexAttribFormat(location, 4, GL_FLOAT, false, offset);
+            glVertexAttribBinding(location, INSTANCE_BINDING);
+        }
+
+        //normal matrix (3 vec3)
+        for (int i = 0; i < 3; i++, location++, offset += Vector3f.BYTES) {
+            glEnableVertexAttribArray(location);
+            glVertexAttribFormat(location, 3, GL_FLOAT, false, offset);
+            glVertexAttribBinding(location, INSTANCE_BINDING);
+        }
+
+        glVertexBindingDivisor(INSTANCE_BINDING, 1);
+    }
+
+    /**
+     * Draws this mesh once per instance, reading the instance matrices from a shared buffer
+     * the attribute format is set up once, but the buffer is bound on every draw, since a freed buffer name can be handed out again
+     */
+    public void renderInstanced(int instanceVBO, int baseInstance, int count) {
+        glBindVertexArray(vao);
+
+        if (!instanceFormat) {
+            formatInstanceAttributes(DEFAULT_ATTRIBUTES.length);
+            instanceFormat = true;
+        }
+        glBindVertexBuffer(INSTANCE_BINDING, instanceVBO, 0, INSTANCE_STRIDE);
+
+        glDrawElementsInstancedBaseInstance(GL_TRIANGLES, indicesCount, GL_UNSIGNED_INT, 0, count, baseInstance);
+        glBindVertexArray(0);
+    }
+
     public void free() {
         glDeleteVertexArrays(vao);
         glDeleteBuffers(vbo);
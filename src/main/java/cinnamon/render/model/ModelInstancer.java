@@ -0,0 +1,205 @@
+package cinnamon.render.model;
+
+import cinnamon.model.material.Material;
+import cinnamon.render.MatrixStack;
+import cinnamon.render.shader.Shader;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL15.*;
+
+/**
+ * Groups model draws by (model, material, layers) and renders each group with a single instanced draw per mesh
+ * the instance matrices of every group are packed into one reusable buffer, so a flush costs a single upload
+ * requires a shader with the instance attributes and an "instanced" uniform, see {@link #isSupported(Shader)}
+ * the layers are passed as the "layerMask" uniform, for shaders drawing to several layers at once
+ */
+public class ModelInstancer {
+
+    //pos matrix (16) + normal matrix (9)
+    public static final int INSTANCE_FLOATS = 16 + 9;
+    public static final int ALL_LAYERS = -1;
+
+    private final Map<ModelRenderer, Group> groups = new IdentityHashMap<>();
+    private final List<Group> active = new ArrayList<>();
+    private Group last;
+    private int instances;
+    private int layers = ALL_LAYERS;
+
+    private FloatBuffer buffer;
+    private int vbo;
+    private long vboSize;
+
+    public static boolean isSupported(Shader shader) {
+        return shader != null && shader.hasUniform("instanced");
+    }
+
+    public void add(ModelRenderer model, Material material, MatrixStack.Pose pose) {
+        add(model, material, pose.pos(), pose.normal());
+    }
+
+    /**
+     * Sets the layers the next added instances are drawn to
+     */
+    public void setLayers(int layers) {
+        this.layers = layers;
+    }
+
+    public void add(ModelRenderer model, Material material, Matrix4f pos, Matrix3f normal) {
+        Group group = getGroup(model, material, layers);
+        if (group.count == 0)
+            active.add(group);
+
+        group.add(pos, normal);
+        instances++;
+    }
+
+    private Group getGroup(ModelRenderer model, Material material, int layers) {
+        //consecutive terrain usually shares the same model
+        if (last != null && last.model == model && last.material == material && last.layers == layers)
+            return last;
+
+        //each model holds a short chain of material and layer variants
+        Group head = groups.get(model);
+        for (Group g = head; g != null; g = g.next) {
+            if (g.material == material && g.layers == layers)
+                return last = g;
+        }
+
+        Group group = new Group(model, material, layers);
+        group.next = head;
+        groups.put(model, group);
+        return last = group;
+    }
+
+    /**
+     * Packs the instances of every group back to back, in the order the groups were first added
+     * @return the packed buffer, ready to be uploaded
+     */
+    public FloatBuffer pack() {
+        int floats = instances * INSTANCE_FLOATS;
+        if (buffer == null || buffer.capacity() < floats)
+            buffer = BufferUtils.createFloatBuffer(Math.max(floats + floats / 2, INSTANCE_FLOATS * 64));
+
+        buffer.clear();
+        int base = 0;
+        for (Group group : active) {
+            group.baseInstance = base;
+            buffer.put(group.data, 0, group.count * INSTANCE_FLOATS);
+            base += group.count;
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * Uploads and draws all added instances with the active shader, then clears the groups
+     * @return the amount of instanced draw calls
+     */
+    public int render() {
+        if (instances == 0)
+            return 0;
+
+        FloatBuffer data = pack();
+
+        //orphan the previous data, growing the buffer when needed
+        if (vbo == 0)
+            vbo = glGenBuffers();
+
+        long bytes = (long) data.remaining() * Float.BYTES;
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        if (bytes > vboSize)
+            vboSize = (long) buffer.capacity() * Float.BYTES;
+        glBufferData(GL_ARRAY_BUFFER, vboSize, GL_STREAM_DRAW);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, data);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        Shader s = Shader.activeShader;
+        s.setBool("instanced", true);
+        boolean layered = s.hasUniform("layerMask");
+        int lastLayers = ALL_LAYERS;
+
+        int draws = 0;
+        for (Group group : active) {
+            if (group.model.isFreed()) {
+                groups.remove(group.model);
+                last = null;
+                continue;
+            }
+
+            if (layered && group.layers != lastLayers)
+                s.setInt("layerMask", lastLayers = group.layers);
+            draws += group.model.renderInstanced(group.material, vbo, group.baseInstance, group.count);
+        }
+
+        if (layered && lastLayers != ALL_LAYERS)
+            s.setInt("layerMask", ALL_LAYERS);
+        s.setBool("instanced", false);
+        clear();
+        return draws;
+    }
+
+    public void clear() {
+        for (Group group : active)
+            group.count = 0;
+        active.clear();
+        instances = 0;
+        layers = ALL_LAYERS;
+    }
+
+    public void free() {
+        clear();
+        groups.clear();
+        last = null;
+        buffer = null;
+
+        if (vbo != 0) {
+            glDeleteBuffers(vbo);
+            vbo = 0;
+            vboSize = 0;
+        }
+    }
+
+    public int getInstanceCount() {
+        return instances;
+    }
+
+    public int getGroupCount() {
+        return active.size();
+    }
+
+    private static class Group {
+
+        private final ModelRenderer model;
+        private final Material material;
+        private final int layers;
+        private Group next;
+
+        private float[] data = new float[INSTANCE_FLOATS * 16];
+        private int count, baseInstance;
+
+        private Group(ModelRenderer model, Material material, int layers) {
+            this.model = model;
+            this.material = material;
+            this.layers = layers;
+        }
+
+        private void add(Matrix4f pos, Matrix3f normal) {
+            int i = count * INSTANCE_FLOATS;
+            if (i + INSTANCE_FLOATS > data.length)
+                data = Arrays.copyOf(data, data.length * 2);
+
+            pos.get(data, i);
+            normal.get(data, i + 16);
+            count++;
+        }
+    }
+}
@@ -43,6 +43,23 @@ public abstract class ModelRenderer {
             renderMesh(mesh, material);
     }
 
+    /**
+     * Draws every mesh once per instance, using the instance matrices of the given buffer range
+     * @return the amount of draw calls
+     */
+    public int renderInstanced(Material material, int instanceVBO, int baseInstance, int count) {
+        if (isFreed())
+            return 0;
+
+        for (MeshData mesh : meshes.values()) {
+            Material mat = material == null ? mesh.getMaterial() : material;
+            MaterialApplier.applyMaterial(mat == null ? MaterialRegistry.MISSING : mat, 0);
+            mesh.renderInstanced(instanceVBO, baseInstance, count);
+        }
+
+        return meshes.size();
+    }
+
     public void renderWithoutMaterial(MatrixStack matrices) {
         Shader.activeShader.applyMatrixStack(matrices);
         for (MeshData mesh : meshes.values())
@@ -82,4 +99,8 @@ public abstract class ModelRenderer {
     protected MeshData generateMesh(AABB aabb, Collection<Vertex> vertices, int[] indices, Material material) {
         return new MeshData(aabb, vertices, indices, material);
     }
+
+    protected MeshData generateMesh(AABB aabb, float[] vertexData, int[] indices, Material material) {
+        return new MeshData(aabb, vertexData, indices, material);
+    }
 }
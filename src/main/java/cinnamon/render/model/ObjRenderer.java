@@ -1,12 +1,12 @@
 package cinnamon.render.model;
 
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.model.MeshBuilder;
 import cinnamon.model.Vertex;
-import cinnamon.model.VertexHelper;
 import cinnamon.model.material.Material;
 import cinnamon.model.obj.Face;
 import cinnamon.model.obj.Group;
 import cinnamon.model.obj.Mesh;
-import cinnamon.utils.Pair;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static cinnamon.events.Events.LOGGER;
 
@@ -28,87 +29,116 @@ public class ObjRenderer extends ModelRenderer {
     }
 
     public ObjRenderer(Mesh mesh) {
-        super(new HashMap<>(mesh.getGroups().size(), 1f));
-        this.mesh = mesh;
-        bakeModel();
+        this(mesh, bake(mesh));
     }
 
-    protected void bakeModel() {
-        //grab mesh data
-        List<Vector3f> vertices = mesh.getVertices();
-        List<Vector2f> uvs = mesh.getUVs();
-        List<Vector3f> normals = mesh.getNormals();
-
-        //iterate groups
-        for (Group group : mesh.getGroups()) {
-            //vertex list and capacity
-            List<Vertex> sortedVertices = new ArrayList<>();
+    /**
+     * @param groups the groups baked by {@link #bake(Mesh)}, only uploaded here
+     */
+    public ObjRenderer(Mesh mesh, List<BakedGroup> groups) {
+        super(new HashMap<>(groups.size(), 1f));
+        this.mesh = mesh;
+        uploadModel(groups);
+    }
 
-            //iterate faces
-            for (Face face : group.getFaces()) {
-                //indexes
-                List<Integer> v = face.getVertices();
-                List<Integer> vt = face.getUVs();
-                List<Integer> vn = face.getNormals();
+    protected void uploadModel(List<BakedGroup> groups) {
+        for (BakedGroup group : groups) {
+            //create a new group with the OpenGL attributes
+            MeshData groupData = generateMesh(group.bounds(), group.vertexData(), group.indices(), group.material());
 
-                //vertex list
-                List<Vertex> data = new ArrayList<>();
+            String groupName = group.name();
+            String newName = groupName;
+            for (int i = 1; this.meshes.containsKey(newName); i++)
+                newName = groupName + "_" + i;
 
-                for (int i = 0; i < v.size(); i++) {
-                    //parse indexes to their actual values
-                    Vector3f a = vertices.get(v.get(i));
-                    Vector2f b = !vt.isEmpty() ? uvs.get(vt.get(i)) : Vertex.DEFAULT_UV;
-                    Vector3f c = !vn.isEmpty() ? normals.get(vn.get(i)) : Vertex.DEFAULT_NORMAL;
+            this.meshes.put(newName, groupData);
+        }
 
-                    //add to vertex list
-                    data.add(new Vertex().pos(a).uv(b).normal(c));
-                }
+        this.aabb.set(mesh.getBounds());
+    }
 
-                //triangulate the faces using ear clipping
-                List<Vertex> sorted = VertexHelper.triangulate(data);
+    /**
+     * Bakes the vertex data of every group of the mesh, without touching OpenGL, so it is safe to call from any thread
+     * the groups are independent, so they are baked in parallel
+     * @return the non-empty baked groups, in the mesh order
+     */
+    public static List<BakedGroup> bake(Mesh mesh) {
+        List<Group> groups = mesh.getGroups();
+
+        //nothing to split
+        if (groups.size() == 1) {
+            BakedGroup group = bakeGroup(mesh, groups.get(0));
+            return group == null ? List.of() : List.of(group);
+        }
 
-                //add data to the vertex list
-                sortedVertices.addAll(sorted);
-            }
+        List<CompletableFuture<BakedGroup>> futures = new ArrayList<>(groups.size());
+        for (Group group : groups)
+            futures.add(CompletableFuture.supplyAsync(() -> bakeGroup(mesh, group)));
 
-            //skip empty groups
-            if (sortedVertices.isEmpty())
-                continue;
+        List<BakedGroup> baked = new ArrayList<>(groups.size());
+        for (CompletableFuture<BakedGroup> future : futures) {
+            BakedGroup group = future.join();
+            if (group != null)
+                baked.add(group);
+        }
 
-            //default angle threshold for smoothing
-            float angleThreshold = 45f;
+        return baked;
+    }
 
-            //generate normals when missing
-            if (normals.isEmpty()) {
-                LOGGER.debug("Calculating normals for group \"%s\"", group.getName());
-                VertexHelper.calculateFlatNormals(sortedVertices);
-                VertexHelper.smoothNormals(sortedVertices, angleThreshold);
-            }
+    private static BakedGroup bakeGroup(Mesh mesh, Group group) {
+        //grab mesh data
+        List<Vector3f> vertices = mesh.getVertices();
+        List<Vector2f> uvs = mesh.getUVs();
+        List<Vector3f> normals = mesh.getNormals();
 
-            //generate uvs when missing
-            if (uvs.isEmpty()) {
-                LOGGER.debug("Calculating uvs for group \"%s\"", group.getName());
-                VertexHelper.calculateUVs(group.getBounds().getMin(), group.getBounds().getMax(), sortedVertices);
+        MeshBuilder builder = new MeshBuilder();
+
+        //iterate faces
+        for (Face face : group.getFaces()) {
+            //indexes
+            List<Integer> v = face.getVertices();
+            List<Integer> vt = face.getUVs();
+            List<Integer> vn = face.getNormals();
+
+            int first = builder.getCornerCount();
+            for (int i = 0; i < v.size(); i++) {
+                //parse indexes to their actual values
+                Vector3f a = vertices.get(v.get(i));
+                Vector2f b = !vt.isEmpty() ? uvs.get(vt.get(i)) : Vertex.DEFAULT_UV;
+                Vector3f c = !vn.isEmpty() ? normals.get(vn.get(i)) : Vertex.DEFAULT_NORMAL;
+                builder.addCorner(a, b, c);
             }
 
-            //calculate tangents
-            VertexHelper.calculateTangents(sortedVertices, angleThreshold);
+            //triangulate the faces using ear clipping
+            builder.triangulate(first, v.size());
+        }
 
-            //strip the unique indices from the vertex list
-            Pair<int[], List<Vertex>> indices = VertexHelper.stripIndices(sortedVertices);
+        //skip empty groups
+        if (builder.isEmpty())
+            return null;
 
-            //create a new group with the OpenGL attributes
-            MeshData groupData = generateMesh(group.getBounds(), indices.second(), indices.first(), group.getMaterial());
+        //default angle threshold for smoothing
+        float angleThreshold = 45f;
 
-            String groupName = group.getName();
-            String newName = groupName;
-            for (int i = 1; this.meshes.containsKey(newName); i++)
-                newName = groupName + "_" + i;
+        //generate normals when missing
+        if (normals.isEmpty()) {
+            LOGGER.debug("Calculating normals for group \"%s\"", group.getName());
+            builder.calculateFlatNormals();
+            builder.smoothNormals(angleThreshold);
+        }
 
-            this.meshes.put(newName, groupData);
+        //generate uvs when missing
+        if (uvs.isEmpty()) {
+            LOGGER.debug("Calculating uvs for group \"%s\"", group.getName());
+            builder.calculateUVs(group.getBounds().getMin(), group.getBounds().getMax());
         }
 
-        this.aabb.set(mesh.getBounds());
+        //calculate tangents
+        builder.calculateTangents(angleThreshold);
+
+        //strip the unique indices from the vertex list
+        int[] indices = builder.stripIndices();
+        return new BakedGroup(group.getName(), group.getBounds(), group.getMaterial(), builder.getVertexData(MeshData.DEFAULT_ATTRIBUTES), indices);
     }
 
     public Mesh getMesh() {
@@ -119,4 +149,10 @@ public class ObjRenderer extends ModelRenderer {
     public Map<String, Material> getMaterials() {
         return mesh.getMaterials();
     }
+
+    /**
+     * A group ready to be uploaded
+     * @param vertexData the unique vertices, in the {@link MeshData#DEFAULT_ATTRIBUTES} layout
+     */
+    public record BakedGroup(String name, AABB bounds, Material material, float[] vertexData, int[] indices) {}
 }
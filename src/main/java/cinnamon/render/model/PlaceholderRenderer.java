@@ -0,0 +1,47 @@
+package cinnamon.render.model;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.model.material.Material;
+import cinnamon.render.MatrixStack;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stands in for a model while it is loaded in the background, as the missing texture does for textures
+ * draws nothing, and has the same unit bounds used for objects without a model
+ */
+public class PlaceholderRenderer extends ModelRenderer {
+
+    private final Runnable finish;
+
+    public PlaceholderRenderer(Runnable finish) {
+        super(Map.of());
+        this.finish = finish;
+        this.aabb.set(-0.5f, 0f, -0.5f, 0.5f, 1f, 0.5f);
+    }
+
+    /**
+     * Blocks until the model is loaded, for when it is needed right away
+     * only safe to call from the main thread
+     */
+    public void finish() {
+        finish.run();
+    }
+
+    @Override
+    public void render(MatrixStack matrices, Material material) {}
+
+    @Override
+    public void renderWithoutMaterial(MatrixStack matrices) {}
+
+    @Override
+    public List<AABB> getPreciseAABB() {
+        return List.of(getAABB());
+    }
+
+    @Override
+    public Map<String, Material> getMaterials() {
+        return Map.of();
+    }
+}
@@ -30,4 +30,9 @@ public class StaticModelRenderer extends ObjRenderer {
     protected MeshData generateMesh(AABB aabb, Collection<Vertex> vertices, int[] indices, Material material) {
         return new InstancedMeshData(aabb, vertices, indices, material);
     }
+
+    @Override
+    protected MeshData generateMesh(AABB aabb, float[] vertexData, int[] indices, Material material) {
+        return new InstancedMeshData(aabb, vertexData, indices, material);
+    }
 }
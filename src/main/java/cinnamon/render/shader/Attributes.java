@@ -90,6 +90,16 @@ public enum Attributes {
         return verts;
     }
 
+    public static int getOffset(Attributes flag, Attributes... flags) {
+        int offset = 0;
+        for (Attributes f : flags) {
+            if (f == flag)
+                return offset;
+            offset += f.size;
+        }
+        return -1;
+    }
+
     public static void load(Attributes[] flags, int vertexSize) {
         //prepare vars
         int stride = vertexSize * Float.BYTES;
@@ -111,4 +121,50 @@ public enum Attributes {
                 buffer.put(textureID);
         }
     }
+
+    /**
+     * Writes a vertex into the array without going through a {@link Vertex}, for raw batch data
+     * the texture id is left as 0, and the tangent is always the default one
+     * @return the offset after the written vertex
+     */
+    public static int putVertex(float[] data, int offset, Attributes[] flags, float x, float y, float z, float u, float v, float r, float g, float b, float a, float nx, float ny, float nz) {
+        Vector3f t = Vertex.DEFAULT_TANGENT;
+        return putVertex(data, offset, flags, x, y, z, u, v, r, g, b, a, nx, ny, nz, t.x, t.y, t.z);
+    }
+
+    /**
+     * Same as above, but with the given tangent
+     */
+    public static int putVertex(float[] data, int offset, Attributes[] flags, float x, float y, float z, float u, float v, float r, float g, float b, float a, float nx, float ny, float nz, float tx, float ty, float tz) {
+        for (Attributes flag : flags) {
+            switch (flag) {
+                case POS -> {
+                    data[offset++] = x; data[offset++] = y; data[offset++] = z;
+                }
+                case POS_XY -> {
+                    data[offset++] = x; data[offset++] = y;
+                }
+                case TEXTURE_ID -> data[offset++] = 0;
+                case UV -> {
+                    data[offset++] = u; data[offset++] = v;
+                }
+                case UV_FLIP -> {
+                    data[offset++] = u; data[offset++] = 1 - v;
+                }
+                case COLOR -> {
+                    data[offset++] = r; data[offset++] = g; data[offset++] = b;
+                }
+                case COLOR_RGBA -> {
+                    data[offset++] = r; data[offset++] = g; data[offset++] = b; data[offset++] = a;
+                }
+                case NORMAL -> {
+                    data[offset++] = nx; data[offset++] = ny; data[offset++] = nz;
+                }
+                case TANGENTS -> {
+                    data[offset++] = tx; data[offset++] = ty; data[offset++] = tz;
+                }
+            }
+        }
+        return offset;
+    }
 }
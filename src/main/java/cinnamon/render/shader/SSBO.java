@@ -85,6 +85,14 @@ public class SSBO {
         glBufferData(GL_SHADER_STORAGE_BUFFER, data, usage);
     }
 
+    /**
+     * uploads integer data to the buffer
+     */
+    public void uploadData(int[] data, int usage) {
+        bind();
+        glBufferData(GL_SHADER_STORAGE_BUFFER, data, usage);
+    }
+
     /**
      * ensures that any writes to the SSBO from a previous shader invocation are visible to the next ones
      */
@@ -21,19 +21,28 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static cinnamon.events.Events.LOGGER;
-import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
 import static org.lwjgl.opengl.GL32.GL_GEOMETRY_SHADER;
 
-public record Shader(int ID) {
+/**
+ * @param uniforms the uniform locations of the program, reflected at link time, and cached on lookup for unknown names
+ * @param blocks a bitmask of the {@link UniformBlock}s the program declares
+ */
+public record Shader(int ID, Map<String, Integer> uniforms, int blocks) {
 
     private static final Map<String, String> INCLUDE_CACHE = new HashMap<>();
 
     public static Shader activeShader;
+    private static int uniformCalls, lastUniformCalls;
 
     public Shader(Resource ID) {
         this(loadShader(ID));
     }
 
+    public Shader(int ID) {
+        this(ID, reflectUniforms(ID), bindBlocks(ID));
+    }
+
     private static int loadShader(Resource res) {
         LOGGER.debug("Loading shader \"%s\"", res);
         String src = IOUtils.readString(res);
@@ -141,10 +150,68 @@ public record Shader(int ID) {
         }
     }
 
+    private static Map<String, Integer> reflectUniforms(int program) {
+        Map<String, Integer> map = new HashMap<>();
+        int count = glGetProgrami(program, GL_ACTIVE_UNIFORMS);
+
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer size = stack.mallocInt(1);
+            IntBuffer type = stack.mallocInt(1);
+
+            for (int i = 0; i < count; i++) {
+                String name = glGetActiveUniform(program, i, size, type);
+                int location = glGetUniformLocation(program, name);
+
+                //members of uniform blocks have no location
+                if (location == -1)
+                    continue;
+
+                map.put(name, location);
+
+                //arrays are listed by their first element, but are also set by their base name or by index
+                if (name.endsWith("[0]")) {
+                    String base = name.substring(0, name.length() - 3);
+                    map.put(base, location);
+                    for (int j = 1; j < size.get(0); j++) {
+                        String element = base + "[" + j + "]";
+                        map.put(element, glGetUniformLocation(program, element));
+                    }
+                }
+            }
+        }
+
+        return map;
+    }
+
+    private static int bindBlocks(int program) {
+        int mask = 0;
+        for (UniformBlock block : UniformBlock.values()) {
+            int index = glGetUniformBlockIndex(program, block.blockName);
+            if (index != GL_INVALID_INDEX) {
+                glUniformBlockBinding(program, index, block.getBinding());
+                mask |= 1 << block.ordinal();
+            }
+        }
+        return mask;
+    }
+
     public static void freeCache() {
         INCLUDE_CACHE.clear();
     }
 
+    /**
+     * Stores the uniform calls of the frame that just ended, and starts counting again
+     */
+    public static void resetCounters() {
+        lastUniformCalls = uniformCalls;
+        uniformCalls = 0;
+        UniformBlock.resetCounters();
+    }
+
+    public static int getUniformCalls() {
+        return lastUniformCalls;
+    }
+
     public Shader use() {
         activeShader = this;
         glUseProgram(ID);
@@ -158,11 +225,34 @@ public record Shader(int ID) {
     private int get(String name) {
         if (activeShader != this)
             throw new RuntimeException("Shader must be bound before setting uniforms");
-        return glGetUniformLocation(ID, name);
+        return location(name);
+    }
+
+    private int location(String name) {
+        Integer i = uniforms.get(name);
+        if (i == null) {
+            //not an active uniform, but it may still be a valid name for the driver
+            i = glGetUniformLocation(ID, name);
+            uniforms.put(name, i);
+        }
+
+        if (i != -1)
+            uniformCalls++;
+        return i;
+    }
+
+    public boolean hasUniform(String name) {
+        Integer i = uniforms.get(name);
+        return i == null ? glGetUniformLocation(ID, name) != -1 : i != -1;
+    }
+
+    public boolean hasBlock(UniformBlock block) {
+        return (blocks & (1 << block.ordinal())) != 0;
     }
 
     public void setBool(String name, boolean value) {
-        glUniform1i(glGetUniformLocation(ID, name), value ? 1 : 0);
+        int i = location(name);
+        if (i != -1) glUniform1i(i, value ? 1 : 0);
     }
 
     public void setInt(String name, int value) {
@@ -377,10 +467,18 @@ public record Shader(int ID) {
     }
 
     public void setup(Camera camera) {
-        setup(camera.getProjectionMatrix(), camera.getViewMatrix());
+        if (hasBlock(UniformBlock.CAMERA))
+            UniformBlock.updateCamera(camera);
+        else
+            setup(camera.getProjectionMatrix(), camera.getViewMatrix());
     }
 
     public void setupInverse(Camera camera) {
+        if (hasBlock(UniformBlock.CAMERA)) {
+            UniformBlock.updateCamera(camera);
+            return;
+        }
+
         applyInverseProjectionMatrix(camera.getInvProjectionMatrix());
         applyInverseViewMatrix(camera.getInvViewMatrix());
     }
@@ -452,6 +550,11 @@ public record Shader(int ID) {
         return obj instanceof Shader s && s.ID == this.ID;
     }
 
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(ID);
+    }
+
     private enum Type {
         VERTEX(GL_VERTEX_SHADER),
         GEOMETRY(GL_GEOMETRY_SHADER),
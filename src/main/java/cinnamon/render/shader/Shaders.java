@@ -25,6 +25,7 @@ public enum Shaders {
     MAIN_PASS,
     MODEL_UV,
     LIGHT_PASS,
+    LIGHT_CLUSTERED,
     MAIN_DEPTH,
     MAIN_DEPTH_DIR,
     POINT_DEPTH,
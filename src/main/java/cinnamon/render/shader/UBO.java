@@ -0,0 +1,78 @@
+package cinnamon.render.shader;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.glBindBufferBase;
+import static org.lwjgl.opengl.GL31.GL_UNIFORM_BUFFER;
+
+/**
+ * a Uniform Buffer Object (UBO) is a read-only buffer that backs a uniform block of a shader
+ * <br>
+ * <br>
+ * a single buffer can be shared by every shader program that declares the same block,
+ * so common data, such as the camera matrices, is uploaded once instead of once per shader
+ */
+public class UBO {
+
+    private final int id;
+
+    /**
+     * creates a new UBO and allocates an ID for it
+     */
+    public UBO() {
+        this.id = glGenBuffers();
+    }
+
+    /**
+     * @return the ID of this UBO
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * binds this UBO to the given uniform block binding point
+     * @param index the binding point to bind the UBO to
+     */
+    public void bind(int index) {
+        glBindBufferBase(GL_UNIFORM_BUFFER, index, id);
+    }
+
+    /**
+     * binds this UBO to the current context
+     */
+    public void bind() {
+        glBindBuffer(GL_UNIFORM_BUFFER, id);
+    }
+
+    /**
+     * unbinds the currently bound UBO
+     */
+    public static void unbind() {
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+    }
+
+    /**
+     * frees the buffer from GPU memory
+     */
+    public void free() {
+        glDeleteBuffers(id);
+    }
+
+    /**
+     * allocates empty memory for the buffer
+     */
+    public void allocate(long size, int usage) {
+        bind();
+        glBufferData(GL_UNIFORM_BUFFER, size * Float.BYTES, usage);
+    }
+
+    /**
+     * replaces the buffer content, starting at its beginning
+     */
+    public void uploadSubData(FloatBuffer data) {
+        bind();
+        glBufferSubData(GL_UNIFORM_BUFFER, 0, data);
+    }
+}
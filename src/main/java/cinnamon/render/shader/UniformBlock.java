@@ -0,0 +1,111 @@
+package cinnamon.render.shader;
+
+import cinnamon.render.Camera;
+import org.joml.Vector3f;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL15.GL_DYNAMIC_DRAW;
+
+/**
+ * std140 uniform blocks shared by every shader that declares them, bound to the binding point of their ordinal
+ * the data is only uploaded when it differs from the last upload, so it is sent once per frame for each camera or sky in use
+ */
+public enum UniformBlock {
+    //see shaders/libs/camera.glsl
+    CAMERA("CameraData", 16 * 4 + 4),
+    //see shaders/libs/fog.glsl
+    SKY("SkyData", 8);
+
+    public final String blockName;
+    private final float[] data, uploaded;
+    private final FloatBuffer buffer;
+    private UBO ubo;
+
+    private static int updates, lastUpdates;
+
+    UniformBlock(String blockName, int floats) {
+        this.blockName = blockName;
+        this.data = new float[floats];
+        this.uploaded = new float[floats];
+        this.buffer = BufferUtils.createFloatBuffer(floats);
+    }
+
+    /**
+     * Writes the camera matrices and position into the camera block
+     */
+    public static void updateCamera(Camera camera) {
+        float[] d = CAMERA.data;
+        camera.getProjectionMatrix().get(d, 0);
+        camera.getViewMatrix().get(d, 16);
+        camera.getInvProjectionMatrix().get(d, 32);
+        camera.getInvViewMatrix().get(d, 48);
+
+        Vector3f pos = camera.getPosition();
+        d[64] = pos.x;
+        d[65] = pos.y;
+        d[66] = pos.z;
+
+        CAMERA.upload();
+    }
+
+    /**
+     * Writes the fog and ambient light into the sky block
+     */
+    public static void updateSky(int fogColor, float fogStart, float fogEnd, int ambientLight) {
+        float[] d = SKY.data;
+        putRGB(d, 0, fogColor);
+        d[3] = fogStart;
+        putRGB(d, 4, ambientLight);
+        d[7] = fogEnd;
+
+        SKY.upload();
+    }
+
+    private static void putRGB(float[] data, int offset, int color) {
+        data[offset]     = ((color >> 16) & 0xFF) / 255f;
+        data[offset + 1] = ((color >> 8) & 0xFF) / 255f;
+        data[offset + 2] = (color & 0xFF) / 255f;
+    }
+
+    private void upload() {
+        if (ubo == null) {
+            ubo = new UBO();
+            ubo.allocate(data.length, GL_DYNAMIC_DRAW);
+            ubo.bind(ordinal());
+        } else if (Arrays.equals(data, uploaded)) {
+            return;
+        }
+
+        System.arraycopy(data, 0, uploaded, 0, data.length);
+        buffer.clear();
+        buffer.put(data).flip();
+        ubo.uploadSubData(buffer);
+        UBO.unbind();
+        updates++;
+    }
+
+    public int getBinding() {
+        return ordinal();
+    }
+
+    public static void resetCounters() {
+        lastUpdates = updates;
+        updates = 0;
+    }
+
+    public static int getUpdates() {
+        return lastUpdates;
+    }
+
+    public static void freeAll() {
+        for (UniformBlock block : values()) {
+            if (block.ubo != null) {
+                block.ubo.free();
+                block.ubo = null;
+            }
+        }
+    }
+}
@@ -129,9 +129,9 @@ public class SkyBox {
 
                 ByteBuffer imageBuffer = IOUtils.getResourceBuffer(res);
 
-                STBImage.stbi_set_flip_vertically_on_load(true);
+                STBImage.stbi_set_flip_vertically_on_load_thread(1);
                 FloatBuffer buffer = STBImage.stbi_loadf_from_memory(imageBuffer, w, h, channels, 0);
-                STBImage.stbi_set_flip_vertically_on_load(false);
+                STBImage.stbi_set_flip_vertically_on_load_thread(0);
                 if (buffer == null)
                     throw new Exception("Failed to load image \"" + res + "\", " + STBImage.stbi_failure_reason());
 
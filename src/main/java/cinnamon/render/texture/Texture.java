@@ -1,5 +1,6 @@
 package cinnamon.render.texture;
 
+import cinnamon.utils.AssetLoader;
 import cinnamon.utils.IOUtils;
 import cinnamon.utils.Resource;
 import cinnamon.utils.TextureIO;
@@ -9,6 +10,8 @@ import org.lwjgl.system.MemoryUtil;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 import static cinnamon.events.Events.LOGGER;
 import static cinnamon.render.texture.Texture.TextureParams.MIPMAP;
@@ -23,6 +26,8 @@ public class Texture {
 
     //a map containing all registered textures
     private static final Map<Resource, Texture> TEXTURE_MAP = new HashMap<>();
+    //textures still being loaded in the background
+    private static final Map<Resource, CompletableFuture<Texture>> PENDING = new HashMap<>();
 
     //the missing texture
     public static final Texture MISSING = /*generateSolid(0xFFEDEDED);*/ generateMissingTex(2, 2);
@@ -47,8 +52,59 @@ public class Texture {
         if (tex != null)
             return tex;
 
-        //otherwise load a new texture and cache it
-        return cacheTexture(res, loadTexture(res, TextureParams.bake(params)));
+        //decode it on the loader, or join the load already running, stalling only until it is done
+        AssetLoader.finish(load(res, params));
+        tex = getCachedTexture(res);
+        return tex != null ? tex : MISSING;
+    }
+
+    /**
+     * Same as {@link #of(Resource, TextureParams...)}, but never stalls on loading
+     * the missing texture is returned while the texture is being loaded in the background
+     */
+    public static Texture ofAsync(Resource res, TextureParams... params) {
+        Texture tex = getCachedTexture(res);
+        if (tex != null)
+            return tex;
+
+        load(res, params);
+        return MISSING;
+    }
+
+    /**
+     * Loads a texture in the background, decoding the image on a worker thread and uploading it on the main thread
+     * should only be called from the main thread
+     */
+    public static CompletableFuture<Texture> load(Resource res, TextureParams... params) {
+        Texture tex = getCachedTexture(res);
+        if (tex != null)
+            return CompletableFuture.completedFuture(tex);
+
+        CompletableFuture<Texture> pending = PENDING.get(res);
+        if (pending != null)
+            return pending;
+
+        int flags = TextureParams.bake(params);
+        CompletableFuture<Texture> future = AssetLoader.load(() -> decodeTexture(res, flags), image -> {
+            //loaded synchronously in the meantime
+            Texture cached = TEXTURE_MAP.get(res);
+            if (cached != null) {
+                image.close();
+                return cached;
+            }
+            return cacheTexture(res, uploadTexture(res, image, flags));
+        });
+
+        PENDING.put(res, future);
+        future.whenComplete((t, e) -> {
+            PENDING.remove(res, future);
+            //cache the failure, same as the synchronous path
+            if (e != null && !(e instanceof CancellationException) && !TEXTURE_MAP.containsKey(res)) {
+                LOGGER.error("Failed to load texture \"%s\"", res, e);
+                cacheTexture(res, MISSING);
+            }
+        });
+        return future;
     }
 
     public static Texture of(Resource res, AITexture assimpTexture, TextureParams... params) {
@@ -68,10 +124,22 @@ public class Texture {
         return tex;
     }
 
-    private static Texture loadTexture(Resource res, int params) {
+    //thread-safe, no GL calls
+    private static TextureIO.ImageData decodeTexture(Resource res, int params) {
         LOGGER.debug("Loading texture \"%s\" with params %s", res, params);
 
-        try (TextureIO.ImageData image = TextureIO.load(res)) {
+        try {
+            return TextureIO.load(res);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //main thread only, closes the image
+    private static Texture uploadTexture(Resource res, TextureIO.ImageData data, int params) {
+        try (TextureIO.ImageData image = data) {
             Resource anim = res.resolveSibling(res.getFileName() + ".json");
             if (IOUtils.hasResource(anim)) {
                 Texture animTex = AnimatedTexture.loadTexture(image, anim, params);
@@ -80,9 +148,6 @@ public class Texture {
             }
 
             return new Texture(registerTexture(image.width, image.height, image.buffer, params), image.width, image.height);
-        } catch (Exception e) {
-            LOGGER.error("Failed to load texture \"%s\"", res, e);
-            return MISSING;
         }
     }
 
@@ -190,6 +255,7 @@ public class Texture {
     }
 
     public static void freeAll() {
+        PENDING.clear();
         for (Texture texture : TEXTURE_MAP.values())
             texture.free();
         TEXTURE_MAP.clear();
@@ -1,5 +1,6 @@
 package cinnamon.sound;
 
+import cinnamon.utils.AssetLoader;
 import cinnamon.utils.IOUtils;
 import cinnamon.utils.Resource;
 import org.lwjgl.BufferUtils;
@@ -10,7 +11,10 @@ import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
+import static cinnamon.events.Events.LOGGER;
 import static org.lwjgl.openal.AL10.*;
 import static org.lwjgl.stb.STBVorbis.*;
 import static org.lwjgl.system.MemoryUtil.NULL;
@@ -18,6 +22,7 @@ import static org.lwjgl.system.MemoryUtil.NULL;
 public class Sound {
 
     private static final Map<Resource, Sound> SOUNDS_MAP = new HashMap<>();
+    private static final Map<Resource, CompletableFuture<Sound>> PENDING = new HashMap<>();
 
     public final int id, channels, sampleRate, duration;
     public final ShortBuffer buffer;
@@ -38,7 +43,40 @@ public class Sound {
         if (saved != null)
             return saved;
 
-        return cacheSound(resource, loadSound(resource));
+        //decode it on the loader, or join the load already running, stalling only until it is done
+        CompletableFuture<Sound> future = load(resource);
+        AssetLoader.finish(future);
+        return future.join();
+    }
+
+    /**
+     * Decodes the sound on a worker thread and registers its buffer on the main thread
+     * should only be called from the main thread
+     */
+    public static CompletableFuture<Sound> load(Resource resource) {
+        if (!SoundManager.isInitialized())
+            return CompletableFuture.completedFuture(null);
+
+        Sound saved = SOUNDS_MAP.get(resource);
+        if (saved != null)
+            return CompletableFuture.completedFuture(saved);
+
+        CompletableFuture<Sound> pending = PENDING.get(resource);
+        if (pending != null)
+            return pending;
+
+        CompletableFuture<Sound> future = AssetLoader.load(() -> decodeSound(resource), data -> {
+            Sound cached = SOUNDS_MAP.get(resource);
+            return cached != null ? cached : cacheSound(resource, uploadSound(data));
+        });
+
+        PENDING.put(resource, future);
+        future.whenComplete((s, e) -> {
+            PENDING.remove(resource, future);
+            if (e != null && !(e instanceof CancellationException))
+                LOGGER.error("Failed to load sound \"%s\"", resource, e);
+        });
+        return future;
     }
 
     private static Sound cacheSound(Resource resource, Sound sound) {
@@ -46,7 +84,8 @@ public class Sound {
         return sound;
     }
 
-    private static Sound loadSound(Resource resource) {
+    //thread-safe, no AL calls
+    private static SoundData decodeSound(Resource resource) {
         try (STBVorbisInfo info = STBVorbisInfo.malloc()) {
             //prepare buffers
             IntBuffer error = BufferUtils.createIntBuffer(1);
@@ -69,21 +108,27 @@ public class Sound {
             stb_vorbis_get_samples_short_interleaved(decoder, channels, pcm);
             stb_vorbis_close(decoder);
 
-            //register the buffer
-            int id = alGenBuffers();
+            return new SoundData(channels, sampleRate, pcm);
+        }
+    }
 
-            alBufferData(id, channels == 1 ? AL_FORMAT_MONO16 : AL_FORMAT_STEREO16, pcm, sampleRate);
-            SoundManager.checkALError();
+    //main thread only
+    private static Sound uploadSound(SoundData data) {
+        //register the buffer
+        int id = alGenBuffers();
 
-            //calculate the duration of the sound in milliseconds
-            int duration = (int) (pcm.capacity() / (float) sampleRate * 1000f / (float) channels);
+        alBufferData(id, data.channels == 1 ? AL_FORMAT_MONO16 : AL_FORMAT_STEREO16, data.pcm, data.sampleRate);
+        SoundManager.checkALError();
 
-            //return the buffer id
-            return new Sound(id, channels, sampleRate, duration, pcm.duplicate());
-        }
+        //calculate the duration of the sound in milliseconds
+        int duration = (int) (data.pcm.capacity() / (float) data.sampleRate * 1000f / (float) data.channels);
+
+        //return the buffer id
+        return new Sound(id, data.channels, data.sampleRate, duration, data.pcm.duplicate());
     }
 
     public static void freeAllSounds() {
+        PENDING.clear();
         for (Sound s : SOUNDS_MAP.values())
             s.free();
         SOUNDS_MAP.clear();
@@ -93,4 +138,6 @@ public class Sound {
         alDeleteBuffers(id);
         buffer.clear();
     }
+
+    private record SoundData(int channels, int sampleRate, ShortBuffer pcm) {}
 }
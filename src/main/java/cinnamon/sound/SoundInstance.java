@@ -16,6 +16,8 @@ public class SoundInstance {
         this.category = category;
     }
 
+    public void tick() {}
+
     public void free() {}
 
     public boolean isRemoved() {
@@ -106,6 +108,10 @@ public class SoundInstance {
         return 0;
     }
 
+    public long getDuration() {
+        return 0;
+    }
+
     public SoundCategory getCategory() {
         return category;
     }
@@ -151,9 +151,10 @@ public class SoundManager {
 
         checkALError();
 
-        //free and remove stopped sounds
+        //update streams, then free and remove stopped sounds
         for (Iterator<SoundInstance> iterator = sounds.iterator(); iterator.hasNext(); ) {
             SoundInstance sound = iterator.next();
+            sound.tick();
             if (sound.shouldRemoveOnStop() && sound.isStopped())
                 sound.free();
             if (sound.isRemoved())
@@ -214,6 +215,21 @@ public class SoundManager {
     }
 
     public static SoundInstance playSound(Resource resource, SoundCategory category, Vector3f position) {
+        return playSound(resource, category, position, false);
+    }
+
+    public static SoundInstance streamSound(Resource resource, SoundCategory category) {
+        return streamSound(resource, category, null);
+    }
+
+    /**
+     * Plays an Ogg Vorbis sound decoded while it plays, instead of fully loaded in memory, meant for long sounds such as music
+     */
+    public static SoundInstance streamSound(Resource resource, SoundCategory category, Vector3f position) {
+        return playSound(resource, category, position, true);
+    }
+
+    private static SoundInstance playSound(Resource resource, SoundCategory category, Vector3f position, boolean stream) {
         if (sounds.size() >= MAX_SOUND_INSTANCES) {
             LOGGER.debug("Reached %s sound instances! Skipping sound \"%s\"", MAX_SOUND_INSTANCES, resource);
             return new SoundInstance(category);
@@ -231,7 +247,7 @@ public class SoundManager {
 
         LOGGER.debug("Playing sound \"%s\"", resource);
 
-        SoundSource source = new SoundSource(resource, category, position);
+        SoundSource source = stream ? new StreamingSoundSource(resource, category, position) : new SoundSource(resource, category, position);
         sounds.add(source);
         source.play();
         return source;
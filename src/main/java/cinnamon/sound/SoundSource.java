@@ -8,24 +8,18 @@ import static org.lwjgl.openal.AL11.AL_SEC_OFFSET;
 
 public class SoundSource extends SoundInstance {
 
-    private final int source;
+    protected final int source;
+    private final int duration;
     private boolean removed;
 
-    private SoundSource(Resource resource, SoundCategory category) {
+    /**
+     * Creates a source with no buffer attached
+     * @param pos the world position, or null for a global sound
+     */
+    protected SoundSource(SoundCategory category, Vector3f pos, int duration) {
         super(category);
         this.source = alGenSources();
-
-        int buffer = Sound.of(resource).id;
-        alSourcei(source, AL_BUFFER, buffer);
-
-        SoundManager.checkALError();
-
-        //update volume to apply the category modifier
-        volume(getVolume());
-    }
-
-    public SoundSource(Resource resource, SoundCategory category, Vector3f pos) {
-        this(resource, category);
+        this.duration = duration;
 
         if (pos == null) { //global positioned sound
             alSourcei(source, AL_SOURCE_RELATIVE, AL_TRUE);
@@ -35,6 +29,19 @@ public class SoundSource extends SoundInstance {
             //position
             pos(pos);
         }
+
+        //update volume to apply the category modifier
+        volume(getVolume());
+    }
+
+    private SoundSource(Sound sound, SoundCategory category, Vector3f pos) {
+        this(category, pos, sound.duration);
+        alSourcei(source, AL_BUFFER, sound.id);
+        SoundManager.checkALError();
+    }
+
+    public SoundSource(Resource resource, SoundCategory category, Vector3f pos) {
+        this(Sound.of(resource), category, pos);
     }
 
     @Override
@@ -149,6 +156,11 @@ public class SoundSource extends SoundInstance {
         return this;
     }
 
+    @Override
+    public long getDuration() {
+        return duration;
+    }
+
     @Override
     public long getPlaybackTime() {
         return isRemoved() ? 0 : (long) (alGetSourcef(source, AL_SEC_OFFSET) * 1000f);
@@ -55,16 +55,41 @@ public class SoundSpectrum {
         return samples;
     }
 
+    /**
+     * Samples of a streamed sound, from the rolling window around its playback
+     */
+    public float[] getSoundSamples(StreamingSoundSource stream) {
+        float[] samples = new float[fftSize];
+        return stream.getSamples(samples) ? samples : null;
+    }
+
     public void updateAmplitudes(Sound sound, SoundInstance soundData, boolean smooth) {
+        decayAmplitudes(smooth);
+        float[] soundSamples = getSoundSamples(sound, soundData);
+        if (soundSamples != null)
+            calculateAmplitudes(soundSamples, sound.sampleRate);
+    }
+
+    /**
+     * Updates the amplitudes of a sound played with {@link SoundManager#streamSound}, other sounds only decay the amplitudes
+     */
+    public void updateAmplitudes(SoundInstance soundData, boolean smooth) {
+        decayAmplitudes(smooth);
+        if (!(soundData instanceof StreamingSoundSource stream))
+            return;
+
+        float[] soundSamples = getSoundSamples(stream);
+        if (soundSamples != null)
+            calculateAmplitudes(soundSamples, stream.getSampleRate());
+    }
+
+    private void decayAmplitudes(boolean smooth) {
         //set the amplitudes all back to 0
         for (int i = 0; i < amplitudes.length; i++)
             amplitudes[i] = smooth ? Math.lerp(amplitudes[i], 0f, UIHelper.tickDelta(0.6f)) : 0f;
+    }
 
-        //get sound samples
-        float[] soundSamples = getSoundSamples(sound, soundData);
-        if (soundSamples == null)
-            return;
-
+    private void calculateAmplitudes(float[] soundSamples, int sampleRate) {
         //apply hann window to smooth the spectrum before applying FFT
         int length = soundSamples.length;
         for (int i = 0; i < length; i++)
@@ -74,7 +99,7 @@ public class SoundSpectrum {
         fft.realForward(soundSamples);
 
         //get amplitudes
-        int maxFreqBin = (int) (maxFrequency / (sound.sampleRate * 0.5f) * (length * 0.5f));
+        int maxFreqBin = (int) (maxFrequency / (sampleRate * 0.5f) * (length * 0.5f));
         for (int i = 0; i < bars; i++) {
             int lowIndex = i * maxFreqBin / bars;
             int highIndex = Math.min((i + 1) * maxFreqBin / bars - 1, length / 2 - 1);
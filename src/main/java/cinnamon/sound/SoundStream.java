@@ -0,0 +1,305 @@
+package cinnamon.sound;
+
+import cinnamon.utils.IOUtils;
+import cinnamon.utils.Resource;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBVorbisInfo;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static cinnamon.events.Events.LOGGER;
+import static org.lwjgl.stb.STBVorbis.*;
+import static org.lwjgl.system.MemoryUtil.NULL;
+
+/**
+ * An Ogg Vorbis file decoded in small chunks on a worker thread, instead of all at once
+ * only the encoded file and a few chunks of pcm are kept in memory, and no AL calls are made, so it also works headless
+ * the worker fills the free chunks ahead of the playback, and the main thread takes them with {@link #poll()} and gives them back with {@link #recycle(Chunk)}
+ */
+public class SoundStream implements AutoCloseable {
+
+    //frames per decoded chunk, and how many chunks exist per stream
+    public static final int CHUNK_FRAMES = 8192;
+    public static final int CHUNK_COUNT = 4;
+
+    //first channel samples kept for analysis, the chunks in flight plus the one playing
+    public static final int WINDOW_FRAMES = CHUNK_FRAMES * (CHUNK_COUNT + 1);
+
+    private static final ExecutorService DECODER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Sound Stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public final int channels, sampleRate, duration;
+    public final long frames;
+
+    //the decoder reads straight from the encoded file, so it must outlive it
+    private final ByteBuffer file;
+    private final long decoder;
+
+    //guards the decoder, the worker holds it while decoding a single chunk
+    private final Object lock = new Object();
+    private final Queue<Chunk> free = new ConcurrentLinkedQueue<>(), ready = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    //file frame of the decoder, the stb offset only moves on whole vorbis frames
+    private long decoded;
+    private volatile boolean loop, ended, closed;
+
+    //main thread only
+    private final short[] window = new short[WINDOW_FRAMES];
+    private long streamed;
+
+    private SoundStream(ByteBuffer file, long decoder, int channels, int sampleRate, long frames) {
+        this.file = file;
+        this.decoder = decoder;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.frames = frames;
+        this.duration = (int) (frames * 1000L / sampleRate);
+
+        for (int i = 0; i < CHUNK_COUNT; i++)
+            free.add(new Chunk(BufferUtils.createShortBuffer(CHUNK_FRAMES * channels)));
+    }
+
+    public static SoundStream open(Resource resource) {
+        //kept for the whole playback, so drop the spare capacity from reading it
+        ByteBuffer file = IOUtils.getResourceBuffer(resource);
+        if (file.capacity() > file.remaining())
+            file = BufferUtils.createByteBuffer(file.remaining()).put(file).flip();
+
+        IntBuffer error = BufferUtils.createIntBuffer(1);
+
+        long decoder = stb_vorbis_open_memory(file, error, null);
+        if (decoder == NULL)
+            throw new RuntimeException("Failed to open Ogg Vorbis file, error: " + error.get(0));
+
+        try (STBVorbisInfo info = STBVorbisInfo.malloc()) {
+            stb_vorbis_get_info(decoder, info);
+            SoundStream stream = new SoundStream(file, decoder, info.channels(), info.sample_rate(), stb_vorbis_stream_length_in_samples(decoder));
+            stream.schedule();
+            return stream;
+        }
+    }
+
+    // -- worker thread -- //
+
+    private void schedule() {
+        if (!closed && !ended && !free.isEmpty() && scheduled.compareAndSet(false, true))
+            DECODER.execute(this::decode);
+    }
+
+    private void decode() {
+        try {
+            Chunk chunk;
+            while ((chunk = free.poll()) != null) {
+                synchronized (lock) {
+                    if (closed || ended) {
+                        free.add(chunk);
+                        break;
+                    }
+
+                    if (decodeChunk(chunk)) {
+                        ready.add(chunk);
+                    } else {
+                        free.add(chunk);
+                        ended = true;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to decode sound stream", e);
+            ended = true;
+        } finally {
+            scheduled.set(false);
+        }
+
+        //a chunk may have been freed after the last poll
+        schedule();
+    }
+
+    /**
+     * Fills the chunk from the decoder position, wrapping to the start when looping
+     * @return false if there was nothing left to decode
+     */
+    private boolean decodeChunk(Chunk chunk) {
+        ShortBuffer pcm = chunk.pcm.clear();
+        chunk.start = decoded;
+
+        boolean wrapped = false;
+        while (pcm.hasRemaining()) {
+            int read = stb_vorbis_get_samples_short_interleaved(decoder, channels, pcm);
+            if (read > 0) {
+                pcm.position(pcm.position() + read * channels);
+                decoded += read;
+                continue;
+            }
+
+            //end of the file, the chunk ends here so a looped chunk always starts at its own offset
+            if (pcm.position() == 0 && loop && !wrapped) {
+                stb_vorbis_seek_start(decoder);
+                chunk.start = decoded = 0;
+                wrapped = true;
+                continue;
+            }
+            break;
+        }
+
+        chunk.frames = pcm.position() / channels;
+        pcm.flip();
+        return chunk.frames > 0;
+    }
+
+    // -- main thread -- //
+
+    /**
+     * @return the next decoded chunk, or null if none is ready yet
+     */
+    public Chunk poll() {
+        Chunk chunk = ready.poll();
+        if (chunk == null)
+            return null;
+
+        //first channel into the analysis window
+        ShortBuffer pcm = chunk.pcm;
+        for (int i = 0; i < chunk.frames; i++)
+            window[(int) ((streamed + i) % WINDOW_FRAMES)] = pcm.get(i * channels);
+
+        chunk.position = streamed;
+        streamed += chunk.frames;
+        return chunk;
+    }
+
+    /**
+     * Gives back a chunk taken from {@link #poll()}, once its pcm is no longer needed
+     */
+    public void recycle(Chunk chunk) {
+        free.add(chunk);
+        schedule();
+    }
+
+    /**
+     * Moves the decoder to the frame, dropping everything decoded ahead
+     * the stream position keeps counting up, so the analysis window is not mixed with the old samples
+     */
+    public void seek(long frame) {
+        synchronized (lock) {
+            //the decoder is gone once closed
+            if (closed)
+                return;
+
+            Chunk chunk;
+            while ((chunk = ready.poll()) != null)
+                free.add(chunk);
+
+            decoded = Math.max(0, Math.min(frame, frames));
+            if (!stb_vorbis_seek(decoder, (int) decoded))
+                LOGGER.warn("Failed to seek sound stream to frame %s", frame);
+            ended = false;
+
+            //skip ahead, so the window has no stale samples
+            streamed += WINDOW_FRAMES;
+        }
+        schedule();
+    }
+
+    public void setLoop(boolean loop) {
+        this.loop = loop;
+        if (!loop)
+            return;
+
+        synchronized (lock) {
+            if (closed || !ended)
+                return;
+
+            //already at the end, so start over
+            stb_vorbis_seek_start(decoder);
+            decoded = 0;
+            ended = false;
+        }
+        schedule();
+    }
+
+    /**
+     * @return true once the decoder reached the end and every decoded chunk was taken
+     */
+    public boolean isFinished() {
+        return ended && ready.isEmpty();
+    }
+
+    /**
+     * Copies first channel samples from the analysis window, normalized to [-1, 1]
+     * @param position the stream position of the first sample, as given by the chunks
+     * @return false if the range is not within the window
+     */
+    public boolean readWindow(long position, float[] out) {
+        if (position < 0 || position < streamed - WINDOW_FRAMES || position + out.length > streamed)
+            return false;
+
+        for (int i = 0; i < out.length; i++)
+            out[i] = window[(int) ((position + i) % WINDOW_FRAMES)] / (float) Short.MAX_VALUE;
+        return true;
+    }
+
+    /**
+     * @return the stream position right after the last polled chunk
+     */
+    public long getStreamed() {
+        return streamed;
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed)
+                return;
+            closed = true;
+            stb_vorbis_close(decoder);
+        }
+        free.clear();
+        ready.clear();
+    }
+
+    /**
+     * A reused buffer of decoded interleaved pcm
+     */
+    public static class Chunk {
+
+        private final ShortBuffer pcm;
+        private long start, position;
+        private int frames;
+
+        private Chunk(ShortBuffer pcm) {
+            this.pcm = pcm;
+        }
+
+        public ShortBuffer getPcm() {
+            return pcm;
+        }
+
+        /**
+         * @return the file frame this chunk starts at
+         */
+        public long getStart() {
+            return start;
+        }
+
+        /**
+         * @return the frames polled from the stream before this chunk
+         */
+        public long getPosition() {
+            return position;
+        }
+
+        public int getFrames() {
+            return frames;
+        }
+    }
+}
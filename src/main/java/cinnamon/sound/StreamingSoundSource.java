@@ -0,0 +1,231 @@
+package cinnamon.sound;
+
+import cinnamon.utils.Resource;
+import org.joml.Vector3f;
+
+import java.util.ArrayDeque;
+
+import static org.lwjgl.openal.AL10.*;
+import static org.lwjgl.openal.AL11.AL_SAMPLE_OFFSET;
+
+/**
+ * A source playing a {@link SoundStream}, through a small ring of AL buffers
+ * played buffers are unqueued and refilled with the next decoded chunks on every {@link SoundManager} tick
+ */
+public class StreamingSoundSource extends SoundSource {
+
+    private final SoundStream stream;
+    private final int format;
+    private final int[] buffers = new int[SoundStream.CHUNK_COUNT];
+
+    //AL buffers not queued, and the queued ones in queue order
+    private final ArrayDeque<Integer> idle = new ArrayDeque<>();
+    private final ArrayDeque<Queued> queued = new ArrayDeque<>();
+
+    private boolean playing, paused, stopped;
+    private long lastFrame;
+
+    private StreamingSoundSource(SoundStream stream, SoundCategory category, Vector3f pos) {
+        super(category, pos, stream.duration);
+        this.stream = stream;
+        this.format = stream.channels == 1 ? AL_FORMAT_MONO16 : AL_FORMAT_STEREO16;
+
+        alGenBuffers(buffers);
+        for (int buffer : buffers)
+            idle.add(buffer);
+
+        SoundManager.checkALError();
+    }
+
+    public StreamingSoundSource(Resource resource, SoundCategory category, Vector3f pos) {
+        this(SoundStream.open(resource), category, pos);
+    }
+
+    @Override
+    public void tick() {
+        if (isRemoved() || !playing)
+            return;
+
+        //recycle what was played
+        int processed = alGetSourcei(source, AL_BUFFERS_PROCESSED);
+        for (int i = 0; i < processed && !queued.isEmpty(); i++) {
+            Queued q = queued.poll();
+            alSourceUnqueueBuffers(source);
+            lastFrame = q.start + q.frames;
+            idle.add(q.buffer);
+        }
+
+        fill();
+
+        //nothing left to play
+        if (queued.isEmpty() && stream.isFinished()) {
+            playing = false;
+            stopped = true;
+            alSourceStop(source);
+            return;
+        }
+
+        //the source stops by itself when the decoder falls behind, so resume it
+        if (!queued.isEmpty() && alGetSourcei(source, AL_SOURCE_STATE) != AL_PLAYING)
+            alSourcePlay(source);
+    }
+
+    private void fill() {
+        while (!idle.isEmpty()) {
+            SoundStream.Chunk chunk = stream.poll();
+            if (chunk == null)
+                return;
+
+            int buffer = idle.poll();
+            alBufferData(buffer, format, chunk.getPcm(), stream.sampleRate);
+            alSourceQueueBuffers(source, buffer);
+            queued.add(new Queued(buffer, chunk.getStart(), chunk.getPosition(), chunk.getFrames()));
+
+            //the data was copied to the AL buffer
+            stream.recycle(chunk);
+        }
+    }
+
+    private void clearQueue() {
+        alSourceStop(source);
+        alSourcei(source, AL_BUFFER, 0);
+        for (Queued q : queued)
+            idle.add(q.buffer);
+        queued.clear();
+    }
+
+    @Override
+    public void free() {
+        if (isRemoved())
+            return;
+
+        clearQueue();
+        super.free();
+        alDeleteBuffers(buffers);
+        stream.close();
+    }
+
+    @Override
+    public void play() {
+        if (isRemoved())
+            return;
+
+        //like a regular source, playing a stopped stream starts over
+        if (stopped) {
+            clearQueue();
+            stream.seek(0);
+            lastFrame = 0;
+        }
+
+        playing = true;
+        paused = stopped = false;
+
+        //whatever is decoded already, the rest is queued on the next ticks
+        fill();
+        if (!queued.isEmpty())
+            alSourcePlay(source);
+    }
+
+    @Override
+    public void pause() {
+        if (isRemoved() || !playing)
+            return;
+
+        playing = false;
+        paused = true;
+        alSourcePause(source);
+    }
+
+    @Override
+    public void stop() {
+        if (isRemoved())
+            return;
+
+        playing = paused = false;
+        stopped = true;
+        alSourceStop(source);
+    }
+
+    @Override
+    public boolean isPlaying() {
+        return !isRemoved() && playing;
+    }
+
+    @Override
+    public boolean isPaused() {
+        return !isRemoved() && paused;
+    }
+
+    @Override
+    public boolean isStopped() {
+        return !isRemoved() && stopped;
+    }
+
+    @Override
+    public StreamingSoundSource loop(boolean loop) {
+        super.loop(loop);
+        if (isRemoved())
+            return this;
+
+        //looping is done by the decoder, an AL looping source would replay its queue instead
+        alSourcei(source, AL_LOOPING, AL_FALSE);
+        stream.setLoop(loop);
+        return this;
+    }
+
+    @Override
+    public StreamingSoundSource setPlaybackTime(long millis) {
+        if (isRemoved())
+            return this;
+
+        clearQueue();
+        lastFrame = Math.max(0, Math.min(millis * stream.sampleRate / 1000L, stream.frames));
+        stream.seek(lastFrame);
+        stopped = false;
+        return this;
+    }
+
+    @Override
+    public long getPlaybackTime() {
+        if (isRemoved())
+            return 0;
+
+        //the offset counts from the first queued buffer, and might already be past it
+        int offset = queued.isEmpty() ? 0 : alGetSourcei(source, AL_SAMPLE_OFFSET);
+        for (Queued q : queued) {
+            if (offset < q.frames)
+                return (q.start + offset) * 1000L / stream.sampleRate;
+            offset -= q.frames;
+        }
+
+        return lastFrame * 1000L / stream.sampleRate;
+    }
+
+    /**
+     * Copies the first channel samples being played right now, taken from the rolling window of the stream
+     * @return false if there is nothing decoded around the playback
+     */
+    public boolean getSamples(float[] out) {
+        if (isRemoved())
+            return false;
+
+        long position = stream.getStreamed() - out.length;
+        int offset = queued.isEmpty() ? 0 : alGetSourcei(source, AL_SAMPLE_OFFSET);
+        for (Queued q : queued) {
+            if (offset < q.frames) {
+                position = q.position + offset;
+                break;
+            }
+            offset -= q.frames;
+        }
+
+        //near the end, fall back to the last samples decoded
+        return stream.readWindow(position, out) || stream.readWindow(stream.getStreamed() - out.length, out);
+    }
+
+    public int getSampleRate() {
+        return stream.sampleRate;
+    }
+
+    private record Queued(int buffer, long start, long position, int frames) {}
+}
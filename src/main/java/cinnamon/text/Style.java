@@ -48,6 +48,7 @@ public class Style {
     private Resource guiSkin;
     private ClickEvent clickEvent;
     private HoverEvent hoverEvent;
+    private int hash;
 
     private Style() {}
 
@@ -347,11 +348,15 @@ public class Style {
 
     @Override
     public int hashCode() {
-        return Objects.hash(
-                mask, flags,
-                color, backgroundColor, shadowColor, outlineColor,
-                italicOffset, boldOffset, shadowOffset,
-                guiSkin, clickEvent, hoverEvent
-        );
+        //styles are never changed after being returned, so the hash is only computed once
+        if (hash == 0) {
+            hash = Objects.hash(
+                    mask, flags,
+                    color, backgroundColor, shadowColor, outlineColor,
+                    italicOffset, boldOffset, shadowOffset,
+                    guiSkin, clickEvent, hoverEvent
+            );
+        }
+        return hash;
     }
 }
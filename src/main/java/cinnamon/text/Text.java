@@ -5,7 +5,6 @@ import cinnamon.render.Font;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.batch.VertexConsumer;
 import cinnamon.utils.Alignment;
-import cinnamon.utils.TextUtils;
 import cinnamon.utils.UIHelper;
 
 import java.util.ArrayList;
@@ -141,17 +140,7 @@ public class Text {
     }
 
     public void render(VertexConsumer consumer, MatrixStack matrices, float x, float y, Alignment alignment, int indexScaling) {
-        List<Text> list = TextUtils.split(this, "\n");
         Font font = style.getGuiSkin().getFont();
-
-        int size = list.size();
-        float yOffset = alignment.getHeightOffset(font.lineHeight * size + font.lineGap * (size - 1));
-
-        for (int i = 0; i < size; i++) {
-            Text t = list.get(i);
-            float x2 = alignment.getWidthOffset(font.width(t));
-            float y2 = font.ascent + (font.lineHeight + font.lineGap) * i + yOffset;
-            font.bake(consumer, matrices, t, x + x2, y + y2, indexScaling * UIHelper.getDepthOffset());
-        }
+        font.getLayout(this).render(consumer, matrices, x, y, alignment, indexScaling * UIHelper.getDepthOffset());
     }
 }
@@ -0,0 +1,216 @@
+package cinnamon.utils;
+
+import cinnamon.model.ModelManager;
+import cinnamon.render.texture.Texture;
+import cinnamon.sound.Sound;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static cinnamon.events.Events.LOGGER;
+
+/**
+ * Two stage asset loading, the decoding runs on a pool of worker threads
+ * while the upload (anything touching GL or AL) is queued back to the main thread and drained every frame within a time budget
+ * every returned future is completed on the main thread, so their callbacks are free to touch the caches
+ */
+public class AssetLoader {
+
+    //max time spent uploading per frame, in nanoseconds
+    public static final long UPLOAD_BUDGET = 2_000_000L;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1), AssetLoader::newThread);
+    private static final Queue<Upload> UPLOADS = new ConcurrentLinkedQueue<>();
+
+    //bumped when the resources are freed, so late uploads from a previous load are discarded
+    private static volatile int generation;
+
+    private static Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "Asset Loader #" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        //resources are read through the context class loader
+        thread.setContextClassLoader(AssetLoader.class.getClassLoader());
+        return thread;
+    }
+
+    /**
+     * Decodes the data on a worker thread, then uploads it on the main thread
+     * if the decoded data is {@link AutoCloseable}, it is closed when the upload is discarded
+     * @param decode the thread-safe decoding step
+     * @param upload the main thread step, receiving the decoded data
+     * @return a future completed on the main thread with the uploaded asset
+     */
+    public static <D, T> CompletableFuture<T> load(Supplier<D> decode, Function<D, T> upload) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        int gen = generation;
+
+        WORKERS.execute(() -> {
+            D data;
+            try {
+                data = decode.get();
+            } catch (Throwable t) {
+                //failures are also reported on the main thread
+                UPLOADS.add(new Upload(gen, future, () -> future.completeExceptionally(t), () -> future.completeExceptionally(t)));
+                return;
+            }
+
+            UPLOADS.add(new Upload(gen, future, () -> {
+                try {
+                    future.complete(upload.apply(data));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }, () -> {
+                if (data instanceof AutoCloseable closeable) {
+                    try {
+                        closeable.close();
+                    } catch (Exception e) {
+                        LOGGER.error("Failed to discard asset data", e);
+                    }
+                }
+                future.completeExceptionally(new CancellationException("Asset discarded"));
+            }));
+        });
+
+        return future;
+    }
+
+    /**
+     * Queues a task to run on the main thread, on the same queue as the uploads
+     */
+    public static <T> CompletableFuture<T> runOnMainThread(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        UPLOADS.add(new Upload(generation, future, () -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, () -> future.completeExceptionally(new CancellationException("Asset discarded"))));
+        return future;
+    }
+
+    public static int processUploads() {
+        return processUploads(UPLOAD_BUDGET);
+    }
+
+    /**
+     * Runs the queued uploads until the time budget is exceeded, always running at least one
+     * @param budget the time budget, in nanoseconds
+     * @return the amount of uploads processed
+     */
+    public static int processUploads(long budget) {
+        long start = System.nanoTime();
+        int count = 0;
+
+        for (Upload upload; (upload = UPLOADS.poll()) != null; ) {
+            upload.process();
+            count++;
+            if (System.nanoTime() - start >= budget)
+                break;
+        }
+
+        return count;
+    }
+
+    /**
+     * Blocks until the future is done, running only its own upload once it arrives
+     * the other uploads are left to the per-frame budget
+     * only safe to call from the main thread, with a future returned by this loader
+     */
+    public static void finish(CompletableFuture<?> future) {
+        while (!future.isDone()) {
+            Upload upload = take(future);
+            if (upload != null) upload.process();
+            else Thread.onSpinWait();
+        }
+    }
+
+    private static Upload take(CompletableFuture<?> future) {
+        for (Upload upload : UPLOADS) {
+            //only the main thread removes uploads, so it is still queued
+            if (upload.future == future && UPLOADS.remove(upload))
+                return upload;
+        }
+        return null;
+    }
+
+    public static int getPendingUploads() {
+        return UPLOADS.size();
+    }
+
+    /**
+     * Discards every pending upload, loads still decoding are dropped once they finish
+     */
+    public static void clear() {
+        generation++;
+        for (Upload upload; (upload = UPLOADS.poll()) != null; )
+            upload.discard.run();
+    }
+
+    /**
+     * Starts loading every asset listed in a manifest json, in the format:
+     * {@code {"textures": [...], "models": [...], "sounds": [...]}}
+     * @return a future completed once every listed asset has been loaded or failed
+     */
+    public static CompletableFuture<Void> preload(Resource manifest) {
+        if (!IOUtils.hasResource(manifest))
+            return CompletableFuture.completedFuture(null);
+
+        LOGGER.debug("Preloading assets from \"%s\"", manifest);
+
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        try (InputStream stream = IOUtils.getResource(manifest); InputStreamReader reader = new InputStreamReader(stream)) {
+            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+
+            for (Resource res : parseList(json, "textures"))
+                futures.add(Texture.load(res));
+            for (Resource res : parseList(json, "models"))
+                futures.add(ModelManager.loadRenderer(res));
+            for (Resource res : parseList(json, "sounds"))
+                futures.add(Sound.load(res));
+        } catch (Exception e) {
+            LOGGER.error("Failed to load asset manifest \"%s\"", manifest, e);
+        }
+
+        //a failed asset should not fail the whole preload
+        return CompletableFuture.allOf(futures.stream()
+                .map(future -> future.exceptionally(t -> null))
+                .toArray(CompletableFuture<?>[]::new));
+    }
+
+    private static List<Resource> parseList(JsonObject json, String key) {
+        List<Resource> list = new ArrayList<>();
+        if (!json.has(key))
+            return list;
+
+        JsonArray array = json.getAsJsonArray(key);
+        for (JsonElement element : array)
+            list.add(new Resource(element.getAsString()));
+
+        return list;
+    }
+
+    private record Upload(int generation, CompletableFuture<?> future, Runnable run, Runnable discard) {
+        private void process() {
+            if (generation != AssetLoader.generation) discard.run();
+            else run.run();
+        }
+    }
+}
@@ -53,6 +53,25 @@ public class IOUtils {
         return Thread.currentThread().getContextClassLoader().getResourceAsStream(resourcePath);
     }
 
+    public static URL getResourceURL(Resource res) {
+        if (res.getNamespace().isEmpty()) {
+            String path = res.getPath();
+            try {
+                return URI.create(path).toURL();
+            } catch (IllegalArgumentException | MalformedURLException ignored) {
+                try {
+                    Path file = Path.of(path);
+                    return Files.exists(file) ? file.toUri().toURL() : null;
+                } catch (MalformedURLException e) {
+                    return null;
+                }
+            }
+        }
+
+        String resourcePath = resolveResourcePath(res);
+        return Thread.currentThread().getContextClassLoader().getResource(resourcePath);
+    }
+
     public static ByteBuffer getResourceBuffer(Resource res) {
         InputStream stream = getResource(res);
         if (stream == null)
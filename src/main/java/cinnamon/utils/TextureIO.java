@@ -119,10 +119,10 @@ public class TextureIO {
             IntBuffer h = stack.mallocInt(1);
             IntBuffer channels = stack.mallocInt(1);
 
-            STBImage.stbi_set_flip_vertically_on_load(flip);
+            STBImage.stbi_set_flip_vertically_on_load_thread(flip ? 1 : 0);
             ByteBuffer imageBuffer = IOUtils.getResourceBuffer(resource);
             ByteBuffer buffer = STBImage.stbi_load_from_memory(imageBuffer, w, h, channels, desiredChannels);
-            STBImage.stbi_set_flip_vertically_on_load(false);
+            STBImage.stbi_set_flip_vertically_on_load_thread(0);
 
             if (buffer == null)
                 throw new Exception("Failed to load image \"" + resource + "\", " + STBImage.stbi_failure_reason());
@@ -141,10 +141,10 @@ public class TextureIO {
             IntBuffer h = stack.mallocInt(1);
             IntBuffer channels = stack.mallocInt(1);
 
-            STBImage.stbi_set_flip_vertically_on_load(flip);
+            STBImage.stbi_set_flip_vertically_on_load_thread(flip ? 1 : 0);
             ByteBuffer imageBuffer = texture.pcDataCompressed();
             ByteBuffer buffer = STBImage.stbi_load_from_memory(imageBuffer, w, h, channels, desiredChannels);
-            STBImage.stbi_set_flip_vertically_on_load(false);
+            STBImage.stbi_set_flip_vertically_on_load_thread(0);
 
             if (buffer == null) {
                 try (AIString name = texture.mFilename()) {
@@ -13,6 +13,7 @@ import cinnamon.model.Vertex;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.Window;
 import cinnamon.render.batch.VertexConsumer;
+import cinnamon.render.texture.Texture;
 import cinnamon.text.Style;
 import cinnamon.text.Text;
 import cinnamon.vr.XrManager;
@@ -48,14 +49,15 @@ public class UIHelper {
             float u1 = (float) width / textureSize;
             float v1 = (float) height / textureSize;
 
-            VertexConsumer.MAIN.consume(quad(
-                    matrices,
+            quad(
+                    VertexConsumer.MAIN, matrices,
                     x, y,
                     width, height,
                     -999,
                     0f, u1,
-                    0f, v1
-            ), res);
+                    0f, v1,
+                    Texture.ofAsync(res).getID()
+            );
         }
     }
 
@@ -90,47 +92,34 @@ public class UIHelper {
     }
 
     public static void nineQuad(VertexConsumer consumer, MatrixStack matrices, Resource texture, float x, float y, float width, float height, float u, float v, int regionWidth, int regionHeight, int textureWidth, int textureHeight) {
-        for (Vertex[] vertices : nineQuad(matrices, x, y, width, height, u, v, regionWidth, regionHeight, textureWidth, textureHeight))
-            consumer.consume(vertices, texture);
+        nineQuad(consumer, matrices, texture, x, y, width, height, u, v, regionWidth, regionHeight, textureWidth, textureHeight, 0xFFFFFFFF);
     }
 
     public static void nineQuad(VertexConsumer consumer, MatrixStack matrices, Resource texture, float x, float y, float width, float height, float u, float v, int regionWidth, int regionHeight, int textureWidth, int textureHeight, int color) {
-        for (Vertex[] vertices : nineQuad(matrices, x, y, width, height, u, v, regionWidth, regionHeight, textureWidth, textureHeight)) {
-            for (Vertex vertex : vertices)
-                vertex.color(color);
-            consumer.consume(vertices, texture);
-        }
-    }
-
-    private static Vertex[][] nineQuad(MatrixStack matrices, float x, float y, float width, float height, float u, float v, int regionWidth, int regionHeight, int textureWidth, int textureHeight) {
+        int tex = Texture.ofAsync(texture).getID();
         SplitQuad w = new SplitQuad(width, regionWidth, x, u);
         SplitQuad h = new SplitQuad(height, regionHeight, y, v);
 
-        //draw
-        Vertex[][] vertices = new Vertex[9][4];
-
         //top left
-        vertices[0] = quad(matrices, x, y, w.length1, h.length1, u, v, w.length1, h.length1, textureWidth, textureHeight);
+        quad(consumer, matrices, x, y, w.length1, h.length1, u, v, w.length1, h.length1, textureWidth, textureHeight, color, tex);
         //top middle
-        vertices[1] = quad(matrices, w.pos2, y, w.length2, h.length1, w.uv2, v, w.centerRegion, h.length1, textureWidth, textureHeight);
+        quad(consumer, matrices, w.pos2, y, w.length2, h.length1, w.uv2, v, w.centerRegion, h.length1, textureWidth, textureHeight, color, tex);
         //top right
-        vertices[2] = quad(matrices, w.pos3, y, w.length3, h.length1, w.uv3, v, w.length3, h.length1, textureWidth, textureHeight);
+        quad(consumer, matrices, w.pos3, y, w.length3, h.length1, w.uv3, v, w.length3, h.length1, textureWidth, textureHeight, color, tex);
 
         //middle left
-        vertices[3] = quad(matrices, x, h.pos2, w.length1, h.length2, u, h.uv2, w.length1, h.centerRegion, textureWidth, textureHeight);
+        quad(consumer, matrices, x, h.pos2, w.length1, h.length2, u, h.uv2, w.length1, h.centerRegion, textureWidth, textureHeight, color, tex);
         //middle middle
-        vertices[4] = quad(matrices, w.pos2, h.pos2, w.length2, h.length2, w.uv2, h.uv2, w.centerRegion, h.centerRegion, textureWidth, textureHeight);
+        quad(consumer, matrices, w.pos2, h.pos2, w.length2, h.length2, w.uv2, h.uv2, w.centerRegion, h.centerRegion, textureWidth, textureHeight, color, tex);
         //middle right
-        vertices[5] = quad(matrices, w.pos3, h.pos2, w.length3, h.length2, w.uv3, h.uv2, w.length3, h.centerRegion, textureWidth, textureHeight);
+        quad(consumer, matrices, w.pos3, h.pos2, w.length3, h.length2, w.uv3, h.uv2, w.length3, h.centerRegion, textureWidth, textureHeight, color, tex);
 
         //bottom left
-        vertices[6] = quad(matrices, x, h.pos3, w.length1, h.length3, u, h.uv3, w.length1, h.length3, textureWidth, textureHeight);
+        quad(consumer, matrices, x, h.pos3, w.length1, h.length3, u, h.uv3, w.length1, h.length3, textureWidth, textureHeight, color, tex);
         //bottom middle
-        vertices[7] = quad(matrices, w.pos2, h.pos3, w.length2, h.length3, w.uv2, h.uv3, w.centerRegion, h.length3, textureWidth, textureHeight);
+        quad(consumer, matrices, w.pos2, h.pos3, w.length2, h.length3, w.uv2, h.uv3, w.centerRegion, h.length3, textureWidth, textureHeight, color, tex);
         //bottom right
-        vertices[8] = quad(matrices, w.pos3, h.pos3, w.length3, h.length3, w.uv3, h.uv3, w.length3, h.length3, textureWidth, textureHeight);
-
-        return vertices;
+        quad(consumer, matrices, w.pos3, h.pos3, w.length3, h.length3, w.uv3, h.uv3, w.length3, h.length3, textureWidth, textureHeight, color, tex);
     }
 
     private static class SplitQuad {
@@ -154,53 +143,29 @@ public class UIHelper {
     }
 
     public static void horizontalQuad(VertexConsumer consumer, MatrixStack matrices, Resource texture, float x, float y, float width, float height, float u, float v, int regionWidth, int regionHeight, int textureWidth, int textureHeight) {
-        for (Vertex[] vertices : horizontalQuad(matrices, x, y, width, height, u, v, regionWidth, regionHeight, textureWidth, textureHeight))
-            consumer.consume(vertices, texture);
+        horizontalQuad(consumer, matrices, texture, x, y, width, height, u, v, regionWidth, regionHeight, textureWidth, textureHeight, 0xFFFFFFFF);
     }
 
     public static void horizontalQuad(VertexConsumer consumer, MatrixStack matrices, Resource texture, float x, float y, float width, float height, float u, float v, int regionWidth, int regionHeight, int textureWidth, int textureHeight, int color) {
-        for (Vertex[] vertices : horizontalQuad(matrices, x, y, width, height, u, v, regionWidth, regionHeight, textureWidth, textureHeight)) {
-            for (Vertex vertex : vertices)
-                vertex.color(color);
-            consumer.consume(vertices, texture);
-        }
-    }
-
-    private static Vertex[][] horizontalQuad(MatrixStack matrices, float x, float y, float width, float height, float u, float v, int regionWidth, int regionHeight, int textureWidth, int textureHeight) {
+        int tex = Texture.ofAsync(texture).getID();
         SplitQuad w = new SplitQuad(width, regionWidth, x, u);
 
-        Vertex[][] vertices = new Vertex[3][4];
-
-        vertices[0] = quad(matrices, x, y, w.length1, height, u, v, w.length1, regionHeight, textureWidth, textureHeight);
-        vertices[1] = quad(matrices, w.pos2, y, w.length2, height, w.uv2, v, w.centerRegion, regionHeight, textureWidth, textureHeight);
-        vertices[2] = quad(matrices, w.pos3, y, w.length3, height, w.uv3, v, w.length3, regionHeight, textureWidth, textureHeight);
-
-        return vertices;
+        quad(consumer, matrices, x, y, w.length1, height, u, v, w.length1, regionHeight, textureWidth, textureHeight, color, tex);
+        quad(consumer, matrices, w.pos2, y, w.length2, height, w.uv2, v, w.centerRegion, regionHeight, textureWidth, textureHeight, color, tex);
+        quad(consumer, matrices, w.pos3, y, w.length3, height, w.uv3, v, w.length3, regionHeight, textureWidth, textureHeight, color, tex);
     }
 
     public static void verticalQuad(VertexConsumer consumer, MatrixStack matrices, Resource texture, float x, float y, float width, float height, float u, float v, int regionWidth, int regionHeight, int textureWidth, int textureHeight) {
-        for (Vertex[] vertices : verticalQuad(matrices, x, y, width, height, u, v, regionWidth, regionHeight, textureWidth, textureHeight))
-            consumer.consume(vertices, texture);
+        verticalQuad(consumer, matrices, texture, x, y, width, height, u, v, regionWidth, regionHeight, textureWidth, textureHeight, 0xFFFFFFFF);
     }
 
     public static void verticalQuad(VertexConsumer consumer, MatrixStack matrices, Resource texture, float x, float y, float width, float height, float u, float v, int regionWidth, int regionHeight, int textureWidth, int textureHeight, int color) {
-        for (Vertex[] vertices : verticalQuad(matrices, x, y, width, height, u, v, regionWidth, regionHeight, textureWidth, textureHeight)) {
-            for (Vertex vertex : vertices)
-                vertex.color(color);
-            consumer.consume(vertices, texture);
-        }
-    }
-
-    private static Vertex[][] verticalQuad(MatrixStack matrices, float x, float y, float width, float height, float u, float v, int regionWidth, int regionHeight, int textureWidth, int textureHeight) {
+        int tex = Texture.ofAsync(texture).getID();
         SplitQuad h = new SplitQuad(height, regionHeight, y, v);
 
-        Vertex[][] vertices = new Vertex[3][4];
-
-        vertices[0] = quad(matrices, x, y, width, h.length1, u, v, regionWidth, h.length1, textureWidth, textureHeight);
-        vertices[1] = quad(matrices, x, h.pos2, width, h.length2, u, h.uv2, regionWidth, h.centerRegion, textureWidth, textureHeight);
-        vertices[2] = quad(matrices, x, h.pos3, width, h.length3, u, h.uv3, regionWidth, h.length3, textureWidth, textureHeight);
-
-        return vertices;
+        quad(consumer, matrices, x, y, width, h.length1, u, v, regionWidth, h.length1, textureWidth, textureHeight, color, tex);
+        quad(consumer, matrices, x, h.pos2, width, h.length2, u, h.uv2, regionWidth, h.centerRegion, textureWidth, textureHeight, color, tex);
+        quad(consumer, matrices, x, h.pos3, width, h.length3, u, h.uv3, regionWidth, h.length3, textureWidth, textureHeight, color, tex);
     }
 
     public static void outline(MatrixStack matrices, Widget w, int thickness, int color) {
@@ -218,13 +183,13 @@ public class UIHelper {
 
     public static void outline(MatrixStack matrices, int x, int y, int width, int height, int thickness, int color) {
         //top
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x, y, x + width, y + thickness, color));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x, y, x + width, y + thickness, color);
         //bottom
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x, y + height - thickness, x + width, y + height, color));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x, y + height - thickness, x + width, y + height, color);
         //left
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x, y + thickness, x + thickness, y + height - thickness, color));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x, y + thickness, x + thickness, y + height - thickness, color);
         //right
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x + width - thickness, y + thickness, x + width, y + height - thickness, color));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x + width - thickness, y + thickness, x + width, y + height - thickness, color);
     }
 
     public static void highlight(MatrixStack matrices, Widget w, boolean invert, int color) {
@@ -245,7 +210,7 @@ public class UIHelper {
         matrices.translate(0, 0, getDepthOffset() * 5);
 
         if (!invert) {
-            VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x, y, x + width, y + height, color));
+            GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x, y, x + width, y + height, color);
             matrices.popMatrix();
             return;
         }
@@ -255,13 +220,13 @@ public class UIHelper {
         int h = window.getGUIHeight();
 
         //top
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, 0, 0, w, y, color));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, 0, 0, w, y, color);
         //bottom
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, 0, y + height, w, h, color));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, 0, y + height, w, h, color);
         //left
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, 0, y, x, y + height, color));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, 0, y, x, y + height, color);
         //right
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, x + width, y, w, y + height, color));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, x + width, y, w, y + height, color);
 
         matrices.popMatrix();
     }
@@ -3,6 +3,7 @@ package cinnamon.world;
 import cinnamon.math.Transform;
 import cinnamon.math.collision.shape.AABB;
 import cinnamon.render.Camera;
+import cinnamon.render.LightRenderer;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.WorldRenderer;
 import cinnamon.world.world.World;
@@ -44,7 +45,7 @@ public abstract class WorldObject {
     public abstract void calculateBounds();
 
     public boolean shouldRender(Camera camera) {
-        return camera.isInsideFrustum(getAABB()) && (!WorldRenderer.isShadowRendering() || castsShadows());
+        return camera.isInsideFrustum(getAABB()) && (!WorldRenderer.isShadowRendering() || (castsShadows() && LightRenderer.isInsideShadowVolume(getAABB())));
     }
 
     public boolean isAdded() {
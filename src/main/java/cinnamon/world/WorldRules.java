@@ -21,7 +21,8 @@ public class WorldRules {
     }
 
     public enum Rule {
-        DAY_CYCLE(Type.BOOL, true);
+        DAY_CYCLE(Type.BOOL, true),
+        PARALLEL_PHYSICS(Type.BOOL, false);
 
         public final Type type;
         public final Object initialState;
@@ -0,0 +1,383 @@
+package cinnamon.world.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HPA* over a {@link VoxelGrid}: the grid is split in cubic clusters, linked by entrance cells on their borders,
+ * and the costs between the entrances of each cluster are precomputed
+ * queries search the small abstract graph first, then refine each hop with a search local to one cluster
+ * keep one instance per thread, and call {@link #build()} again after the grid changes
+ */
+public class HierarchicalPathFinder {
+
+    private static final int[] NO_PATH = new int[0];
+
+    private final VoxelGrid grid;
+    private final int clusterSize;
+    private final int clustersX, clustersY, clustersZ;
+
+    private final PathFinder localFinder = new PathFinder();
+    private final PathFinder abstractFinder = new PathFinder();
+    private final ClusterView view = new ClusterView();
+    private final AbstractGraph abstractGraph = new AbstractGraph();
+
+    //entrances, as grid nodes, grouped by cluster
+    private int entranceCount;
+    private int[] entranceNodes = new int[0];
+    private int[] entranceClusters = new int[0];
+    private int[] clusterStart = new int[0];
+    private int[] clusterEntrances = new int[0];
+
+    //abstract edges, grouped by source entrance
+    private int[] edgeStart = new int[0];
+    private int[] edgeTargets = new int[0];
+    private float[] edgeCosts = new float[0];
+    private boolean built;
+
+    public HierarchicalPathFinder(VoxelGrid grid, int clusterSize) {
+        this.grid = grid;
+        this.clusterSize = Math.max(clusterSize, 2);
+        this.clustersX = (grid.getSizeX() + this.clusterSize - 1) / this.clusterSize;
+        this.clustersY = (grid.getSizeY() + this.clusterSize - 1) / this.clusterSize;
+        this.clustersZ = (grid.getSizeZ() + this.clusterSize - 1) / this.clusterSize;
+    }
+
+    public HierarchicalPathFinder build() {
+        Map<Integer, Integer> entranceIds = new HashMap<>();
+        Map<Long, List<Integer>> transitions = new HashMap<>();
+        IntList nodes = new IntList();
+        EdgeList edges = new EdgeList();
+        int spacing = Math.max(clusterSize / 2, 1);
+
+        //find the grid edges crossing cluster borders, keeping a few spread out ones per pair of clusters
+        int size = grid.size();
+        for (int node = 0; node < size; node++) {
+            if (!grid.isWalkable(node))
+                continue;
+
+            int from = node;
+            int fromCluster = clusterOf(from);
+            grid.forEachNeighbor(from, (to, cost) -> {
+                int toCluster = clusterOf(to);
+                if (toCluster <= fromCluster)
+                    return;
+
+                //skip when another transition of this border is close enough
+                List<Integer> chosen = transitions.computeIfAbsent((long) fromCluster * clusterCount() + toCluster, k -> new ArrayList<>());
+                for (int other : chosen) {
+                    if (distance(other, from) < spacing)
+                        return;
+                }
+                chosen.add(from);
+
+                int a = entranceIds.computeIfAbsent(from, k -> nodes.add(k));
+                int b = entranceIds.computeIfAbsent(to, k -> nodes.add(k));
+                edges.add(a, b, cost);
+                edges.add(b, a, cost);
+            });
+        }
+
+        entranceCount = nodes.size;
+        entranceNodes = Arrays.copyOf(nodes.data, entranceCount);
+        entranceClusters = new int[entranceCount];
+        for (int i = 0; i < entranceCount; i++)
+            entranceClusters[i] = clusterOf(entranceNodes[i]);
+
+        //group entrances per cluster
+        int clusters = clusterCount();
+        clusterStart = new int[clusters + 1];
+        for (int i = 0; i < entranceCount; i++)
+            clusterStart[entranceClusters[i] + 1]++;
+        for (int i = 0; i < clusters; i++)
+            clusterStart[i + 1] += clusterStart[i];
+        clusterEntrances = new int[entranceCount];
+        int[] fill = Arrays.copyOf(clusterStart, clusters);
+        for (int i = 0; i < entranceCount; i++)
+            clusterEntrances[fill[entranceClusters[i]]++] = i;
+
+        //intra-cluster costs between every pair of entrances
+        for (int c = 0; c < clusters; c++) {
+            int first = clusterStart[c], last = clusterStart[c + 1];
+            if (last - first < 2)
+                continue;
+
+            view.set(c);
+            for (int i = first; i < last; i++) {
+                int a = clusterEntrances[i];
+                localFinder.expand(view, view.toLocal(entranceNodes[a]));
+                for (int j = first; j < last; j++) {
+                    int b = clusterEntrances[j];
+                    float cost = localFinder.getCost(view.toLocal(entranceNodes[b]));
+                    if (a != b && cost != Float.POSITIVE_INFINITY)
+                        edges.add(a, b, cost);
+                }
+            }
+        }
+
+        //pack the edges by source
+        edgeStart = new int[entranceCount + 1];
+        for (int i = 0; i < edges.size; i++)
+            edgeStart[edges.from[i] + 1]++;
+        for (int i = 0; i < entranceCount; i++)
+            edgeStart[i + 1] += edgeStart[i];
+        edgeTargets = new int[edges.size];
+        edgeCosts = new float[edges.size];
+        fill = Arrays.copyOf(edgeStart, entranceCount);
+        for (int i = 0; i < edges.size; i++) {
+            int slot = fill[edges.from[i]]++;
+            edgeTargets[slot] = edges.to[i];
+            edgeCosts[slot] = edges.cost[i];
+        }
+
+        built = true;
+        return this;
+    }
+
+    public int[] findPath(int start, int goal) {
+        if (!grid.isWalkable(start) || !grid.isWalkable(goal))
+            return NO_PATH;
+        if (start == goal)
+            return new int[]{start};
+        if (!built)
+            build();
+
+        //same cluster, try to stay inside it
+        int startCluster = clusterOf(start), goalCluster = clusterOf(goal);
+        if (startCluster == goalCluster) {
+            int[] local = findLocalPath(startCluster, start, goal);
+            if (local.length > 0)
+                return local;
+        }
+
+        //link the start and goal to the entrances of their clusters
+        abstractGraph.link(start, goal, startCluster, goalCluster);
+
+        int[] hops = abstractFinder.findPath(abstractGraph, entranceCount, entranceCount + 1);
+        if (hops.length == 0)
+            return localFinder.findPath(grid, start, goal);
+
+        //refine every hop into grid nodes
+        IntList path = new IntList();
+        path.add(start);
+        for (int i = 1; i < hops.length; i++) {
+            int from = abstractGraph.toGrid(hops[i - 1]);
+            int to = abstractGraph.toGrid(hops[i]);
+            if (from == to)
+                continue;
+
+            int cluster = clusterOf(from);
+            if (cluster != clusterOf(to)) {
+                //border crossing, the nodes are neighbors
+                path.add(to);
+                continue;
+            }
+
+            int[] segment = findLocalPath(cluster, from, to);
+            for (int j = 1; j < segment.length; j++)
+                path.add(segment[j]);
+        }
+
+        return Arrays.copyOf(path.data, path.size);
+    }
+
+    private int[] findLocalPath(int cluster, int start, int goal) {
+        view.set(cluster);
+        int[] local = localFinder.findPath(view, view.toLocal(start), view.toLocal(goal));
+        for (int i = 0; i < local.length; i++)
+            local[i] = view.toGrid(local[i]);
+        return local;
+    }
+
+    private int clusterOf(int node) {
+        int cx = grid.getX(node) / clusterSize, cy = grid.getY(node) / clusterSize, cz = grid.getZ(node) / clusterSize;
+        return (cx * clustersY + cy) * clustersZ + cz;
+    }
+
+    private int clusterCount() {
+        return clustersX * clustersY * clustersZ;
+    }
+
+    private int distance(int a, int b) {
+        return Math.max(Math.abs(grid.getX(a) - grid.getX(b)), Math.max(Math.abs(grid.getY(a) - grid.getY(b)), Math.abs(grid.getZ(a) - grid.getZ(b))));
+    }
+
+    public int getEntranceCount() {
+        return entranceCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeTargets.length;
+    }
+
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    public VoxelGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Window of the grid covering a single cluster, with nodes re-indexed locally
+     */
+    private class ClusterView implements PathGraph {
+
+        private int ox, oy, oz, sx, sy, sz;
+        private EdgeVisitor target;
+        private final EdgeVisitor filter = (node, cost) -> {
+            if (contains(node))
+                target.visit(toLocal(node), cost);
+        };
+
+        private void set(int cluster) {
+            int cz = cluster % clustersZ;
+            int cy = (cluster / clustersZ) % clustersY;
+            int cx = cluster / (clustersY * clustersZ);
+            ox = cx * clusterSize; oy = cy * clusterSize; oz = cz * clusterSize;
+            sx = Math.min(clusterSize, grid.getSizeX() - ox);
+            sy = Math.min(clusterSize, grid.getSizeY() - oy);
+            sz = Math.min(clusterSize, grid.getSizeZ() - oz);
+        }
+
+        private boolean contains(int node) {
+            int x = grid.getX(node) - ox, y = grid.getY(node) - oy, z = grid.getZ(node) - oz;
+            return x >= 0 && y >= 0 && z >= 0 && x < sx && y < sy && z < sz;
+        }
+
+        private int toLocal(int node) {
+            return ((grid.getX(node) - ox) * sy + grid.getY(node) - oy) * sz + grid.getZ(node) - oz;
+        }
+
+        private int toGrid(int local) {
+            return grid.index(ox + local / (sy * sz), oy + (local / sz) % sy, oz + local % sz);
+        }
+
+        @Override
+        public int size() {
+            return sx * sy * sz;
+        }
+
+        @Override
+        public void forEachNeighbor(int node, EdgeVisitor visitor) {
+            target = visitor;
+            grid.forEachNeighbor(toGrid(node), filter);
+            target = null;
+        }
+
+        @Override
+        public float heuristic(int from, int to) {
+            return grid.heuristic(toGrid(from), toGrid(to));
+        }
+    }
+
+    /**
+     * The entrance graph, plus two temporary nodes for the start and goal of the current query
+     */
+    private class AbstractGraph implements PathGraph {
+
+        private int start, goal, goalCluster;
+        private final IntList startEdges = new IntList(), goalEdges = new IntList();
+        private float[] startCosts = new float[0], goalCosts = new float[0];
+
+        private void link(int start, int goal, int startCluster, int goalCluster) {
+            this.start = start;
+            this.goal = goal;
+            this.goalCluster = goalCluster;
+            startCosts = connect(startCluster, start, startEdges, startCosts);
+            goalCosts = connect(goalCluster, goal, goalEdges, goalCosts);
+        }
+
+        private float[] connect(int cluster, int node, IntList targets, float[] costs) {
+            //paths are symmetric, so a single expansion gives the costs both ways
+            targets.size = 0;
+            view.set(cluster);
+            localFinder.expand(view, view.toLocal(node));
+
+            int first = clusterStart[cluster], last = clusterStart[cluster + 1];
+            if (costs.length < last - first)
+                costs = new float[last - first];
+
+            for (int i = first; i < last; i++) {
+                int e = clusterEntrances[i];
+                float cost = localFinder.getCost(view.toLocal(entranceNodes[e]));
+                if (cost != Float.POSITIVE_INFINITY) {
+                    costs[targets.size] = cost;
+                    targets.add(e);
+                }
+            }
+
+            return costs;
+        }
+
+        private int toGrid(int node) {
+            if (node == entranceCount) return start;
+            if (node == entranceCount + 1) return goal;
+            return entranceNodes[node];
+        }
+
+        @Override
+        public int size() {
+            return entranceCount + 2;
+        }
+
+        @Override
+        public void forEachNeighbor(int node, EdgeVisitor visitor) {
+            if (node == entranceCount) {
+                for (int i = 0; i < startEdges.size; i++)
+                    visitor.visit(startEdges.data[i], startCosts[i]);
+                return;
+            }
+
+            if (node == entranceCount + 1)
+                return;
+
+            for (int i = edgeStart[node]; i < edgeStart[node + 1]; i++)
+                visitor.visit(edgeTargets[i], edgeCosts[i]);
+
+            if (entranceClusters[node] == goalCluster) {
+                for (int i = 0; i < goalEdges.size; i++) {
+                    if (goalEdges.data[i] == node)
+                        visitor.visit(entranceCount + 1, goalCosts[i]);
+                }
+            }
+        }
+
+        @Override
+        public float heuristic(int from, int to) {
+            return grid.heuristic(toGrid(from), toGrid(to));
+        }
+    }
+
+    private static class IntList {
+        private int[] data = new int[16];
+        private int size;
+
+        private int add(int value) {
+            if (size == data.length)
+                data = Arrays.copyOf(data, size * 2);
+            data[size] = value;
+            return size++;
+        }
+    }
+
+    private static class EdgeList {
+        private int[] from = new int[16], to = new int[16];
+        private float[] cost = new float[16];
+        private int size;
+
+        private void add(int a, int b, float c) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                cost = Arrays.copyOf(cost, size * 2);
+            }
+            from[size] = a;
+            to[size] = b;
+            cost[size++] = c;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package cinnamon.world.ai;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int ids keyed by float priorities, with O(log n) decrease-key
+ * every id tracks its slot inside the heap, so ids must be in the range [0, capacity)
+ */
+public final class IntMinHeap {
+
+    private int[] heap = new int[16];
+    private float[] keys = new float[16];
+    private int[] slots = new int[0];
+    private int size;
+
+    public IntMinHeap() {}
+
+    public IntMinHeap(int capacity) {
+        ensureCapacity(capacity);
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (slots.length >= capacity)
+            return;
+
+        int old = slots.length;
+        slots = Arrays.copyOf(slots, capacity);
+        Arrays.fill(slots, old, capacity, -1);
+    }
+
+    public void add(int id, float key) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+
+        heap[size] = id;
+        keys[size] = key;
+        slots[id] = size;
+        siftUp(size++);
+    }
+
+    public void addOrDecrease(int id, float key) {
+        int slot = slots[id];
+        if (slot < 0) {
+            add(id, key);
+        } else if (key < keys[slot]) {
+            keys[slot] = key;
+            siftUp(slot);
+        }
+    }
+
+    public int poll() {
+        int top = heap[0];
+        slots[top] = -1;
+
+        if (--size > 0) {
+            heap[0] = heap[size];
+            keys[0] = keys[size];
+            slots[heap[0]] = 0;
+            siftDown(0);
+        }
+
+        return top;
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    public float peekKey() {
+        return keys[0];
+    }
+
+    public boolean contains(int id) {
+        return id < slots.length && slots[id] >= 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        //only reset the slots in use, so clearing is proportional to the heap size
+        for (int i = 0; i < size; i++)
+            slots[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        float key = keys[i];
+
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (keys[parent] <= key)
+                break;
+
+            move(parent, i);
+            i = parent;
+        }
+
+        heap[i] = id;
+        keys[i] = key;
+        slots[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        float key = keys[i];
+        int half = size >> 1;
+
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child])
+                child++;
+            if (key <= keys[child])
+                break;
+
+            move(child, i);
+            i = child;
+        }
+
+        heap[i] = id;
+        keys[i] = key;
+        slots[id] = i;
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        keys[to] = keys[from];
+        slots[heap[to]] = to;
+    }
+}
@@ -0,0 +1,130 @@
+package cinnamon.world.ai;
+
+import java.util.Arrays;
+
+/**
+ * A* over an int-indexed {@link PathGraph}, keeping every score in primitive arrays
+ * the arrays are reused between searches and reset lazily through a generation counter,
+ * so a single instance should be kept per thread and reused
+ */
+public class PathFinder {
+
+    private static final int[] NO_PATH = new int[0];
+
+    private final IntMinHeap open = new IntMinHeap();
+    private final PathGraph.EdgeVisitor relax = this::relax;
+
+    private float[] gScore = new float[0];
+    private int[] parent = new int[0];
+    private int[] seen = new int[0];
+    private int[] closed = new int[0];
+    private int generation;
+
+    //current search state
+    private PathGraph graph;
+    private int current, goal;
+    private int expanded;
+
+    public int[] findPath(PathGraph graph, int start, int goal) {
+        if (start == goal)
+            return new int[]{start};
+
+        return search(graph, start, goal) ? getPath(goal) : NO_PATH;
+    }
+
+    /**
+     * Runs a full Dijkstra expansion from the start node, the costs are then available through {@link #getCost(int)}
+     */
+    public void expand(PathGraph graph, int start) {
+        search(graph, start, -1);
+    }
+
+    private boolean search(PathGraph graph, int start, int goal) {
+        prepare(graph.size());
+        this.graph = graph;
+        this.goal = goal;
+        this.expanded = 0;
+
+        seen[start] = generation;
+        gScore[start] = 0f;
+        parent[start] = -1;
+        open.add(start, heuristic(start));
+
+        boolean found = false;
+        while (!open.isEmpty()) {
+            int node = open.poll();
+            if (node == goal) {
+                found = true;
+                break;
+            }
+
+            closed[node] = generation;
+            current = node;
+            expanded++;
+            graph.forEachNeighbor(node, relax);
+        }
+
+        open.clear();
+        this.graph = null;
+        return found;
+    }
+
+    private void relax(int node, float cost) {
+        if (closed[node] == generation)
+            return;
+
+        float g = gScore[current] + cost;
+        if (seen[node] == generation && g >= gScore[node])
+            return;
+
+        seen[node] = generation;
+        gScore[node] = g;
+        parent[node] = current;
+        open.addOrDecrease(node, g + heuristic(node));
+    }
+
+    private float heuristic(int node) {
+        return goal < 0 ? 0f : graph.heuristic(node, goal);
+    }
+
+    private void prepare(int size) {
+        if (gScore.length < size) {
+            gScore = new float[size];
+            parent = new int[size];
+            seen = new int[size];
+            closed = new int[size];
+            open.ensureCapacity(size);
+            generation = 0;
+        }
+
+        //reset the markers once the counter runs out
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+    }
+
+    public float getCost(int node) {
+        return node >= 0 && node < seen.length && seen[node] == generation ? gScore[node] : Float.POSITIVE_INFINITY;
+    }
+
+    public int[] getPath(int node) {
+        if (getCost(node) == Float.POSITIVE_INFINITY)
+            return NO_PATH;
+
+        int length = 0;
+        for (int n = node; n >= 0; n = parent[n])
+            length++;
+
+        int[] path = new int[length];
+        for (int n = node; n >= 0; n = parent[n])
+            path[--length] = n;
+
+        return path;
+    }
+
+    public int getExpandedNodes() {
+        return expanded;
+    }
+}
@@ -0,0 +1,17 @@
+package cinnamon.world.ai;
+
+/**
+ * Graph with nodes addressed by a dense int index, used by the {@link PathFinder}
+ */
+public interface PathGraph {
+
+    int size();
+
+    void forEachNeighbor(int node, EdgeVisitor visitor);
+
+    float heuristic(int from, int to);
+
+    interface EdgeVisitor {
+        void visit(int node, float cost);
+    }
+}
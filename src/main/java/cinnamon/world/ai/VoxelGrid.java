@@ -0,0 +1,246 @@
+package cinnamon.world.ai;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.world.worldgen.TerrainManager;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * {@link PathGraph} over a box of unit cells, with the solid cells read from a {@link TerrainManager}
+ * walking agents need a solid cell below and {@code height} free cells above, flying agents only need the free cells
+ */
+public class VoxelGrid implements PathGraph {
+
+    private static final float SQRT2 = (float) Math.sqrt(2);
+    private static final float EPSILON = 0.001f;
+    private static final int[] DIR_X = {1, -1, 0, 0, 0, 0};
+    private static final int[] DIR_Z = {0, 0, 1, -1, 0, 0};
+    private static final int[] DIR_Y = {0, 0, 0, 0, 1, -1};
+
+    private final int minX, minY, minZ;
+    private final int sizeX, sizeY, sizeZ;
+    private final int height;
+    private final boolean flying;
+    private final long[] solid;
+
+    public VoxelGrid(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, int height, boolean flying) {
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0 || (long) sizeX * sizeY * sizeZ > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(String.format("Invalid grid size: %s, %s, %s", sizeX, sizeY, sizeZ));
+
+        this.minX = minX; this.minY = minY; this.minZ = minZ;
+        this.sizeX = sizeX; this.sizeY = sizeY; this.sizeZ = sizeZ;
+        this.height = Math.max(height, 1);
+        this.flying = flying;
+        this.solid = new long[(sizeX * sizeY * sizeZ + 63) >>> 6];
+    }
+
+    public VoxelGrid update(TerrainManager terrainManager) {
+        return update(terrainManager, new AABB(minX, minY, minZ, minX + sizeX, minY + sizeY, minZ + sizeZ));
+    }
+
+    public VoxelGrid update(TerrainManager terrainManager, AABB region) {
+        //cells inside both the region and the grid
+        int x0 = Math.max(toLocal(Math.floor(region.minX()), minX, sizeX), 0), x1 = Math.min(toLocal(Math.ceil(region.maxX()) - 1, minX, sizeX), sizeX - 1);
+        int y0 = Math.max(toLocal(Math.floor(region.minY()), minY, sizeY), 0), y1 = Math.min(toLocal(Math.ceil(region.maxY()) - 1, minY, sizeY), sizeY - 1);
+        int z0 = Math.max(toLocal(Math.floor(region.minZ()), minZ, sizeZ), 0), z1 = Math.min(toLocal(Math.ceil(region.maxZ()) - 1, minZ, sizeZ), sizeZ - 1);
+        if (x0 > x1 || y0 > y1 || z0 > z1)
+            return this;
+
+        //clear them
+        for (int x = x0; x <= x1; x++)
+            for (int y = y0; y <= y1; y++)
+                for (int z = z0; z <= z1; z++)
+                    setSolid(index(x, y, z), false);
+
+        //then mark every cell covered by solid terrain
+        terrainManager.query(region, terrain -> {
+            if (terrain.getPreciseCollider().isEmpty())
+                return;
+
+            AABB bb = terrain.getAABB();
+            int ax0 = Math.max(toLocal(cellMin(bb.minX(), bb.maxX()), minX, sizeX), x0), ax1 = Math.min(toLocal(cellMax(bb.minX(), bb.maxX()), minX, sizeX), x1);
+            int ay0 = Math.max(toLocal(cellMin(bb.minY(), bb.maxY()), minY, sizeY), y0), ay1 = Math.min(toLocal(cellMax(bb.minY(), bb.maxY()), minY, sizeY), y1);
+            int az0 = Math.max(toLocal(cellMin(bb.minZ(), bb.maxZ()), minZ, sizeZ), z0), az1 = Math.min(toLocal(cellMax(bb.minZ(), bb.maxZ()), minZ, sizeZ), z1);
+            for (int x = ax0; x <= ax1; x++)
+                for (int y = ay0; y <= ay1; y++)
+                    for (int z = az0; z <= az1; z++)
+                        setSolid(index(x, y, z), true);
+        });
+
+        return this;
+    }
+
+    public void clear() {
+        Arrays.fill(solid, 0L);
+    }
+
+    // -- graph -- //
+
+    @Override
+    public int size() {
+        return sizeX * sizeY * sizeZ;
+    }
+
+    @Override
+    public void forEachNeighbor(int node, EdgeVisitor visitor) {
+        int x = getX(node), y = getY(node), z = getZ(node);
+
+        if (flying) {
+            for (int i = 0; i < 6; i++) {
+                int nx = x + DIR_X[i], ny = y + DIR_Y[i], nz = z + DIR_Z[i];
+                if (isWalkable(nx, ny, nz))
+                    visitor.visit(index(nx, ny, nz), 1f);
+            }
+            return;
+        }
+
+        boolean headroom = isFree(x, y + height, z);
+        for (int i = 0; i < 4; i++) {
+            int nx = x + DIR_X[i], nz = z + DIR_Z[i];
+
+            //flat
+            if (isWalkable(nx, y, nz)) {
+                visitor.visit(index(nx, y, nz), 1f);
+                continue;
+            }
+
+            //step up, needs space above our head
+            if (headroom && isWalkable(nx, y + 1, nz)) {
+                visitor.visit(index(nx, y + 1, nz), SQRT2);
+                continue;
+            }
+
+            //step down, needs space to walk into before dropping
+            if (isWalkable(nx, y - 1, nz) && isFree(nx, y + height - 1, nz))
+                visitor.visit(index(nx, y - 1, nz), SQRT2);
+        }
+    }
+
+    @Override
+    public float heuristic(int from, int to) {
+        int dx = Math.abs(getX(from) - getX(to));
+        int dy = Math.abs(getY(from) - getY(to));
+        int dz = Math.abs(getZ(from) - getZ(to));
+
+        if (flying)
+            return dx + dy + dz;
+
+        //every move is horizontal, and each level changed costs a diagonal step
+        return Math.max(dx + dz, dy) + (SQRT2 - 1f) * dy;
+    }
+
+    // -- cells -- //
+
+    public boolean isWalkable(int x, int y, int z) {
+        if (!inBounds(x, y, z))
+            return false;
+
+        for (int i = 0; i < height; i++) {
+            if (!isFree(x, y + i, z))
+                return false;
+        }
+
+        return flying || isSolid(x, y - 1, z);
+    }
+
+    public boolean isWalkable(int node) {
+        return node >= 0 && node < size() && isWalkable(getX(node), getY(node), getZ(node));
+    }
+
+    public boolean isSolid(int x, int y, int z) {
+        return inBounds(x, y, z) && (solid[index(x, y, z) >>> 6] & (1L << index(x, y, z))) != 0;
+    }
+
+    public boolean isFree(int x, int y, int z) {
+        return inBounds(x, y, z) && (solid[index(x, y, z) >>> 6] & (1L << index(x, y, z))) == 0;
+    }
+
+    public void setSolid(int x, int y, int z, boolean value) {
+        if (inBounds(x, y, z))
+            setSolid(index(x, y, z), value);
+    }
+
+    private void setSolid(int index, boolean value) {
+        if (value) solid[index >>> 6] |= 1L << index;
+        else solid[index >>> 6] &= ~(1L << index);
+    }
+
+    public boolean inBounds(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0 && x < sizeX && y < sizeY && z < sizeZ;
+    }
+
+    // -- indexing -- //
+
+    public int index(int x, int y, int z) {
+        return (x * sizeY + y) * sizeZ + z;
+    }
+
+    public int getX(int node) {
+        return node / (sizeY * sizeZ);
+    }
+
+    public int getY(int node) {
+        return (node / sizeZ) % sizeY;
+    }
+
+    public int getZ(int node) {
+        return node % sizeZ;
+    }
+
+    public int toNode(float x, float y, float z) {
+        int lx = (int) Math.floor(x) - minX, ly = (int) Math.floor(y) - minY, lz = (int) Math.floor(z) - minZ;
+        return inBounds(lx, ly, lz) ? index(lx, ly, lz) : -1;
+    }
+
+    public Vector3f toWorld(int node, Vector3f out) {
+        //bottom center of the cell, where the feet would be
+        return out.set(minX + getX(node) + 0.5f, minY + getY(node), minZ + getZ(node) + 0.5f);
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    public boolean isFlying() {
+        return flying;
+    }
+
+    private static int toLocal(double coord, int min, int size) {
+        //keeps infinite coordinates from overflowing
+        return (int) Math.max(Math.min(coord - min, size), -1);
+    }
+
+    private static double cellMin(float min, float max) {
+        //flat colliders (planes) block the cell right below their surface
+        if (max - min < EPSILON)
+            return Math.floor(min) - 1;
+        return Math.floor(min + EPSILON);
+    }
+
+    private static double cellMax(float min, float max) {
+        if (max - min < EPSILON)
+            return Math.floor(min) - 1;
+        return Math.ceil(max - EPSILON) - 1;
+    }
+}
@@ -17,6 +17,7 @@ import cinnamon.render.WorldRenderer;
 import cinnamon.render.batch.VertexConsumer;
 import cinnamon.render.model.AnimatedObjRenderer;
 import cinnamon.render.model.ModelRenderer;
+import cinnamon.render.model.PlaceholderRenderer;
 import cinnamon.text.Style;
 import cinnamon.text.Text;
 import cinnamon.utils.Alignment;
@@ -39,7 +40,7 @@ import java.util.UUID;
 public abstract class Entity extends WorldObject {
 
     protected final UUID uuid;
-    protected final ModelRenderer model;
+    protected ModelRenderer model;
 
     protected final Vector3f
             oPos = new Vector3f();
@@ -65,7 +66,7 @@ public abstract class Entity extends WorldObject {
     protected final Controller controller = new Controller();
 
     public Entity(UUID uuid, Resource model) {
-        this.model = ModelManager.getRenderer(model);
+        this.model = ModelManager.getRendererAsync(model, this::modelLoaded);
         this.uuid = uuid;
         this.addRenderFeature((source, camera, matrices, delta) -> {
             if (shouldRenderText(camera)) renderTexts(camera, matrices, delta);
@@ -106,9 +107,19 @@ public abstract class Entity extends WorldObject {
     }
 
     public Animation getAnimation(String name) {
+        //animations are wanted right away, so stall for the model
+        if (model instanceof PlaceholderRenderer placeholder)
+            placeholder.finish();
         return model instanceof AnimatedObjRenderer anim ? anim.getAnimation(name) : null;
     }
 
+    //the model finished loading in the background, replacing the placeholder
+    protected void modelLoaded(ModelRenderer model) {
+        this.model = model;
+        calculateBounds();
+        updateEntityInWorld();
+    }
+
     protected void applyModelPose(Camera camera, MatrixStack matrices, float delta) {
         matrices.rotate(getRot(delta));
         matrices.scale(getScale(delta));
@@ -200,6 +211,7 @@ public abstract class Entity extends WorldObject {
     public void moveTo(float x, float y, float z) {
         this.transform.setPos(x, y, z);
         this.calculateBounds();
+        this.updateEntityInWorld();
         this.updateRidersPos();
         this.checkWorldVoid();
         sendServerUpdate();
@@ -320,6 +332,7 @@ public abstract class Entity extends WorldObject {
         this.transform.setPos(x, y, z);
         this.oPos.set(this.transform.getPos());
         this.calculateBounds();
+        this.updateEntityInWorld();
         this.updateRidersPos();
         this.checkWorldVoid();
     }
@@ -533,6 +546,12 @@ public abstract class Entity extends WorldObject {
         return dist * dist;
     }
 
+    protected void updateEntityInWorld() {
+        World w = getWorld();
+        if (w != null)
+            w.updateEntity(this);
+    }
+
     protected void checkWorldVoid() {
         if (getWorld() != null && transform.getPos().y < getWorld().bottomOfTheWorld)
             remove();
@@ -11,6 +11,7 @@ import cinnamon.world.terrain.Terrain;
 import org.joml.Math;
 import org.joml.Vector3f;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,7 +21,8 @@ public abstract class PhysEntity extends Entity {
 
     protected final Vector3f
             motion = new Vector3f(),
-            impulse = new Vector3f();
+            impulse = new Vector3f(),
+            pendingMove = new Vector3f();
 
     protected boolean onGround;
     protected float gravity = 1f;
@@ -28,6 +30,16 @@ public abstract class PhysEntity extends Entity {
             entityCollisionMask = new Mask(),
             terrainCollisionMask = new Mask();
 
+    //reused query buffers, so collision checks do not allocate every tick
+    private final List<Terrain> terrainQuery = new ArrayList<>();
+    private final List<Entity> entityQuery = new ArrayList<>();
+    private final AABB queryArea = new AABB();
+
+    //terrain touched while computing the motion, fired when the motion is applied
+    private final List<Terrain> contactTerrains = new ArrayList<>();
+    private final List<Hit> contactHits = new ArrayList<>();
+    private boolean physicsQueued;
+
     public PhysEntity(UUID uuid, Resource model) {
         super(uuid, model);
     }
@@ -36,14 +48,36 @@ public abstract class PhysEntity extends Entity {
         super.tick();
 
         //calculate physics only when not riding
+        physicsQueued = false;
         if (!this.isRiding()) {
             tickPhysics();
         } else {
             setMotion(0, 0, 0);
         }
+
+        //queued physics are applied later, so the world finishes the tick after that
+        if (!physicsQueued)
+            postPhysicsTick();
     }
 
+    /**
+     * The rest of the tick, once the motion of this tick was applied
+     * subclasses tick here instead of after {@link #tick()}, so they see the same state whether the physics ran serial or queued
+     */
+    public void postPhysicsTick() {}
+
     protected void tickPhysics() {
+        //the world may run the two phases itself, for all entities at once
+        if (getWorld().queuePhysics(this)) {
+            physicsQueued = true;
+            return;
+        }
+
+        computeMotion();
+        applyMotion();
+    }
+
+    public void computeMotion() {
         //apply ambient forces
         applyForces();
 
@@ -51,15 +85,23 @@ public abstract class PhysEntity extends Entity {
         applyImpulse();
 
         //check for terrain collisions
-        Vector3f toMove = tickTerrainCollisions(aabb, motion);
+        pendingMove.set(tickTerrainCollisions(aabb, motion));
+    }
+
+    public void applyMotion() {
+        //terrain events
+        for (int i = 0; i < contactTerrains.size(); i++)
+            onTerrainContact(contactTerrains.get(i), contactHits.get(i));
+        contactTerrains.clear();
+        contactHits.clear();
 
         //entity collisions
-        tickEntityCollisions(aabb, toMove);
+        tickEntityCollisions(aabb, pendingMove);
 
         //move entity
-        if (toMove.lengthSquared() > 0f) {
+        if (pendingMove.lengthSquared() > 0f) {
             Vector3f pos = transform.getPos();
-            moveTo(pos.x + toMove.x, pos.y + toMove.y, pos.z + toMove.z);
+            moveTo(pos.x + pendingMove.x, pos.y + pendingMove.y, pos.z + pendingMove.z);
         }
 
         //decrease motion
@@ -171,8 +213,7 @@ public abstract class PhysEntity extends Entity {
     protected Vector3f resolveTerrainCollisions(AABB currentAABB, Vector3f movement, Vector3f currentMotion, Vector3f collisionNormal) {
         //get terrain collisions
         Vector3f toMove = new Vector3f(movement);
-        List<Terrain> terrains = getWorld().getTerrains(currentAABB.expand(toMove));
-        currentAABB.shrink(toMove);
+        List<Terrain> terrains = getWorld().getTerrains(queryArea.set(currentAABB).expand(toMove), terrainQuery);
 
         //try to resolve collisions with a step limit
         for (int step = 0; step < 5; step++) {
@@ -205,6 +246,8 @@ public abstract class PhysEntity extends Entity {
 
             //resolve the collision
             collideTerrain(collisionTerrain, collision, currentMotion, toMove);
+            contactTerrains.add(collisionTerrain);
+            contactHits.add(collision);
 
             //stop if remaining movement is too small
             if (toMove.lengthSquared() < Maths.SMALL_NUMBER) {
@@ -213,17 +256,22 @@ public abstract class PhysEntity extends Entity {
             }
         }
 
+        //do not hold on to the terrain
+        terrains.clear();
         return toMove;
     }
 
     protected void collideTerrain(Terrain terrain, Hit hit, Vector3f velocity, Vector3f move) {
+        //must only change this entity's own state, as it can run off the main thread
         Resolution.slide(hit, velocity, move);
     }
 
+    protected void onTerrainContact(Terrain terrain, Hit hit) {}
+
     // -- entity collisions -- //
 
     protected void tickEntityCollisions(AABB aabb, Vector3f toMove) {
-        for (Entity entity : getWorld().getEntities(new AABB(aabb).expand(toMove))) {
+        for (Entity entity : getWorld().getEntities(queryArea.set(aabb).expand(toMove), entityQuery)) {
             if (!(entity instanceof PhysEntity physEntity) || physEntity == this || physEntity.isRemoved() || !getEntityCollisionMask().test(physEntity.getEntityCollisionMask()))
                 continue;
 
@@ -231,6 +279,8 @@ public abstract class PhysEntity extends Entity {
             if (result != null)
                 collideEntity(physEntity, result, toMove);
         }
+
+        entityQuery.clear();
     }
 
     protected void collideEntity(PhysEntity entity, Hit result, Vector3f toMove) {}
@@ -27,8 +27,8 @@ public abstract class Collectable extends PhysEntity {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
         this.rotate(0, 1, 0);
         animY++;
     }
@@ -54,8 +54,14 @@ public abstract class Collectable extends PhysEntity {
     @Override
     protected void collideEntity(PhysEntity entity, Hit result, Vector3f toMove) {
         super.collideEntity(entity, result, toMove);
-        if (!isRemoved() && onPickUp(entity))
-            this.remove();
+        if (isRemoved())
+            return;
+
+        //picked up next tick, by the first entity that takes it
+        getWorld().scheduleTick(() -> {
+            if (!isRemoved() && onPickUp(entity))
+                this.remove();
+        });
     }
 
     @Override
@@ -22,8 +22,8 @@ public class HealthPack extends Collectable {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
         if (getWorld().isClientside() && Math.random() < SMOKE_CHANCE) {
             SteamParticle p = new SteamParticle((int) (Math.random() * 5) + 15, 0xFFDDDDDD);
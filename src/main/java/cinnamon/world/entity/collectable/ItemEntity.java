@@ -35,8 +35,8 @@ public class ItemEntity extends Collectable {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
         if (age >= 0 && ++age > MAX_AGE)
             despawn();
@@ -81,43 +81,48 @@ public class ItemEntity extends Collectable {
             return;
 
         if (entity instanceof ItemEntity ie) {
-            //attempt to merge the stacks
-            if (ie.pickUpDelay <= 0 && !this.item.isStackFull() && !ie.item.isStackFull() && ie.item.stacksWith(this.item)) {
-                //determine target as the older item
-                ItemEntity target, remainder;
-                if (this.age > ie.age) {
-                    target = this;
-                    remainder = ie;
-                } else {
-                    target = ie;
-                    remainder = this;
-                }
-
-                //reset age of both to the younger age
-                int young = Math.min(target.age, remainder.age);
-                target.age = remainder.age = young;
-
-                int totalCount = ie.item.getCount() + this.item.getCount();
-                int maxStackSize = this.item.getStackSize();
-
-                //single stack - remove the remainder
-                if (totalCount <= maxStackSize) {
-                    target.item.setCount(totalCount);
-                    remainder.remove();
-                }
-                //multiple stacks - fill target and leave remainder
-                else {
-                    target.item.setCount(maxStackSize);
-                    remainder.item.setCount(totalCount - maxStackSize);
-                }
-            }
-
+            //merged next tick, the other item may have already moved this tick
+            getWorld().scheduleTick(() -> merge(ie));
             return;
         }
 
         super.collideEntity(entity, result, toMove);
     }
 
+    private void merge(ItemEntity ie) {
+        //attempt to merge the stacks
+        if (isRemoved() || ie.isRemoved() || ie.pickUpDelay > 0 || this.item.isStackFull() || ie.item.isStackFull() || !ie.item.stacksWith(this.item))
+            return;
+
+        //determine target as the older item
+        ItemEntity target, remainder;
+        if (this.age > ie.age) {
+            target = this;
+            remainder = ie;
+        } else {
+            target = ie;
+            remainder = this;
+        }
+
+        //reset age of both to the younger age
+        int young = Math.min(target.age, remainder.age);
+        target.age = remainder.age = young;
+
+        int totalCount = ie.item.getCount() + this.item.getCount();
+        int maxStackSize = this.item.getStackSize();
+
+        //single stack - remove the remainder
+        if (totalCount <= maxStackSize) {
+            target.item.setCount(totalCount);
+            remainder.remove();
+        }
+        //multiple stacks - fill target and leave remainder
+        else {
+            target.item.setCount(maxStackSize);
+            remainder.item.setCount(totalCount - maxStackSize);
+        }
+    }
+
     @Override
     protected boolean onPickUp(PhysEntity entity) {
         if (!(entity instanceof LivingEntity le))
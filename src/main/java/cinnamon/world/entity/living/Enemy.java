@@ -27,8 +27,8 @@ public class Enemy extends LivingEntity {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
         for (AIBehaviour behaviour : behaviours) {
             if (behaviour != null)
@@ -40,7 +40,7 @@ public class Enemy extends LivingEntity {
     protected void collideEntity(PhysEntity entity, Hit result, Vector3f toMove) {
         super.collideEntity(entity, result, toMove);
         if (entity instanceof Player p)
-            p.damage(this, DamageType.MELEE, MELEE_DAMAGE, false);
+            getWorld().scheduleTick(() -> p.damage(this, DamageType.MELEE, MELEE_DAMAGE, false));
     }
 
     @Override
@@ -131,8 +131,8 @@ public abstract class LivingEntity extends PhysEntity {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
         inventory.tick();
 
@@ -47,8 +47,8 @@ public class LocalPlayer extends Player {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
         if (lastMouseTime > 0)
             lastMouseTime--;
@@ -68,8 +68,8 @@ public class Player extends LivingEntity {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
         if (invulnerability > 0)
             invulnerability--;
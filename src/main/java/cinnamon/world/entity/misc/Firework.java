@@ -46,8 +46,12 @@ public class  Firework extends PhysEntity {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
+
+        //already exploded on contact
+        if (isRemoved())
+            return;
 
         life--;
         if (life <= 0)
@@ -76,6 +80,11 @@ public class  Firework extends PhysEntity {
 
     @Override
     protected void collideTerrain(Terrain terrain, Hit hit, Vector3f velocity, Vector3f move) {
+        //no resolution, handled on contact
+    }
+
+    @Override
+    protected void onTerrainContact(Terrain terrain, Hit hit) {
         if (!isRemoved())
             explode();
     }
@@ -113,11 +122,15 @@ public class  Firework extends PhysEntity {
             World w = getWorld();
             Vector3f pos = transform.getPos();
 
+            //the entities in range are hit at the start of the next tick
             AABB explosionBB = new AABB().inflate(2f).translate(pos);
-            for (Entity entity : w.getEntities(explosionBB)) {
-                if (entity instanceof LivingEntity living && !living.isRemoved())
-                    living.damage(this, DamageType.EXPLOSION, 2 * stars.length, false);
-            }
+            int damage = 2 * stars.length;
+            w.scheduleTick(() -> {
+                for (Entity entity : w.getEntities(explosionBB)) {
+                    if (entity instanceof LivingEntity living && !living.isRemoved())
+                        living.damage(this, DamageType.EXPLOSION, damage, false);
+                }
+            });
 
             if (!isSilent() && w.isClientside())
                 ((WorldClient) w).playSound(EXPLOSION_SOUND, SoundCategory.ENTITY, pos).pitch(Maths.range(0.8f, 1.2f)).volume(0.3f).distance(96).maxDistance(160);
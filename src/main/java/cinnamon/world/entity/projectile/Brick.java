@@ -27,8 +27,8 @@ public class Brick extends Projectile {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
         this.rotate(10, 10, 5);
     }
 
@@ -39,6 +39,11 @@ public class Brick extends Projectile {
 
     @Override
     protected void collideTerrain(Terrain terrain, Hit hit, Vector3f velocity, Vector3f move) {
+        //no resolution, handled on contact
+    }
+
+    @Override
+    protected void onTerrainContact(Terrain terrain, Hit hit) {
         if (!isRemoved())
             remove();
     }
@@ -26,8 +26,8 @@ public class Candy extends Projectile {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
         this.rotate(0, 20, 0);
     }
 
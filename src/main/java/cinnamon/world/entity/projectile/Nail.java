@@ -28,8 +28,8 @@ public class Nail extends Projectile {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
         //rotate to motion direction
         if (!collided) {
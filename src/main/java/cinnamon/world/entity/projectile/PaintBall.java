@@ -49,7 +49,10 @@ public class PaintBall extends Projectile {
     @Override
     protected void collideTerrain(Terrain terrain, Hit hit, Vector3f velocity, Vector3f move) {
         Resolution.stick(hit, velocity, move);
+    }
 
+    @Override
+    protected void onTerrainContact(Terrain terrain, Hit hit) {
         if (isRemoved())
             return;
 
@@ -61,8 +64,9 @@ public class PaintBall extends Projectile {
         Decal decal = new Decal(300, DECAL_RESOURCE);
         ((ModelTransform) decal.getTransform()).setColor(ColorUtils.argbIntToRGBA(color));
 
+        //stuck at the contact, so the pending move ends on it
         Vector3f pos = transform.getPos();
-        decal.getTransform().setPos(pos.x + move.x, pos.y + move.y, pos.z + move.z);
+        decal.getTransform().setPos(pos.x + pendingMove.x, pos.y + pendingMove.y, pos.z + pendingMove.z);
 
         decal.getTransform().setScale(0.2f);
 
@@ -44,8 +44,8 @@ public class Potato extends Projectile {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
         Vector3f vec = new Vector3f(motion);
         if (vec.lengthSquared() > 0f)
@@ -64,8 +64,8 @@ public abstract class Projectile extends PhysEntity {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
         if (lifetime > 0 && --lifetime == 0 && !isRemoved())
             remove();
@@ -108,8 +108,12 @@ public abstract class Projectile extends PhysEntity {
         if (!canHit(entity, result, toMove))
             return;
 
-        if (applyDamage((LivingEntity) entity))
-            remove();
+        //the damage lands next tick, the first hit that deals it removes this projectile
+        LivingEntity target = (LivingEntity) entity;
+        getWorld().scheduleTick(() -> {
+            if (!isRemoved() && applyDamage(target))
+                remove();
+        });
     }
 
     protected boolean canHit(PhysEntity entity, Hit result, Vector3f toMove) {
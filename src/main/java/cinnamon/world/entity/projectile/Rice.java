@@ -30,6 +30,11 @@ public class Rice extends Projectile {
 
     @Override
     protected void collideTerrain(Terrain terrain, Hit hit, Vector3f velocity, Vector3f move) {
+        //no resolution, handled on contact
+    }
+
+    @Override
+    protected void onTerrainContact(Terrain terrain, Hit hit) {
         if (!isRemoved())
             remove();
     }
@@ -60,8 +60,8 @@ public class Cart extends Car {
     }
 
     @Override
-    public void tick() {
-        super.tick();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
         if (shouldUpdateLights && !getRiders().isEmpty())
             checkLights();
@@ -32,7 +32,8 @@ public class ShoppingCart extends Car {
             if (!this.getRiders().isEmpty() && entity.getRiders().isEmpty()) {
                 Vector3f res = new Vector3f();
                 Resolution.push(result, toMove, res);
-                entity.setMotion(res);
+                //the other cart may have already moved this tick
+                getWorld().scheduleTick(() -> entity.setMotion(res));
                 return;
             } else if (this.getRiders().isEmpty() && !entity.getRiders().isEmpty()) {
                 return;
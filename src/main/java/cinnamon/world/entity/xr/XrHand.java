@@ -35,16 +35,10 @@ public class XrHand extends PhysEntity {
     }
 
     @Override
-    public void tick() {
-        super.tick();
-        if (targetEntity != null)
-            targetEntity.suggestGrab();
-    }
-
-    @Override
-    protected void tickPhysics() {
-        super.tickPhysics();
+    public void postPhysicsTick() {
+        super.postPhysicsTick();
 
+        //follow the tracked hand over whatever the physics moved
         XrHandTransform transform = XrRenderer.getHandTransform(hand);
 
         Camera c = WorldRenderer.camera;
@@ -58,6 +52,9 @@ public class XrHand extends PhysEntity {
         dir.rotate(c.getRot());
 
         rotateToWithRiders(Maths.dirToQuat(dir).rotateY(Math.PI_f));
+
+        if (targetEntity != null)
+            targetEntity.suggestGrab();
     }
 
     @Override
@@ -129,11 +129,11 @@ public class ActionWheel extends Overlay {
     }
 
     protected void renderBackground(MatrixStack matrices, int color, float delta) {
-        VertexConsumer.MAIN.consume(GeometryHelper.arc(matrices, 0, 0, RADIUS, 0f, 1f, INNER_RADIUS, SIDES, color));
+        GeometryHelper.arc(VertexConsumer.MAIN, matrices, 0, 0, RADIUS, 0f, 1f, INNER_RADIUS, SIDES, color);
     }
 
     protected void renderCursorLine(MatrixStack matrices, int cursorX, int cursorY, float delta) {
-        VertexConsumer.MAIN.consume(GeometryHelper.line(matrices, 0, 0, cursorX, cursorY, 0.75f, 0xFFAD72FF));
+        GeometryHelper.line(VertexConsumer.MAIN, matrices, 0, 0, cursorX, cursorY, 0.75f, 0xFFAD72FF);
     }
 
     protected void renderActions(MatrixStack matrices, int selected, float delta) {
@@ -149,7 +149,7 @@ public class ActionWheel extends Overlay {
             float startAngle = (anglePerAction * i + paddingW * 0.5f) / 360f;
             float endAngle = (anglePerAction * (i + 1) - paddingW * 0.5f) / 360f;
             int color = action.getColor();
-            VertexConsumer.MAIN.consume(GeometryHelper.arc(matrices, 0, 0, RADIUS - PADDING_H, startAngle, endAngle, INNER_RADIUS - PADDING_H - PADDING_H, SIDES, color));
+            GeometryHelper.arc(VertexConsumer.MAIN, matrices, 0, 0, RADIUS - PADDING_H, startAngle, endAngle, INNER_RADIUS - PADDING_H - PADDING_H, SIDES, color);
 
             //translate matrix to the center of the segment
             float midAngle = (startAngle + endAngle) * Math.PI_f - Math.PI_OVER_2_f;
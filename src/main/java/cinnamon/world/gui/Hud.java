@@ -392,7 +392,7 @@ public class Hud {
         float fadeProgress = (fadeTicks + (fadeIn ? delta : -delta)) / fadeDelay;
         int alpha = (int) (Maths.clamp(fadeProgress, 0f, 1f) * 0xFF);
         int color = (alpha << 24) + fadeColor;
-        VertexConsumer.MAIN.consume(GeometryHelper.rectangle(matrices, 0, 0, client.window.getGUIWidth(), client.window.getGUIHeight(), color));
+        GeometryHelper.rectangle(VertexConsumer.MAIN, matrices, 0, 0, client.window.getGUIWidth(), client.window.getGUIHeight(), color);
     }
 
     protected void drawCrosshair(MatrixStack matrices) {
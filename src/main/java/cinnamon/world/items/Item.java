@@ -5,6 +5,7 @@ import cinnamon.model.ModelManager;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.model.AnimatedObjRenderer;
 import cinnamon.render.model.ModelRenderer;
+import cinnamon.render.model.PlaceholderRenderer;
 import cinnamon.utils.Resource;
 import cinnamon.world.entity.living.LivingEntity;
 
@@ -12,7 +13,7 @@ public abstract class Item {
 
     private final String id;
     protected final int stackSize;
-    protected final ModelRenderer model;
+    protected ModelRenderer model;
 
     private int count;
     private boolean isFiring, isUsing;
@@ -22,7 +23,7 @@ public abstract class Item {
         this.id = id;
         this.count = count;
         this.stackSize = stackSize;
-        this.model = ModelManager.getRenderer(model);
+        this.model = ModelManager.getRendererAsync(model, loaded -> this.model = loaded);
     }
 
     public abstract Item copy();
@@ -34,11 +35,15 @@ public abstract class Item {
     public void render(ItemRenderContext context, MatrixStack matrices, float delta) {
         matrices.pushMatrix();
         matrices.scale(context.scale);
-        model.render(matrices);
+        if (model != null)
+            model.render(matrices);
         matrices.popMatrix();
     }
 
     public Animation getAnimation(String animation) {
+        //animations are wanted right away, so stall for the model
+        if (model instanceof PlaceholderRenderer placeholder)
+            placeholder.finish();
         return model instanceof AnimatedObjRenderer anim ? anim.getAnimation(animation) : null;
     }
 
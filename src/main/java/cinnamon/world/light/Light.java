@@ -50,6 +50,25 @@ public abstract class Light extends WorldObject {
         shader.setMat4(prefix + "lightSpaceMatrix", lightSpaceMatrix);
     }
 
+    /**
+     * Writes this light into a packed buffer, as read by the clustered light pass
+     * layout of 4 vec4: pos + intensity, color + type, direction + falloff start, falloff end + inner and outer angles
+     */
+    public void pushToBuffer(float[] buffer, int offset) {
+        Vector3f pos = getTransform().getPos();
+        buffer[offset]      = pos.x;
+        buffer[offset + 1]  = pos.y;
+        buffer[offset + 2]  = pos.z;
+        buffer[offset + 3]  = intensity;
+        buffer[offset + 4]  = ((color >> 16) & 0xFF) / 255f;
+        buffer[offset + 5]  = ((color >> 8) & 0xFF) / 255f;
+        buffer[offset + 6]  = (color & 0xFF) / 255f;
+        buffer[offset + 7]  = getType().ordinal();
+        buffer[offset + 8]  = dir.x;
+        buffer[offset + 9]  = dir.y;
+        buffer[offset + 10] = dir.z;
+    }
+
     public abstract void calculateLightSpaceMatrix();
 
     public abstract void copyTransform(Matrix4f matrix);
@@ -19,6 +19,13 @@ public class PointLight extends Light {
         shader.setFloat(prefix + "falloffEnd", falloffEnd);
     }
 
+    @Override
+    public void pushToBuffer(float[] buffer, int offset) {
+        super.pushToBuffer(buffer, offset);
+        buffer[offset + 11] = falloffStart;
+        buffer[offset + 12] = falloffEnd;
+    }
+
     @Override
     public void calculateLightSpaceMatrix() {
         lightSpaceMatrix.identity().perspective(fov, 1f, 0.1f, falloffEnd);
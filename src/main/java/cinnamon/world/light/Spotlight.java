@@ -23,6 +23,13 @@ public class Spotlight extends PointLight {
         shader.setFloat(prefix + "outerAngle", cosOuter);
     }
 
+    @Override
+    public void pushToBuffer(float[] buffer, int offset) {
+        super.pushToBuffer(buffer, offset);
+        buffer[offset + 13] = cosInner;
+        buffer[offset + 14] = cosOuter;
+    }
+
     @Override
     public void calculateLightSpaceMatrix() {
         super.calculateLightViewMatrix();
@@ -16,4 +16,9 @@ public class DustParticle extends SpriteParticle {
     public ParticlesRegistry getType() {
         return ParticlesRegistry.DUST;
     }
+
+    @Override
+    public boolean isPoolable() {
+        return true;
+    }
 }
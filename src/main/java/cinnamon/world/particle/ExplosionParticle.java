@@ -17,4 +17,9 @@ public class ExplosionParticle extends SpriteParticle {
     public ParticlesRegistry getType() {
         return ParticlesRegistry.EXPLOSION;
     }
+
+    @Override
+    public boolean isPoolable() {
+        return true;
+    }
 }
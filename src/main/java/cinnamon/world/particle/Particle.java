@@ -14,10 +14,17 @@ import cinnamon.world.entity.PhysEntity;
 import cinnamon.world.terrain.Terrain;
 import org.joml.Vector3f;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public abstract class Particle extends WorldObject {
 
     public static final float PARTICLE_SCALING = 1 / 48f;
 
+    //shared query buffers, particles are only ticked from the client thread
+    private static final List<Terrain> TERRAIN_QUERY = new ArrayList<>();
+    private static final List<Entity> ENTITY_QUERY = new ArrayList<>();
+
     protected final Vector3f
             oPos = new Vector3f(),
             motion = new Vector3f();
@@ -161,26 +168,37 @@ public abstract class Particle extends WorldObject {
 
     protected boolean collideTerrain() {
         AABB aabb = getAABB();
-        for (Terrain terrain : world.getTerrains(aabb)) {
+        boolean collided = false;
+        for (Terrain terrain : world.getTerrains(aabb, TERRAIN_QUERY)) {
             if (!collisionMask.test(terrain.getCollisionMask()))
                 continue;
 
             for (Collider<?> terrainColl : terrain.getPreciseCollider()) {
-                if (aabb.intersects(terrainColl))
-                    return true;
+                if (aabb.intersects(terrainColl)) {
+                    collided = true;
+                    break;
+                }
             }
+
+            if (collided)
+                break;
         }
 
-        return false;
+        TERRAIN_QUERY.clear();
+        return collided;
     }
 
     protected boolean collideEntities() {
         AABB aabb = getAABB();
-        for (Entity entity : world.getEntities(aabb)) {
-            if (entity instanceof PhysEntity && aabb.intersects(entity.getAABB()))
-                return true;
+        boolean collided = false;
+        for (Entity entity : world.getEntities(aabb, ENTITY_QUERY)) {
+            if (entity instanceof PhysEntity && aabb.intersects(entity.getAABB())) {
+                collided = true;
+                break;
+            }
         }
 
-        return false;
+        ENTITY_QUERY.clear();
+        return collided;
     }
 }
@@ -16,4 +16,9 @@ public class SmokeParticle extends SpriteParticle {
     public ParticlesRegistry getType() {
         return ParticlesRegistry.SMOKE;
     }
+
+    @Override
+    public boolean isPoolable() {
+        return true;
+    }
 }
@@ -58,6 +58,10 @@ public abstract class SpriteParticle extends Particle {
         return color;
     }
 
+    public Resource getTexture() {
+        return texture;
+    }
+
     public void setScale(float scale) {
         this.scale = scale;
     }
@@ -66,6 +70,11 @@ public abstract class SpriteParticle extends Particle {
         return scale;
     }
 
+    public boolean isPoolable() {
+        //plain billboarded sprites with constant motion can live in a SpriteParticlePool instead
+        return false;
+    }
+
     public int getFrameCount() {
         Texture tex = Texture.of(texture);
         return Math.max(tex.getWidth() / tex.getHeight(), 1);
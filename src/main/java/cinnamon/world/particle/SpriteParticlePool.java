@@ -0,0 +1,247 @@
+package cinnamon.world.particle;
+
+import cinnamon.render.Camera;
+import cinnamon.render.LightRenderer;
+import cinnamon.render.MatrixStack;
+import cinnamon.render.WorldRenderer;
+import cinnamon.render.batch.VertexConsumer;
+import cinnamon.render.texture.Texture;
+import cinnamon.utils.Resource;
+import org.joml.Math;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+import static cinnamon.world.particle.Particle.PARTICLE_SCALING;
+
+/**
+ * Struct-of-arrays storage for simple billboarded sprite particles sharing the same texture
+ * particles are plain array slots, dead ones are swap-removed and all quads are packed into a single vertex array per frame
+ */
+public class SpriteParticlePool {
+
+    //same layout as the main batch: pos, texture id, uv, color rgba, normal
+    public static final int VERTEX_SIZE = 13;
+    private static final int VERTICES_PER_PARTICLE = 6;
+    private static final int RENDER_DISTANCE = 4098; //64 * 64
+
+    private final Resource texture;
+    private final boolean emissive;
+
+    //particle data
+    private int size;
+    private float[] x, y, z, oX, oY, oZ, motionX, motionY, motionZ, scale;
+    private int[] age, lifetime, color;
+
+    //packed vertices
+    private float[] vertexData = new float[0];
+    private int vertexCount;
+
+    //render scratch
+    private final Vector3f center = new Vector3f(), right = new Vector3f(), up = new Vector3f(), normal = new Vector3f();
+
+    public SpriteParticlePool(Resource texture, boolean emissive) {
+        this(texture, emissive, 64);
+    }
+
+    public SpriteParticlePool(Resource texture, boolean emissive, int capacity) {
+        this.texture = texture;
+        this.emissive = emissive;
+        allocate(Math.max(capacity, 1));
+    }
+
+    public void add(SpriteParticle particle) {
+        Vector3f pos = particle.getTransform().getPos();
+        Vector3f motion = particle.getMotion();
+        add(pos.x, pos.y, pos.z, motion.x, motion.y, motion.z, particle.getLifetime(), particle.getAge(), particle.getColor(), particle.getScale());
+    }
+
+    public int add(float x, float y, float z, float motionX, float motionY, float motionZ, int lifetime, int age, int color, float scale) {
+        if (size == this.x.length)
+            allocate(size * 2);
+
+        int i = size++;
+        this.x[i] = this.oX[i] = x;
+        this.y[i] = this.oY[i] = y;
+        this.z[i] = this.oZ[i] = z;
+        this.motionX[i] = motionX;
+        this.motionY[i] = motionY;
+        this.motionZ[i] = motionZ;
+        this.lifetime[i] = lifetime;
+        this.age[i] = age;
+        this.color[i] = color;
+        this.scale[i] = scale;
+        return i;
+    }
+
+    public void tick() {
+        for (int i = 0; i < size; ) {
+            oX[i] = x[i]; oY[i] = y[i]; oZ[i] = z[i];
+            x[i] += motionX[i]; y[i] += motionY[i]; z[i] += motionZ[i];
+
+            //the last particle is moved into this slot, so tick the same index again
+            if (lifetime[i] >= 0 && ++age[i] > lifetime[i]) {
+                remove(i);
+                continue;
+            }
+
+            i++;
+        }
+    }
+
+    public int render(Camera camera, MatrixStack matrices, float delta) {
+        if (size == 0)
+            return 0;
+
+        Texture tex = Texture.of(texture);
+        int frames = Math.max(tex.getWidth() / tex.getHeight(), 1);
+
+        int count = pack(camera, matrices, delta, frames, WorldRenderer.isShadowRendering());
+        (emissive ? VertexConsumer.WORLD_MAIN_EMISSIVE : VertexConsumer.WORLD_MAIN).consumeRaw(vertexData, vertexCount, tex.getID());
+        return count;
+    }
+
+    /**
+     * Packs the visible particles as billboarded quads into the vertex array
+     * @param shadows if the particles are packed for a point light shadow pass
+     * @return the amount of particles packed
+     */
+    public int pack(Camera camera, MatrixStack matrices, float delta, int frames, boolean shadows) {
+        vertexCount = 0;
+        if (size == 0)
+            return 0;
+
+        if (vertexData.length < size * VERTICES_PER_PARTICLE * VERTEX_SIZE)
+            vertexData = new float[x.length * VERTICES_PER_PARTICLE * VERTEX_SIZE];
+
+        //the billboard rotation is the same for every particle, so grab its axes once
+        matrices.pushMatrix();
+        camera.billboard(matrices);
+        Matrix4f pose = matrices.peek().pos();
+        Matrix3f normalMat = matrices.peek().normal();
+        pose.getColumn(0, right);
+        pose.getColumn(1, up);
+        normalMat.transform(normal.set(0f, 0f, -1f)).normalize();
+        matrices.popMatrix();
+
+        Matrix4f base = matrices.peek().pos();
+        Vector3f camPos = camera.getPos();
+        float invFrames = 1f / frames;
+        int packed = 0;
+        int o = 0;
+
+        for (int i = 0; i < size; i++) {
+            float px = Math.lerp(oX[i], x[i], delta);
+            float py = Math.lerp(oY[i], y[i], delta);
+            float pz = Math.lerp(oZ[i], z[i], delta);
+
+            //same culling as regular particles
+            float h = 8f * PARTICLE_SCALING * scale[i];
+            float dx = camPos.x - px, dy = camPos.y - py, dz = camPos.z - pz;
+            if (dx * dx + dy * dy + dz * dz > RENDER_DISTANCE || !camera.isInsideFrustum(px - h, py - h, pz - h, px + h, py + h, pz + h))
+                continue;
+
+            //point light shadows only take the particles within the light range
+            if (shadows && !LightRenderer.isInsideShadowVolume(px - h, py - h, pz - h, px + h, py + h, pz + h))
+                continue;
+
+            base.transformPosition(center.set(px, py, pz));
+
+            //animation frame from the particle age
+            int frame = Math.round(Math.lerp(0, frames - 1, Math.clamp(0f, 1f, (float) age[i] / lifetime[i])));
+            float u0 = frame * invFrames, u1 = (frame + 1) * invFrames;
+
+            int c = color[i];
+            float a = ((c >> 24) & 0xFF) / 255f, r = ((c >> 16) & 0xFF) / 255f, g = ((c >> 8) & 0xFF) / 255f, b = (c & 0xFF) / 255f;
+
+            //the sprite is mirrored on x and y, so the corners flip sign
+            float rx = right.x * h, ry = right.y * h, rz = right.z * h;
+            float ux = up.x * h, uy = up.y * h, uz = up.z * h;
+
+            //two triangles: (0, 1, 2) and (0, 2, 3)
+            o = putVertex(o, center.x + rx - ux, center.y + ry - uy, center.z + rz - uz, u0, 1f, r, g, b, a);
+            o = putVertex(o, center.x - rx - ux, center.y - ry - uy, center.z - rz - uz, u1, 1f, r, g, b, a);
+            o = putVertex(o, center.x - rx + ux, center.y - ry + uy, center.z - rz + uz, u1, 0f, r, g, b, a);
+            o = putVertex(o, center.x + rx - ux, center.y + ry - uy, center.z + rz - uz, u0, 1f, r, g, b, a);
+            o = putVertex(o, center.x - rx + ux, center.y - ry + uy, center.z - rz + uz, u1, 0f, r, g, b, a);
+            o = putVertex(o, center.x + rx + ux, center.y + ry + uy, center.z + rz + uz, u0, 0f, r, g, b, a);
+
+            packed++;
+        }
+
+        vertexCount = packed * VERTICES_PER_PARTICLE;
+        return packed;
+    }
+
+    private int putVertex(int o, float px, float py, float pz, float u, float v, float r, float g, float b, float a) {
+        float[] d = vertexData;
+        d[o] = px; d[o + 1] = py; d[o + 2] = pz;
+        d[o + 3] = 0f; //texture slot, filled by the batch
+        d[o + 4] = u; d[o + 5] = v;
+        d[o + 6] = r; d[o + 7] = g; d[o + 8] = b; d[o + 9] = a;
+        d[o + 10] = normal.x; d[o + 11] = normal.y; d[o + 12] = normal.z;
+        return o + VERTEX_SIZE;
+    }
+
+    public void remove(int i) {
+        //swap-remove, particle order does not matter
+        int last = --size;
+        if (i == last)
+            return;
+
+        x[i] = x[last]; y[i] = y[last]; z[i] = z[last];
+        oX[i] = oX[last]; oY[i] = oY[last]; oZ[i] = oZ[last];
+        motionX[i] = motionX[last]; motionY[i] = motionY[last]; motionZ[i] = motionZ[last];
+        age[i] = age[last];
+        lifetime[i] = lifetime[last];
+        color[i] = color[last];
+        scale[i] = scale[last];
+    }
+
+    public void clear() {
+        size = 0;
+        vertexCount = 0;
+    }
+
+    private void allocate(int capacity) {
+        x = x == null ? new float[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new float[capacity] : Arrays.copyOf(y, capacity);
+        z = z == null ? new float[capacity] : Arrays.copyOf(z, capacity);
+        oX = oX == null ? new float[capacity] : Arrays.copyOf(oX, capacity);
+        oY = oY == null ? new float[capacity] : Arrays.copyOf(oY, capacity);
+        oZ = oZ == null ? new float[capacity] : Arrays.copyOf(oZ, capacity);
+        motionX = motionX == null ? new float[capacity] : Arrays.copyOf(motionX, capacity);
+        motionY = motionY == null ? new float[capacity] : Arrays.copyOf(motionY, capacity);
+        motionZ = motionZ == null ? new float[capacity] : Arrays.copyOf(motionZ, capacity);
+        scale = scale == null ? new float[capacity] : Arrays.copyOf(scale, capacity);
+        age = age == null ? new int[capacity] : Arrays.copyOf(age, capacity);
+        lifetime = lifetime == null ? new int[capacity] : Arrays.copyOf(lifetime, capacity);
+        color = color == null ? new int[capacity] : Arrays.copyOf(color, capacity);
+    }
+
+    public boolean matches(Resource texture, boolean emissive) {
+        return this.emissive == emissive && this.texture.equals(texture);
+    }
+
+    public Resource getTexture() {
+        return texture;
+    }
+
+    public boolean isEmissive() {
+        return emissive;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public float[] getVertexData() {
+        return vertexData;
+    }
+}
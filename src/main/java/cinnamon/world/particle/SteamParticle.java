@@ -12,4 +12,9 @@ public class SteamParticle extends SpriteParticle {
     public ParticlesRegistry getType() {
         return ParticlesRegistry.STEAM;
     }
+
+    @Override
+    public boolean isPoolable() {
+        return true;
+    }
 }
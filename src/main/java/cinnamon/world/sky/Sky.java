@@ -6,6 +6,7 @@ import cinnamon.render.Camera;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.batch.VertexConsumer;
 import cinnamon.render.shader.Shader;
+import cinnamon.render.shader.UniformBlock;
 import cinnamon.utils.Resource;
 import org.joml.Math;
 import org.joml.Vector3f;
@@ -73,6 +74,12 @@ public abstract class Sky {
     }
 
     public void applyUniforms(Shader shader, Camera camera) {
+        //shared block
+        if (shader.hasBlock(UniformBlock.SKY)) {
+            UniformBlock.updateSky(fogColor, fogStart, fogEnd, ambientLight);
+            return;
+        }
+
         //camera
         shader.setVec3("camPos", camera.getPosition());
 
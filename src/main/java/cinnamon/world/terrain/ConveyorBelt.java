@@ -3,13 +3,9 @@ package cinnamon.world.terrain;
 import cinnamon.math.collision.shape.AABB;
 import cinnamon.registry.TerrainModelRegistry;
 import cinnamon.registry.TerrainRegistry;
-import cinnamon.world.entity.Entity;
 import cinnamon.world.entity.PhysEntity;
-import cinnamon.world.world.World;
 import org.joml.Vector3f;
 
-import java.util.List;
-
 public class ConveyorBelt extends Terrain {
 
     protected final AABB beltArea = new AABB();
@@ -29,12 +25,10 @@ public class ConveyorBelt extends Terrain {
     public void tick() {
         super.tick();
 
-        World w = getWorld();
-        List<Entity> entities = w.getEntities(beltArea);
-        for (Entity entity : entities) {
+        getWorld().getEntities(beltArea, entity -> {
             if (entity instanceof PhysEntity pe && pe.isOnGround())
                 pe.getMotion().add(beltMotion);
-        }
+        });
     }
 
     @Override
@@ -6,9 +6,11 @@ import cinnamon.registry.TerrainModelRegistry;
 import cinnamon.registry.TerrainRegistry;
 import cinnamon.render.Camera;
 import cinnamon.render.MatrixStack;
+import cinnamon.render.model.ModelRenderer;
 
 public class Rose extends Terrain {
 
+    private Variant variantType;
     private Material variant;
 
     public Rose() {
@@ -24,12 +26,25 @@ public class Rose extends Terrain {
         super.renderModel(camera, material, matrices, delta);
     }
 
+    @Override
+    protected Material getInstanceMaterial() {
+        Material material = super.getInstanceMaterial();
+        return material == null ? variant : material;
+    }
+
     @Override
     public boolean isTransparent() {
         return true;
     }
 
+    @Override
+    protected void modelLoaded(ModelRenderer model) {
+        super.modelLoaded(model);
+        setVariant(variantType);
+    }
+
     public void setVariant(Variant variant) {
+        this.variantType = variant;
         if (model == null)
             return;
 
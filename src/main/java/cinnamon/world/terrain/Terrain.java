@@ -12,7 +12,9 @@ import cinnamon.render.DebugRenderer;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.WorldRenderer;
 import cinnamon.render.model.AnimatedObjRenderer;
+import cinnamon.render.model.ModelInstancer;
 import cinnamon.render.model.ModelRenderer;
+import cinnamon.render.model.PlaceholderRenderer;
 import cinnamon.utils.Mask;
 import cinnamon.utils.Resource;
 import cinnamon.world.WorldObject;
@@ -27,7 +29,7 @@ import java.util.List;
 
 public class Terrain extends WorldObject {
 
-    protected final ModelRenderer model;
+    protected ModelRenderer model;
     private final TerrainRegistry type;
 
     protected final List<Collider<?>> preciseCollider = new ArrayList<>();
@@ -38,7 +40,13 @@ public class Terrain extends WorldObject {
 
     public Terrain(Resource model, TerrainRegistry type) {
         this.type = type;
-        this.model = ModelManager.getRenderer(model);
+        this.model = ModelManager.getRendererAsync(model, this::modelLoaded);
+    }
+
+    //the model finished loading in the background, replacing the placeholder
+    protected void modelLoaded(ModelRenderer model) {
+        this.model = model;
+        calculateBounds();
     }
 
     @Override
@@ -55,6 +63,29 @@ public class Terrain extends WorldObject {
 
     public void renderTransparent(Camera camera, MatrixStack matrices, float delta) {}
 
+    public void renderInstanced(ModelInstancer instancer, MatrixStack matrices, float delta) {
+        matrices.pushMatrix();
+        applyModelPose(matrices, delta);
+
+        instancer.add(model, getInstanceMaterial(), matrices.peek());
+
+        matrices.popMatrix();
+    }
+
+    //static models only, as animated ones have their own pose per instance
+    public boolean isInstanceable() {
+        return model != null && !(model instanceof AnimatedObjRenderer) && !(model instanceof PlaceholderRenderer);
+    }
+
+    protected Material getInstanceMaterial() {
+        return overrideMaterial;
+    }
+
+    //shadows of static casters are cached until the terrain around the light changes
+    public boolean isStaticShadowCaster() {
+        return !(model instanceof AnimatedObjRenderer);
+    }
+
     protected void applyModelPose(MatrixStack matrices, float delta) {
         matrices.translate(0.5f, 0f, 0.5f);
         transform.applyTransform(matrices);
@@ -115,6 +146,9 @@ public class Terrain extends WorldObject {
     }
 
     public Animation getAnimation(String name) {
+        //animations are wanted right away, so stall for the model
+        if (model instanceof PlaceholderRenderer placeholder)
+            placeholder.finish();
         return model instanceof AnimatedObjRenderer anim ? anim.getAnimation(name) : null;
     }
 
@@ -159,7 +193,21 @@ public class Terrain extends WorldObject {
     }
 
     public void setMaterial(Material material) {
+        if (this.overrideMaterial == material)
+            return;
+
+        //shadow signatures and saves are only updated on terrain changes
         this.overrideMaterial = material;
+        updateTerrainInWorld();
+    }
+
+    @Override
+    public void setCastShadows(boolean castShadows) {
+        if (this.castShadows == castShadows)
+            return;
+
+        this.castShadows = castShadows;
+        updateTerrainInWorld();
     }
 
     public Material getMaterial() {
@@ -57,87 +57,94 @@ public class CollisionWorld extends WorldClient {
 
     @Override
     protected void levelLoad() {
+        buildLevel(this);
+
+        //debug button
+        Terrain slab = TerrainRegistry.SLAB.getFactory().get();
+        slab.setPos(-6f, 1f, 23f);
+        addTerrain(slab);
+
+        Button btt = new Button();
+        btt.setPos(-6f, 1.5f, 23f);
+        btt.setOnPress(e -> showDebug = true);
+        btt.setOnRelease(e -> showDebug = false);
+        addTerrain(btt);
+    }
+
+    /**
+     * Adds the terrain of this level to the given world, all but the debug button, which needs the world instance
+     */
+    public static void buildLevel(World world) {
         //floor
         int r = 32;
-        TerrainGenerator.fill(this, -r, 0, -r, r, 0, r, MaterialRegistry.DEFAULT.material);
+        TerrainGenerator.fill(world, -r, 0, -r, r, 0, r, MaterialRegistry.DEFAULT.material);
 
         //spawn platform
         Material debugMat = MaterialRegistry.DEBUG.material;
-        TerrainGenerator.fill(this, -12, 1, 16, -11, 5, 17, debugMat);
+        TerrainGenerator.fill(world, -12, 1, 16, -11, 5, 17, debugMat);
 
         //spheres
         for (int i = 0; i < 5; i++) {
             cinnamon.world.terrain.Sphere s = new cinnamon.world.terrain.Sphere();
             s.setPos(i * 5, 1, 1);
             s.setMaterial(debugMat);
-            this.addTerrain(s);
+            world.addTerrain(s);
         }
         for (int i = 0; i <= 20; i += 2) {
             cinnamon.world.terrain.Sphere s = new cinnamon.world.terrain.Sphere();
             s.setPos(i, 1, -1);
             s.setMaterial(debugMat);
-            this.addTerrain(s);
+            world.addTerrain(s);
         }
 
         //ramps
         for (int i = 1; i <= 6; i++)
-            this.addTerrain(new SlopeTerrain((i - 1) * 5, -5f, -15, 1.5f, 15f, 15f, Rotation.X.rotationDeg(15f * i), debugMat));
+            world.addTerrain(new SlopeTerrain((i - 1) * 5, -5f, -15, 1.5f, 15f, 15f, Rotation.X.rotationDeg(15f * i), debugMat));
 
         //floating ramps
         for (int i = 1; i <= 6; i++)
-            this.addTerrain(new SlopeTerrain((i - 1) * 5, 3f, 15, 1.5f, 3f, 3f, Rotation.X.rotationDeg(15f * i), debugMat));
+            world.addTerrain(new SlopeTerrain((i - 1) * 5, 3f, 15, 1.5f, 3f, 3f, Rotation.X.rotationDeg(15f * i), debugMat));
 
         //rotated pillars
         for (int i = 0; i < 3; i++)
-            this.addTerrain(new SlopeTerrain(-25, 3, 10 + 5 * i, 2f, 4f, 2f, Rotation.Y.rotationDeg(15f * (i + 1)), debugMat));
+            world.addTerrain(new SlopeTerrain(-25, 3, 10 + 5 * i, 2f, 4f, 2f, Rotation.Y.rotationDeg(15f * (i + 1)), debugMat));
 
         //exclamation mark
-        TerrainGenerator.fill(this, -15, 1, 5, -15, 1, 5, debugMat);
-        TerrainGenerator.fill(this, -15, 4, 5, -15, 4, 5, debugMat);
+        TerrainGenerator.fill(world, -15, 1, 5, -15, 1, 5, debugMat);
+        TerrainGenerator.fill(world, -15, 4, 5, -15, 4, 5, debugMat);
 
         //cage
-        TerrainGenerator.fill(this, -15, 1, 10, -15, 1, 10, debugMat);
-        TerrainGenerator.fill(this, -16, 3, 9, -14, 3, 11, debugMat);
-        removeTerrain(new AABB(-14.5f, 3.5f, 10.5f, -14.5f, 3.5f, 10.5f));
+        TerrainGenerator.fill(world, -15, 1, 10, -15, 1, 10, debugMat);
+        TerrainGenerator.fill(world, -16, 3, 9, -14, 3, 11, debugMat);
+        world.removeTerrain(new AABB(-14.5f, 3.5f, 10.5f, -14.5f, 3.5f, 10.5f));
 
         //spiral stair-case
         int h = 1;
-        TerrainGenerator.fill(this, -15, 1, -1, -15, h++, -1, debugMat);
-        TerrainGenerator.fill(this, -16, 1, -1, -16, h++, -1, debugMat);
-        TerrainGenerator.fill(this, -16, 1,  0, -16, h++,  0, debugMat);
-        TerrainGenerator.fill(this, -16, 1,  1, -16, h++,  1, debugMat);
-        TerrainGenerator.fill(this, -15, 1,  1, -15, h++,  1, debugMat);
-        TerrainGenerator.fill(this, -14, 1,  1, -14, h++,  1, debugMat);
+        TerrainGenerator.fill(world, -15, 1, -1, -15, h++, -1, debugMat);
+        TerrainGenerator.fill(world, -16, 1, -1, -16, h++, -1, debugMat);
+        TerrainGenerator.fill(world, -16, 1,  0, -16, h++,  0, debugMat);
+        TerrainGenerator.fill(world, -16, 1,  1, -16, h++,  1, debugMat);
+        TerrainGenerator.fill(world, -15, 1,  1, -15, h++,  1, debugMat);
+        TerrainGenerator.fill(world, -14, 1,  1, -14, h++,  1, debugMat);
 
         //small bunker
-        TerrainGenerator.fill(this, -15, 1, -6, -15, 1, -5, debugMat);
-        TerrainGenerator.fill(this, -16, 1, -6, -16, 2, -5, debugMat);
+        TerrainGenerator.fill(world, -15, 1, -6, -15, 1, -5, debugMat);
+        TerrainGenerator.fill(world, -16, 1, -6, -16, 2, -5, debugMat);
 
         //throne
-        TerrainGenerator.fill(this, -17, 1, -14, -15, 3, -10, debugMat);
-        removeTerrain(new AABB(-14.5f, 3.5f, -12.5f, -15.5f, 3.5f, -10.5f));
-        removeTerrain(new AABB(-14.5f, 2.5f, -11.5f, -14.5f, 2.5f, -11.5f));
+        TerrainGenerator.fill(world, -17, 1, -14, -15, 3, -10, debugMat);
+        world.removeTerrain(new AABB(-14.5f, 3.5f, -12.5f, -15.5f, 3.5f, -10.5f));
+        world.removeTerrain(new AABB(-14.5f, 2.5f, -11.5f, -14.5f, 2.5f, -11.5f));
 
         //wall
-        TerrainGenerator.fill(this, 1, 1, 30, 18, 8, 30, debugMat);
-        TerrainGenerator.fill(this, 1, 1, 22, 1, 8, 29, debugMat);
+        TerrainGenerator.fill(world, 1, 1, 30, 18, 8, 30, debugMat);
+        TerrainGenerator.fill(world, 1, 1, 22, 1, 8, 29, debugMat);
 
         //teapot
         Terrain teapot = new MeshTerrain(TerrainModelRegistry.TEAPOT.resource, TerrainRegistry.CUSTOM);
         teapot.setPos(-3, 1f, 3);
         teapot.setRotation(0, 45, 0);
-        addTerrain(teapot);
-
-        //debug button
-        Terrain slab = TerrainRegistry.SLAB.getFactory().get();
-        slab.setPos(-6f, 1f, 23f);
-        addTerrain(slab);
-
-        Button btt = new Button();
-        btt.setPos(-6f, 1.5f, 23f);
-        btt.setOnPress(e -> showDebug = true);
-        btt.setOnRelease(e -> showDebug = false);
-        addTerrain(btt);
+        world.addTerrain(teapot);
 
         //test uneven terrain
         float x0 = -150f;
@@ -197,12 +204,12 @@ public class CollisionWorld extends WorldClient {
 
                 uneven.setPos(centerX, y, centerZ);
                 uneven.setMaterial(MaterialRegistry.GRASS.material);
-                addTerrain(uneven);
+                world.addTerrain(uneven);
             }
         }
 
         //ground plane
-        addTerrain(new PlaneTerrain(0, 1, 0, 0.75f));
+        world.addTerrain(new PlaneTerrain(0, 1, 0, 0.75f));
     }
 
     @Override
@@ -5,9 +5,9 @@ import cinnamon.model.GeometryHelper;
 import cinnamon.render.Camera;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.batch.VertexConsumer;
-import cinnamon.sound.Sound;
 import cinnamon.sound.SoundCategory;
 import cinnamon.sound.SoundInstance;
+import cinnamon.sound.SoundManager;
 import cinnamon.sound.SoundSpectrum;
 import cinnamon.utils.ColorUtils;
 import cinnamon.utils.Resource;
@@ -35,7 +35,6 @@ public class DiscoWorld extends WorldClient {
 
     private final SoundSpectrum spectrum = new SoundSpectrum();
 
-    private Sound sound;
     private SoundInstance soundData;
 
     private final List<Speaker> speakers = new ArrayList<>();
@@ -47,8 +46,7 @@ public class DiscoWorld extends WorldClient {
         super.levelLoad();
 
         Resource soundRes = new Resource("sounds/song.ogg");
-        sound = Sound.of(soundRes);
-        soundData = playSound(soundRes, SoundCategory.MUSIC, new Vector3f(0, 0, 0)).loop(true);
+        soundData = SoundManager.streamSound(soundRes, SoundCategory.MUSIC, new Vector3f(0, 0, 0)).loop(true);
 
         DiscoFloor floor = new DiscoFloor(UUID.randomUUID());
         floor.setPos(0f, 1.001f, 0f);
@@ -141,7 +139,7 @@ public class DiscoWorld extends WorldClient {
         int count = super.renderParticles(camera, matrices, delta);
 
         //grab the audio spectrum and calculate the amplitudes
-        spectrum.updateAmplitudes(sound, soundData, true);
+        spectrum.updateAmplitudes(soundData, true);
         float[] amplitudes = spectrum.getAmplitudes();
 
         //draw bars
@@ -0,0 +1,216 @@
+package cinnamon.world.world;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.world.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Uniform hash grid used as the entity broad-phase
+ * entities are registered in every cell their AABB touches, and re-registered only when that cell range changes
+ */
+public class EntityGrid {
+
+    private static final int MAX_CELLS = 64;
+    private static final int COORD_BITS = 21;
+    private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+
+    private final float cellSize, invCellSize;
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<Entity, Entry> entries = new LinkedHashMap<>();
+    private final List<Entry> oversized = new ArrayList<>();
+
+    //range of cells ever linked, queries are clamped to it, so a flat world does not scan empty cells above and below
+    private int minCellX = Integer.MAX_VALUE, minCellY = Integer.MAX_VALUE, minCellZ = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE, maxCellY = Integer.MIN_VALUE, maxCellZ = Integer.MIN_VALUE;
+
+    public EntityGrid(float cellSize) {
+        this.cellSize = cellSize;
+        this.invCellSize = 1f / cellSize;
+    }
+
+    public void add(Entity entity) {
+        //already added, just refresh it
+        Entry entry = entries.get(entity);
+        if (entry != null) {
+            update(entity);
+            return;
+        }
+
+        entry = new Entry(entity);
+        entry.setRange(entity.getAABB(), invCellSize);
+        entries.put(entity, entry);
+        link(entry);
+    }
+
+    public void remove(Entity entity) {
+        Entry entry = entries.remove(entity);
+        if (entry != null)
+            unlink(entry);
+    }
+
+    public void update(Entity entity) {
+        Entry entry = entries.get(entity);
+        if (entry == null)
+            return;
+
+        //only touch the cells when the entity crossed a cell boundary
+        AABB aabb = entity.getAABB();
+        if (entry.sameRange(aabb, invCellSize))
+            return;
+
+        unlink(entry);
+        entry.setRange(aabb, invCellSize);
+        link(entry);
+    }
+
+    public void clear() {
+        cells.clear();
+        entries.clear();
+        oversized.clear();
+        minCellX = minCellY = minCellZ = Integer.MAX_VALUE;
+        maxCellX = maxCellY = maxCellZ = Integer.MIN_VALUE;
+    }
+
+    public void query(AABB region, Consumer<Entity> consumer) {
+        int minX = Math.max(toCell(region.minX(), invCellSize), minCellX), minY = Math.max(toCell(region.minY(), invCellSize), minCellY), minZ = Math.max(toCell(region.minZ(), invCellSize), minCellZ);
+        int maxX = Math.min(toCell(region.maxX(), invCellSize), maxCellX), maxY = Math.min(toCell(region.maxY(), invCellSize), maxCellY), maxZ = Math.min(toCell(region.maxZ(), invCellSize), maxCellZ);
+
+        //oversized entities are always tested
+        for (int i = 0; i < oversized.size(); i++) {
+            Entity entity = oversized.get(i).entity;
+            if (region.intersects(entity.getAABB()))
+                consumer.accept(entity);
+        }
+
+        //nothing linked there
+        if (minX > maxX || minY > maxY || minZ > maxZ)
+            return;
+
+        //huge regions are cheaper to scan linearly
+        long volume = ((long) maxX - minX + 1) * ((long) maxY - minY + 1) * ((long) maxZ - minZ + 1);
+        if (volume > entries.size()) {
+            for (Entry entry : entries.values()) {
+                if (!entry.oversized && region.intersects(entry.entity.getAABB()))
+                    consumer.accept(entry.entity);
+            }
+            return;
+        }
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    List<Entry> list = cells.get(pack(x, y, z));
+                    if (list == null)
+                        continue;
+
+                    for (int i = 0; i < list.size(); i++) {
+                        Entry entry = list.get(i);
+                        //entities spanning multiple cells are only reported from the first shared cell
+                        if (x != Math.max(entry.minX, minX) || y != Math.max(entry.minY, minY) || z != Math.max(entry.minZ, minZ))
+                            continue;
+                        if (region.intersects(entry.entity.getAABB()))
+                            consumer.accept(entry.entity);
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean contains(Entity entity) {
+        return entries.containsKey(entity);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getCellCount() {
+        return cells.size();
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    private void link(Entry entry) {
+        if (entry.oversized) {
+            oversized.add(entry);
+            return;
+        }
+
+        minCellX = Math.min(minCellX, entry.minX); maxCellX = Math.max(maxCellX, entry.maxX);
+        minCellY = Math.min(minCellY, entry.minY); maxCellY = Math.max(maxCellY, entry.maxY);
+        minCellZ = Math.min(minCellZ, entry.minZ); maxCellZ = Math.max(maxCellZ, entry.maxZ);
+
+        for (int x = entry.minX; x <= entry.maxX; x++)
+            for (int y = entry.minY; y <= entry.maxY; y++)
+                for (int z = entry.minZ; z <= entry.maxZ; z++)
+                    cells.computeIfAbsent(pack(x, y, z), k -> new ArrayList<>(4)).add(entry);
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.oversized) {
+            oversized.remove(entry);
+            return;
+        }
+
+        for (int x = entry.minX; x <= entry.maxX; x++) {
+            for (int y = entry.minY; y <= entry.maxY; y++) {
+                for (int z = entry.minZ; z <= entry.maxZ; z++) {
+                    long key = pack(x, y, z);
+                    List<Entry> list = cells.get(key);
+                    if (list == null)
+                        continue;
+
+                    //keep the order of the others, so queries see the same order no matter when an entity left
+                    //parallel physics unlinks the removed entities before any move, serial physics in between them
+                    int i = list.indexOf(entry);
+                    if (i >= 0)
+                        list.remove(i);
+
+                    if (list.isEmpty())
+                        cells.remove(key);
+                }
+            }
+        }
+    }
+
+    private static int toCell(float coord, float invCellSize) {
+        //clamp so infinite regions do not overflow
+        return (int) Math.max(Math.min(Math.floor(coord * invCellSize), 1 << 20), -(1 << 20));
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((x & COORD_MASK) << (COORD_BITS * 2)) | ((y & COORD_MASK) << COORD_BITS) | (z & COORD_MASK);
+    }
+
+    private static class Entry {
+        private final Entity entity;
+        private int minX, minY, minZ, maxX, maxY, maxZ;
+        private boolean oversized;
+
+        private Entry(Entity entity) {
+            this.entity = entity;
+        }
+
+        private void setRange(AABB aabb, float invCellSize) {
+            minX = toCell(aabb.minX(), invCellSize); maxX = toCell(aabb.maxX(), invCellSize);
+            minY = toCell(aabb.minY(), invCellSize); maxY = toCell(aabb.maxY(), invCellSize);
+            minZ = toCell(aabb.minZ(), invCellSize); maxZ = toCell(aabb.maxZ(), invCellSize);
+            long volume = ((long) maxX - minX + 1) * ((long) maxY - minY + 1) * ((long) maxZ - minZ + 1);
+            oversized = volume > MAX_CELLS || volume <= 0;
+        }
+
+        private boolean sameRange(AABB aabb, float invCellSize) {
+            return minX == toCell(aabb.minX(), invCellSize) && maxX == toCell(aabb.maxX(), invCellSize) &&
+                   minY == toCell(aabb.minY(), invCellSize) && maxY == toCell(aabb.maxY(), invCellSize) &&
+                   minZ == toCell(aabb.minZ(), invCellSize) && maxZ == toCell(aabb.maxZ(), invCellSize);
+        }
+    }
+}
@@ -15,12 +15,14 @@ import cinnamon.world.entity.PhysEntity;
 import cinnamon.world.entity.living.LivingEntity;
 import cinnamon.world.entity.projectile.Potato;
 import cinnamon.world.terrain.Terrain;
-import cinnamon.world.worldgen.OctreeTerrain;
 import cinnamon.world.worldgen.TerrainManager;
+import cinnamon.world.worldgen.TerrainStorage;
+import cinnamon.world.worldgen.save.WorldSave;
 import org.joml.Math;
 import org.joml.Vector3f;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 public abstract class World {
@@ -29,11 +31,19 @@ public abstract class World {
 
     protected final Queue<Runnable> scheduledTicks = new LinkedList<>();
 
-    protected final TerrainManager terrainManager = new OctreeTerrain(new AABB().inflate(16));
+    protected final TerrainManager terrainManager = getTerrainStorage().create();
     protected final Map<UUID, Entity> entities = new HashMap<>();
+    protected final EntityGrid entityGrid = new EntityGrid(4f);
+
+    //physics queued for the two-phase update
+    private final List<PhysEntity> physicsQueue = new ArrayList<>();
+    private boolean queuePhysics;
 
     protected final WorldRules worldRules = new WorldRules();
 
+    //where the terrain is saved to, null when it is not persisted
+    protected WorldSave save;
+
     public float updateTime = 1f / Client.TPS;
     public float gravity = 0.98f * updateTime;
     public float bottomOfTheWorld = -512f;
@@ -62,16 +72,65 @@ public abstract class World {
         for (Entity e : entities.values())
             e.preTick();
 
+        queuePhysics = (boolean) worldRules.get(WorldRules.Rule.PARALLEL_PHYSICS);
         for (Iterator<Map.Entry<UUID, Entity>> iterator = entities.entrySet().iterator(); iterator.hasNext(); ) {
             Map.Entry<UUID, Entity> entry = iterator.next();
             Entity e = entry.getValue();
             if (e.isRemoved()) {
                 iterator.remove();
+                entityGrid.remove(e);
                 entityRemoved(e.getUUID());
             } else {
                 e.tick();
+                //catch bounds changes that did not go through moveTo
+                entityGrid.update(e);
             }
         }
+
+        if (queuePhysics) {
+            queuePhysics = false;
+            runQueuedPhysics();
+        }
+
+        if (save != null)
+            save.tick(this);
+    }
+
+    protected void runQueuedPhysics() {
+        if (physicsQueue.isEmpty())
+            return;
+
+        //compute phase - every entity only writes to its own state, so the order does not matter
+        physicsQueue.parallelStream().forEach(PhysEntity::computeMotion);
+
+        //apply phase - moves and collision events are committed serially, in tick order
+        //each entity finishes its tick right after its own move, as it would when ticked serially
+        for (PhysEntity e : physicsQueue) {
+            if (!e.isRemoved()) {
+                e.applyMotion();
+                e.postPhysicsTick();
+            }
+        }
+
+        physicsQueue.clear();
+    }
+
+    public boolean queuePhysics(PhysEntity entity) {
+        //physics are only queued while ticking the entities with the parallel rule enabled
+        if (!queuePhysics)
+            return false;
+
+        physicsQueue.add(entity);
+        return true;
+    }
+
+    /**
+     * Runs the given task at the start of the next tick
+     * entities use it for effects on other entities during their physics, so the effect lands at the same point of the tick
+     * whether the physics ran serial or queued
+     */
+    public void scheduleTick(Runnable task) {
+        scheduledTicks.add(task);
     }
 
     protected void runScheduledTicks() {
@@ -84,15 +143,17 @@ public abstract class World {
         scheduledTicks.add(() -> {
             this.entities.put(entity.getUUID(), entity);
             entity.onAdded(this);
+            entityGrid.add(entity);
         });
     }
 
     public void addTerrain(Terrain terrain) {
         scheduledTicks.add(() -> {
             terrain.calculateBounds();
-            if (terrainManager.insert(terrain))
+            if (terrainManager.insert(terrain)) {
                 terrain.onAdded(this);
-            else
+                terrainChanged(terrain);
+            } else
                 Client.LOGGER.error("Failed to add terrain at %s", terrain.getTransform().getPos());
         });
     }
@@ -101,46 +162,107 @@ public abstract class World {
         scheduledTicks.add(() -> {
             if (!terrainManager.remove(terrain))
                 Client.LOGGER.warn("Failed to remove terrain at %s", terrain.getTransform().getPos());
+            else
+                terrainRemoved(terrain);
         });
     }
 
     public void removeTerrain(AABB aabb) {
-        scheduledTicks.add(() -> terrainManager.remove(aabb));
+        scheduledTicks.add(() -> {
+            terrainManager.query(aabb, this::terrainRemoved);
+            terrainManager.remove(aabb);
+        });
     }
 
     public void updateTerrain(Terrain terrain) {
         scheduledTicks.add(() -> {
-            if (terrainManager.remove(terrain))
+            if (terrainManager.remove(terrain)) {
                 terrainManager.insert(terrain);
+                terrainChanged(terrain);
+            }
         });
     }
 
+    //called once terrain was added or moved
+    protected void terrainChanged(Terrain terrain) {
+        if (save != null)
+            save.terrainChanged(terrain);
+    }
+
+    //called once terrain was removed
+    protected void terrainRemoved(Terrain terrain) {
+        if (save != null)
+            save.terrainRemoved(terrain);
+    }
+
     public void entityRemoved(UUID uuid) {}
 
+    public void updateEntity(Entity entity) {
+        entityGrid.update(entity);
+    }
+
+    protected TerrainStorage getTerrainStorage() {
+        return TerrainStorage.OCTREE;
+    }
+
+    public void setSave(WorldSave save) {
+        //queued after any terrain loaded from it, so the loaded terrain is not saved right back
+        scheduledTicks.add(() -> this.save = save);
+    }
+
+    public WorldSave getSave() {
+        return save;
+    }
+
     public List<Entity> getEntities(Collider<?> region) {
-        List<Entity> list = new ArrayList<>();
-        for (Entity entity : entities.values()) {
-            if (region.intersects(entity.getAABB()))
-                list.add(entity);
+        return getEntities(region, new ArrayList<>());
+    }
+
+    public List<Entity> getEntities(Collider<?> region, List<Entity> reuse) {
+        reuse.clear();
+        getEntities(region, reuse::add);
+        return reuse;
+    }
+
+    public void getEntities(Collider<?> region, Consumer<Entity> consumer) {
+        //broad-phase on the region bounds, then test the actual shape
+        if (region instanceof AABB aabb) {
+            entityGrid.query(aabb, consumer);
+            return;
         }
-        return list;
+
+        entityGrid.query(region.toAABB(), entity -> {
+            if (region.intersects(entity.getAABB()))
+                consumer.accept(entity);
+        });
     }
 
     public List<Terrain> getTerrains(AABB region) {
         return terrainManager.query(region);
     }
 
+    public List<Terrain> getTerrains(AABB region, List<Terrain> reuse) {
+        return terrainManager.query(region, reuse);
+    }
+
+    public void getTerrains(AABB region, Consumer<Terrain> consumer) {
+        terrainManager.query(region, consumer);
+    }
+
     public Entity getEntityByUUID(UUID uuid) {
         return entities.get(uuid);
     }
 
     public void explode(Sphere explosionArea, float strength, Entity source, boolean invisible) {
-        Vector3f center = explosionArea.getCenter();
-        float radiusSqr = explosionArea.getRadius() * explosionArea.getRadius();
+        Sphere area = new Sphere(explosionArea);
+        Vector3f center = area.getCenter();
+        float radiusSqr = area.getRadius() * area.getRadius();
+        Vector3f dir = new Vector3f();
 
-        for (Entity entity : getEntities(explosionArea)) {
+        //entities are hit at the start of the next tick, like the terrain is removed
+        scheduledTicks.add(() -> getEntities(area, entity -> {
             if (entity == source || entity.isRemoved())
-                continue;
+                return;
 
             float localStrength = Math.max(0f, 1f - (entity.getAABB().getCenter().distanceSquared(center) / radiusSqr)) * strength;
 
@@ -153,12 +275,12 @@ public abstract class World {
 
             //knock back
             if (entity instanceof PhysEntity e) {
-                Vector3f dir = explosionArea.getCenter().sub(e.getAABB().getCenter(), new Vector3f()).normalize().mul(-1);
+                center.sub(e.getAABB().getCenter(), dir).normalize().mul(-1);
                 e.knockback(dir, 0.5f * localStrength);
             }
-        }
+        }));
 
-        for (Terrain terrain : getTerrains(explosionArea.toAABB())) {
+        getTerrains(explosionArea.toAABB(), terrain -> {
             float localStrength = Math.max(0f, 1f - (terrain.getAABB().getCenter().distanceSquared(center) / radiusSqr)) * strength;
             for (Collider<?> collider : terrain.getPreciseCollider()) {
                 if (collider.intersects(explosionArea) && terrain.explode(localStrength)) {
@@ -166,60 +288,48 @@ public abstract class World {
                     break;
                 }
             }
-        }
+        });
     }
 
     public Pair<Hit, Terrain> raycastTerrain(AABB area, Vector3f pos, Vector3f dirLen, Predicate<Terrain> predicate) {
         //prepare variables
-        Hit terrainColl = null;
-        Terrain tempTerrain = null;
+        RaycastResult<Terrain> closest = new RaycastResult<>();
         Ray ray = new Ray(pos, dirLen, dirLen.length());
 
         //loop through terrain in area
-        for (Terrain t : getTerrains(area)) {
+        getTerrains(area, t -> {
             //failed predicate
             if (!predicate.test(t))
-                continue;
+                return;
 
             //loop through its groups AABBs
             for (Collider<?> collider : t.getPreciseCollider()) {
-                //check for collision
-                Hit result = ray.rayCast(collider);
-                //store collision if it is closer than previous collision
-                if (result != null && (terrainColl == null || result.tNear() < terrainColl.tNear())) {
-                    terrainColl = result;
-                    tempTerrain = t;
-                }
+                //check for collision, storing it if it is closer than previous collision
+                closest.test(ray.rayCast(collider), t);
             }
-        }
+        });
 
         //return terrain collision data
-        return terrainColl == null ? null : Pair.of(terrainColl, tempTerrain);
+        return closest.toPair();
     }
 
     public Pair<Hit, Entity> raycastEntity(AABB area, Vector3f pos, Vector3f dirLen, Predicate<Entity> predicate) {
         //prepare variables
-        Hit entityColl = null;
-        Entity tempEntity = null;
+        RaycastResult<Entity> closest = new RaycastResult<>();
         Ray ray = new Ray(pos, dirLen, dirLen.length());
 
         //loop through entities in area
-        for (Entity e : getEntities(area)) {
+        getEntities(area, e -> {
             //check for the predicate if the entity is valid
             if (!predicate.test(e))
-                continue;
-
-            //check for collision
-            Hit result = ray.rayCast(e.getAABB());
-            //store collision if it is closer than previous collision
-            if (result != null && (entityColl == null || result.tNear() < entityColl.tNear())) {
-                entityColl = result;
-                tempEntity = e;
-            }
-        }
+                return;
+
+            //check for collision, storing it if it is closer than previous collision
+            closest.test(ray.rayCast(e.getAABB()), e);
+        });
 
         //return entity collision data
-        return entityColl == null ? null : Pair.of(entityColl, tempEntity);
+        return closest.toPair();
     }
 
     public void setTime(long time) {
@@ -284,4 +394,20 @@ public abstract class World {
     public boolean isNight() {
         return worldTime % dayLength >= nightStart;
     }
+
+    private static class RaycastResult<T> {
+        private Hit hit;
+        private T object;
+
+        private void test(Hit result, T obj) {
+            if (result != null && (hit == null || result.tNear() < hit.tNear())) {
+                hit = result;
+                object = obj;
+            }
+        }
+
+        private Pair<Hit, T> toPair() {
+            return hit == null ? null : Pair.of(hit, object);
+        }
+    }
 }
@@ -18,16 +18,24 @@ import cinnamon.messages.MessageCategory;
 import cinnamon.messages.MessageManager;
 import cinnamon.model.GeometryHelper;
 import cinnamon.model.Vertex;
+import cinnamon.networking.ClientConnection;
+import cinnamon.networking.ServerConnection;
+import cinnamon.networking.packet.Handshake;
+import cinnamon.networking.packet.Login;
 import cinnamon.registry.LivingModelRegistry;
 import cinnamon.registry.MaterialRegistry;
 import cinnamon.registry.TerrainModelRegistry;
 import cinnamon.registry.TerrainRegistry;
 import cinnamon.render.Camera;
+import cinnamon.render.CascadedShadow;
 import cinnamon.render.DebugRenderer;
+import cinnamon.render.LightRenderer;
 import cinnamon.render.MatrixStack;
 import cinnamon.render.WaterRenderer;
 import cinnamon.render.WorldRenderer;
 import cinnamon.render.batch.VertexConsumer;
+import cinnamon.render.model.ModelInstancer;
+import cinnamon.render.shader.Shader;
 import cinnamon.render.shader.PostProcess;
 import cinnamon.settings.Settings;
 import cinnamon.sound.SoundCategory;
@@ -75,6 +83,8 @@ import cinnamon.world.light.PointLight;
 import cinnamon.world.light.Spotlight;
 import cinnamon.world.particle.ExplosionParticle;
 import cinnamon.world.particle.Particle;
+import cinnamon.world.particle.SpriteParticle;
+import cinnamon.world.particle.SpriteParticlePool;
 import cinnamon.world.particle.TextParticle;
 import cinnamon.world.sky.DynamicSky;
 import cinnamon.world.sky.Sky;
@@ -85,13 +95,20 @@ import cinnamon.world.terrain.Glass;
 import cinnamon.world.terrain.PlaneTerrain;
 import cinnamon.world.terrain.Terrain;
 import cinnamon.world.worldgen.TerrainGenerator;
+import cinnamon.world.worldgen.TerrainStorage;
+import cinnamon.world.worldgen.TerrainVisibility;
+import cinnamon.world.worldgen.save.ChunkSerializer;
+import cinnamon.world.worldgen.save.WorldSave;
 import org.joml.Math;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Supplier;
 
@@ -121,8 +138,24 @@ public class WorldClient extends World {
 
     //particles and decals
     protected final List<Particle> particles = new ArrayList<>();
+    protected final List<SpriteParticlePool> particlePools = new ArrayList<>();
     protected final List<Decal> decals = new ArrayList<>();
 
+    //terrain sharing a model is drawn instanced
+    protected final ModelInstancer terrainInstancer = new ModelInstancer();
+    private final List<Terrain> shadowCasterQuery = new ArrayList<>();
+    private final List<Terrain> shadowTerrainQuery = new ArrayList<>();
+
+    //set while the level is generated over an existing save
+    private boolean skipSavedTerrain;
+
+    //static shadow signatures per light region, dropped once the terrain changes
+    private final Map<ShadowRegion, Long> shadowSignatures = new HashMap<>();
+    private int shadowSignatureVersion = -1;
+
+    //culled terrain per view, shared by all passes of the frame
+    protected final TerrainVisibility terrainVisibility = new TerrainVisibility(terrainManager);
+
     //skybox
     protected Sky sky = new DynamicSky();
     protected final SkyColors skyColors = new SkyColors();
@@ -146,12 +179,46 @@ public class WorldClient extends World {
         respawn(true);
 
         //SERVER STUFF
+        WorldSave worldSave = new WorldSave(getSaveFolder());
+        boolean saved = worldSave.exists();
+
+        //the saved terrain replaces the one generated by the level
+        skipSavedTerrain = saved;
         levelLoad();
+        skipSavedTerrain = false;
+        runScheduledTicks();
 
+        if (!saved) {
+            worldSave.saveAll(this);
+            setSave(worldSave);
+        } else {
+            try {
+                worldSave.load(this);
+                setSave(worldSave);
+            } catch (Exception e) {
+                //not saved to, so the damaged save is not overwritten
+                Client.LOGGER.error("Failed to load the world save", e);
+            }
+        }
         runScheduledTicks();
 
-        //request world data
-        //connection.sendTCP(new Login());
+        //request world data, the server sends it as it enters the player area of interest
+        if (ClientConnection.connection != null) {
+            ClientConnection.connection.send(new Handshake());
+            ClientConnection.connection.send(new Login());
+        }
+    }
+
+    @Override
+    public void addTerrain(Terrain terrain) {
+        if (skipSavedTerrain && ChunkSerializer.canSave(terrain))
+            return;
+        super.addTerrain(terrain);
+    }
+
+    protected Path getSaveFolder() {
+        //each world keeps its own save
+        return WorldSave.SAVES_FOLDER.resolve(getClass().getSimpleName().toLowerCase());
     }
 
     protected void levelLoad() {
@@ -341,9 +408,15 @@ public class WorldClient extends World {
                     e.remove();
             }
             entities.clear();
+            entityGrid.clear();
+            //the saved chunks are rewritten with the new level
+            terrainManager.query(new AABB(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY), this::terrainRemoved);
             terrainManager.clear();
+            terrainVisibility.clear();
             lights.clear();
             particles.clear();
+            for (SpriteParticlePool pool : particlePools)
+                pool.clear();
             decals.clear();
 
             //reload the level
@@ -353,12 +426,24 @@ public class WorldClient extends World {
         });
     }
 
+    @Override
+    protected TerrainStorage getTerrainStorage() {
+        //the levels are mostly made of unit boxes
+        return TerrainStorage.CHUNKED;
+    }
+
     @Override
     public void close() {
         SoundManager.stopAll(c -> c != SoundCategory.GUI && c != SoundCategory.MASTER);
         this.sky.free();
         this.hud.free();
-        //ServerConnection.close();
+        this.terrainInstancer.free();
+        LightRenderer.clearShadowCache();
+        if (save != null)
+            save.close(this);
+        //leave before the server closes, so it is not seen as being dropped
+        ClientConnection.disconnect();
+        ServerConnection.close();
     }
 
     @Override
@@ -375,6 +460,9 @@ public class WorldClient extends World {
                     p.tick();
             }
 
+            for (SpriteParticlePool pool : particlePools)
+                pool.tick();
+
             //decals
             for (Iterator<Decal> iterator = decals.iterator(); iterator.hasNext(); ) {
                 Decal d = iterator.next();
@@ -491,24 +579,114 @@ public class WorldClient extends World {
 
     public int renderTerrain(Camera camera, MatrixStack matrices, float delta) {
         int count = 0;
-        List<Terrain> query = terrainManager.queryCustom(camera::isInsideFrustum);
+        boolean instancing = ModelInstancer.isSupported(Shader.activeShader);
+        LightRenderer.ShadowPass pass = LightRenderer.getShadowPass();
+
+        //shadow casters only need to be searched around the light
+        AABB shadowBounds = LightRenderer.getShadowBounds();
+        List<Terrain> query = shadowBounds != null ? terrainManager.query(shadowBounds, shadowTerrainQuery) : terrainVisibility.getVisible(camera.getFrustum());
         for (Terrain terrain : query) {
-            if (terrain.shouldRender(camera)) {
-                terrain.render(camera, matrices, delta);
+            if (pass.accepts(terrain.isStaticShadowCaster()) && terrain.shouldRender(camera)) {
+                //directional shadows only draw it into the cascades it is in, if any
+                int layers = LightRenderer.getShadowLayers(terrain.getAABB());
+                if (layers == 0)
+                    continue;
+
+                //repeated models are grouped and drawn all at once
+                if (instancing && terrain.isInstanceable()) {
+                    terrainInstancer.setLayers(layers);
+                    terrain.renderInstanced(terrainInstancer, matrices, delta);
+                } else {
+                    LightRenderer.applyShadowLayers(layers);
+                    terrain.render(camera, matrices, delta);
+                }
                 count++;
             }
         }
+
+        shadowTerrainQuery.clear();
+        LightRenderer.applyShadowLayers(CascadedShadow.ALL_CASCADES);
+        if (instancing)
+            terrainInstancer.render();
+
         return count;
     }
 
+    /**
+     * Hashes the static shadow casters inside the region, in an order independent way
+     * so it only changes when a caster is added, removed, moved, rotated or has its material swapped
+     * the signature is kept until the terrain changes, so unchanged lights skip the query
+     */
+    public long getStaticShadowSignature(AABB region) {
+        int version = terrainManager.getVersion();
+        if (version != shadowSignatureVersion || shadowSignatures.size() > 256) {
+            //moving lights leave old regions behind, so the map is also dropped when it grows too much
+            shadowSignatures.clear();
+            shadowSignatureVersion = version;
+        }
+
+        ShadowRegion key = new ShadowRegion(region.minX(), region.minY(), region.minZ(), region.maxX(), region.maxY(), region.maxZ());
+        Long cached = shadowSignatures.get(key);
+        if (cached != null)
+            return cached;
+
+        long signature = computeStaticShadowSignature(region);
+        shadowSignatures.put(key, signature);
+        return signature;
+    }
+
+    private long computeStaticShadowSignature(AABB region) {
+        long signature = 0;
+        int count = 0;
+
+        for (Terrain terrain : terrainManager.query(region, shadowCasterQuery)) {
+            if (!terrain.castsShadows() || !terrain.isStaticShadowCaster())
+                continue;
+
+            AABB aabb = terrain.getAABB();
+            long h = System.identityHashCode(terrain);
+            h = h * 31 + System.identityHashCode(terrain.getMaterial());
+            h = h * 31 + Float.floatToIntBits(aabb.minX());
+            h = h * 31 + Float.floatToIntBits(aabb.minY());
+            h = h * 31 + Float.floatToIntBits(aabb.minZ());
+            h = h * 31 + Float.floatToIntBits(aabb.maxX());
+            h = h * 31 + Float.floatToIntBits(aabb.maxY());
+            h = h * 31 + Float.floatToIntBits(aabb.maxZ());
+
+            //a rotation can keep the same bounds, but not the same shadow
+            Quaternionf rot = terrain.getTransform().getRot();
+            h = h * 31 + Float.floatToIntBits(rot.x);
+            h = h * 31 + Float.floatToIntBits(rot.y);
+            h = h * 31 + Float.floatToIntBits(rot.z);
+            h = h * 31 + Float.floatToIntBits(rot.w);
+
+            //mix before adding, so different casters rarely cancel out
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+
+            signature += h;
+            count++;
+        }
+
+        shadowCasterQuery.clear();
+        return signature * 31 + count;
+    }
+
     public int renderEntities(Camera camera, MatrixStack matrices, float delta) {
         int count = 0;
         for (Entity entity : entities.values()) {
             if (entity.shouldRender(camera)) {
+                int layers = LightRenderer.getShadowLayers(entity.getAABB());
+                if (layers == 0)
+                    continue;
+
+                LightRenderer.applyShadowLayers(layers);
                 entity.render(camera, matrices, delta);
                 count++;
             }
         }
+        LightRenderer.applyShadowLayers(CascadedShadow.ALL_CASCADES);
         return count;
     }
 
@@ -520,6 +698,8 @@ public class WorldClient extends World {
                 count++;
             }
         }
+        for (SpriteParticlePool pool : particlePools)
+            count += pool.render(camera, matrices, delta);
         return count;
     }
 
@@ -530,7 +710,7 @@ public class WorldClient extends World {
     }
 
     public void renderTransparent(Camera camera, MatrixStack matrices, float delta) {
-        List<Terrain> query = terrainManager.queryCustom(camera::isInsideFrustum);
+        List<Terrain> query = terrainVisibility.getVisible(camera.getFrustum());
         for (Terrain terrain : query) {
             if (terrain.shouldRender(camera))
                 terrain.renderTransparent(camera, matrices, delta);
@@ -715,12 +895,29 @@ public class WorldClient extends World {
     }
 
     public void addParticle(Particle particle) {
+        //simple sprites are copied into a pool instead of being kept around as objects
+        if (particle instanceof SpriteParticle sprite && sprite.isPoolable()) {
+            scheduledTicks.add(() -> getParticlePool(sprite.getTexture(), sprite.isEmissive()).add(sprite));
+            return;
+        }
+
         scheduledTicks.add(() -> {
             this.particles.add(particle);
             particle.onAdded(this);
         });
     }
 
+    public SpriteParticlePool getParticlePool(Resource texture, boolean emissive) {
+        for (SpriteParticlePool pool : particlePools) {
+            if (pool.matches(texture, emissive))
+                return pool;
+        }
+
+        SpriteParticlePool pool = new SpriteParticlePool(texture, emissive);
+        particlePools.add(pool);
+        return pool;
+    }
+
     public void addDecal(Decal decal) {
         scheduledTicks.add(() -> {
             this.decals.add(decal);
@@ -1119,4 +1316,6 @@ public class WorldClient extends World {
 
         return aw;
     }
+
+    private record ShadowRegion(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {}
 }
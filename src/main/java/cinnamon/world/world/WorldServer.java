@@ -1,13 +1,11 @@
 package cinnamon.world.world;
 
-/*
 import cinnamon.networking.ServerConnection;
-import cinnamon.networking.packet.RemoveEntity;
 import cinnamon.registry.LivingModelRegistry;
-import cinnamon.utils.Resource;
 import cinnamon.world.entity.Entity;
 import cinnamon.world.entity.living.Player;
 import cinnamon.world.entity.vehicle.Cart;
+import cinnamon.world.terrain.Terrain;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -39,7 +37,24 @@ public class WorldServer extends World {
     @Override
     public void entityRemoved(UUID uuid) {
         super.entityRemoved(uuid);
-        ServerConnection.connection.sendToAllTCP(new RemoveEntity().uuid(uuid));
+        //only the clients tracking it are told
+        if (ServerConnection.interest != null)
+            ServerConnection.interest.entityRemoved(uuid);
+    }
+
+    @Override
+    protected void terrainChanged(Terrain terrain) {
+        super.terrainChanged(terrain);
+        //clients that already have the cell get it again
+        if (ServerConnection.interest != null)
+            ServerConnection.interest.terrainChanged(terrain);
+    }
+
+    @Override
+    protected void terrainRemoved(Terrain terrain) {
+        super.terrainRemoved(terrain);
+        if (ServerConnection.interest != null)
+            ServerConnection.interest.terrainRemoved(terrain);
     }
 
     public Map<UUID, Entity> getEntities() {
@@ -64,4 +79,3 @@ public class WorldServer extends World {
         return players.get(internalID);
     }
 }
- */
\ No newline at end of file
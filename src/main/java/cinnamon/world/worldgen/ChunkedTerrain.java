@@ -0,0 +1,255 @@
+package cinnamon.world.worldgen;
+
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.render.Frustum;
+import cinnamon.world.terrain.MeshTerrain;
+import cinnamon.world.terrain.PlaneTerrain;
+import cinnamon.world.terrain.Terrain;
+import cinnamon.world.worldgen.chunk.ArrayChunk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static cinnamon.world.worldgen.chunk.Chunk.CHUNK_SIZE;
+
+/**
+ * Terrain manager that stores grid-aligned terrain in a hash of dense {@link ArrayChunk}s,
+ * giving O(1) lookups for anything that fits inside a single unit cell.
+ * Free-form terrain (meshes, planes, off-grid or overlapping objects) falls back to an {@link OctreeTerrain}
+ */
+public class ChunkedTerrain extends TerrainManager {
+
+    private static final int COORD_BITS = 21;
+    private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+
+    private final Map<Long, ArrayChunk> chunks = new HashMap<>();
+    private final Map<Terrain, Long> cells = new HashMap<>();
+    private final OctreeTerrain freeform = new OctreeTerrain(new AABB().inflate(16));
+
+    @Override
+    public void tick() {
+        for (ArrayChunk chunk : chunks.values())
+            chunk.tick();
+        freeform.tick();
+    }
+
+    @Override
+    public boolean insert(Terrain terrain) {
+        //nothing to insert
+        if (terrain == null)
+            return false;
+
+        //terrain that does not fit in a single cell goes to the octree
+        AABB bb = terrain.getAABB();
+        if (!isGridAligned(terrain))
+            return freeform.insert(terrain);
+
+        int x = (int) Math.floor(bb.minX());
+        int y = (int) Math.floor(bb.minY());
+        int z = (int) Math.floor(bb.minZ());
+
+        //grab or create the chunk
+        long chunkKey = pack(Math.floorDiv(x, CHUNK_SIZE), Math.floorDiv(y, CHUNK_SIZE), Math.floorDiv(z, CHUNK_SIZE));
+        ArrayChunk chunk = chunks.get(chunkKey);
+        if (chunk == null) {
+            chunk = new ArrayChunk(unpackX(chunkKey), unpackY(chunkKey), unpackZ(chunkKey));
+            chunks.put(chunkKey, chunk);
+        }
+
+        //cell already taken, keep both by moving the newcomer to the octree
+        int lx = Math.floorMod(x, CHUNK_SIZE), ly = Math.floorMod(y, CHUNK_SIZE), lz = Math.floorMod(z, CHUNK_SIZE);
+        if (chunk.getTerrainAtPos(lx, ly, lz) != null)
+            return freeform.insert(terrain);
+
+        chunk.placeTerrain(terrain, lx, ly, lz);
+        cells.put(terrain, pack(x, y, z));
+        markChanged();
+        return true;
+    }
+
+    @Override
+    public int remove(AABB region) {
+        //remove all grid terrain that intersects with the region
+        List<Terrain> toRemove = new ArrayList<>();
+        queryCells(region, toRemove::add);
+        for (Terrain terrain : toRemove)
+            removeFromCell(terrain);
+
+        //and the free-form ones
+        return toRemove.size() + freeform.remove(region);
+    }
+
+    @Override
+    public boolean remove(Terrain terrain) {
+        return removeFromCell(terrain) || freeform.remove(terrain);
+    }
+
+    @Override
+    public void clear() {
+        chunks.clear();
+        cells.clear();
+        freeform.clear();
+        markChanged();
+    }
+
+    @Override
+    public void query(AABB region, Consumer<Terrain> consumer) {
+        queryCells(region, consumer);
+        freeform.query(region, consumer);
+    }
+
+    @Override
+    public void queryCustom(Predicate<AABB> aabbPredicate, Consumer<Terrain> consumer) {
+        //test whole chunks against the predicate, same as the octree does with its nodes
+        for (ArrayChunk chunk : chunks.values()) {
+            if (aabbPredicate.test(chunk.getAABB()))
+                chunk.forEach(consumer);
+        }
+        freeform.queryCustom(aabbPredicate, consumer);
+    }
+
+    @Override
+    public void queryFrustum(Frustum frustum, Consumer<Terrain> consumer) {
+        for (ArrayChunk chunk : chunks.values()) {
+            AABB bb = chunk.getAABB();
+            int mask = frustum.testBox(bb.minX(), bb.minY(), bb.minZ(), bb.maxX(), bb.maxY(), bb.maxZ(), Frustum.ALL_PLANES);
+            if (mask != Frustum.OUTSIDE)
+                chunk.queryFrustum(frustum, mask, consumer);
+        }
+        freeform.queryFrustum(frustum, consumer);
+    }
+
+    @Override
+    public int getVersion() {
+        //the octree keeps its own count
+        return super.getVersion() + freeform.getVersion();
+    }
+
+    @Override
+    public List<AABB> getBounds() {
+        List<AABB> bounds = new ArrayList<>();
+        for (ArrayChunk chunk : chunks.values())
+            bounds.add(chunk.getAABB());
+        bounds.addAll(freeform.getBounds());
+        return bounds;
+    }
+
+    public Terrain getTerrainAt(int x, int y, int z) {
+        //direct cell lookup, only for grid-aligned terrain
+        ArrayChunk chunk = chunks.get(pack(Math.floorDiv(x, CHUNK_SIZE), Math.floorDiv(y, CHUNK_SIZE), Math.floorDiv(z, CHUNK_SIZE)));
+        return chunk == null ? null : chunk.getTerrainAtPos(Math.floorMod(x, CHUNK_SIZE), Math.floorMod(y, CHUNK_SIZE), Math.floorMod(z, CHUNK_SIZE));
+    }
+
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    public int getGridTerrainCount() {
+        return cells.size();
+    }
+
+    private boolean removeFromCell(Terrain terrain) {
+        //use the cell it was inserted at, since the terrain bounds might have changed since
+        Long cell = cells.remove(terrain);
+        if (cell == null)
+            return false;
+
+        int x = unpackX(cell), y = unpackY(cell), z = unpackZ(cell);
+        long chunkKey = pack(Math.floorDiv(x, CHUNK_SIZE), Math.floorDiv(y, CHUNK_SIZE), Math.floorDiv(z, CHUNK_SIZE));
+        ArrayChunk chunk = chunks.get(chunkKey);
+        chunk.placeTerrain(null, Math.floorMod(x, CHUNK_SIZE), Math.floorMod(y, CHUNK_SIZE), Math.floorMod(z, CHUNK_SIZE));
+
+        //drop empty chunks
+        if (chunk.isEmpty())
+            chunks.remove(chunkKey);
+
+        markChanged();
+        return true;
+    }
+
+    private void queryCells(AABB region, Consumer<Terrain> consumer) {
+        if (chunks.isEmpty())
+            return;
+
+        //cells whose [c, c + 1] range touches the region
+        int minX = toCell(Math.ceil(region.minX()) - 1), maxX = toCell(Math.floor(region.maxX()));
+        int minY = toCell(Math.ceil(region.minY()) - 1), maxY = toCell(Math.floor(region.maxY()));
+        int minZ = toCell(Math.ceil(region.minZ()) - 1), maxZ = toCell(Math.floor(region.maxZ()));
+
+        int cMinX = Math.floorDiv(minX, CHUNK_SIZE), cMaxX = Math.floorDiv(maxX, CHUNK_SIZE);
+        int cMinY = Math.floorDiv(minY, CHUNK_SIZE), cMaxY = Math.floorDiv(maxY, CHUNK_SIZE);
+        int cMinZ = Math.floorDiv(minZ, CHUNK_SIZE), cMaxZ = Math.floorDiv(maxZ, CHUNK_SIZE);
+        long chunkRange = ((long) cMaxX - cMinX + 1) * ((long) cMaxY - cMinY + 1) * ((long) cMaxZ - cMinZ + 1);
+
+        //small regions probe the hash directly, big ones walk the loaded chunks instead
+        if (chunkRange <= chunks.size()) {
+            for (int cx = cMinX; cx <= cMaxX; cx++)
+                for (int cy = cMinY; cy <= cMaxY; cy++)
+                    for (int cz = cMinZ; cz <= cMaxZ; cz++) {
+                        ArrayChunk chunk = chunks.get(pack(cx, cy, cz));
+                        if (chunk != null)
+                            queryChunk(chunk, region, minX, minY, minZ, maxX, maxY, maxZ, consumer);
+                    }
+        } else {
+            for (ArrayChunk chunk : chunks.values()) {
+                if (chunk.getAABB().intersects(region))
+                    queryChunk(chunk, region, minX, minY, minZ, maxX, maxY, maxZ, consumer);
+            }
+        }
+    }
+
+    private static void queryChunk(ArrayChunk chunk, AABB region, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Consumer<Terrain> consumer) {
+        //clamp the cell range to this chunk
+        int ox = chunk.getGridPos().x * CHUNK_SIZE, oy = chunk.getGridPos().y * CHUNK_SIZE, oz = chunk.getGridPos().z * CHUNK_SIZE;
+        int x0 = Math.max(minX - ox, 0), x1 = Math.min(maxX - ox, CHUNK_SIZE - 1);
+        int y0 = Math.max(minY - oy, 0), y1 = Math.min(maxY - oy, CHUNK_SIZE - 1);
+        int z0 = Math.max(minZ - oz, 0), z1 = Math.min(maxZ - oz, CHUNK_SIZE - 1);
+
+        for (int x = x0; x <= x1; x++)
+            for (int y = y0; y <= y1; y++)
+                for (int z = z0; z <= z1; z++) {
+                    Terrain t = chunk.getTerrainAtPos(x, y, z);
+                    if (t != null && t.getAABB().intersects(region))
+                        consumer.accept(t);
+                }
+    }
+
+    private static boolean isGridAligned(Terrain terrain) {
+        //free-form shapes always live in the octree
+        if (terrain instanceof MeshTerrain || terrain instanceof PlaneTerrain)
+            return false;
+
+        //the bounds must fit inside a single unit cell
+        AABB bb = terrain.getAABB();
+        return fitsCell(bb.minX(), bb.maxX()) && fitsCell(bb.minY(), bb.maxY()) && fitsCell(bb.minZ(), bb.maxZ());
+    }
+
+    private static boolean fitsCell(float min, float max) {
+        return Float.isFinite(min) && Float.isFinite(max) && max > min && max <= Math.floor(min) + 1f;
+    }
+
+    private static int toCell(double coord) {
+        //keep infinite regions from overflowing the cell math
+        return (int) Math.max(Math.min(coord, 1 << 30), -(1 << 30));
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((x & COORD_MASK) << (COORD_BITS * 2)) | ((y & COORD_MASK) << COORD_BITS) | (z & COORD_MASK);
+    }
+
+    private static int unpackX(long key) {
+        return (int) (key << (64 - COORD_BITS * 3) >> (64 - COORD_BITS));
+    }
+
+    private static int unpackY(long key) {
+        return (int) (key << (64 - COORD_BITS * 2) >> (64 - COORD_BITS));
+    }
+
+    private static int unpackZ(long key) {
+        return (int) (key << (64 - COORD_BITS) >> (64 - COORD_BITS));
+    }
+}
@@ -2,11 +2,13 @@ package cinnamon.world.worldgen;
 
 import cinnamon.math.Maths;
 import cinnamon.math.collision.shape.AABB;
+import cinnamon.render.Frustum;
 import cinnamon.world.terrain.Terrain;
 import org.joml.Vector3f;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 public class OctreeTerrain extends TerrainManager {
@@ -35,19 +37,28 @@ public class OctreeTerrain extends TerrainManager {
             growRoot(terrainBB);
 
         //insert the terrain into the octree
-        return root.insert(terrain);
+        boolean inserted = root.insert(terrain);
+        if (inserted)
+            markChanged();
+        return inserted;
     }
 
     @Override
     public int remove(AABB region) {
         //remove all terrains that intersect with the given region (loosely)
-        return root.clearRegion(region);
+        int removed = root.clearRegion(region);
+        if (removed > 0)
+            markChanged();
+        return removed;
     }
 
     @Override
     public boolean remove(Terrain terrain) {
         //remove the terrain from the octree
-        return root.removeElement(terrain);
+        boolean removed = root.removeElement(terrain);
+        if (removed)
+            markChanged();
+        return removed;
     }
 
     public boolean isEmpty() {
@@ -59,22 +70,25 @@ public class OctreeTerrain extends TerrainManager {
     public void clear() {
         //clear the octree by clearing the root node
         root.clear();
+        markChanged();
     }
 
     @Override
-    public List<Terrain> query(AABB region) {
-        //collect all the terrains that intersect with the given region (loosely)
-        List<Terrain> result = new ArrayList<>();
-        root.query(region, result);
-        return result;
+    public void query(AABB region, Consumer<Terrain> consumer) {
+        //visit all the terrains that intersect with the given region (loosely)
+        root.query(region, consumer);
     }
 
     @Override
-    public List<Terrain> queryCustom(Predicate<AABB> aabbPredicate) {
-        //collect all the terrains that match the custom predicate of the node bounds
-        List<Terrain> result = new ArrayList<>();
-        root.queryCustom(aabbPredicate, result);
-        return result;
+    public void queryCustom(Predicate<AABB> aabbPredicate, Consumer<Terrain> consumer) {
+        //visit all the terrains that match the custom predicate of the node bounds
+        root.queryCustom(aabbPredicate, consumer);
+    }
+
+    @Override
+    public void queryFrustum(Frustum frustum, Consumer<Terrain> consumer) {
+        //start testing all planes from the root, children inherit the planes their parent still crosses
+        root.queryFrustum(frustum, Frustum.ALL_PLANES, consumer);
     }
 
     @Override
@@ -233,33 +247,58 @@ public class OctreeTerrain extends TerrainManager {
             }
         }
 
-        public void query(AABB region, List<Terrain> result) {
+        public void query(AABB region, Consumer<Terrain> consumer) {
             //failed the bounds check, skip
             if (!bounds.intersects(region))
                 return;
 
-            //try adding all terrain from this node
+            //try visiting all terrain from this node
             //and check for the terrain bounds
-            for (Terrain terrain : contents)
+            for (int i = 0; i < contents.size(); i++) {
+                Terrain terrain = contents.get(i);
                 if (terrain.getAABB().intersects(region))
-                    result.add(terrain);
+                    consumer.accept(terrain);
+            }
 
-            //add from children
+            //visit children
             if (children != null)
                 for (OctreeNode child : children)
-                    child.query(region, result);
+                    child.query(region, consumer);
         }
 
-        public void queryCustom(Predicate<AABB> aabbPredicate, List<Terrain> result) {
+        public void queryCustom(Predicate<AABB> aabbPredicate, Consumer<Terrain> consumer) {
             //failed the predicate, skip
             if (!aabbPredicate.test(bounds))
                 return;
 
-            //success, add all
-            result.addAll(contents);
+            //success, visit all
+            for (int i = 0; i < contents.size(); i++)
+                consumer.accept(contents.get(i));
             if (children != null)
                 for (OctreeNode child : children)
-                    child.queryCustom(aabbPredicate, result);
+                    child.queryCustom(aabbPredicate, consumer);
+        }
+
+        public void queryFrustum(Frustum frustum, int planeMask, Consumer<Terrain> consumer) {
+            int mask = frustum.testBox(bounds.minX(), bounds.minY(), bounds.minZ(), bounds.maxX(), bounds.maxY(), bounds.maxZ(), planeMask);
+            if (mask == Frustum.OUTSIDE)
+                return;
+
+            //fully inside, no need to test the contents
+            for (int i = 0; i < contents.size(); i++) {
+                Terrain terrain = contents.get(i);
+                if (mask == 0 || testTerrain(frustum, terrain, mask))
+                    consumer.accept(terrain);
+            }
+
+            if (children != null)
+                for (OctreeNode child : children)
+                    child.queryFrustum(frustum, mask, consumer);
+        }
+
+        private static boolean testTerrain(Frustum frustum, Terrain terrain, int planeMask) {
+            AABB bb = terrain.getAABB();
+            return frustum.testBox(bb.minX(), bb.minY(), bb.minZ(), bb.maxX(), bb.maxY(), bb.maxZ(), planeMask) != Frustum.OUTSIDE;
         }
 
         private void subdivide() {
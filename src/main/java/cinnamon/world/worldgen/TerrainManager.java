@@ -1,13 +1,19 @@
 package cinnamon.world.worldgen;
 
 import cinnamon.math.collision.shape.AABB;
+import cinnamon.render.Frustum;
 import cinnamon.world.terrain.Terrain;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 public abstract class TerrainManager {
 
+    //bumped on every change of the stored terrain, so cached queries know when to rebuild
+    private int version;
+
     public abstract void tick();
 
     public abstract boolean insert(Terrain terrain);
@@ -15,7 +21,48 @@ public abstract class TerrainManager {
     public abstract boolean remove(Terrain terrain);
     public abstract void clear();
 
-    public abstract List<Terrain> query(AABB region);
-    public abstract List<Terrain> queryCustom(Predicate<AABB> aabbPredicate);
+    public abstract void query(AABB region, Consumer<Terrain> consumer);
+    public abstract void queryCustom(Predicate<AABB> aabbPredicate, Consumer<Terrain> consumer);
     public abstract List<AABB> getBounds();
+
+    /**
+     * Visits all terrain inside the frustum, culling hierarchically
+     * nodes fully inside a plane stop testing it, so only the nodes crossing the frustum borders test their terrain
+     */
+    public abstract void queryFrustum(Frustum frustum, Consumer<Terrain> consumer);
+
+    public int getVersion() {
+        return version;
+    }
+
+    protected void markChanged() {
+        version++;
+    }
+
+    public List<Terrain> query(AABB region) {
+        return query(region, new ArrayList<>());
+    }
+
+    public List<Terrain> query(AABB region, List<Terrain> reuse) {
+        //clear and fill the given list, so callers can keep one around between queries
+        reuse.clear();
+        query(region, reuse::add);
+        return reuse;
+    }
+
+    public List<Terrain> queryCustom(Predicate<AABB> aabbPredicate) {
+        return queryCustom(aabbPredicate, new ArrayList<>());
+    }
+
+    public List<Terrain> queryCustom(Predicate<AABB> aabbPredicate, List<Terrain> reuse) {
+        reuse.clear();
+        queryCustom(aabbPredicate, reuse::add);
+        return reuse;
+    }
+
+    public List<Terrain> queryFrustum(Frustum frustum, List<Terrain> reuse) {
+        reuse.clear();
+        queryFrustum(frustum, reuse::add);
+        return reuse;
+    }
 }
@@ -0,0 +1,21 @@
+package cinnamon.world.worldgen;
+
+import cinnamon.math.collision.shape.AABB;
+
+import java.util.function.Supplier;
+
+public enum TerrainStorage {
+
+    OCTREE(() -> new OctreeTerrain(new AABB().inflate(16))),
+    CHUNKED(ChunkedTerrain::new);
+
+    private final Supplier<TerrainManager> factory;
+
+    TerrainStorage(Supplier<TerrainManager> factory) {
+        this.factory = factory;
+    }
+
+    public TerrainManager create() {
+        return factory.get();
+    }
+}
@@ -0,0 +1,72 @@
+package cinnamon.world.worldgen;
+
+import cinnamon.render.Frustum;
+import cinnamon.world.terrain.Terrain;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caches the visible terrain of a {@link TerrainManager} per view, so every pass rendering the same view shares one culled list
+ * a view is rebuilt only when its frustum matrix or the manager contents change, so still cameras and lights keep theirs across frames
+ */
+public class TerrainVisibility {
+
+    //enough for the main camera, its reflections and the shadow cascades of a few lights
+    private static final int MAX_VIEWS = 16;
+
+    private final TerrainManager manager;
+    private final List<View> views = new ArrayList<>();
+
+    public TerrainVisibility(TerrainManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * @return the terrain inside the frustum, the list is owned by the cache and is only valid until the next call
+     */
+    public List<Terrain> getVisible(Frustum frustum) {
+        Matrix4f matrix = frustum.getMatrix();
+        int version = manager.getVersion();
+
+        //search the known views, most recently used first
+        for (int i = 0; i < views.size(); i++) {
+            View view = views.get(i);
+            if (!view.matrix.equals(matrix))
+                continue;
+
+            //move it to the front
+            if (i > 0) {
+                views.remove(i);
+                views.add(0, view);
+            }
+
+            if (view.version != version)
+                view.rebuild(manager, frustum, version);
+            return view.terrain;
+        }
+
+        //new view, reuse the least recently used one when full
+        View view = views.size() < MAX_VIEWS ? new View() : views.remove(views.size() - 1);
+        views.add(0, view);
+        view.rebuild(manager, frustum, version);
+        return view.terrain;
+    }
+
+    public void clear() {
+        views.clear();
+    }
+
+    private static class View {
+        private final Matrix4f matrix = new Matrix4f();
+        private final List<Terrain> terrain = new ArrayList<>();
+        private int version;
+
+        private void rebuild(TerrainManager manager, Frustum frustum, int version) {
+            this.matrix.set(frustum.getMatrix());
+            this.version = version;
+            manager.queryFrustum(frustum, terrain);
+        }
+    }
+}
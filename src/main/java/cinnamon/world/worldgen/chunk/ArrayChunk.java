@@ -2,18 +2,26 @@ package cinnamon.world.worldgen.chunk;
 
 import cinnamon.math.collision.shape.AABB;
 import cinnamon.render.Camera;
+import cinnamon.render.Frustum;
 import cinnamon.render.MatrixStack;
 import cinnamon.world.terrain.Terrain;
 import cinnamon.world.world.World;
 import org.joml.Math;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public class ArrayChunk extends Chunk {
 
-    private final Terrain[][][] terrains = new Terrain[CHUNK_SIZE][CHUNK_SIZE][CHUNK_SIZE];
+    //smallest block size the frustum culling splits the chunk into
+    private static final int CULL_BLOCK_SIZE = 4;
+
+    //flat [x][y][z] storage, indexed by getIndex()
+    private final Terrain[] terrains = new Terrain[CHUNK_SIZE * CHUNK_SIZE * CHUNK_SIZE];
+    private int count = 0;
 
     public ArrayChunk(int x, int y, int z) {
         super(x, y, z);
@@ -21,27 +29,25 @@ public class ArrayChunk extends Chunk {
 
     @Override
     public void tick() {
-        for (Terrain[][] tx : terrains) {
-            for (Terrain[] ty : tx) {
-                for (Terrain t : ty) {
-                    if (t != null)
-                        t.tick();
-                }
-            }
+        if (count == 0)
+            return;
+
+        for (Terrain t : terrains) {
+            if (t != null)
+                t.tick();
         }
     }
 
     @Override
     public int render(Camera camera, MatrixStack matrices, float delta) {
+        if (count == 0)
+            return 0;
+
         int i = 0;
-        for (Terrain[][] tx : terrains) {
-            for (Terrain[] ty : tx) {
-                for (Terrain t : ty) {
-                    if (t != null && t.shouldRender(camera)) {
-                        t.render(camera, matrices, delta);
-                        i++;
-                    }
-                }
+        for (Terrain t : terrains) {
+            if (t != null && t.shouldRender(camera)) {
+                t.render(camera, matrices, delta);
+                i++;
             }
         }
         return i;
@@ -49,13 +55,9 @@ public class ArrayChunk extends Chunk {
 
     @Override
     public void onAdded(World world) {
-        for (Terrain[][] tx : terrains) {
-            for (Terrain[] ty : tx) {
-                for (Terrain t : ty) {
-                    if (t != null)
-                        t.onAdded(world);
-                }
-            }
+        for (Terrain t : terrains) {
+            if (t != null)
+                t.onAdded(world);
         }
     }
 
@@ -63,33 +65,45 @@ public class ArrayChunk extends Chunk {
     public Terrain getTerrainAtPos(float x, float y, float z) {
         if (x < 0 || y < 0 || z < 0 || x >= CHUNK_SIZE || y >= CHUNK_SIZE || z >= CHUNK_SIZE)
             return null;
-        return terrains[(int) x][(int) y][(int) z];
+        return terrains[getIndex((int) x, (int) y, (int) z)];
     }
 
     @Override
     public void setTerrain(Terrain terrain, float x, float y, float z) {
         if (x < 0 || y < 0 || z < 0 || x >= CHUNK_SIZE || y >= CHUNK_SIZE || z >= CHUNK_SIZE)
             throw new IllegalArgumentException(String.format("Invalid position: %s, %s, %s", x, y, z));
-        terrains[(int) x][(int) y][(int) z] = terrain;
+        placeTerrain(terrain, (int) x, (int) y, (int) z);
         if (terrain != null)
             terrain.setPos(x + gridPos.x * CHUNK_SIZE, y + gridPos.y * CHUNK_SIZE, z + gridPos.z * CHUNK_SIZE);
     }
 
+    public Terrain placeTerrain(Terrain terrain, int x, int y, int z) {
+        //store the terrain in the cell without touching its transform, returning the previous occupant
+        int i = getIndex(x, y, z);
+        Terrain old = terrains[i];
+        terrains[i] = terrain;
+
+        if (old != null) count--;
+        if (terrain != null) count++;
+
+        return old;
+    }
+
     @Override
     public Collection<Terrain> getTerrainInArea(AABB area) {
         Set<Terrain> set = new HashSet<>();
 
-        int minX = Math.max(0, (int) Math.floor(area.getMin().x));
-        int minY = Math.max(0, (int) Math.floor(area.getMin().y));
-        int minZ = Math.max(0, (int) Math.floor(area.getMin().z));
-        int maxX = Math.min(CHUNK_SIZE, (int) Math.ceil(area.getMax().x));
-        int maxY = Math.min(CHUNK_SIZE, (int) Math.ceil(area.getMax().y));
-        int maxZ = Math.min(CHUNK_SIZE, (int) Math.ceil(area.getMax().z));
+        int minX = Math.max(0, (int) Math.floor(area.minX()));
+        int minY = Math.max(0, (int) Math.floor(area.minY()));
+        int minZ = Math.max(0, (int) Math.floor(area.minZ()));
+        int maxX = Math.min(CHUNK_SIZE, (int) Math.ceil(area.maxX()));
+        int maxY = Math.min(CHUNK_SIZE, (int) Math.ceil(area.maxY()));
+        int maxZ = Math.min(CHUNK_SIZE, (int) Math.ceil(area.maxZ()));
 
         for (int x = minX; x < maxX; x++) {
             for (int y = minY; y < maxY; y++) {
                 for (int z = minZ; z < maxZ; z++) {
-                    Terrain t = getTerrainAtPos(x, y, z);
+                    Terrain t = terrains[getIndex(x, y, z)];
                     if (t != null)
                         set.add(t);
                 }
@@ -98,4 +112,84 @@ public class ArrayChunk extends Chunk {
 
         return set;
     }
+
+    public void forEach(Consumer<Terrain> consumer) {
+        if (count == 0)
+            return;
+
+        for (Terrain t : terrains) {
+            if (t != null)
+                consumer.accept(t);
+        }
+    }
+
+    /**
+     * Visits the terrain inside the frustum, splitting the chunk in octants that inherit the plane mask of their parent
+     * @param planeMask the planes this chunk still crosses, as returned by {@link Frustum#testBox}
+     */
+    public void queryFrustum(Frustum frustum, int planeMask, Consumer<Terrain> consumer) {
+        if (count == 0)
+            return;
+
+        //fully inside
+        if (planeMask == 0) {
+            forEach(consumer);
+            return;
+        }
+
+        queryBlock(frustum, planeMask, 0, 0, 0, CHUNK_SIZE, consumer);
+    }
+
+    private void queryBlock(Frustum frustum, int planeMask, int x, int y, int z, int size, Consumer<Terrain> consumer) {
+        //grid terrain is contained by its cell, so the block bounds contain all of its terrain
+        float ox = gridPos.x * CHUNK_SIZE + x, oy = gridPos.y * CHUNK_SIZE + y, oz = gridPos.z * CHUNK_SIZE + z;
+        int mask = frustum.testBox(ox, oy, oz, ox + size, oy + size, oz + size, planeMask);
+        if (mask == Frustum.OUTSIDE)
+            return;
+
+        //still crossing the frustum, split further
+        if (mask != 0 && size > CULL_BLOCK_SIZE) {
+            int half = size / 2;
+            for (int i = 0; i < 8; i++)
+                queryBlock(frustum, mask, x + (i & 1) * half, y + (i >> 1 & 1) * half, z + (i >> 2 & 1) * half, half, consumer);
+            return;
+        }
+
+        //visit the block cells, testing each terrain only when the block is not fully inside
+        for (int i = x; i < x + size; i++) {
+            for (int j = y; j < y + size; j++) {
+                int index = getIndex(i, j, z);
+                for (int k = 0; k < size; k++) {
+                    Terrain t = terrains[index + k];
+                    if (t == null)
+                        continue;
+
+                    if (mask != 0) {
+                        AABB bb = t.getAABB();
+                        if (frustum.testBox(bb.minX(), bb.minY(), bb.minZ(), bb.maxX(), bb.maxY(), bb.maxZ(), mask) == Frustum.OUTSIDE)
+                            continue;
+                    }
+
+                    consumer.accept(t);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(terrains, null);
+        count = 0;
+    }
+
+    public int getTerrainCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    private static int getIndex(int x, int y, int z) {
+        return (x * CHUNK_SIZE + y) * CHUNK_SIZE + z;
+    }
 }
@@ -0,0 +1,207 @@
+package cinnamon.world.worldgen.save;
+
+import cinnamon.model.material.Material;
+import cinnamon.registry.MaterialRegistry;
+import cinnamon.registry.TerrainRegistry;
+import cinnamon.world.terrain.Terrain;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static cinnamon.world.worldgen.chunk.Chunk.CHUNK_SIZE;
+
+/**
+ * Saved form of the terrain of a chunk
+ * every distinct terrain state (type, material, rotation and scale) goes in a palette, and the unit cells of the chunk store
+ * only their bit-packed palette index, terrain off the unit grid is stored with its full position instead
+ */
+public class ChunkSerializer {
+
+    public static final int CELLS = CHUNK_SIZE * CHUNK_SIZE * CHUNK_SIZE;
+
+    //type, material, rotation and scale
+    private static final int STATE_SIZE = 1 + 2 + 4 * Float.BYTES + 3 * Float.BYTES;
+    //palette index and position
+    private static final int FREEFORM_SIZE = 2 + 3 * Float.BYTES;
+
+    /**
+     * Checks if the terrain can be saved, custom terrain cannot be rebuilt from the registry
+     */
+    public static boolean canSave(Terrain terrain) {
+        return terrain.getType() != null && terrain.getType() != TerrainRegistry.CUSTOM;
+    }
+
+    /**
+     * Encodes the terrain positioned in the chunk, should be called from the thread owning the terrain
+     * @return the encoded chunk, or null when there is nothing to save
+     */
+    public static ByteBuffer write(int cx, int cy, int cz, Collection<Terrain> terrain) {
+        Map<State, Integer> palette = new LinkedHashMap<>();
+        Map<Material, Integer> materials = new IdentityHashMap<>();
+        int[] cells = new int[CELLS];
+        int gridCount = 0;
+        List<Terrain> freeform = new ArrayList<>();
+        List<Integer> freeformStates = new ArrayList<>();
+
+        int ox = cx * CHUNK_SIZE, oy = cy * CHUNK_SIZE, oz = cz * CHUNK_SIZE;
+        for (Terrain t : terrain) {
+            if (!canSave(t))
+                continue;
+
+            Integer index = palette.computeIfAbsent(State.of(t, materials), s -> palette.size() + 1);
+
+            //whole coordinates go in the grid, the first one to claim the cell wins
+            Vector3f pos = t.getTransform().getPos();
+            int x = (int) pos.x - ox, y = (int) pos.y - oy, z = (int) pos.z - oz;
+            if (pos.x == (int) pos.x && pos.y == (int) pos.y && pos.z == (int) pos.z &&
+                    x >= 0 && y >= 0 && z >= 0 && x < CHUNK_SIZE && y < CHUNK_SIZE && z < CHUNK_SIZE &&
+                    cells[getIndex(x, y, z)] == 0) {
+                cells[getIndex(x, y, z)] = index;
+                gridCount++;
+            } else {
+                freeform.add(t);
+                freeformStates.add(index);
+            }
+        }
+
+        if (palette.isEmpty())
+            return null;
+        if (palette.size() > 0xFFFF)
+            throw new IllegalStateException("Too many terrain states in chunk " + cx + ", " + cy + ", " + cz);
+
+        int bits = gridCount == 0 ? 0 : bitsFor(palette.size());
+        int longs = bits == 0 ? 0 : longsFor(bits);
+        ByteBuffer buffer = ByteBuffer.allocate(2 + palette.size() * STATE_SIZE + 1 + longs * Long.BYTES + 4 + freeform.size() * FREEFORM_SIZE);
+
+        //palette
+        buffer.putShort((short) palette.size());
+        for (State state : palette.keySet())
+            state.write(buffer);
+
+        //grid, as palette index + 1, zero being empty, packed without crossing the longs
+        buffer.put((byte) bits);
+        if (bits > 0) {
+            int perLong = 64 / bits;
+            for (int i = 0; i < longs; i++) {
+                long value = 0;
+                int start = i * perLong, end = Math.min(start + perLong, CELLS);
+                for (int j = start; j < end; j++)
+                    value |= (long) cells[j] << ((j - start) * bits);
+                buffer.putLong(value);
+            }
+        }
+
+        //freeform
+        buffer.putInt(freeform.size());
+        for (int i = 0; i < freeform.size(); i++) {
+            Vector3f pos = freeform.get(i).getTransform().getPos();
+            buffer.putShort(freeformStates.get(i).shortValue());
+            buffer.putFloat(pos.x).putFloat(pos.y).putFloat(pos.z);
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * Rebuilds the terrain of an encoded chunk, should be called from the thread owning the world, since terrain loads its model
+     */
+    public static void read(ByteBuffer buffer, int cx, int cy, int cz, Consumer<Terrain> consumer) {
+        int size = buffer.getShort() & 0xFFFF;
+        State[] palette = new State[size + 1];
+        for (int i = 1; i <= size; i++)
+            palette[i] = State.read(buffer);
+
+        //grid
+        int bits = buffer.get();
+        if (bits > 0) {
+            int perLong = 64 / bits;
+            long mask = (1L << bits) - 1;
+            int ox = cx * CHUNK_SIZE, oy = cy * CHUNK_SIZE, oz = cz * CHUNK_SIZE;
+            int longs = longsFor(bits);
+
+            for (int i = 0; i < longs; i++) {
+                long value = buffer.getLong();
+                if (value == 0)
+                    continue;
+
+                int start = i * perLong, end = Math.min(start + perLong, CELLS);
+                for (int j = start; j < end; j++) {
+                    int index = (int) (value >>> ((j - start) * bits) & mask);
+                    if (index == 0)
+                        continue;
+
+                    //back from the [x][y][z] index
+                    int x = j / (CHUNK_SIZE * CHUNK_SIZE), y = j / CHUNK_SIZE % CHUNK_SIZE, z = j % CHUNK_SIZE;
+                    consumer.accept(palette[index].create(ox + x, oy + y, oz + z));
+                }
+            }
+        }
+
+        //freeform
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            State state = palette[buffer.getShort() & 0xFFFF];
+            consumer.accept(state.create(buffer.getFloat(), buffer.getFloat(), buffer.getFloat()));
+        }
+    }
+
+    private static int bitsFor(int paletteSize) {
+        //room for the palette indices plus the empty value
+        return 32 - Integer.numberOfLeadingZeros(paletteSize);
+    }
+
+    private static int longsFor(int bits) {
+        int perLong = 64 / bits;
+        return (CELLS + perLong - 1) / perLong;
+    }
+
+    private static int getIndex(int x, int y, int z) {
+        return (x * CHUNK_SIZE + y) * CHUNK_SIZE + z;
+    }
+
+    private record State(TerrainRegistry type, int material, float rx, float ry, float rz, float rw, float sx, float sy, float sz) {
+
+        private static State of(Terrain terrain, Map<Material, Integer> materials) {
+            //index + 1 of the registry material, zero for none
+            Material m = terrain.getMaterial();
+            int material = m == null ? 0 : materials.computeIfAbsent(m, key -> {
+                MaterialRegistry registry = MaterialRegistry.findByMaterial(key);
+                return registry == null ? 0 : registry.ordinal() + 1;
+            });
+
+            Quaternionf rot = terrain.getTransform().getRot();
+            Vector3f scale = terrain.getTransform().getScale();
+            return new State(terrain.getType(), material, rot.x, rot.y, rot.z, rot.w, scale.x, scale.y, scale.z);
+        }
+
+        private static State read(ByteBuffer buffer) {
+            TerrainRegistry type = TerrainRegistry.values()[buffer.get() & 0xFF];
+            int material = buffer.getShort() & 0xFFFF;
+            return new State(type, material,
+                    buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                    buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+        }
+
+        private void write(ByteBuffer buffer) {
+            buffer.put((byte) type.ordinal());
+            buffer.putShort((short) material);
+            buffer.putFloat(rx).putFloat(ry).putFloat(rz).putFloat(rw);
+            buffer.putFloat(sx).putFloat(sy).putFloat(sz);
+        }
+
+        private Terrain create(float x, float y, float z) {
+            Terrain terrain = type.getFactory().get();
+            if (material > 0)
+                terrain.setMaterial(MaterialRegistry.values()[material - 1].material);
+            if (rx != 0f || ry != 0f || rz != 0f || rw != 1f)
+                terrain.setRotation(new Quaternionf(rx, ry, rz, rw));
+            if (sx != 1f || sy != 1f || sz != 1f)
+                terrain.setScale(sx, sy, sz);
+            terrain.setPos(x, y, z);
+            return terrain;
+        }
+    }
+}
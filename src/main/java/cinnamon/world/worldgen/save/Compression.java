@@ -0,0 +1,70 @@
+package cinnamon.world.worldgen.save;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression of the saved chunks, stored along each chunk so the setting can change between saves
+ */
+public enum Compression {
+
+    NONE {
+        @Override
+        public ByteBuffer compress(ByteBuffer data) {
+            return data.duplicate();
+        }
+
+        @Override
+        public ByteBuffer decompress(ByteBuffer data, int size) {
+            return data.duplicate();
+        }
+    },
+    DEFLATE {
+        @Override
+        public ByteBuffer compress(ByteBuffer data) {
+            //fastest level, the palette already took most of the redundancy out
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(data.duplicate());
+                deflater.finish();
+
+                ByteBuffer out = ByteBuffer.allocate(data.remaining() / 2 + 64);
+                while (!deflater.finished()) {
+                    if (!out.hasRemaining())
+                        out = ByteBuffer.allocate(out.capacity() * 2).put(out.flip());
+                    deflater.deflate(out);
+                }
+                return out.flip();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public ByteBuffer decompress(ByteBuffer data, int size) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data.duplicate());
+                ByteBuffer out = ByteBuffer.allocate(size);
+                while (out.hasRemaining() && !inflater.finished()) {
+                    if (inflater.inflate(out) == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                        throw new IllegalStateException("Truncated chunk data");
+                }
+                return out.flip();
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupted chunk data", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    };
+
+    public abstract ByteBuffer compress(ByteBuffer data);
+
+    /**
+     * @param size the uncompressed size
+     */
+    public abstract ByteBuffer decompress(ByteBuffer data, int size);
+}
@@ -0,0 +1,213 @@
+package cinnamon.world.worldgen.save;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A memory-mapped file holding the chunks of a region, a cube of {@code REGION_SIZE} chunks per side
+ * the file is split in fixed-size sectors, a header maps each chunk slot to its sectors, and chunks are always written
+ * to free sectors before the header points to them, so an interrupted save leaves the previous version of the chunk intact
+ * header changes are staged until {@link #flush()}, which syncs the chunk data, then the header, and only then frees the old sectors
+ */
+public class RegionFile implements AutoCloseable {
+
+    public static final int REGION_SIZE = 8;
+    public static final int SLOTS = REGION_SIZE * REGION_SIZE * REGION_SIZE;
+    public static final int SECTOR_SIZE = 4096;
+
+    private static final int MAGIC = 0x434E5247; //CNRG
+    private static final int VERSION = 1;
+
+    //magic, version, then the sector offset and byte length of every slot
+    private static final int HEADER_SIZE = 8 + SLOTS * 8;
+    private static final int HEADER_SECTORS = (HEADER_SIZE + SECTOR_SIZE - 1) / SECTOR_SIZE;
+
+    //compression and uncompressed size, before the chunk data
+    private static final int SLOT_HEADER_SIZE = 1 + 4;
+
+    //grow the mapping by at least this much, to avoid remapping on every new chunk
+    private static final int MIN_GROWTH = 64 * SECTOR_SIZE;
+
+    private final FileChannel channel;
+    private final BitSet used = new BitSet();
+
+    //header changes not yet synced, and the sectors they replace, which stay reserved until then
+    private final int[] stagedOffset = new int[SLOTS], stagedLength = new int[SLOTS];
+    private final BitSet staged = new BitSet(SLOTS), released = new BitSet();
+    private MappedByteBuffer map;
+    private int sectors;
+
+    public RegionFile(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+
+        long size = channel.size();
+        if (size == 0) {
+            remap(HEADER_SECTORS);
+            map.putInt(0, MAGIC).putInt(4, VERSION);
+        } else {
+            remap((int) ((size + SECTOR_SIZE - 1) / SECTOR_SIZE));
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION)
+                throw new IOException("Not a region file: " + path);
+        }
+
+        //rebuild the sector usage from the header
+        used.set(0, HEADER_SECTORS);
+        for (int i = 0; i < SLOTS; i++) {
+            int offset = getOffset(i), length = getLength(i);
+            if (length > 0)
+                used.set(offset, offset + sectorsFor(length));
+        }
+    }
+
+    public static int getSlot(int x, int y, int z) {
+        return (x * REGION_SIZE + y) * REGION_SIZE + z;
+    }
+
+    public synchronized boolean has(int slot) {
+        return getCurrentLength(slot) > 0;
+    }
+
+    /**
+     * @return the decompressed chunk data, or null if the slot is empty
+     */
+    public ByteBuffer read(int slot) {
+        ByteBuffer data;
+        Compression compression;
+        int size;
+
+        //copy out under the lock, decompress outside of it
+        synchronized (this) {
+            int length = getCurrentLength(slot);
+            if (length == 0)
+                return null;
+
+            int pos = getCurrentOffset(slot) * SECTOR_SIZE;
+            compression = Compression.values()[map.get(pos)];
+            size = map.getInt(pos + 1);
+            data = ByteBuffer.allocate(length - SLOT_HEADER_SIZE).put(map.slice(pos + SLOT_HEADER_SIZE, length - SLOT_HEADER_SIZE)).flip();
+        }
+
+        return compression.decompress(data, size);
+    }
+
+    /**
+     * Compresses and stores the chunk data, replacing what was in the slot
+     */
+    public void write(int slot, ByteBuffer data, Compression compression) throws IOException {
+        int size = data.remaining();
+        ByteBuffer compressed = compression.compress(data);
+        int length = SLOT_HEADER_SIZE + compressed.remaining();
+        int count = sectorsFor(length);
+
+        synchronized (this) {
+            //first free run of sectors, growing the file when there is none
+            int offset = findFree(count);
+            if (offset + count > sectors)
+                remap(Math.max(offset + count, sectors + MIN_GROWTH / SECTOR_SIZE));
+
+            int pos = offset * SECTOR_SIZE;
+            map.put(pos, (byte) compression.ordinal());
+            map.putInt(pos + 1, size);
+            map.put(pos + SLOT_HEADER_SIZE, compressed, compressed.position(), compressed.remaining());
+            used.set(offset, offset + count);
+
+            //the header only points to the new sectors once flushed
+            stage(slot, offset, length);
+        }
+    }
+
+    public synchronized void delete(int slot) {
+        stage(slot, 0, 0);
+    }
+
+    /**
+     * Syncs the written chunks to the disk, then points the header to them and syncs it too
+     * the sectors of the replaced chunks are only reused after that, so the header on disk never points to overwritten data
+     */
+    public synchronized void flush() {
+        if (staged.isEmpty())
+            return;
+
+        map.force();
+        for (int slot = staged.nextSetBit(0); slot >= 0; slot = staged.nextSetBit(slot + 1))
+            setSlot(slot, stagedOffset[slot], stagedLength[slot]);
+        map.force();
+
+        used.andNot(released);
+        released.clear();
+        staged.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        //the free sectors at the end are kept, since a mapped file cannot be truncated everywhere
+        flush();
+        map.force();
+        channel.close();
+    }
+
+    private void stage(int slot, int offset, int length) {
+        if (staged.get(slot)) {
+            //never written to the header, so its sectors can be reused right away
+            if (stagedLength[slot] > 0)
+                used.clear(stagedOffset[slot], stagedOffset[slot] + sectorsFor(stagedLength[slot]));
+        } else {
+            //still in the header on disk, so kept until the next flush
+            int old = getLength(slot);
+            if (old > 0) {
+                int oldOffset = getOffset(slot);
+                released.set(oldOffset, oldOffset + sectorsFor(old));
+            }
+            staged.set(slot);
+        }
+
+        stagedOffset[slot] = offset;
+        stagedLength[slot] = length;
+    }
+
+    private int findFree(int count) {
+        int start = used.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            int end = used.nextSetBit(start);
+            if (end < 0 || end - start >= count)
+                return start;
+            start = used.nextClearBit(end);
+        }
+    }
+
+    private void remap(int sectorCount) throws IOException {
+        sectors = sectorCount;
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) sectorCount * SECTOR_SIZE);
+    }
+
+    //including the staged changes
+    private int getCurrentOffset(int slot) {
+        return staged.get(slot) ? stagedOffset[slot] : getOffset(slot);
+    }
+
+    private int getCurrentLength(int slot) {
+        return staged.get(slot) ? stagedLength[slot] : getLength(slot);
+    }
+
+    private int getOffset(int slot) {
+        return map.getInt(8 + slot * 8);
+    }
+
+    private int getLength(int slot) {
+        return map.getInt(8 + slot * 8 + 4);
+    }
+
+    private void setSlot(int slot, int offset, int length) {
+        map.putInt(8 + slot * 8, offset);
+        map.putInt(8 + slot * 8 + 4, length);
+    }
+
+    private static int sectorsFor(int length) {
+        return (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+}
@@ -0,0 +1,290 @@
+package cinnamon.world.worldgen.save;
+
+import cinnamon.Client;
+import cinnamon.math.collision.shape.AABB;
+import cinnamon.utils.IOUtils;
+import cinnamon.world.terrain.Terrain;
+import cinnamon.world.world.World;
+import org.joml.Vector3f;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static cinnamon.Client.LOGGER;
+import static cinnamon.world.worldgen.chunk.Chunk.CHUNK_SIZE;
+import static cinnamon.world.worldgen.save.RegionFile.REGION_SIZE;
+
+/**
+ * Saves the world terrain into region files, one chunk at a time
+ * changed chunks are marked dirty, and saved periodically, they are encoded on the main thread,
+ * since that is where the terrain lives, and then compressed and written by a background thread
+ */
+public class WorldSave {
+
+    public static final Path SAVES_FOLDER = IOUtils.ROOT_FOLDER.resolve("saves");
+
+    //ticks between the saves of the dirty chunks
+    public static final int AUTOSAVE_INTERVAL = Client.TPS * 30;
+
+    private static final String EXTENSION = ".region";
+    private static final int COORD_BITS = 21;
+    private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+
+    private final Path folder;
+    private final Compression compression;
+
+    //opened by either thread, so guarded by the map itself
+    private final Map<Long, RegionFile> regions = new HashMap<>();
+
+    //main thread only
+    private final Set<Long> dirty = new HashSet<>();
+    private final Map<Terrain, Long> savedChunks = new HashMap<>();
+    private int ticks;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "World Save");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+
+    public WorldSave(Path folder) {
+        this(folder, Compression.DEFLATE);
+    }
+
+    public WorldSave(Path folder, Compression compression) {
+        this.folder = folder;
+        this.compression = compression;
+    }
+
+    public boolean exists() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*" + EXTENSION)) {
+            return files.iterator().hasNext();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // -- loading -- //
+
+    /**
+     * Loads all saved terrain into the world, on the calling thread
+     * @return the amount of terrain loaded
+     */
+    public int load(World world) throws IOException {
+        if (!Files.isDirectory(folder))
+            return 0;
+
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*" + EXTENSION)) {
+            for (Path file : files) {
+                int[] region = parseRegion(file.getFileName().toString());
+                if (region == null)
+                    continue;
+
+                RegionFile regionFile = getRegion(region[0], region[1], region[2]);
+                for (int x = 0; x < REGION_SIZE; x++) {
+                    for (int y = 0; y < REGION_SIZE; y++) {
+                        for (int z = 0; z < REGION_SIZE; z++) {
+                            int cx = region[0] * REGION_SIZE + x, cy = region[1] * REGION_SIZE + y, cz = region[2] * REGION_SIZE + z;
+                            count += loadChunk(world, regionFile, RegionFile.getSlot(x, y, z), cx, cy, cz);
+                        }
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private int loadChunk(World world, RegionFile region, int slot, int cx, int cy, int cz) {
+        ByteBuffer data;
+        try {
+            data = region.read(slot);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to read chunk %s, %s, %s", cx, cy, cz, e);
+            return 0;
+        }
+        if (data == null)
+            return 0;
+
+        long chunk = pack(cx, cy, cz);
+        int[] count = {0};
+        ChunkSerializer.read(data, cx, cy, cz, terrain -> {
+            world.addTerrain(terrain);
+            savedChunks.put(terrain, chunk);
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    // -- saving -- //
+
+    public void terrainChanged(Terrain terrain) {
+        if (!ChunkSerializer.canSave(terrain))
+            return;
+
+        //the chunk it was saved in too, in case it moved out of it
+        dirty.add(getChunk(terrain.getTransform().getPos()));
+        Long saved = savedChunks.get(terrain);
+        if (saved != null)
+            dirty.add(saved);
+    }
+
+    public void terrainRemoved(Terrain terrain) {
+        Long saved = savedChunks.remove(terrain);
+        if (saved != null)
+            dirty.add(saved);
+    }
+
+    public void tick(World world) {
+        if (++ticks % AUTOSAVE_INTERVAL == 0 && !dirty.isEmpty())
+            saveDirty(world);
+    }
+
+    /**
+     * Marks every chunk with terrain as dirty, and saves them
+     */
+    public CompletableFuture<Void> saveAll(World world) {
+        AABB all = new AABB(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+        world.getTerrains(all, this::terrainChanged);
+        return saveDirty(world);
+    }
+
+    /**
+     * Encodes the dirty chunks, then writes them on the background thread
+     * @return a future completed once everything queued so far is written
+     */
+    public CompletableFuture<Void> saveDirty(World world) {
+        List<Terrain> terrain = new ArrayList<>();
+        AABB bounds = new AABB();
+
+        for (long chunk : dirty) {
+            int cx = unpackX(chunk), cy = unpackY(chunk), cz = unpackZ(chunk);
+            float x = cx * CHUNK_SIZE, y = cy * CHUNK_SIZE, z = cz * CHUNK_SIZE;
+
+            //terrain positioned in this chunk, the bounds are inflated since models may not contain their position
+            terrain.clear();
+            bounds.set(x, y, z, x + CHUNK_SIZE, y + CHUNK_SIZE, z + CHUNK_SIZE).inflate(1f);
+            world.getTerrains(bounds, t -> {
+                if (ChunkSerializer.canSave(t) && getChunk(t.getTransform().getPos()) == chunk)
+                    terrain.add(t);
+            });
+
+            for (Terrain t : terrain)
+                savedChunks.put(t, chunk);
+            ByteBuffer data = ChunkSerializer.write(cx, cy, cz, terrain);
+
+            lastWrite = lastWrite.thenRunAsync(() -> writeChunk(cx, cy, cz, data), writer);
+        }
+
+        //synced once per batch, the replaced chunks stay on disk until then
+        if (!dirty.isEmpty())
+            lastWrite = lastWrite.thenRunAsync(this::flushRegions, writer);
+        dirty.clear();
+
+        return lastWrite;
+    }
+
+    private void writeChunk(int cx, int cy, int cz, ByteBuffer data) {
+        try {
+            RegionFile region = getRegion(Math.floorDiv(cx, REGION_SIZE), Math.floorDiv(cy, REGION_SIZE), Math.floorDiv(cz, REGION_SIZE));
+            int slot = RegionFile.getSlot(Math.floorMod(cx, REGION_SIZE), Math.floorMod(cy, REGION_SIZE), Math.floorMod(cz, REGION_SIZE));
+            if (data == null)
+                region.delete(slot);
+            else
+                region.write(slot, data, compression);
+        } catch (Exception e) {
+            LOGGER.error("Failed to save chunk %s, %s, %s", cx, cy, cz, e);
+        }
+    }
+
+    private void flushRegions() {
+        synchronized (regions) {
+            for (RegionFile region : regions.values()) {
+                try {
+                    region.flush();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Failed to sync region file", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves the dirty chunks, waits for every write, then closes the region files
+     */
+    public void close(World world) {
+        saveDirty(world).join();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (regions) {
+            for (RegionFile region : regions.values()) {
+                try {
+                    region.close();
+                } catch (IOException e) {
+                    LOGGER.error("Failed to close region file", e);
+                }
+            }
+            regions.clear();
+        }
+        savedChunks.clear();
+    }
+
+    private RegionFile getRegion(int x, int y, int z) throws IOException {
+        synchronized (regions) {
+            long key = pack(x, y, z);
+            RegionFile region = regions.get(key);
+            if (region == null) {
+                Files.createDirectories(folder);
+                region = new RegionFile(folder.resolve(x + "." + y + "." + z + EXTENSION));
+                regions.put(key, region);
+            }
+            return region;
+        }
+    }
+
+    private static int[] parseRegion(String name) {
+        String[] parts = name.substring(0, name.length() - EXTENSION.length()).split("\\.");
+        if (parts.length != 3)
+            return null;
+        try {
+            return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long getChunk(Vector3f pos) {
+        return pack(Math.floorDiv((int) Math.floor(pos.x), CHUNK_SIZE), Math.floorDiv((int) Math.floor(pos.y), CHUNK_SIZE), Math.floorDiv((int) Math.floor(pos.z), CHUNK_SIZE));
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((x & COORD_MASK) << (COORD_BITS * 2)) | ((y & COORD_MASK) << COORD_BITS) | (z & COORD_MASK);
+    }
+
+    private static int unpackX(long key) {
+        return (int) (key << (64 - COORD_BITS * 3) >> (64 - COORD_BITS));
+    }
+
+    private static int unpackY(long key) {
+        return (int) (key << (64 - COORD_BITS * 2) >> (64 - COORD_BITS));
+    }
+
+    private static int unpackZ(long key) {
+        return (int) (key << (64 - COORD_BITS) >> (64 - COORD_BITS));
+    }
+}
@@ -3,8 +3,8 @@
 
 layout (location = 0) in vec3 aPosition;
 
-uniform mat4 projection;
-uniform mat4 view;
+#include shaders/libs/camera.glsl
+
 uniform mat4 model;
 
 void main() {
@@ -21,8 +21,8 @@ layout (location = 2) out vec4 gEmissive;
 uniform sampler2D gDepth;
 uniform sampler2D textureSampler;
 
-uniform mat4 invView;
-uniform mat4 invProjection;
+#include shaders/libs/camera.glsl
+
 uniform mat4 invModel;
 
 uniform vec4 color = vec4(1.0f);
@@ -19,9 +19,7 @@ uniform sampler2D gDepth;
 uniform sampler2D lightTex;
 uniform float lightFactor = 1.0f;
 
-uniform vec3 camPos;
-uniform mat4 invView;
-uniform mat4 invProjection;
+#include shaders/libs/camera.glsl
 
 //IBL
 const int MAX_REFLECTION_LOD = 8;
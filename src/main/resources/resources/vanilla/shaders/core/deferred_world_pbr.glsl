@@ -24,11 +24,7 @@ uniform float lightFactor = 1.0f;
 uniform float ssaoFactor = 1.0f;
 uniform float ssrFactor = 1.0f;
 
-uniform vec3 camPos;
-uniform mat4 invView;
-uniform mat4 invProjection;
-
-uniform vec3 ambientLight;
+#include shaders/libs/camera.glsl
 
 //IBL
 const int MAX_REFLECTION_LOD = 8;
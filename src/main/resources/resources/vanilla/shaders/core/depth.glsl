@@ -3,14 +3,16 @@
 
 layout (location = 0) in vec3 aPosition;
 layout (location = 1) in vec2 aTexCoords;
+layout (location = 4) in mat4 aInstanceModel;
 
 out vec2 texCoords;
 
 uniform mat4 lightSpaceMatrix;
 uniform mat4 model;
+uniform bool instanced;
 
 void main() {
-    gl_Position = lightSpaceMatrix * model * vec4(aPosition, 1.0f);
+    gl_Position = lightSpaceMatrix * (instanced ? aInstanceModel : model) * vec4(aPosition, 1.0f);
     texCoords = aTexCoords;
 }
 
@@ -3,13 +3,15 @@
 
 layout (location = 0) in vec3 aPosition;
 layout (location = 1) in vec2 aTexCoords;
+layout (location = 4) in mat4 aInstanceModel;
 
 out vec2 texCoords;
 
 uniform mat4 model;
+uniform bool instanced;
 
 void main() {
-    gl_Position = model * vec4(aPosition, 1.0f);
+    gl_Position = (instanced ? aInstanceModel : model) * vec4(aPosition, 1.0f);
     texCoords = aTexCoords;
 }
 
@@ -23,8 +25,13 @@ in vec2 texCoords[];
 out vec2 g_texCoords;
 
 uniform mat4 cascadeMatrices[16];
+uniform int layerMask;
 
 void main() {
+    //skip the cascades the caster is not in
+    if ((layerMask & (1 << gl_InvocationID)) == 0)
+        return;
+
     for (int i = 0; i < 3; i++) {
         gl_Position = cascadeMatrices[gl_InvocationID] * gl_in[i].gl_Position;
         g_texCoords = texCoords[i];
@@ -5,6 +5,8 @@ layout (location = 0) in vec3 aPosition;
 layout (location = 1) in vec2 aTexCoords;
 layout (location = 2) in vec3 aNormal;
 layout (location = 3) in vec3 aTangent;
+layout (location = 4) in mat4 aInstanceModel;
+layout (location = 8) in mat3 aInstanceNormal;
 
 out vec2 texCoords;
 out vec3 pos;
@@ -14,15 +16,19 @@ uniform mat4 projection;
 uniform mat4 view;
 uniform mat4 model;
 uniform mat3 normalMat;
+uniform bool instanced;
 
 void main() {
-    vec4 worldPos = model * vec4(aPosition, 1.0f);
+    mat4 modelMat = instanced ? aInstanceModel : model;
+    mat3 normalMatrix = instanced ? aInstanceNormal : normalMat;
+
+    vec4 worldPos = modelMat * vec4(aPosition, 1.0f);
     gl_Position = projection * view * worldPos;
     pos = worldPos.xyz;
     texCoords = aTexCoords;
 
-    vec3 T = normalize(normalMat * aTangent);
-    vec3 N = normalize(normalMat * aNormal);
+    vec3 T = normalize(normalMatrix * aTangent);
+    vec3 N = normalize(normalMatrix * aNormal);
     T = normalize(T - dot(T, N) * N);
     TBN = mat3(T, cross(N, T), N);
 }
@@ -0,0 +1,175 @@
+#type vertex
+#version 430 core
+
+layout (location = 0) in vec2 aPosition;
+layout (location = 1) in vec2 aTexCoords;
+
+out vec2 texCoords;
+
+void main() {
+    gl_Position = vec4(aPosition, 0.0f, 1.0f);
+    texCoords = aTexCoords;
+}
+
+#type fragment
+#version 430 core
+
+struct Light {
+    vec4 posIntensity;     //xyz = pos, w = intensity
+    vec4 colorType;        //rgb = color, w = type (0 = point, 1 = spot)
+    vec4 dirFalloffStart;  //xyz = direction, w = falloff start
+    vec4 falloffEndAngles; //x = falloff end, y = inner angle, z = outer angle
+};
+
+//offset and count in the light indices, per cluster
+layout (std430, binding = 1) readonly buffer ClusterGrid {
+    uvec2 clusters[];
+};
+
+layout (std430, binding = 2) readonly buffer ClusterLights {
+    Light lights[];
+};
+
+layout (std430, binding = 3) readonly buffer ClusterIndices {
+    uint lightIndices[];
+};
+
+in vec2 texCoords;
+
+out vec4 fragColor;
+
+const float PI = 3.14159265359f;
+
+//gBuffer inputs
+uniform sampler2D gAlbedo;
+uniform sampler2D gORM;
+uniform sampler2D gNormal;
+uniform sampler2D gDepth;
+
+//camera inputs
+#include shaders/libs/camera.glsl
+
+//cluster grid, must match LightClusters
+const ivec3 clusterSize = ivec3(16, 9, 24);
+uniform float clusterNear;
+uniform float clusterFar;
+
+vec3 getPosFromDepth(vec2 texCoords, float depth) {
+    //normalized device coordinates
+    vec2 ndc = texCoords * 2.0f - 1.0f;
+
+    //clip space
+    vec4 clip = vec4(ndc, depth * 2.0f - 1.0f, 1.0f);
+
+    //view space
+    vec4 view = invProjection * clip;
+    view /= view.w;
+
+    //world space
+    vec4 world = invView * view;
+    return world.xyz;
+}
+
+//Trowbridge-Reitz GGX
+//D (NDF Normal Distribution Function)
+float distributionGGX(vec3 N, vec3 H, float roughness) {
+    float a = roughness * roughness;
+    float a2 = a * a;
+
+    float NdotH = max(dot(N, H), 0.0f);
+    float NdotH2 = NdotH * NdotH;
+    float denom = (NdotH2 * (a2 - 1.0f) + 1.0f);
+
+    return a2 / (PI * (denom * denom));
+}
+
+float geometrySchlickGGX(float angle, float roughness) {
+    float r = (roughness + 1.0f);
+    float k = (r * r) / 8.0f;
+    return angle / (angle * (1.0f - k) + k);
+}
+
+//G (Geometry function)
+float geometrySmith(float NdotV, float NdotL, float roughness) {
+    float ggx2 = geometrySchlickGGX(NdotV, roughness);
+    float ggx1 = geometrySchlickGGX(NdotL, roughness);
+    return ggx1 * ggx2;
+}
+
+//F (Fresnel equation)
+vec3 fresnelSchlick(float cosTheta, vec3 F0) {
+    return F0 + (1.0f - F0) * pow(clamp(1.0f - cosTheta, 0.0f, 1.0f), 5.0f);
+}
+
+void main() {
+    //skip the background
+    float depth = texture(gDepth, texCoords).r;
+    if (depth >= 1.0f)
+        discard;
+
+    vec3 pos = getPosFromDepth(texCoords, depth);
+
+    //find the cluster of this fragment
+    float viewDepth = -(view * vec4(pos, 1.0f)).z;
+    int slice = int(log(viewDepth / clusterNear) * float(clusterSize.z) / log(clusterFar / clusterNear));
+    slice = clamp(slice, 0, clusterSize.z - 1);
+    ivec2 tile = clamp(ivec2(texCoords * vec2(clusterSize.xy)), ivec2(0), clusterSize.xy - 1);
+
+    uvec2 cluster = clusters[(slice * clusterSize.y + tile.y) * clusterSize.x + tile.x];
+    if (cluster.y == 0u)
+        discard;
+
+    //surface properties, shared by all lights
+    vec3 N = texture(gNormal, texCoords).rgb;
+    vec3 albedo = texture(gAlbedo, texCoords).rgb;
+    vec4 gORM = texture(gORM, texCoords);
+    float roughness = gORM.g;
+    float metallic  = gORM.b;
+
+    vec3 V = normalize(camPos - pos);
+    float NdotV = max(dot(N, V), 0.0f);
+    vec3 F0 = mix(vec3(0.04f), albedo, metallic);
+
+    vec3 Lo = vec3(0.0f);
+    for (uint i = 0u; i < cluster.y; i++) {
+        Light light = lights[lightIndices[cluster.x + i]];
+
+        //L = light direction
+        vec3 L = light.posIntensity.xyz - pos;
+        float distance = length(L);
+        float falloffEnd = light.falloffEndAngles.x;
+        if (distance >= falloffEnd)
+            continue;
+        L /= distance;
+
+        //calculate distance-based attenuation
+        float attenuation = smoothstep(falloffEnd, light.dirFalloffStart.w, distance);
+
+        //spotlight
+        if (int(light.colorType.w) == 1) {
+            float theta = dot(-L, light.dirFalloffStart.xyz);
+            attenuation *= smoothstep(light.falloffEndAngles.z, light.falloffEndAngles.y, theta);
+        }
+
+        float NdotL = max(dot(N, L), 0.0f);
+        if (attenuation < 0.001f || NdotL <= 0.0f)
+            continue;
+
+        vec3 radiance = light.colorType.rgb * light.posIntensity.w * attenuation;
+
+        //cook torrance BRDF
+        vec3 H = normalize(V + L);
+        float D = distributionGGX(N, H, roughness);
+        float G = geometrySmith(NdotV, NdotL, roughness);
+        vec3 F = fresnelSchlick(max(dot(H, V), 0.0f), F0);
+
+        //calculate specular and diffuse
+        vec3 kS = F;
+        vec3 kD = (vec3(1.0f) - kS) * (1.0f - metallic);
+        vec3 specular = (D * F * G) / (4.0f * NdotV * NdotL + 0.0001f);
+
+        Lo += (kD * albedo / PI + specular) * radiance * NdotL;
+    }
+
+    fragColor = vec4(Lo, 1.0f);
+}
@@ -3,15 +3,17 @@
 
 layout (location = 0) in vec3 aPosition;
 layout (location = 1) in vec2 aTexCoords;
+layout (location = 4) in mat4 aInstanceModel;
 
 out vec3 worldPos;
 out vec2 texCoords;
 
 uniform mat4 lightSpaceMatrix;
 uniform mat4 model;
+uniform bool instanced;
 
 void main() {
-    vec4 pos = model * vec4(aPosition, 1.0f);
+    vec4 pos = (instanced ? aInstanceModel : model) * vec4(aPosition, 1.0f);
     gl_Position = lightSpaceMatrix * pos;
     worldPos = pos.xyz;
     texCoords = aTexCoords;
@@ -13,9 +13,7 @@ uniform sampler2D gDepth;
 uniform sampler2D texKernel;
 uniform sampler2D texNoise;
 
-uniform mat4 view;
-uniform mat4 projection;
-uniform mat4 invProjection;
+#include shaders/libs/camera.glsl
 
 uniform float nearPlane;
 uniform float farPlane;
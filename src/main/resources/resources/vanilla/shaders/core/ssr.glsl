@@ -15,10 +15,7 @@ uniform sampler2D gORM;
 uniform sampler2D gDepth;
 
 //camera
-uniform mat4 view;
-uniform mat4 projection;
-uniform mat4 invView;
-uniform mat4 invProjection;
+#include shaders/libs/camera.glsl
 
 uniform float nearPlane;
 uniform float farPlane;
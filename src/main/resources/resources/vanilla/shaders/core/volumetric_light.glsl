@@ -7,8 +7,8 @@ layout (location = 2) in vec2 aTexCoords;
 
 out vec3 worldPos;
 
-uniform mat4 projection;
-uniform mat4 view;
+#include shaders/libs/camera.glsl
+
 uniform mat4 model;
 
 void main() {
@@ -25,9 +25,8 @@ in vec3 worldPos;
 out vec4 fragColor;
 
 uniform sampler2D gDepth;
-uniform mat4 invView;
-uniform mat4 invProjection;
-uniform vec3 camPos;
+#include shaders/libs/camera.glsl
+
 uniform vec2 screenSize;
 
 uniform int lightType;
@@ -0,0 +1,8 @@
+//shared by every shader, see cinnamon.render.shader.UniformBlock
+layout (std140) uniform CameraData {
+    mat4 projection;
+    mat4 view;
+    mat4 invProjection;
+    mat4 invView;
+    vec3 camPos;
+};
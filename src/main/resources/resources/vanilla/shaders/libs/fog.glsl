@@ -1,7 +1,11 @@
 
-uniform vec3 fogColor;
-uniform float fogStart;
-uniform float fogEnd;
+//shared by every shader, see cinnamon.render.shader.UniformBlock
+layout (std140) uniform SkyData {
+    vec3 fogColor;
+    float fogStart;
+    vec3 ambientLight;
+    float fogEnd;
+};
 
 vec4 calculateFog(vec3 pos, vec3 camPos, vec4 color) {
     float fogDistance = length(pos - camPos);